@@ -25,7 +25,9 @@ import org.apache.ignite.cache.CacheAtomicityMode;
 import org.apache.ignite.cache.CacheMode;
 import org.apache.ignite.ci.issue.Issue;
 import org.apache.ignite.ci.issue.IssueKey;
+import org.apache.ignite.tcbot.engine.defect.DefectsStorage;
 import org.apache.ignite.tcbot.engine.issue.IssuesStorage;
+import org.apache.ignite.tcignited.history.SuiteInvocationHistoryDao;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.jetbrains.annotations.NotNull;
@@ -232,6 +234,18 @@ public class DbMigrations {
         applyDestroyCacheMigration(Old.TEST_HIST_CACHE_NAME_V2_0);
         applyDestroyCacheMigration(Old.SUITE_HIST_CACHE_NAME_V2_0);
 
+        applyMigration(SuiteInvocationHistoryDao.SUITE_HIST_CACHE_NAME + "-columnarTests", () -> {
+            int cnt = SuiteInvocationHistoryDao.migrateToColumnar(ignite, 300);
+
+            logger.info("Suite invocations converted to columnar tests format: " + cnt);
+        });
+
+        applyMigration(DefectsStorage.BOT_DETECTED_DEFECTS + "-slimFirstBuilds", () -> {
+            int cnt = DefectsStorage.migrateFirstBuilds(ignite, 100);
+
+            logger.info("Defects converted to first builds without full build data: " + cnt);
+        });
+
         int sizeAfter = doneMigrations.size();
         return (sizeAfter - sizeBefore) + " Migrations done from " + sizeAfter;
 
@@ -571,6 +571,7 @@ public class IssueDetector {
 
         ITcBotUserCreds creds = Preconditions.checkNotNull(backgroundOpsCreds, "Server should be authorized");
 
+        // Chains are awaited without deadline: issues should be detected using complete results.
         tbProc.getTrackedBranchTestFailures(
             brachName,
             false,
@@ -582,7 +583,7 @@ public class IssueDetector {
             null,
             DisplayMode.None,
             null,
-            -1, false, false);
+            -1, false, false, 0);
 
         DsSummaryUi failures =
             tbProc.getTrackedBranchTestFailures(brachName,
@@ -595,7 +596,7 @@ public class IssueDetector {
                 null,
                 DisplayMode.OnlyFailures,
                 null,
-                -1, false, false);
+                -1, false, false, 0);
 
         String issRes = registerIssuesAndNotifyLater(failures, backgroundOpsCreds);
 
@@ -35,6 +35,8 @@ public class TcApplicationResCfg extends ResourceConfig {
         //Register Auth Filter here
         register(AuthenticationFilter.class);
 
+        register(UpdatePoolScopeFilter.class);
+
         register(ServiceUnauthorizedException.class);
         register(ServiceStartingExceptionMapper.class);
 
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web;
+
+import javax.servlet.ServletContext;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import org.apache.ignite.tcbot.engine.pool.TcUpdatePool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens {@link TcUpdatePool} request scope for each REST request, so subtasks of UI requests are executed in the
+ * interactive lane. If request failed, its subtasks not started yet are cancelled.
+ */
+@Provider
+public class UpdatePoolScopeFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(UpdatePoolScopeFilter.class);
+
+    /** Request property for scope. */
+    private static final String SCOPE_PROPERTY = UpdatePoolScopeFilter.class.getName() + ".scope";
+
+    @Context
+    private ServletContext ctx;
+
+    /** {@inheritDoc} */
+    @Override public void filter(ContainerRequestContext reqCtx) {
+        TcUpdatePool pool = CtxListener.getInjector(ctx).getInstance(TcUpdatePool.class);
+
+        reqCtx.setProperty(SCOPE_PROPERTY, pool.openScope());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void filter(ContainerRequestContext reqCtx, ContainerResponseContext resCtx) {
+        Object scopeObj = reqCtx.getProperty(SCOPE_PROPERTY);
+
+        if (!(scopeObj instanceof TcUpdatePool.RequestScope))
+            return;
+
+        TcUpdatePool.RequestScope scope = (TcUpdatePool.RequestScope)scopeObj;
+
+        boolean abandoned = Thread.currentThread().isInterrupted()
+            || resCtx.getStatusInfo().getFamily() == Response.Status.Family.SERVER_ERROR;
+
+        if (abandoned) {
+            int cnt = scope.cancel();
+
+            if (cnt > 0 && reqCtx.getUriInfo() != null)
+                logger.info("Cancelled " + cnt + " pending tasks of failed request " + reqCtx.getUriInfo().getPath());
+        }
+
+        scope.close();
+    }
+}
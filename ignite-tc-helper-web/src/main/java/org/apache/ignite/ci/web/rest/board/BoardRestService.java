@@ -17,11 +17,13 @@
 package org.apache.ignite.ci.web.rest.board;
 
 import com.google.inject.Injector;
+import javax.annotation.Nullable;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import org.apache.ignite.ci.user.ITcBotUserCreds;
@@ -42,14 +44,19 @@ public class BoardRestService {
     @Context
     private HttpServletRequest req;
 
+    /**
+     * @param sinceEpoch Epoch of board version known to client.
+     * @param sinceVer Board version known to client, only defects changed after this version are returned.
+     */
     @GET
     @Path("summary")
-    public BoardSummaryUi getSummary() {
+    public BoardSummaryUi getSummary(@Nullable @QueryParam("epoch") Long sinceEpoch,
+        @Nullable @QueryParam("sinceVersion") Long sinceVer) {
 
         final ITcBotUserCreds creds = ITcBotUserCreds.get(req);
         final Injector injector = CtxListener.getInjector(ctx);
         final BoardService boardSvc = injector.getInstance(BoardService.class);
 
-        return boardSvc.summary(creds);
+        return boardSvc.summary(creds, sinceEpoch == null ? 0 : sinceEpoch, sinceVer == null ? 0 : sinceVer);
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import org.apache.ignite.tcbot.common.util.TimeUtil;
+import org.apache.ignite.tcignited.buildref.BuildRefSyncStats;
+
+@SuppressWarnings("WeakerAccess")
+public class BuildRefSyncUi {
+    public String srvId;
+    public String mode;
+    public int maxBuildId;
+    public String lag;
+    public String duration;
+    public int checked;
+    public int saved;
+    public String refsPerSec;
+
+    public BuildRefSyncUi(BuildRefSyncStats stats) {
+        srvId = stats.srvId();
+        mode = stats.mode().name();
+        maxBuildId = stats.maxBuildId();
+        lag = TimeUtil.millisToDurationPrintable(stats.lagMs());
+        duration = TimeUtil.millisToDurationPrintable(stats.durationMs());
+        checked = stats.checked();
+        saved = stats.saved();
+        refsPerSec = String.format("%.1f", stats.refsPerSec());
+    }
+}
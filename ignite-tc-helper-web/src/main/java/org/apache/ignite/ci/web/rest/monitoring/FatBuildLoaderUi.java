@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import org.apache.ignite.tcignited.build.FatBuildLoaderMetrics;
+
+@SuppressWarnings("WeakerAccess")
+public class FatBuildLoaderUi {
+    public String srvId;
+    public int queued;
+    public int loading;
+    public long loaded;
+    public String buildsPerSec;
+    public long duplicatesSuppressed;
+    public long errors;
+
+    public FatBuildLoaderUi(FatBuildLoaderMetrics metrics) {
+        srvId = metrics.srvId();
+        queued = metrics.queued();
+        loading = metrics.loading();
+        loaded = metrics.loaded();
+        buildsPerSec = String.format("%.1f", metrics.buildsPerSec());
+        duplicatesSuppressed = metrics.duplicatesSuppressed();
+        errors = metrics.errors();
+    }
+}
@@ -16,6 +16,11 @@
  */
 package org.apache.ignite.ci.web.rest.monitoring;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.tcbot.common.interceptor.AutoProfilingInterceptor;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
 import org.apache.ignite.tcbot.common.util.TimeUtil;
 
 @SuppressWarnings("WeakerAccess")
@@ -24,6 +29,19 @@ public class HotSpot {
     public String duration;
     public int count;
     public String avgDuration;
+    /** Items returned by batch method per second of method execution, null for non-batch methods. */
+    public String itemsPerSec;
+    public String p50;
+    public String p95;
+    public String p99;
+    public String max;
+    /** Count of calls within recent window. */
+    public long recentCount;
+    public String recentP50;
+    public String recentP95;
+    public String recentP99;
+    /** Slowest calls: duration, thread and arguments. */
+    public List<String> slowest = new ArrayList<>();
 
     private transient long ns;
 
@@ -38,6 +56,7 @@ public class HotSpot {
                 ", count='" + count + "'" +
                 ", duration='" + duration + "'" +
                 ", avg='" + avgDuration + "'" +
+                ", itemsPerSec='" + itemsPerSec + "'" +
                 '}';
     }
 
@@ -47,4 +66,38 @@ public class HotSpot {
         duration = TimeUtil.nanosToDurationPrintable(ns);
         avgDuration = TimeUtil.nanosToDurationPrintable(ns / count);
     }
+
+    public void setItems(long items) {
+        if (items <= 0 || ns <= 0)
+            return;
+
+        itemsPerSec = String.valueOf(items * TimeUnit.SECONDS.toNanos(1) / ns);
+    }
+
+    /**
+     * @param hist Durations since reset.
+     * @param recent Recent durations.
+     */
+    public void setPercentiles(LatencyHistogram hist, LatencyHistogram recent) {
+        p50 = TimeUtil.nanosToDurationPrintable(hist.percentileNanos(50));
+        p95 = TimeUtil.nanosToDurationPrintable(hist.percentileNanos(95));
+        p99 = TimeUtil.nanosToDurationPrintable(hist.percentileNanos(99));
+        max = TimeUtil.nanosToDurationPrintable(hist.maxNanos());
+
+        recentCount = recent.count();
+        recentP50 = TimeUtil.nanosToDurationPrintable(recent.percentileNanos(50));
+        recentP95 = TimeUtil.nanosToDurationPrintable(recent.percentileNanos(95));
+        recentP99 = TimeUtil.nanosToDurationPrintable(recent.percentileNanos(99));
+    }
+
+    /**
+     * @param calls Slowest calls.
+     */
+    public void setSlowest(List<AutoProfilingInterceptor.SlowCall> calls) {
+        for (AutoProfilingInterceptor.SlowCall call : calls) {
+            slowest.add(TimeUtil.nanosToDurationPrintable(call.getNanos())
+                + " at " + TimeUtil.timestampToDateTimePrintable(call.getTs())
+                + " [" + call.getThread() + "] (" + call.getArgs() + ")");
+        }
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.apache.ignite.tcbot.common.util.TimeUtil;
+
+@SuppressWarnings("WeakerAccess")
+public class HttpLatencyUi {
+    public String endpoint;
+    public long count;
+    public String avg;
+    public String p50;
+    public String p90;
+    public String p99;
+    public String max;
+
+    private transient long ns;
+
+    public HttpLatencyUi(String endpoint, LatencyHistogram hist) {
+        this.endpoint = endpoint;
+        count = hist.count();
+        ns = hist.totalNanos();
+        avg = TimeUtil.nanosToDurationPrintable(count > 0 ? ns / count : 0);
+        p50 = TimeUtil.nanosToDurationPrintable(hist.percentileNanos(50));
+        p90 = TimeUtil.nanosToDurationPrintable(hist.percentileNanos(90));
+        p99 = TimeUtil.nanosToDurationPrintable(hist.percentileNanos(99));
+        max = TimeUtil.nanosToDurationPrintable(hist.maxNanos());
+    }
+
+    public long getNanos() {
+        return ns;
+    }
+}
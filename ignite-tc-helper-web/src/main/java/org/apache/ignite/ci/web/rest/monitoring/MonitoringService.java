@@ -23,7 +23,12 @@ import org.apache.ignite.cache.CacheMetrics;
 import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfilingInterceptor;
 import org.apache.ignite.tcbot.common.interceptor.MonitoredTaskInterceptor;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
 import org.apache.ignite.ci.web.CtxListener;
+import org.apache.ignite.tcbot.engine.pool.TcUpdatePool;
+import org.apache.ignite.tcignited.build.ProactiveFatBuildSync;
+import org.apache.ignite.tcignited.buildref.BuildRefSync;
+import org.apache.ignite.tcservice.http.TeamcityHttpLatencies;
 
 import javax.annotation.security.PermitAll;
 import javax.servlet.ServletContext;
@@ -33,6 +38,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.ignite.ci.web.model.SimpleResult;
@@ -76,6 +83,9 @@ public class MonitoringService {
             HotSpot hotSpot = new HotSpot();
 
             hotSpot.setTiming(inv.getNanos(), inv.getCount());
+            hotSpot.setItems(inv.getItems());
+            hotSpot.setPercentiles(inv.histogram(), inv.recentHistogram());
+            hotSpot.setSlowest(inv.slowest());
             hotSpot.method = inv.getName();
 
             return hotSpot;
@@ -86,6 +96,71 @@ public class MonitoringService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Exports profiling data in Prometheus text format, so it can be scraped or saved to a file and compared.
+     */
+    @GET
+    @PermitAll
+    @Path("profiling/metrics")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String getProfilingMetrics() {
+        AutoProfilingInterceptor instance = CtxListener.getInjector(ctx).getInstance(AutoProfilingInterceptor.class);
+
+        List<AutoProfilingInterceptor.Invocation> profile = instance.getInvocations().stream()
+            .sorted(Comparator.comparing(AutoProfilingInterceptor.Invocation::getName))
+            .collect(Collectors.toList());
+
+        StringBuilder sb = new StringBuilder();
+
+        appendSummary(sb, "tcbot_method_duration_seconds", "Duration of profiled methods since reset.",
+            profile, AutoProfilingInterceptor.Invocation::histogram);
+
+        long windowMins = TimeUnit.MILLISECONDS.toMinutes(AutoProfilingInterceptor.RECENT_WINDOW);
+
+        appendSummary(sb, "tcbot_method_recent_duration_seconds",
+            "Duration of profiled methods for last " + windowMins + " minutes.",
+            profile, AutoProfilingInterceptor.Invocation::recentHistogram);
+
+        return sb.toString();
+    }
+
+    /**
+     * @param sb Output.
+     * @param metric Metric name.
+     * @param help Metric description.
+     * @param profile Profiled methods.
+     * @param histFunc Histogram of method to export.
+     */
+    private static void appendSummary(StringBuilder sb, String metric, String help,
+        List<AutoProfilingInterceptor.Invocation> profile,
+        Function<AutoProfilingInterceptor.Invocation, LatencyHistogram> histFunc) {
+        sb.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(metric).append(" summary\n");
+
+        for (AutoProfilingInterceptor.Invocation inv : profile) {
+            LatencyHistogram hist = histFunc.apply(inv);
+            String mtd = "method=\"" + inv.getName() + "\"";
+
+            for (double q : new double[] {0.5, 0.95, 0.99, 1.0}) {
+                long nanos = q < 1.0 ? hist.percentileNanos(q * 100) : hist.maxNanos();
+
+                sb.append(metric).append('{').append(mtd).append(",quantile=\"").append(q).append("\"} ")
+                    .append(nanosToSeconds(nanos)).append('\n');
+            }
+
+            sb.append(metric).append("_sum{").append(mtd).append("} ")
+                .append(nanosToSeconds(hist.totalNanos())).append('\n');
+            sb.append(metric).append("_count{").append(mtd).append("} ").append(hist.count()).append('\n');
+        }
+    }
+
+    /**
+     * @param nanos Nanoseconds.
+     */
+    private static double nanosToSeconds(long nanos) {
+        return nanos / (double)TimeUnit.SECONDS.toNanos(1);
+    }
+
     @POST
     @Path("resetProfiling")
     public SimpleResult resetProfiling() {
@@ -93,9 +168,59 @@ public class MonitoringService {
 
         instance.reset();
 
+        CtxListener.getInjector(ctx).getInstance(TeamcityHttpLatencies.class).reset();
+
+        CtxListener.getInjector(ctx).getInstance(TcUpdatePool.class).resetMetrics();
+
         return new SimpleResult("Ok");
     }
 
+    @GET
+    @PermitAll
+    @Path("httpLatency")
+    public List<HttpLatencyUi> getHttpLatency() {
+        TeamcityHttpLatencies latencies = CtxListener.getInjector(ctx).getInstance(TeamcityHttpLatencies.class);
+
+        return latencies.histograms().entrySet().stream()
+            .map(e -> new HttpLatencyUi(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparing(HttpLatencyUi::getNanos).reversed())
+            .collect(Collectors.toList());
+    }
+
+    @GET
+    @PermitAll
+    @Path("updatePool")
+    public List<UpdatePoolLaneUi> getUpdatePool() {
+        TcUpdatePool pool = CtxListener.getInjector(ctx).getInstance(TcUpdatePool.class);
+
+        return pool.metrics().entrySet().stream()
+            .map(e -> new UpdatePoolLaneUi(e.getKey(), e.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    @GET
+    @PermitAll
+    @Path("buildRefSync")
+    public List<BuildRefSyncUi> getBuildRefSync() {
+        BuildRefSync sync = CtxListener.getInjector(ctx).getInstance(BuildRefSync.class);
+
+        return sync.stats().stream()
+            .map(BuildRefSyncUi::new)
+            .sorted(Comparator.comparing(ui -> ui.srvId))
+            .collect(Collectors.toList());
+    }
+
+    @GET
+    @PermitAll
+    @Path("fatBuildLoader")
+    public List<FatBuildLoaderUi> getFatBuildLoader() {
+        ProactiveFatBuildSync sync = CtxListener.getInjector(ctx).getInstance(ProactiveFatBuildSync.class);
+
+        return sync.metrics().stream()
+            .map(FatBuildLoaderUi::new)
+            .sorted(Comparator.comparing(ui -> ui.srvId))
+            .collect(Collectors.toList());
+    }
 
     @GET
     @PermitAll
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.web.rest.monitoring;
+
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.apache.ignite.tcbot.common.util.TimeUtil;
+import org.apache.ignite.tcbot.engine.pool.TcUpdatePool;
+
+@SuppressWarnings("WeakerAccess")
+public class UpdatePoolLaneUi {
+    public String lane;
+    public int queued;
+    public long executed;
+    public long callerRuns;
+    public long cancelled;
+    public String waitAvg;
+    public String waitP99;
+    public String execAvg;
+    public String execP99;
+    public String execMax;
+
+    public UpdatePoolLaneUi(TcUpdatePool.Lane lane, TcUpdatePool.LaneMetrics metrics) {
+        this.lane = lane.name();
+        queued = metrics.queued();
+        callerRuns = metrics.callerRuns();
+        cancelled = metrics.cancelled();
+
+        LatencyHistogram wait = metrics.waitTime();
+        LatencyHistogram exec = metrics.execTime();
+
+        executed = exec.count();
+        waitAvg = TimeUtil.nanosToDurationPrintable(wait.count() > 0 ? wait.totalNanos() / wait.count() : 0);
+        waitP99 = TimeUtil.nanosToDurationPrintable(wait.percentileNanos(99));
+        execAvg = TimeUtil.nanosToDurationPrintable(executed > 0 ? exec.totalNanos() / executed : 0);
+        execP99 = TimeUtil.nanosToDurationPrintable(exec.percentileNanos(99));
+        execMax = TimeUtil.nanosToDurationPrintable(exec.maxNanos());
+    }
+}
@@ -21,6 +21,8 @@ import com.google.inject.Injector;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.servlet.ServletContext;
@@ -29,8 +31,12 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import org.apache.ignite.ci.tcbot.visa.TcBotTriggerAndSignOffService;
 import org.apache.ignite.ci.user.ITcBotUserCreds;
 import org.apache.ignite.ci.web.CtxListener;
@@ -40,6 +46,8 @@ import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
 import org.apache.ignite.tcbot.engine.tracked.DisplayMode;
 import org.apache.ignite.tcbot.engine.tracked.IDetailedStatusForTrackedBranch;
 import org.apache.ignite.tcbot.engine.tracked.TrackedBranchChainsProcessor;
+import org.apache.ignite.tcbot.engine.tracked.TrackedBranchResultsCache;
+import org.apache.ignite.tcbot.engine.tracked.TrackedBranchResultsCache.CachedResult;
 import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
 import org.apache.ignite.tcbot.engine.ui.GuardBranchStatusUi;
 import org.apache.ignite.tcbot.engine.ui.UpdateInfo;
@@ -57,6 +65,9 @@ public class GetTrackedBranchTestResults {
     public static final String TRACKED = "tracked";
     public static final int DEFAULT_COUNT = 10;
 
+    /** Max time of waiting for update if client provided hash of shown data. */
+    public static final int MAX_WAIT_SEC = 30;
+
     /** Servlet Context. */
     @Context
     private ServletContext ctx;
@@ -65,9 +76,18 @@ public class GetTrackedBranchTestResults {
     @Context
     private HttpServletRequest req;
 
+    /** Current Request, used for evaluating preconditions. */
+    @Context
+    private Request jaxRsReq;
+
+    /**
+     * Returns update info for the results. If hash of data shown by client is provided, waits up to {@link
+     * #MAX_WAIT_SEC} until data is changed. Response is tagged with hash of data, so it may be revalidated using
+     * {@code If-None-Match}.
+     */
     @GET
     @Path("updates")
-    public UpdateInfo getTestFailsUpdates(@Nullable @QueryParam("branch") String branchOrNull,
+    public Response getTestFailsUpdates(@Nullable @QueryParam("branch") String branchOrNull,
         @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs,
         @Nullable @QueryParam("trustedTests") Boolean trustedTests,
         @Nullable @QueryParam("tagSelected") String tagSelected,
@@ -77,10 +97,13 @@ public class GetTrackedBranchTestResults {
         @Nullable @QueryParam("count") Integer mergeCnt,
         @Nullable @QueryParam("showTestLongerThan") Integer showTestLongerThan,
         @Nullable @QueryParam("muted") Boolean showMuted,
-        @Nullable @QueryParam("ignored") Boolean showIgnored) {
-        return new UpdateInfo().copyFrom(
-            getTestFailsResultsNoSync(branchOrNull, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
-                displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored));
+        @Nullable @QueryParam("ignored") Boolean showIgnored,
+        @Nullable @QueryParam("knownHash") String knownHash) {
+        CachedResult res = latestResultsNoSync(branchOrNull, checkAllLogs, trustedTests, tagSelected,
+            tagForHistSelected, displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored,
+            knownHash);
+
+        return taggedResponse(res, new UpdateInfo().copyFrom(res.result()));
     }
 
     @GET
@@ -97,13 +120,13 @@ public class GetTrackedBranchTestResults {
         @Nullable @QueryParam("showTestLongerThan") Integer showTestLongerThan,
         @Nullable @QueryParam("muted") Boolean showMuted,
         @Nullable @QueryParam("ignored") Boolean showIgnored) {
-        return getTestFailsResultsNoSync(branchOrNull, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
-            displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored).toString();
+        return latestResultsNoSync(branchOrNull, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
+            displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored, null).result().toString();
     }
 
     @GET
     @Path("resultsNoSync")
-    public DsSummaryUi getTestFailsResultsNoSync(
+    public Response getTestFailsResultsNoSync(
         @Nullable @QueryParam("branch") String branch,
         @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs,
         @Nullable @QueryParam("trustedTests") Boolean trustedTests,
@@ -115,8 +138,10 @@ public class GetTrackedBranchTestResults {
         @Nullable @QueryParam("showTestLongerThan") Integer showTestLongerThan,
         @Nullable @QueryParam("muted") Boolean showMuted,
         @Nullable @QueryParam("ignored") Boolean showIgnored) {
-        return latestBuildResults(branch, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
-            SyncMode.NONE, displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored);
+        CachedResult res = latestResultsNoSync(branch, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
+            displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored, null);
+
+        return taggedResponse(res, res.result());
     }
 
     @GET
@@ -134,27 +159,55 @@ public class GetTrackedBranchTestResults {
         @Nullable @QueryParam("showTestLongerThan") Integer showTestLongerThan,
         @Nullable @QueryParam("muted") Boolean showMuted,
         @Nullable @QueryParam("ignored") Boolean showIgnored) {
-        return latestBuildResults(branch, checkAllLogs, trustedTests, tagSelected, tagForHistSelected,
-            SyncMode.RELOAD_QUEUED, displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored);
+        return latestBuildResults(ITcBotUserCreds.get(req), CtxListener.getInjector(ctx), branch, checkAllLogs,
+            trustedTests, tagSelected, tagForHistSelected, SyncMode.RELOAD_QUEUED, displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored);
     }
 
-    @NotNull private DsSummaryUi latestBuildResults(
+    /**
+     * @param knownHash Hash of data shown by client, if provided, method waits for data change.
+     * @return Results from cache, data is not synchronized with TeamCity.
+     */
+    @NotNull private CachedResult latestResultsNoSync(
         @Nullable String branch,
         @Nullable Boolean checkAllLogs,
         @Nullable Boolean trustedTests,
         @Nullable String tagSelected,
         @Nullable String tagForHistSelected,
-        @Nonnull SyncMode mode,
         @Nullable String displayMode,
         @Nullable String sortOption,
         @Nullable Integer mergeCnt,
         @Nullable Integer showTestLongerThan,
         @Nullable Boolean showMuted,
-        @Nullable Boolean showIgnored) {
-        ITcBotUserCreds creds = ITcBotUserCreds.get(req);
+        @Nullable Boolean showIgnored,
+        @Nullable String knownHash) {
+        String paramsKey = "latest|" + checkAllLogs + "|" + trustedTests + "|" + tagSelected + "|"
+            + tagForHistSelected + "|" + displayMode + "|" + sortOption + "|" + mergeCnt + "|" + showTestLongerThan
+            + "|" + showMuted + "|" + showIgnored;
 
+        // Results may be loaded outside of request thread, so request context is not used by the loader.
+        ITcBotUserCreds creds = ITcBotUserCreds.get(req);
         Injector injector = CtxListener.getInjector(ctx);
 
+        return cachedResults(creds, injector, branch, paramsKey, knownHash,
+            () -> latestBuildResults(creds, injector, branch, checkAllLogs, trustedTests, tagSelected,
+                tagForHistSelected, SyncMode.NONE, displayMode, sortOption, mergeCnt, showTestLongerThan, showMuted, showIgnored));
+    }
+
+    @NotNull private DsSummaryUi latestBuildResults(
+        ITcBotUserCreds creds,
+        Injector injector,
+        @Nullable String branch,
+        @Nullable Boolean checkAllLogs,
+        @Nullable Boolean trustedTests,
+        @Nullable String tagSelected,
+        @Nullable String tagForHistSelected,
+        @Nonnull SyncMode mode,
+        @Nullable String displayMode,
+        @Nullable String sortOption,
+        @Nullable Integer mergeCnt,
+        @Nullable Integer showTestLongerThan,
+        @Nullable Boolean showMuted,
+        @Nullable Boolean showIgnored) {
         int actualMergeBuilds = (mergeCnt == null || mergeCnt < 1) ? 1 : mergeCnt;
 
         int maxDurationSec = (showTestLongerThan == null || showTestLongerThan < 1) ? 0 : showTestLongerThan;
@@ -175,20 +228,41 @@ public class GetTrackedBranchTestResults {
                 Boolean.TRUE.equals(showIgnored));
     }
 
+    /**
+     * Returns update info for the merged results, see {@link #getTestFailsUpdates}.
+     */
     @GET
     @Path("mergedUpdates")
-    public UpdateInfo getAllTestFailsUpdates(@Nullable @QueryParam("branch") String branch,
+    public Response getAllTestFailsUpdates(@Nullable @QueryParam("branch") String branch,
         @Nullable @QueryParam("count") Integer cnt,
-        @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs) {
-        return new UpdateInfo().copyFrom(getAllTestFailsNoSync(branch, cnt, checkAllLogs));
+        @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs,
+        @Nullable @QueryParam("knownHash") String knownHash) {
+        CachedResult res = mergedResultsNoSync(branch, cnt, checkAllLogs, knownHash);
+
+        return taggedResponse(res, new UpdateInfo().copyFrom(res.result()));
     }
 
     @GET
     @Path("mergedResultsNoSync")
-    public DsSummaryUi getAllTestFailsNoSync(@Nullable @QueryParam("branch") String branch,
-                                             @Nullable @QueryParam("count") Integer cnt,
-                                             @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs) {
-        return mergedBuildsResults(branch, cnt, checkAllLogs, SyncMode.NONE);
+    public Response getAllTestFailsNoSync(@Nullable @QueryParam("branch") String branch,
+                                          @Nullable @QueryParam("count") Integer cnt,
+                                          @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs) {
+        CachedResult res = mergedResultsNoSync(branch, cnt, checkAllLogs, null);
+
+        return taggedResponse(res, res.result());
+    }
+
+    /**
+     * @param knownHash Hash of data shown by client, if provided, method waits for data change.
+     * @return Results from cache, data is not synchronized with TeamCity.
+     */
+    @NotNull private CachedResult mergedResultsNoSync(@Nullable String branch, @Nullable Integer cnt,
+        @Nullable Boolean checkAllLogs, @Nullable String knownHash) {
+        ITcBotUserCreds creds = ITcBotUserCreds.get(req);
+        Injector injector = CtxListener.getInjector(ctx);
+
+        return cachedResults(creds, injector, branch, "merged|" + cnt + "|" + checkAllLogs, knownHash,
+            () -> mergedBuildsResults(creds, injector, branch, cnt, checkAllLogs, SyncMode.NONE));
     }
 
     @GET
@@ -197,17 +271,18 @@ public class GetTrackedBranchTestResults {
     public DsSummaryUi getAllTestFailsForMergedBuidls(@Nullable @QueryParam("branch") String branchOpt,
                                                       @QueryParam("count") Integer cnt,
                                                       @Nullable @QueryParam("checkAllLogs") Boolean checkAllLogs) {
-        return mergedBuildsResults(branchOpt, cnt, checkAllLogs, SyncMode.RELOAD_QUEUED);
+        return mergedBuildsResults(ITcBotUserCreds.get(req), CtxListener.getInjector(ctx), branchOpt, cnt,
+            checkAllLogs, SyncMode.RELOAD_QUEUED);
     }
 
     @NotNull private DsSummaryUi mergedBuildsResults(
+        ITcBotUserCreds creds,
+        Injector injector,
         @QueryParam("branch") @Nullable String branchOpt,
         @QueryParam("count") Integer cnt,
         @QueryParam("checkAllLogs") @Nullable Boolean checkAllLogs,
         SyncMode mode) {
-        ITcBotUserCreds creds = ITcBotUserCreds.get(req);
         int cntLimit = cnt == null ? DEFAULT_COUNT : cnt;
-        Injector injector = CtxListener.getInjector(ctx);
 
         return injector.getInstance(TrackedBranchChainsProcessor.class)
             .getTrackedBranchTestFailures(branchOpt, checkAllLogs, cntLimit, creds, mode,
@@ -215,6 +290,44 @@ public class GetTrackedBranchTestResults {
                 -1, false, false);
     }
 
+    /**
+     * @param creds Credentials.
+     * @param injector Injector.
+     * @param branch Tracked branch.
+     * @param paramsKey Parameters of request affecting result.
+     * @param knownHash Hash of data shown by client, if provided, method waits for data change.
+     * @param loader Loader of results.
+     */
+    @NotNull private CachedResult cachedResults(ITcBotUserCreds creds, Injector injector, @Nullable String branch,
+        String paramsKey, @Nullable String knownHash, Supplier<DsSummaryUi> loader) {
+        TrackedBranchResultsCache cache = injector.getInstance(TrackedBranchResultsCache.class);
+
+        if (F.isEmpty(knownHash))
+            return cache.get(branch, paramsKey, creds, loader);
+
+        return cache.awaitChange(branch, paramsKey, creds, loader, knownHash, TimeUnit.SECONDS.toMillis(MAX_WAIT_SEC));
+    }
+
+    /**
+     * @param res Cached result.
+     * @param entity Entity to be returned if client does not have data with the same hash.
+     * @return Response with entity tag, or Not Modified response.
+     */
+    private Response taggedResponse(CachedResult res, Object entity) {
+        EntityTag tag = new EntityTag(res.hash());
+
+        // Client should revalidate data each time.
+        CacheControl cacheCtrl = new CacheControl();
+        cacheCtrl.setNoCache(true);
+
+        Response.ResponseBuilder notModified = jaxRsReq.evaluatePreconditions(tag);
+
+        if (notModified != null)
+            return notModified.cacheControl(cacheCtrl).build();
+
+        return Response.ok(entity).tag(tag).cacheControl(cacheCtrl).build();
+    }
+
     /**
      * @param srvCode Server id.
      * @param projectId Project id.
@@ -103,6 +103,12 @@ function showChainCurrentStatusData(chain, settings) {
             "run. <br>There is no data on the TC server</span></td></tr>";
     }
 
+    if (isDefinedAndFilled(chain.stillLoading) && chain.stillLoading) {
+        return "<tr><td><b>Chain " + chain.chainName + " at [" + chain.serverCode + "] is still loading</b>" +
+            "<br><br><span style='color:grey; font-size:12px;'>Results are not ready after " + chain.loadTimeMs +
+            " ms, page will be updated when chain is loaded</span></td></tr>";
+    }
+
     var res = "";
 
     res += "<table style='width: 100%;' border='0px'>";
@@ -208,6 +214,9 @@ function showChainCurrentStatusData(chain, settings) {
     if(isDefinedAndFilled(chain.trustedTests))
         moreInfoTxt += " <span title='Tests which not filtered out because of flakyness'>Trusted tests: " + chain.trustedTests + "</span>";
 
+    if(isDefinedAndFilled(chain.loadTimeMs))
+        moreInfoTxt += " <span title='Time spent by bot for loading chain data'>Loaded in: " + chain.loadTimeMs + " ms</span>";
+
     moreInfoTxt += "<br>";
 
     if (isDefinedAndFilled(chain.topLongRunning) && chain.topLongRunning.length > 0) {
@@ -46,6 +46,9 @@ import org.apache.ignite.tcbot.notify.ISlackSender;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcignited.ITeamcityIgnitedProvider;
 import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcbot.persistence.scheduler.DirectExecNoWaitScheduler;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
+import org.apache.ignite.tcignited.buildref.BranchDataVersions;
 import org.apache.ignite.ci.teamcity.ignited.TeamcityIgnitedProviderMock;
 import org.apache.ignite.tcbot.common.conf.IDataSourcesConfigSupplier;
 import org.apache.ignite.tcbot.common.conf.TcBotWorkDir;
@@ -89,6 +92,8 @@ public class MockBasedTcBotModule extends AbstractModule {
         mockJira(jiraCfg);
 
         bind(ITeamcityIgnitedProvider.class).to(TeamcityIgnitedProviderMock.class).in(new SingletonScope());
+        bind(BranchDataVersions.class).in(new SingletonScope());
+        bind(IScheduler.class).to(DirectExecNoWaitScheduler.class).in(new SingletonScope());
 
         final ITcBotConfig cfg = new ITcBotConfig() {
             @Override public String primaryServerCode() {
@@ -25,16 +25,22 @@ import com.google.inject.Injector;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.ignite.tcbot.engine.tracked.DisplayMode;
 import org.apache.ignite.tcbot.engine.tracked.TrackedBranchChainsProcessor;
+import org.apache.ignite.tcbot.engine.tracked.TrackedBranchResultsCache;
+import org.apache.ignite.tcbot.engine.tracked.TrackedBranchResultsCache.CachedResult;
 import org.apache.ignite.tcservice.ITeamcity;
 import org.apache.ignite.tcbot.engine.conf.BranchTracked;
 import org.apache.ignite.tcbot.engine.conf.ChainAtServerTracked;
 import org.apache.ignite.tcbot.engine.conf.TcBotJsonConfig;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcignited.ITeamcityIgnited;
 import org.apache.ignite.tcignited.ITeamcityIgnitedProvider;
 import org.apache.ignite.tcignited.SyncMode;
+import org.apache.ignite.tcignited.buildref.BranchDataVersions;
 import org.apache.ignite.ci.teamcity.ignited.TeamcityIgnitedProviderMock;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.ci.user.ITcBotUserCreds;
@@ -51,9 +57,12 @@ import static org.apache.ignite.ci.tcbot.chain.PrChainsProcessorTest.TEST_RARE_F
 import static org.apache.ignite.ci.tcbot.chain.PrChainsProcessorTest.TEST_RARE_FAILED_WITH_CHANGES;
 import static org.apache.ignite.ci.tcbot.chain.PrChainsProcessorTest.createFatBuild;
 import static org.apache.ignite.ci.tcbot.chain.PrChainsProcessorTest.createTest;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -132,6 +141,8 @@ public class TrackedBranchProcessorTest {
         DsChainUi apacheSrv = failures.servers.get(0);
 
         assertTrue(apacheSrv.failedTests > 0);
+        assertFalse(apacheSrv.stillLoading);
+        assertNotNull(apacheSrv.loadTimeMs);
 
         assertFalse(apacheSrv.suites.isEmpty());
 
@@ -153,6 +164,61 @@ public class TrackedBranchProcessorTest {
         assertNull(tfFlakyOpt.get().problemRef);
     }
 
+    @Test
+    public void testResultsCachedUntilBranchDataChanged() {
+        BranchTracked branch = new BranchTracked();
+        branch.id = BRACH_NAME;
+        branch.chains.add(trackedChain(CACHE_9));
+        branchesTracked.addBranch(branch);
+
+        IStringCompactor c = injector.getInstance(IStringCompactor.class);
+
+        apacheBuilds.putAll(new PrChainsProcessorTest().initHistory(c));
+
+        ITcBotUserCreds creds = mock(ITcBotUserCreds.class);
+        when(creds.hasAccess(anyString())).thenReturn(true);
+
+        TrackedBranchResultsCache cache = injector.getInstance(TrackedBranchResultsCache.class);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<DsSummaryUi> loader = () -> {
+            loads.incrementAndGet();
+
+            DsSummaryUi res = new DsSummaryUi();
+            res.postProcess(0);
+
+            return res;
+        };
+
+        CachedResult first = cache.get(BRACH_NAME, "params", creds, loader);
+
+        assertSame(first, cache.get(BRACH_NAME, "params", creds, loader));
+        assertEquals(1, loads.get());
+
+        cache.get(BRACH_NAME, "otherParams", creds, loader);
+        assertEquals(2, loads.get());
+
+        ITcBotUserCreds noAccess = mock(ITcBotUserCreds.class);
+        cache.get(BRACH_NAME, "params", noAccess, loader);
+        assertEquals(3, loads.get());
+
+        ITeamcityIgnited srv = injector.getInstance(ITeamcityIgnitedProvider.class).server(SRV_ID, creds);
+        int srvId = ITeamcityIgnited.serverIdToInt(srv.serverCode());
+        BranchDataVersions versions = injector.getInstance(BranchDataVersions.class);
+
+        versions.onChange(srvId, c.getStringId("someOtherBranch"));
+        assertSame(first, cache.get(BRACH_NAME, "params", creds, loader));
+
+        versions.onChange(srvId, c.getStringId(ITeamcity.DEFAULT));
+        CachedResult afterChange = cache.get(BRACH_NAME, "params", creds, loader);
+
+        assertNotSame(first, afterChange);
+        assertEquals(4, loads.get());
+
+        // Same data, so client showing previous result is not notified.
+        assertSame(afterChange, cache.awaitChange(BRACH_NAME, "params", creds, loader, first.hash(), 10));
+        assertEquals(4, loads.get());
+    }
+
     public Optional<DsSuiteUi> findSuite(DsChainUi apacheSrv, String suiteName) {
         return apacheSrv.suites.stream().filter(s -> {
             return s.name.contains(suiteName);
@@ -35,6 +35,7 @@ import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -60,6 +61,15 @@ public class TeamcityIgnitedMock {
         when(tcIgnited.getFatBuild(anyInt(), any(SyncMode.class))).thenAnswer(buildAnswer);
         when(tcIgnited.getFatBuild(anyInt())).thenAnswer(buildAnswer);
 
+        when(tcIgnited.getActualFatBuilds(anyCollection(), any(SyncMode.class)))
+            .thenAnswer(inv -> {
+                Collection<Integer> ids = inv.getArgument(0);
+
+                return ids.stream()
+                    .filter(builds::containsKey)
+                    .collect(Collectors.toMap(id -> id, builds::get));
+            });
+
         when(tcIgnited.getAllBuildsCompacted(anyString(), anyString()))
             .thenAnswer(inv -> {
                 String btId = inv.getArgument(0);
@@ -22,9 +22,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.xml.bind.JAXBException;
 import org.apache.ignite.tcservice.model.hist.BuildRef;
 import org.apache.ignite.tcservice.model.hist.Builds;
+import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.util.XmlUtil;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,13 +44,24 @@ public class BuildHistoryEmulator {
      * @param url Url.
      */
     @Nullable public InputStream handleUrl(String url) throws JAXBException {
+        Matcher buildMatcher = Pattern.compile("app/rest/latest/builds/id:([0-9]+)$").matcher(url);
+
+        if (buildMatcher.find())
+            return handleBuild(Integer.parseInt(buildMatcher.group(1)));
+
         if (!url.contains("app/rest/latest/builds?locator=defaultFilter:false"))
             return null;
 
         int cnt = getIntFromLocator(url, "count:", 100);
-        int start = getIntFromLocator(url, "start:", 100);
+        int start = getIntFromLocator(url, "start:", 0);
+        Matcher sinceMatcher = Pattern.compile("sinceBuild:\\(id:([0-9]+)\\)").matcher(url);
+        int sinceBuild = sinceMatcher.find() ? Integer.parseInt(sinceMatcher.group(1)) : -1;
+
+        List<BuildRef> state = sinceBuild < 0 ? sharedState : sharedState.stream()
+            .filter(ref -> ref.getId() > sinceBuild)
+            .collect(Collectors.toList());
 
-        int totalBuilds = sharedState.size();
+        int totalBuilds = state.size();
         int totalRemained = totalBuilds - start;
         if (totalRemained < 0)
             totalRemained = 0;
@@ -59,22 +72,44 @@ public class BuildHistoryEmulator {
         if (totalBuilds > start + returnNow)
             nextStart = start + returnNow;
 
-        Builds builds = createBuilds(cnt, returnNow, nextStart);
+        Builds builds = createBuilds(cnt, returnNow, nextStart, sinceBuild);
         List<BuildRef> buildsList = new ArrayList<>();
 
         for (int i = start; i < start + returnNow; i++)
-            buildsList.add(sharedState.get(i));
+            buildsList.add(state.get(i));
 
         builds.builds(buildsList);
 
         return new ByteArrayInputStream(XmlUtil.save(builds).getBytes(UTF_8));
     }
 
-    public Builds createBuilds(int cnt, int returnNow, int nextStart) {
+    /**
+     * @param buildId Build id.
+     * @return Build without tests and other details, or null if build is not known.
+     */
+    @Nullable private InputStream handleBuild(int buildId) throws JAXBException {
+        BuildRef ref = sharedState.stream().filter(b -> b.getId() == buildId).findAny().orElse(null);
+
+        if (ref == null)
+            return null;
+
+        Build build = new Build();
+        build.setId(ref.getId());
+        build.buildTypeId = ref.buildTypeId;
+        build.branchName = ref.branchName;
+        build.state = ref.state;
+        build.status = ref.status;
+
+        return new ByteArrayInputStream(XmlUtil.save(build).getBytes(UTF_8));
+    }
+
+    public Builds createBuilds(int cnt, int returnNow, int nextStart, int sinceBuild) {
         Builds builds = new Builds();
         builds.count(returnNow);
         if (nextStart > 0) {
-            String buf = "app/rest/latest/builds?locator=defaultFilter:false,count:" +
+            String buf = "app/rest/latest/builds?locator=defaultFilter:false," +
+                (sinceBuild < 0 ? "" : "sinceBuild:(id:" + sinceBuild + "),") +
+                "count:" +
                 cnt +
                 ",start:" +
                 nextStart;
@@ -38,9 +38,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
@@ -56,6 +58,9 @@ import org.apache.ignite.ci.tcbot.chain.PrChainsProcessorTest;
 import org.apache.ignite.ci.tcbot.issue.IssueDetectorTest;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.ci.teamcity.ignited.buildtype.BuildTypeRefCompacted;
+import org.apache.ignite.ci.teamcity.ignited.change.ChangeCompacted;
+import org.apache.ignite.ci.teamcity.ignited.change.ChangeDao;
+import org.apache.ignite.ci.teamcity.ignited.change.ChangeSync;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.ci.teamcity.pure.BuildHistoryEmulator;
 import org.apache.ignite.ci.user.ITcBotUserCreds;
@@ -69,17 +74,26 @@ import org.apache.ignite.tcbot.common.util.FutureUtil;
 import org.apache.ignite.tcbot.engine.chain.TestCompactedMult;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
 import org.apache.ignite.tcbot.engine.conf.TcBotJsonConfig;
+import org.apache.ignite.tcbot.engine.conf.TcServerConfig;
 import org.apache.ignite.tcbot.engine.issue.EventTemplates;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
-import org.apache.ignite.tcbot.persistence.IgniteStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcbot.persistence.IndexedStringCompactor;
 import org.apache.ignite.tcbot.persistence.TcBotPersistenceModule;
 import org.apache.ignite.tcbot.persistence.scheduler.DirectExecNoWaitScheduler;
 import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
 import org.apache.ignite.tcignited.build.FatBuildDao;
+import org.apache.ignite.tcignited.build.FatBuildLoaderMetrics;
 import org.apache.ignite.tcignited.build.ProactiveFatBuildSync;
 import org.apache.ignite.tcignited.build.TestCompactedV2;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
+import org.apache.ignite.tcignited.buildlog.LogIgniteSpecific;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
+import org.apache.ignite.tcignited.buildref.BuildRefSync;
+import org.apache.ignite.tcignited.buildref.BuildRefSyncStats;
+import org.apache.ignite.tcignited.buildref.BuildRefWatermarkDao;
+import org.apache.ignite.tcignited.buildtime.BuildTimeRecord;
+import org.apache.ignite.tcignited.buildtime.BuildTimeResult;
 import org.apache.ignite.tcignited.history.BuildStartTimeStorage;
 import org.apache.ignite.tcignited.history.HistoryCollector;
 import org.apache.ignite.tcignited.history.IRunHistory;
@@ -100,9 +114,11 @@ import org.apache.ignite.tcservice.model.result.Triggered;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.apache.ignite.tcservice.model.vcs.Revision;
 import org.apache.ignite.tcservice.model.vcs.Revisions;
+import org.apache.ignite.tcservice.util.TestOccurrencesStreamParser;
 import org.apache.ignite.tcservice.util.XmlUtil;
 import org.jetbrains.annotations.NotNull;
 import org.junit.AfterClass;
@@ -116,10 +132,12 @@ import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
 import static junit.framework.TestCase.assertTrue;
 import static org.apache.ignite.ci.tcbot.issue.IssueDetectorTest.SRV_ID;
 import static org.apache.ignite.tcbot.common.conf.TcBotWorkDir.ensureDirExist;
 import static org.apache.ignite.tcbot.persistence.IgniteStringCompactor.STRINGS_CACHE;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -171,6 +189,7 @@ public class IgnitedTcInMemoryIntegrationTest {
     public void clearIgniteCaches() {
         clearCache(BuildRefDao.TEAMCITY_BUILD_CACHE_NAME);
         clearCache(FatBuildDao.TEAMCITY_FAT_BUILD_CACHE_NAME);
+        clearCache(BuildRefWatermarkDao.BUILD_REF_WATERMARK_CACHE_NAME);
 
         BuildRefCompacted.resetCached();
         TestCompactedV2.resetCached();
@@ -191,6 +210,7 @@ public class IgnitedTcInMemoryIntegrationTest {
     public void saveAndLoadBuildReference() throws IOException {
         ITeamcityHttpConnection http = Mockito.mock(ITeamcityHttpConnection.class);
 
+        when(http.sendGet(any(), anyString(), anyString())).thenCallRealMethod();
         when(http.sendGet(anyString(), anyString())).thenAnswer(
             (invocationOnMock) -> {
                 String url = invocationOnMock.getArgument(1);
@@ -247,6 +267,7 @@ public class IgnitedTcInMemoryIntegrationTest {
 
         ITeamcityHttpConnection http = Mockito.mock(ITeamcityHttpConnection.class);
 
+        when(http.sendGet(any(), anyString(), anyString())).thenCallRealMethod();
         when(http.sendGet(anyString(), anyString())).thenAnswer(
             (invocationOnMock) -> {
                 String url = invocationOnMock.getArgument(1);
@@ -353,6 +374,7 @@ public class IgnitedTcInMemoryIntegrationTest {
 
         BuildHistoryEmulator emulator = new BuildHistoryEmulator(tcBuilds);
 
+        when(http.sendGet(any(), anyString(), anyString())).thenCallRealMethod();
         when(http.sendGet(anyString(), anyString())).thenAnswer(
             (invocationOnMock) -> {
                 String url = invocationOnMock.getArgument(1);
@@ -405,6 +427,188 @@ public class IgnitedTcInMemoryIntegrationTest {
         System.out.println("After " + statues);
     }
 
+    @Test
+    public void incrementalActualizationStartsFromWatermark() throws IOException {
+        ITeamcityHttpConnection http = Mockito.mock(ITeamcityHttpConnection.class);
+
+        ArrayList<BuildRef> tcBuilds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            tcBuilds.add(finishedBuildRef(i + 50000));
+
+        BuildHistoryEmulator emulator = new BuildHistoryEmulator(tcBuilds);
+        List<String> requestedPages = new ArrayList<>();
+
+        when(http.sendGet(any(), anyString(), anyString())).thenCallRealMethod();
+        when(http.sendGet(anyString(), anyString())).thenAnswer(
+            (invocationOnMock) -> {
+                String url = invocationOnMock.getArgument(1);
+
+                InputStream stream = emulator.handleUrl(url);
+
+                if (stream != null) {
+                    if (url.contains("builds?locator="))
+                        requestedPages.add(url);
+
+                    return stream;
+                }
+
+                throw new FileNotFoundException(url);
+            }
+        );
+
+        TeamcityIgnitedModule module = new TeamcityIgnitedModule();
+
+        module.overrideHttp(http);
+
+        Injector injector = Guice.createInjector(module, new IgniteAndSchedulerTestModule());
+
+        ITeamcityIgnited srv = injector.getInstance(ITeamcityIgnitedProvider.class).server(APACHE, creds());
+
+        TeamcityIgnitedImpl teamcityIgnited = (TeamcityIgnitedImpl)srv;
+        teamcityIgnited.fullReindex();
+
+        BuildRefSync sync = injector.getInstance(BuildRefSync.class);
+        assertFalse(sync.isFullReindexRequired(APACHE));
+
+        for (int i = 1000; i < 1010; i++)
+            tcBuilds.add(finishedBuildRef(i + 50000));
+
+        requestedPages.clear();
+
+        teamcityIgnited.actualizeRecentBuildRefs();
+
+        assertFalse(requestedPages.isEmpty());
+        for (String page : requestedPages)
+            assertTrue(page, page.contains("sinceBuild:(id:50999)"));
+
+        BuildRefSyncStats stats = sync.stats().iterator().next();
+        assertEquals(BuildRefSync.SyncMode.INCREMENTAL, stats.mode());
+        assertEquals(10, stats.checked());
+        assertEquals(10, stats.saved());
+        assertEquals(51009, stats.maxBuildId());
+
+        assertEquals(1010, srv.getAllBuildsCompacted("IgniteTests24Java8_RunAll", "<default>").size());
+    }
+
+    @Test
+    public void concurrentReloadsOfBuildShareOneRequest() throws Exception {
+        int buildId = 1000044;
+        ArrayList<BuildRef> tcBuilds = Lists.newArrayList(finishedBuildRef(buildId));
+        BuildHistoryEmulator emulator = new BuildHistoryEmulator(tcBuilds);
+
+        CountDownLatch reqStarted = new CountDownLatch(1);
+        CountDownLatch releaseReq = new CountDownLatch(1);
+        AtomicInteger buildRequests = new AtomicInteger();
+
+        TeamcityIgnitedModule module = new TeamcityIgnitedModule();
+        module.overrideHttp((basicAuthTok, url) -> {
+            try {
+                if (url.endsWith("app/rest/latest/builds/id:" + buildId)) {
+                    buildRequests.incrementAndGet();
+                    reqStarted.countDown();
+                    releaseReq.await();
+                }
+
+                InputStream stream = emulator.handleUrl(url);
+
+                if (stream != null)
+                    return stream;
+            }
+            catch (InterruptedException | JAXBException e) {
+                throw new IOException(e);
+            }
+
+            throw new FileNotFoundException(url);
+        });
+        Injector injector = Guice.createInjector(module, new IgniteAndSchedulerTestModule());
+
+        injector.getInstance(BuildRefDao.class).init();
+        FatBuildDao fatBuildDao = injector.getInstance(FatBuildDao.class).init();
+
+        TeamcityServiceConnection srvConn = injector.getInstance(TeamcityServiceConnection.class);
+        srvConn.init(APACHE);
+
+        ProactiveFatBuildSync buildSync = injector.getInstance(ProactiveFatBuildSync.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<FatBuildCompacted> first
+                = executor.submit(() -> buildSync.loadBuild(srvConn, buildId, null, SyncMode.RELOAD_QUEUED));
+
+            assertTrue(reqStarted.await(10, TimeUnit.SECONDS));
+
+            Future<FatBuildCompacted> second
+                = executor.submit(() -> buildSync.loadBuild(srvConn, buildId, null, SyncMode.RELOAD_QUEUED));
+
+            while (buildSync.metrics().stream().mapToLong(FatBuildLoaderMetrics::duplicatesSuppressed).sum() == 0)
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+
+            releaseReq.countDown();
+
+            assertSame(first.get(), second.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, buildRequests.get());
+        assertEquals(buildId, fatBuildDao.getFatBuild(ITeamcityIgnited.serverIdToInt(APACHE), buildId).id());
+    }
+
+    @Test
+    public void changesAreLoadedByOneRequest() throws Exception {
+        AtomicInteger changeRequests = new AtomicInteger();
+
+        TeamcityIgnitedModule module = new TeamcityIgnitedModule();
+        module.overrideHttp((basicAuthTok, url) -> {
+            if (url.contains("app/rest/latest/changes?locator=item:")) {
+                changeRequests.incrementAndGet();
+
+                return getClass().getResourceAsStream("/changesFull.xml");
+            }
+
+            throw new FileNotFoundException(url);
+        });
+        Injector injector = Guice.createInjector(module, new IgniteAndSchedulerTestModule());
+
+        injector.getInstance(ChangeDao.class).init();
+
+        TeamcityServiceConnection srvConn = injector.getInstance(TeamcityServiceConnection.class);
+        srvConn.init(APACHE);
+
+        ChangeSync changeSync = injector.getInstance(ChangeSync.class);
+        IStringCompactor compactor = injector.getInstance(IStringCompactor.class);
+        int srvId = ITeamcityIgnited.serverIdToInt(APACHE);
+        List<Integer> ids = Arrays.asList(834843, 834837, 834800);
+
+        Map<Integer, ChangeCompacted> changes = changeSync.changes(srvId, ids, srvConn);
+
+        assertEquals(1, changeRequests.get());
+        assertEquals(3, changes.size());
+        assertEquals("jokserfn", changes.get(834843).vcsUsername(compactor));
+        assertEquals("Pavel Kovalenko", changes.get(834843).tcUserFullName(compactor));
+        assertEquals("aplatonovv", changes.get(834837).vcsUsername(compactor));
+        assertEquals(-1, changes.get(834800).id());
+
+        assertEquals(changes, changeSync.changes(srvId, ids, srvConn));
+        assertEquals(1, changeRequests.get());
+    }
+
+    /**
+     * @param id Build ID.
+     */
+    private static BuildRef finishedBuildRef(int id) {
+        BuildRef ref = new BuildRef();
+
+        ref.state = BuildRef.STATE_FINISHED;
+        ref.status = BuildRef.STATUS_SUCCESS;
+        ref.buildTypeId = "IgniteTests24Java8_RunAll";
+        ref.branchName = "refs/heads/master";
+        ref.setId(id);
+
+        return ref;
+    }
+
     /**
      *
      */
@@ -418,6 +622,31 @@ public class IgnitedTcInMemoryIntegrationTest {
         return mock;
     }
 
+    @Test
+    public void testTestsPageStreamParserMatchesJaxb() throws Exception {
+        TestOccurrencesFull jaxbPage = jaxbTestXml("/testList.xml", TestOccurrencesFull.class);
+
+        List<TestOccurrenceFull> streamed = new ArrayList<>();
+        String nextHref;
+
+        try (InputStream stream = getClass().getResourceAsStream("/testList.xml")) {
+            nextHref = TestOccurrencesStreamParser.parse(stream, streamed::add);
+        }
+
+        assertEquals(jaxbPage.nextHref(), nextHref);
+        assertEquals(jaxbPage.getTests().size(), streamed.size());
+
+        IStringCompactor c = new InMemoryStringCompactor();
+        ILogProductSpecific logSpecific = new LogIgniteSpecific();
+
+        for (int i = 0; i < streamed.size(); i++) {
+            TestOccurrenceFull exp = jaxbPage.getTests().get(i);
+
+            assertEquals(exp.getId(), streamed.get(i).getId());
+            assertEquals(new TestCompactedV2(c, exp, logSpecific), new TestCompactedV2(c, streamed.get(i), logSpecific));
+        }
+    }
+
     @Test
     public void testMutesXml() throws JAXBException, IOException {
         Mutes mutes = jaxbTestXml("/mutes.xml", Mutes.class);
@@ -473,7 +702,7 @@ public class IgnitedTcInMemoryIntegrationTest {
         Injector injector = Guice.createInjector(new AbstractModule() {
             @Override protected void configure() {
                 bind(Ignite.class).toInstance(ignite);
-                bind(IStringCompactor.class).to(IgniteStringCompactor.class).in(new SingletonScope());
+                bind(IStringCompactor.class).to(IndexedStringCompactor.class).in(new SingletonScope());
                 bind(IDataSourcesConfigSupplier.class).toInstance(Mockito.mock(IDataSourcesConfigSupplier.class));
                 bind(ILogProductSpecific.class).toInstance(Mockito.mock(ILogProductSpecific.class));
             }
@@ -572,6 +801,69 @@ public class IgnitedTcInMemoryIntegrationTest {
 
     }
 
+    @Test
+    public void testBuildTimeIsReadFromBinaryBuilds() throws JAXBException, IOException {
+        Build build = jaxbTestXml("/build.xml", Build.class);
+        Build compositeBuild = jaxbTestXml("/build.xml", Build.class);
+        Build timedOutBuild = jaxbTestXml("/build.xml", Build.class);
+        ProblemOccurrences problemsList = jaxbTestXml("/problemList.xml", ProblemOccurrences.class);
+        Statistics statistics = jaxbTestXml("/statistics.xml", Statistics.class);
+
+        Injector injector = Guice.createInjector(new AbstractModule() {
+            @Override protected void configure() {
+                bind(Ignite.class).toInstance(ignite);
+                bind(IStringCompactor.class).to(IndexedStringCompactor.class).in(new SingletonScope());
+                bind(IDataSourcesConfigSupplier.class).toInstance(Mockito.mock(IDataSourcesConfigSupplier.class));
+                bind(ILogProductSpecific.class).toInstance(Mockito.mock(ILogProductSpecific.class));
+            }
+        });
+
+        FatBuildDao stor = injector.getInstance(FatBuildDao.class).init();
+        IStringCompactor compactor = injector.getInstance(IStringCompactor.class);
+
+        int srvId = ITeamcityIgnited.serverIdToInt(APACHE);
+
+        compositeBuild.setId(build.getId() + 1);
+        compositeBuild.composite = true;
+
+        timedOutBuild.setId(build.getId() + 2);
+
+        ProblemOccurrence timeout = new ProblemOccurrence();
+        timeout.setType(ProblemOccurrence.TC_EXECUTION_TIMEOUT);
+
+        List<ProblemOccurrence> timedOutProblems = new ArrayList<>(problemsList.getProblemsNonNull());
+        timedOutProblems.add(timeout);
+
+        List<TestOccurrencesFull> noTests = Collections.emptyList();
+
+        FatBuildCompacted fatBuild = stor.saveBuild(srvId, build.getId(), build, noTests,
+            problemsList.getProblemsNonNull(), statistics, null, null);
+        stor.saveBuild(srvId, compositeBuild.getId(), compositeBuild, noTests,
+            problemsList.getProblemsNonNull(), statistics, null, null);
+        stor.saveBuild(srvId, timedOutBuild.getId(), timedOutBuild, noTests,
+            timedOutProblems, statistics, null, null);
+
+        List<Long> keys = Stream.of(build, compositeBuild, timedOutBuild)
+            .map(b -> FatBuildDao.buildIdToCacheKey(srvId, b.getId()))
+            .collect(Collectors.toList());
+
+        BuildTimeResult res = stor.loadBuildTimeResult(1, keys);
+
+        Long duration = fatBuild.buildDuration(compactor);
+        assertNotNull(duration);
+
+        List<Map.Entry<Long, BuildTimeRecord>> byBt = res.topByBuildTypes(Collections.singleton(srvId), 0, 10, 0);
+        assertEquals(1, byBt.size());
+        assertEquals(fatBuild.buildTypeId(), BuildTimeResult.cacheKeyToBuildType(byBt.get(0).getKey()));
+        assertEquals(2, byBt.get(0).getValue().count());
+        assertEquals(2 * duration, byBt.get(0).getValue().totalDuration());
+
+        List<Map.Entry<Long, BuildTimeRecord>> timedOut
+            = res.topTimeoutsByBuildTypes(Collections.singleton(srvId), 0, 10, 0);
+        assertEquals(1, timedOut.size());
+        assertEquals(1, timedOut.get(0).getValue().count());
+    }
+
     public void assertParameter(Build refBuild, Build actBuild, String parmKey) {
         assertNotNull(refBuild.parameter(parmKey));
         assertEquals(refBuild.parameter(parmKey), actBuild.parameter(parmKey));
@@ -826,6 +1118,68 @@ public class IgnitedTcInMemoryIntegrationTest {
         svc.shutdown();
     }
 
+    @Test
+    public void testBuildRefIndex() {
+        TeamcityIgnitedModule module = new TeamcityIgnitedModule();
+
+        Injector injector = Guice.createInjector(module, new GuavaCachedModule(), new IgniteAndSchedulerTestModule());
+
+        IStringCompactor c = injector.getInstance(IStringCompactor.class);
+        BuildRefDao storage = injector.getInstance(BuildRefDao.class).init();
+
+        int srvId = ITeamcityIgnited.serverIdToInt("apache");
+        int otherSrvId = ITeamcityIgnited.serverIdToInt("private");
+        int branch = c.getStringId("indexedBranch");
+        int otherBranch = c.getStringId("otherIndexedBranch");
+        int buildTypeId = c.getStringId("indexedBuildType");
+        int otherBuildTypeId = c.getStringId("otherIndexedBuildType");
+        int finished = c.getStringId(BuildRef.STATE_FINISHED);
+        int running = c.getStringId(BuildRef.STATE_RUNNING);
+        int success = c.getStringId(BuildRef.STATUS_SUCCESS);
+
+        for (int id = 1; id <= 100; id++) {
+            storage.save(srvId, new BuildRefCompacted().withId(id).state(finished).status(success)
+                .branchName(id % 2 == 0 ? branch : otherBranch).buildTypeId(id % 3 == 0 ? otherBuildTypeId : buildTypeId));
+        }
+
+        storage.save(otherSrvId, new BuildRefCompacted().withId(101).state(finished).status(success)
+            .branchName(branch).buildTypeId(buildTypeId));
+
+        storage.save(srvId, new BuildRefCompacted().withId(102).state(running).status(success)
+            .branchName(branch).buildTypeId(buildTypeId));
+
+        Set<Integer> branchList = Collections.singleton(branch);
+
+        // Even IDs not divisible by 3, and running build.
+        assertEquals(34 + 1, storage.getAllBuildsCompacted(srvId, buildTypeId, branchList).size());
+        assertEquals(50 + 1, storage.getBuildsForBranchNonCached(srvId, branch).size());
+
+        List<Integer> latest = storage.getLatestBuilds(srvId, buildTypeId, branchList,
+            ref -> ref.isFinished(c), 3).stream().map(BuildRefCompacted::id).collect(Collectors.toList());
+        assertEquals(Arrays.asList(100, 98, 94), latest);
+
+        assertEquals(Collections.singletonList(102),
+            storage.getQueuedAndRunning(srvId).stream().map(BuildRefCompacted::id).collect(Collectors.toList()));
+
+        // Build moved to other branch and finished.
+        storage.save(srvId, new BuildRefCompacted().withId(102).state(finished).status(success)
+            .branchName(otherBranch).buildTypeId(buildTypeId));
+
+        assertEquals(34, storage.getAllBuildsCompacted(srvId, buildTypeId, branchList).size());
+        assertTrue(storage.getQueuedAndRunning(srvId).isEmpty());
+
+        // Index of new DAO instance is loaded from persistence.
+        BuildRefDao reloaded = new BuildRefDao();
+        injector.injectMembers(reloaded);
+        reloaded.init();
+
+        assertEquals(34, reloaded.getAllBuildsCompacted(srvId, buildTypeId, branchList).size());
+        assertEquals(1, reloaded.getAllBuildsCompacted(otherSrvId, buildTypeId, branchList).size());
+        assertEquals(Arrays.asList(102, 97, 95), reloaded.getLatestBuilds(srvId, buildTypeId,
+            Collections.singleton(otherBranch), ref -> true, 3).stream().map(BuildRefCompacted::id)
+            .collect(Collectors.toList()));
+    }
+
     @Test
     public void testTestHistoryPropagation() {
         TeamcityIgnitedModule module = new TeamcityIgnitedModule();
@@ -914,6 +1268,7 @@ public class IgnitedTcInMemoryIntegrationTest {
             when(tcCfg.logsDirectory()).thenReturn("logs");
             when(tcCfg.host()).thenReturn("http://ci.ignite.apache.org/");
             when(tcCfg.trustedSuites()).thenReturn(new ArrayList<>());
+            when(tcCfg.fatBuildsLoadRate()).thenReturn(TcServerConfig.DEFAULT_FAT_BUILDS_LOAD_RATE);
             when(cfg.getTeamcityConfig(anyString())).thenReturn(tcCfg);
             when(cfg.getTrackedBranches()).thenReturn(new TcBotJsonConfig());
 
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.benchmark;
+
+import com.google.common.io.CharStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import javax.xml.bind.JAXBException;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
+import org.apache.ignite.tcservice.util.XmlUtil;
+
+/**
+ * Access to XML fixtures of integration tests, test resources of {@code ignite-tc-helper-web} are added to benchmarks
+ * classpath by the build.
+ */
+public class Fixtures {
+    /**
+     * @param res Resource name, e.g. {@code build.xml}.
+     * @return Resource contents.
+     */
+    public static String text(String res) {
+        try (InputStream stream = Fixtures.class.getResourceAsStream("/" + res)) {
+            if (stream == null)
+                throw new IllegalStateException("Fixture not found: " + res);
+
+            return CharStreams.toString(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+    }
+
+    /**
+     * @param res Resource name.
+     * @param cls Class of root element.
+     * @return Loaded fixture.
+     */
+    public static <T> T load(String res, Class<T> cls) {
+        try {
+            return XmlUtil.load(cls, new StringReader(text(res)));
+        }
+        catch (JAXBException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.benchmark.build;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.ignite.ci.teamcity.ignited.buildtype.ParametersCompacted;
+import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
+import org.apache.ignite.tcbot.benchmark.Fixtures;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcignited.build.ITest;
+import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
+import org.apache.ignite.tcignited.buildlog.LogIgniteSpecific;
+import org.apache.ignite.tcservice.model.conf.bt.Property;
+import org.apache.ignite.tcservice.model.result.Build;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fat build compaction and read paths, build and tests are taken from {@code build.xml} and {@code testList.xml}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FatBuildBenchmark {
+    /** Compactor. */
+    private IStringCompactor compactor;
+
+    /** Log product specific. */
+    private ILogProductSpecific logSpecific;
+
+    /** Build. */
+    private Build build;
+
+    /** Tests of build. */
+    private TestOccurrencesFull tests;
+
+    /** Compacted build. */
+    private FatBuildCompacted fatBuild;
+
+    /** Compacted tests. */
+    private List<ITest> compactedTests;
+
+    /** Compacted build parameters. */
+    private ParametersCompacted params;
+
+    /** String ID of parameter present in build. */
+    private int presentParam;
+
+    /** String ID of parameter absent in build. */
+    private int absentParam;
+
+    /** */
+    @Setup(Level.Trial)
+    public void loadFixtures() {
+        compactor = new InMemoryStringCompactor();
+        logSpecific = new LogIgniteSpecific();
+
+        build = Fixtures.load("build.xml", Build.class);
+        tests = Fixtures.load("testList.xml", TestOccurrencesFull.class);
+
+        fatBuild = createFatBuild();
+        compactedTests = fatBuild.getAllTests().collect(Collectors.toList());
+
+        List<Property> props = build.parameters().properties();
+        params = new ParametersCompacted(compactor, props);
+
+        presentParam = compactor.getStringId(props.get(props.size() / 2).name());
+        absentParam = compactor.getStringId("env.NOT_EXISTING_PARAMETER");
+    }
+
+    /** Build and tests compaction, done for each build saved. */
+    @Benchmark
+    public FatBuildCompacted createFatBuild() {
+        return new FatBuildCompacted(compactor, build).addTests(compactor, tests.getTests(), logSpecific);
+    }
+
+    /** Iteration over tests of build. */
+    @Benchmark
+    public int getAllTests() {
+        return fatBuild.getAllTests().mapToInt(ITest::testName).sum();
+    }
+
+    /** Flags access of compacted tests, done for each test during failures analysis. */
+    @Benchmark
+    public int testFlags() {
+        int res = 0;
+
+        for (ITest test : compactedTests) {
+            if (test.isMutedTest())
+                res++;
+
+            if (test.isIgnoredTest())
+                res += 2;
+
+            if (test.isInvestigated())
+                res += 4;
+
+            if (Boolean.TRUE.equals(test.getCurrentlyMuted()))
+                res += 8;
+        }
+
+        return res;
+    }
+
+    /** Lookup of parameter present in build. */
+    @Benchmark
+    public int findPresentParameter() {
+        return params.findPropertyStringId(presentParam);
+    }
+
+    /** Lookup of parameter absent in build, full scan. */
+    @Benchmark
+    public int findAbsentParameter() {
+        return params.findPropertyStringId(absentParam);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.benchmark.history;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
+import org.apache.ignite.tcignited.history.ISuiteRunHistory;
+import org.apache.ignite.tcignited.history.InvocationData;
+import org.apache.ignite.tcignited.history.SuiteHistory;
+import org.apache.ignite.tcignited.history.SuiteInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares full rebuild of suite history with patching loaded history by one new build. Also measures filtering of
+ * history by build parameter, half of builds has required parameter value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuiteHistoryBenchmark {
+    /** Parameter key string ID. */
+    private static final int PARAM_KEY = 1;
+
+    /** Tests in suite. */
+    @Param({"5000"})
+    public int tests;
+
+    /** Builds in history. */
+    @Param({"100", "500"})
+    public int builds;
+
+    /** Persisted invocations including the new one. */
+    private Map<Integer, SuiteInvocation> invocations;
+
+    /** New build. */
+    private SuiteInvocation newBuild;
+
+    /** History loaded before new build. */
+    private SuiteHistory hist;
+
+    /** Parameters required by filter. */
+    private final Map<Integer, Integer> requireParameters = Collections.singletonMap(PARAM_KEY, 1);
+
+    /** */
+    @Setup(Level.Trial)
+    public void prepareInvocations() {
+        Random random = new Random(42);
+
+        invocations = new HashMap<>();
+
+        for (int buildId = 1; buildId <= builds; buildId++)
+            invocations.put(buildId, suiteInvocation(buildId, random));
+
+        newBuild = suiteInvocation(builds + 1, random);
+    }
+
+    /** */
+    @Setup(Level.Invocation)
+    public void loadHistory() {
+        hist = new SuiteHistory(invocations);
+    }
+
+    /** Previous approach: history is dropped and rebuilt from all invocations. */
+    @Benchmark
+    public SuiteHistory rebuild() {
+        Map<Integer, SuiteInvocation> all = new HashMap<>(invocations);
+
+        all.put(newBuild.suiteInvocation().buildId(), newBuild);
+
+        return new SuiteHistory(all);
+    }
+
+    /** New approach: new build is appended to loaded history. */
+    @Benchmark
+    public SuiteHistory append() {
+        hist.addOrReplace(newBuild);
+
+        return hist;
+    }
+
+    /** History is filtered by build parameter value. */
+    @Benchmark
+    public ISuiteRunHistory filter() {
+        return hist.filter(requireParameters);
+    }
+
+    /**
+     * @param buildId Build id.
+     * @param random Random.
+     */
+    private SuiteInvocation suiteInvocation(int buildId, Random random) {
+        Invocation suite = new Invocation(buildId).withStatus(InvocationData.OK).withChanges(new int[0])
+            .withParameters(Collections.singletonMap(PARAM_KEY, buildId % 2));
+        SuiteInvocation inv = new SuiteInvocation(1, 1, 1, suite, (long)buildId);
+
+        int[] names = new int[tests];
+        Invocation[] invocations = new Invocation[tests];
+
+        for (int tName = 0; tName < tests; tName++) {
+            int status = random.nextInt(100) == 0 ? InvocationData.FAILURE : InvocationData.OK;
+
+            names[tName] = tName;
+            invocations[tName] = new Invocation(buildId).withStatus(status);
+        }
+
+        inv.setTests(names, invocations);
+
+        return inv;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.benchmark.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.ignite.ci.tcbot.common.StringFieldCompacted;
+import org.apache.ignite.tcbot.benchmark.Fixtures;
+import org.apache.ignite.tcignited.build.TestCompactedV2;
+import org.apache.ignite.tcignited.buildlog.LogIgniteSpecific;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compression of test failure details, details are taken from {@code testList.xml}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringFieldCompactedBenchmark {
+    /** Details of failed tests. */
+    private List<String> details;
+
+    /** Details as they are saved by {@link TestCompactedV2}: only warning and JIRA link lines are kept. */
+    private List<String> storedDetails;
+
+    /** Details of all failed tests joined, similar to long log fragment. */
+    private String joinedDetails;
+
+    /** Compacted details of each failed test. */
+    private List<StringFieldCompacted> compacted;
+
+    /** Compacted joined details. */
+    private StringFieldCompacted compactedJoined;
+
+    /** */
+    @Setup(Level.Trial)
+    public void loadFixtures() {
+        details = Fixtures.load("testList.xml", TestOccurrencesFull.class).getTests().stream()
+            .map(t -> t.details)
+            .filter(d -> d != null && !d.isEmpty())
+            .collect(Collectors.toList());
+
+        LogIgniteSpecific logSpecific = new LogIgniteSpecific();
+
+        storedDetails = details.stream()
+            .map(d -> {
+                TestCompactedV2 t = new TestCompactedV2();
+
+                t.setDetails(d, logSpecific);
+
+                return t.getDetailsText();
+            })
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        joinedDetails = String.join("\n", details);
+
+        compacted = details.stream().map(StringFieldCompacted::new).collect(Collectors.toList());
+        compactedJoined = new StringFieldCompacted(joinedDetails);
+    }
+
+    /** Details of each failed test are compacted separately, as for saved tests. */
+    @Benchmark
+    public void setValueEachTest(Blackhole bh) {
+        for (String d : details)
+            bh.consume(new StringFieldCompacted(d));
+    }
+
+    /** Long text is compacted. */
+    @Benchmark
+    public StringFieldCompacted setValueJoined() {
+        StringFieldCompacted field = new StringFieldCompacted();
+
+        field.setValue(joinedDetails);
+
+        return field;
+    }
+
+    /** Details filtered by log specific are compacted, as for saved tests. */
+    @Benchmark
+    public void setValueStoredDetails(Blackhole bh) {
+        for (String d : storedDetails)
+            bh.consume(new StringFieldCompacted(d));
+    }
+
+    /** Baseline: each value is compressed by both Snappy and GZip and smaller result is selected. */
+    @Benchmark
+    public void setValueEachTestBothCodecs(Blackhole bh) throws IOException {
+        for (String d : details) {
+            byte[] uncompressed = d.getBytes(StandardCharsets.UTF_8);
+
+            bh.consume(Snappy.compress(uncompressed));
+            bh.consume(StringFieldCompacted.zipBytes(uncompressed));
+        }
+    }
+
+    /** Details of each failed test are decompressed. */
+    @Benchmark
+    public void getValueEachTest(Blackhole bh) {
+        for (StringFieldCompacted field : compacted)
+            bh.consume(field.getValue());
+    }
+
+    /** Long text is decompressed. */
+    @Benchmark
+    public String getValueJoined() {
+        return compactedJoined.getValue();
+    }
+
+    /** Only beginning of long text is decompressed, e.g. to show preview. */
+    @Benchmark
+    public String firstLinesJoined() {
+        return compactedJoined.firstLines(10);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.benchmark.util;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBException;
+import org.apache.ignite.tcbot.benchmark.Fixtures;
+import org.apache.ignite.tcservice.model.changes.ChangesList;
+import org.apache.ignite.tcservice.model.mute.Mutes;
+import org.apache.ignite.tcservice.model.result.Build;
+import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
+import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.apache.ignite.tcservice.util.XmlUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of TeamCity REST responses, responses are taken from XML fixtures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlLoadBenchmark {
+    /** Root element class for each fixture. */
+    private static final Map<String, Class<?>> FIXTURES = ImmutableMap.<String, Class<?>>builder()
+        .put("build.xml", Build.class)
+        .put("testList.xml", TestOccurrencesFull.class)
+        .put("problemList.xml", ProblemOccurrences.class)
+        .put("statistics.xml", Statistics.class)
+        .put("changeList.xml", ChangesList.class)
+        .put("mutes.xml", Mutes.class)
+        .build();
+
+    /** Fixture name. */
+    @Param({"build.xml", "testList.xml", "problemList.xml", "statistics.xml", "changeList.xml", "mutes.xml"})
+    public String fixture;
+
+    /** Response text. */
+    private String xml;
+
+    /** Root element class. */
+    private Class<?> cls;
+
+    /** */
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        xml = Fixtures.text(fixture);
+        cls = FIXTURES.get(fixture);
+    }
+
+    /** */
+    @Benchmark
+    public Object load() throws JAXBException {
+        return XmlUtil.load(cls, new StringReader(xml));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.tcbot.benchmark.Fixtures;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build log lines handling. Log is generated from tests of {@code testList.xml}: each test is started, prints its
+ * failure details and is stopped. Placed in the package of {@link BuildLogStreamChecker} because the checker is
+ * package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildLogStreamCheckerBenchmark {
+    /** Approximate log size in megabytes. */
+    @Param({"16"})
+    public int logMb;
+
+    /** Log product specific. */
+    private final LogIgniteSpecific specific = new LogIgniteSpecific();
+
+    /** Log. */
+    private byte[] log;
+
+    /** */
+    @Setup(Level.Trial)
+    public void generateLog() {
+        TestOccurrencesFull tests = Fixtures.load("testList.xml", TestOccurrencesFull.class);
+        StringBuilder sb = new StringBuilder();
+
+        while (sb.length() < logMb * 1024 * 1024) {
+            for (TestOccurrenceFull test : tests.getTests()) {
+                sb.append("[12:00:00] >>> Starting test: ").append(test.name).append(" <<<\n");
+
+                if (test.details != null)
+                    sb.append(test.details).append('\n');
+
+                sb.append("[12:00:01] >>> Stopping test: ").append(test.name).append(" <<<\n");
+            }
+        }
+
+        log = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Log is processed by chunks, lines are classified in parallel. */
+    @Benchmark
+    public long apply() throws IOException {
+        CountingHandler hnd = new CountingHandler();
+
+        new BuildLogStreamChecker(specific, hnd).apply(new ByteArrayInputStream(log), new File("log.zip"));
+
+        return hnd.flags;
+    }
+
+    /**
+     * Counts flags of lines, so handler does not allocate line strings.
+     */
+    private static class CountingHandler implements ILineHandler {
+        /** Sum of line flags. */
+        private long flags;
+
+        /** {@inheritDoc} */
+        @Override public void accept(String line, File file) {
+            flags += line.length();
+        }
+
+        /** {@inheritDoc} */
+        @Override public void accept(LogLine line, File file) {
+            flags += line.flags();
+        }
+
+        /** {@inheritDoc} */
+        @Override public void close() {
+        }
+    }
+}
@@ -30,6 +30,11 @@ public interface ITcServerConfig {
      */
     String DEFAULT_TRACKED_BRANCH_NAME = "master";
 
+    /**
+     * Default max count of concurrent HTTP requests to the server.
+     */
+    int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
     /**
      * @return Another TC Server (service) config name to use settings from. Filled only for server aliases.
      */
@@ -72,4 +77,24 @@ public interface ITcServerConfig {
      * @return set of suite codes (build type IDs), failures in which should be threated as critical and notified.
      */
     @NonNull public Collection<String> trustedSuites();
+
+    /**
+     * @return Timeout for establishing HTTP connection to the server, milliseconds.
+     */
+    public int connectTimeoutMs();
+
+    /**
+     * @return Timeout for reading HTTP response from the server, milliseconds.
+     */
+    public int readTimeoutMs();
+
+    /**
+     * @return Max count of HTTP requests to the server executed concurrently.
+     */
+    public int maxConcurrentRequests();
+
+    /**
+     * @return Max count of builds per second loaded from the server by background loader.
+     */
+    public int fatBuildsLoadRate();
 }
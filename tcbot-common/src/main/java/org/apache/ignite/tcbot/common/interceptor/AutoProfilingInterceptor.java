@@ -16,19 +16,44 @@
  */
 package org.apache.ignite.tcbot.common.interceptor;
 
-import com.google.common.base.Stopwatch;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.apache.ignite.tcbot.common.util.IntLongHashMap;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+import org.apache.ignite.tcbot.common.util.WindowedLatencyHistogram;
 
+/**
+ * Collects durations of methods annotated with {@link AutoProfiling}. Statistics are keyed by {@link Method}, so no
+ * key is built on call, and durations are recorded to lock-free histograms: one since last reset and one for
+ * {@link #RECENT_WINDOW}. A few slowest calls of each method are kept with thread and arguments fingerprint.
+ */
 public class AutoProfilingInterceptor implements MethodInterceptor {
-    private final ConcurrentMap<String, Invocation> totalTime = new ConcurrentHashMap<>();
+    /** Window of recent durations histogram. */
+    public static final long RECENT_WINDOW = TimeUnit.MINUTES.toMillis(5);
+
+    /** Slots in recent durations window. */
+    private static final int RECENT_WINDOW_SLOTS = 5;
+
+    /** Count of slowest calls kept for each method. */
+    private static final int SLOWEST_SAMPLES = 5;
+
+    /** Max length of argument value in fingerprint. */
+    private static final int MAX_ARG_LEN = 40;
+
+    private final ConcurrentMap<Method, Invocation> totalTime = new ConcurrentHashMap<>();
 
     public void reset() {
         totalTime.clear();
@@ -37,18 +62,62 @@ public class AutoProfilingInterceptor implements MethodInterceptor {
     public static class Invocation {
         private final AtomicLong timeNanos = new AtomicLong();
         private final AtomicInteger callsCnt = new AtomicInteger();
+        /** Total count of items returned by batch methods (size of returned collection or map). */
+        private final AtomicLong itemsCnt = new AtomicLong();
         private String name;
 
+        /** Durations since reset. */
+        private final LatencyHistogram hist = new LatencyHistogram();
+
+        /** Recent durations. */
+        private final WindowedLatencyHistogram recentHist
+            = new WindowedLatencyHistogram(RECENT_WINDOW, RECENT_WINDOW_SLOTS);
+
+        /** Slowest calls, sorted by duration descending. */
+        @GuardedBy("this")
+        private final List<SlowCall> slowest = new ArrayList<>(SLOWEST_SAMPLES + 1);
+
+        /** Calls faster than this are not checked for slowest, 0 until {@link #SLOWEST_SAMPLES} calls are saved. */
+        private volatile long slowestThreshold;
+
         public Invocation(String name) {
             this.name = name;
         }
 
         public long addAndGet(long elapsed) {
             callsCnt.incrementAndGet();
+            hist.record(elapsed);
+            recentHist.record(elapsed);
 
             return timeNanos.addAndGet(elapsed);
         }
 
+        public long addItems(long items) {
+            return itemsCnt.addAndGet(items);
+        }
+
+        /**
+         * @param elapsed Duration, nanoseconds.
+         * @param args Arguments of the call.
+         */
+        void offerSlowCall(long elapsed, Object[] args) {
+            if (elapsed <= slowestThreshold)
+                return;
+
+            SlowCall call = new SlowCall(elapsed, Thread.currentThread().getName(), fingerprint(args));
+
+            synchronized (this) {
+                slowest.add(call);
+                slowest.sort(Comparator.comparingLong(SlowCall::getNanos).reversed());
+
+                if (slowest.size() > SLOWEST_SAMPLES)
+                    slowest.remove(slowest.size() - 1);
+
+                if (slowest.size() == SLOWEST_SAMPLES)
+                    slowestThreshold = slowest.get(slowest.size() - 1).getNanos();
+            }
+        }
+
         public long getNanos() {
             return timeNanos.get();
         }
@@ -57,27 +126,162 @@ public class AutoProfilingInterceptor implements MethodInterceptor {
             return callsCnt.get();
         }
 
+        public long getItems() {
+            return itemsCnt.get();
+        }
+
         public String getName() {
             return name;
         }
+
+        /**
+         * @return Histogram of durations since reset.
+         */
+        public LatencyHistogram histogram() {
+            return hist;
+        }
+
+        /**
+         * @return Histogram of durations for {@link #RECENT_WINDOW}.
+         */
+        public LatencyHistogram recentHistogram() {
+            return recentHist.snapshot();
+        }
+
+        /**
+         * @return Slowest calls, sorted by duration descending.
+         */
+        public synchronized List<SlowCall> slowest() {
+            return new ArrayList<>(slowest);
+        }
+    }
+
+    /**
+     * Slow call sample.
+     */
+    public static class SlowCall {
+        /** Duration, nanoseconds. */
+        private final long nanos;
+
+        /** Timestamp of call end. */
+        private final long ts = System.currentTimeMillis();
+
+        /** Thread name. */
+        private final String thread;
+
+        /** Arguments fingerprint. */
+        private final String args;
+
+        /**
+         * @param nanos Duration, nanoseconds.
+         * @param thread Thread name.
+         * @param args Arguments fingerprint.
+         */
+        SlowCall(long nanos, String thread, String args) {
+            this.nanos = nanos;
+            this.thread = thread;
+            this.args = args;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getTs() {
+            return ts;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public String getArgs() {
+            return args;
+        }
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        String cls = invocation.getMethod().getDeclaringClass().getSimpleName();
-        String mtd = invocation.getMethod().getName();
-
-        Stopwatch started = Stopwatch.createStarted();
+        long start = System.nanoTime();
+        Object res = null;
         try {
-            return invocation.proceed();
+            res = invocation.proceed();
+
+            return res;
         }
         finally {
-            long elapsed = started.elapsed(TimeUnit.NANOSECONDS);
+            long elapsed = System.nanoTime() - start;
+
+            Method mtd = invocation.getMethod();
+
+            Invocation inv = totalTime.get(mtd);
 
-            String fullKey = cls + "." + mtd;
+            if (inv == null) {
+                inv = totalTime.computeIfAbsent(mtd,
+                    m -> new Invocation(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+            }
 
-            totalTime.computeIfAbsent(fullKey, Invocation::new).addAndGet(elapsed);
+            inv.addAndGet(elapsed);
+            inv.offerSlowCall(elapsed, invocation.getArguments());
+
+            int items = itemsCount(res);
+            if (items > 0)
+                inv.addItems(items);
+        }
+    }
+
+    /**
+     * Provides short description of arguments: values of primitives, strings and enums, sizes of collections and
+     * class names of other objects, so big objects are not converted to string.
+     *
+     * @param args Arguments.
+     */
+    private static String fingerprint(Object[] args) {
+        if (args == null || args.length == 0)
+            return "";
+
+        StringBuilder sb = new StringBuilder();
+
+        for (Object arg : args) {
+            if (sb.length() > 0)
+                sb.append(", ");
+
+            if (arg == null)
+                sb.append("null");
+            else if (arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean
+                || arg instanceof Enum) {
+                String val = arg.toString();
+
+                sb.append(val.length() > MAX_ARG_LEN ? val.substring(0, MAX_ARG_LEN) + "..." : val);
+            }
+            else if (arg instanceof Collection)
+                sb.append(arg.getClass().getSimpleName()).append("[").append(((Collection<?>)arg).size()).append("]");
+            else if (arg instanceof Map)
+                sb.append(arg.getClass().getSimpleName()).append("[").append(((Map<?, ?>)arg).size()).append("]");
+            else if (arg instanceof int[])
+                sb.append("int[").append(((int[])arg).length).append("]");
+            else
+                sb.append(arg.getClass().getSimpleName());
         }
+
+        return sb.toString();
+    }
+
+    /**
+     * @param res Method result.
+     * @return Count of items in batch result, or 0 if result is not a batch.
+     */
+    private static int itemsCount(Object res) {
+        if (res instanceof Collection)
+            return ((Collection<?>)res).size();
+
+        if (res instanceof Map)
+            return ((Map<?, ?>)res).size();
+
+        if (res instanceof IntLongHashMap)
+            return ((IntLongHashMap)res).size();
+
+        return 0;
     }
 
     public Collection<Invocation> getInvocations() {
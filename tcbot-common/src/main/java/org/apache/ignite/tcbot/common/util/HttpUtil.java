@@ -49,6 +49,9 @@ public class HttpUtil {
     /** Logger. */
     private static final Logger logger = LoggerFactory.getLogger(HttpUtil.class);
 
+    /** Default connect and read timeout, milliseconds. */
+    public static final int DFLT_TIMEOUT_MS = 60000;
+
     /**
      * @param inputStream Input stream.
      */
@@ -80,11 +83,29 @@ public class HttpUtil {
      * @throws IllegalStateException if some unexpected HTTP error returned.
      */
     public static InputStream sendGetWithBasicAuth(String basicAuthTok, String url) throws IOException {
+        return sendGetWithBasicAuth(basicAuthTok, url, DFLT_TIMEOUT_MS, DFLT_TIMEOUT_MS);
+    }
+
+    /**
+     * Send GET request to the TeamCity url.
+     *
+     * @param basicAuthTok Authorization token.
+     * @param url URL.
+     * @param connectTimeoutMs Connect timeout, milliseconds.
+     * @param readTimeoutMs Read timeout, milliseconds.
+     * @return Input stream from connection.
+     * @throws IOException If communication failed.
+     * @throws FileNotFoundException If not found (404) was returned from service.
+     * @throws ServiceConflictException If conflict (409) was returned from service.
+     * @throws IllegalStateException if some unexpected HTTP error returned.
+     */
+    public static InputStream sendGetWithBasicAuth(String basicAuthTok, String url, int connectTimeoutMs,
+        int readTimeoutMs) throws IOException {
         final Stopwatch started = Stopwatch.createStarted();
         URL obj = new URL(url);
         HttpURLConnection con = (HttpURLConnection)obj.openConnection();
-        con.setConnectTimeout(60000); //todo make configurable
-        con.setReadTimeout(60000);
+        con.setConnectTimeout(connectTimeoutMs);
+        con.setReadTimeout(readTimeoutMs);
 
         con.setRequestProperty("Authorization", "Basic " + basicAuthTok);
         con.setRequestProperty("Connection", "Keep-Alive");
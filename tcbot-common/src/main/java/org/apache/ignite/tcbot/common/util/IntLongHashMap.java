@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.common.util;
+
+/**
+ * Open addressing hash map from primitive int to primitive long. Does not box keys or values. Not thread safe.
+ */
+public class IntLongHashMap {
+    /** Default capacity. */
+    private static final int DFLT_CAPACITY = 16;
+
+    /** Keys. */
+    private int[] keys;
+
+    /** Values. */
+    private long[] vals;
+
+    /** Used slots flags. */
+    private boolean[] used;
+
+    /** Size. */
+    private int size;
+
+    /**
+     * Creates map with default capacity.
+     */
+    public IntLongHashMap() {
+        this(DFLT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize Expected count of entries.
+     */
+    public IntLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DFLT_CAPACITY, expectedSize * 2 - 1)) << 1;
+
+        keys = new int[capacity];
+        vals = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * @param key Key.
+     * @param val Value.
+     */
+    public void put(int key, long val) {
+        if ((size + 1) * 2 > keys.length)
+            resize(keys.length * 2);
+
+        int idx = slot(key);
+
+        if (!used[idx]) {
+            used[idx] = true;
+            keys[idx] = key;
+            size++;
+        }
+
+        vals[idx] = val;
+    }
+
+    /**
+     * @param key Key.
+     * @param dfltVal Value to be returned if key is absent.
+     */
+    public long get(int key, long dfltVal) {
+        int idx = slot(key);
+
+        return used[idx] ? vals[idx] : dfltVal;
+    }
+
+    /**
+     * @param key Key.
+     */
+    public boolean containsKey(int key) {
+        return used[slot(key)];
+    }
+
+    /**
+     * @param other Map to copy entries from.
+     */
+    public void putAll(IntLongHashMap other) {
+        other.forEach(this::put);
+    }
+
+    /**
+     * @param consumer Consumer for each entry.
+     */
+    public void forEach(IntLongConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i])
+                consumer.accept(keys[i], vals[i]);
+        }
+    }
+
+    /**
+     * @return Count of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code True} if map has no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return Keys of the map, order is not defined.
+     */
+    public int[] keys() {
+        int[] res = new int[size];
+        int j = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i])
+                res[j++] = keys[i];
+        }
+
+        return res;
+    }
+
+    /**
+     * @param key Key.
+     * @return Slot containing key or free slot for the key.
+     */
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int idx = hash(key) & mask;
+
+        while (used[idx] && keys[idx] != key)
+            idx = (idx + 1) & mask;
+
+        return idx;
+    }
+
+    /**
+     * @param capacity New capacity.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldVals = vals;
+        boolean[] oldUsed = used;
+
+        keys = new int[capacity];
+        vals = new long[capacity];
+        used = new boolean[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int idx = slot(oldKeys[i]);
+
+                used[idx] = true;
+                keys[idx] = oldKeys[i];
+                vals[idx] = oldVals[i];
+            }
+        }
+    }
+
+    /**
+     * @param key Key.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+
+            sb.append(k).append('=').append(v);
+        });
+
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Consumer of map entry.
+     */
+    @FunctionalInterface
+    public interface IntLongConsumer {
+        /**
+         * @param key Key.
+         * @param val Value.
+         */
+        void accept(int key, long val);
+    }
+}
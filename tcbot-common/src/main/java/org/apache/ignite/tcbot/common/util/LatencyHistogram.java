@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.common.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with exponential buckets. Bucket <code>i</code> contains durations from
+ * <code>2^(i-1)</code> (exclusive) up to <code>2^i</code> microseconds (inclusive), so percentiles are reported with
+ * precision of factor 2, which is enough to find slow operations.
+ */
+public class LatencyHistogram {
+    /** Buckets count, last bucket contains all durations longer than ~18 minutes. */
+    private static final int BUCKETS = 31;
+
+    /** Counters of durations by bucket. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /** Total count of durations. */
+    private final AtomicLong cnt = new AtomicLong();
+
+    /** Sum of all durations, nanoseconds. */
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /** Max duration, nanoseconds. */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param nanos Duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long micros = Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0);
+        int bucket = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(micros - 1);
+
+        buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        cnt.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return Count of durations recorded.
+     */
+    public long count() {
+        return cnt.get();
+    }
+
+    /**
+     * @return Sum of all durations, nanoseconds.
+     */
+    public long totalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * @return Max duration, nanoseconds.
+     */
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @param percentile Percentile, from 0 to 100.
+     * @return Upper bound of bucket containing given percentile of durations, nanoseconds. 0 if histogram is empty.
+     */
+    public long percentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+
+        if (total == 0)
+            return 0;
+
+        long threshold = (long)Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+
+            if (seen >= threshold && snapshot[i] > 0)
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(1L << i), maxNanos());
+        }
+
+        return maxNanos();
+    }
+
+    /**
+     * Adds all durations recorded by other histogram to this one.
+     *
+     * @param other Histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.addAndGet(i, other.buckets.get(i));
+
+        cnt.addAndGet(other.cnt.get());
+        totalNanos.addAndGet(other.totalNanos.get());
+        maxNanos.accumulateAndGet(other.maxNanos.get(), Math::max);
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.set(i, 0);
+
+        cnt.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+}
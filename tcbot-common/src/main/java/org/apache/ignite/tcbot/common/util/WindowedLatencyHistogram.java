@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.common.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram of recent durations. Time is split to slots, each slot has its own {@link LatencyHistogram}, slot
+ * is cleared and reused when its time comes again. Snapshot merges all slots within the window, so window slides by
+ * slot duration.
+ *
+ * Slot switch is lock-free: durations recorded concurrently with clearing of the slot may be lost, which is acceptable
+ * for monitoring.
+ */
+public class WindowedLatencyHistogram {
+    /** Histograms by slot. */
+    private final LatencyHistogram[] slots;
+
+    /** Slot time numbers (time divided by slot duration) of current slot contents. */
+    private final AtomicLongArray slotTimes;
+
+    /** Slot duration, millis. */
+    private final long slotMs;
+
+    /**
+     * @param window Window duration, millis.
+     * @param slotsCnt Count of slots in window.
+     */
+    public WindowedLatencyHistogram(long window, int slotsCnt) {
+        slotMs = Math.max(window / slotsCnt, 1);
+        slots = new LatencyHistogram[slotsCnt];
+        slotTimes = new AtomicLongArray(slotsCnt);
+
+        for (int i = 0; i < slotsCnt; i++) {
+            slots[i] = new LatencyHistogram();
+            slotTimes.set(i, -1);
+        }
+    }
+
+    /**
+     * @param nanos Duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long slotTime = System.currentTimeMillis() / slotMs;
+        int idx = (int)(slotTime % slots.length);
+        long prevTime = slotTimes.get(idx);
+
+        if (prevTime != slotTime && slotTimes.compareAndSet(idx, prevTime, slotTime))
+            slots[idx].reset();
+
+        slots[idx].record(nanos);
+    }
+
+    /**
+     * @return Histogram of durations recorded within the window.
+     */
+    public LatencyHistogram snapshot() {
+        long minSlotTime = System.currentTimeMillis() / slotMs - slots.length + 1;
+        LatencyHistogram res = new LatencyHistogram();
+
+        for (int i = 0; i < slots.length; i++) {
+            if (slotTimes.get(i) >= minSlotTime)
+                res.add(slots[i]);
+        }
+
+        return res;
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public void reset() {
+        for (int i = 0; i < slots.length; i++) {
+            slotTimes.set(i, -1);
+            slots[i].reset();
+        }
+    }
+}
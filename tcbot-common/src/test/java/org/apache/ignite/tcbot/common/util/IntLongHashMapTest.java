@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.common.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks {@link IntLongHashMap} against {@link HashMap}.
+ */
+public class IntLongHashMapTest {
+    @Test
+    public void testPutGetAndOverwrite() {
+        IntLongHashMap map = new IntLongHashMap();
+
+        assertTrue(map.isEmpty());
+
+        map.put(1, 10L);
+        map.put(-1, -10L);
+        map.put(0, 0L);
+
+        assertEquals(3, map.size());
+        assertEquals(10L, map.get(1, -1L));
+        assertEquals(-10L, map.get(-1, -1L));
+        assertEquals(0L, map.get(0, -1L));
+
+        map.put(1, Long.MAX_VALUE);
+
+        assertEquals(3, map.size());
+        assertEquals(Long.MAX_VALUE, map.get(1, -1L));
+        assertFalse(map.isEmpty());
+    }
+
+    @Test
+    public void testMissingKeyReturnsDefault() {
+        IntLongHashMap map = new IntLongHashMap();
+
+        assertEquals(42L, map.get(7, 42L));
+        assertFalse(map.containsKey(7));
+
+        map.put(7, 1L);
+
+        assertTrue(map.containsKey(7));
+        assertEquals(-5L, map.get(8, -5L));
+        assertFalse(map.containsKey(8));
+
+        // Keys colliding in the same slot are distinguished.
+        map.put(7 + 16, 2L);
+
+        assertEquals(1L, map.get(7, 0L));
+        assertEquals(2L, map.get(7 + 16, 0L));
+        assertEquals(0L, map.get(7 + 32, 0L));
+    }
+
+    @Test
+    public void testGrowthPastResizeThreshold() {
+        IntLongHashMap map = new IntLongHashMap(2);
+        Map<Integer, Long> exp = new HashMap<>();
+        Random rnd = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            int key = rnd.nextInt(20_000) - 10_000;
+            long val = rnd.nextLong();
+
+            map.put(key, val);
+            exp.put(key, val);
+
+            assertEquals(exp.size(), map.size());
+            assertEquals(val, map.get(key, 0L));
+        }
+
+        exp.forEach((k, v) -> assertEquals((long)v, map.get(k, 0L)));
+
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+
+        assertEquals(exp.size(), keys.length);
+        assertTrue(Arrays.equals(exp.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), keys));
+
+        Map<Integer, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+
+        assertEquals(exp, iterated);
+
+        IntLongHashMap copy = new IntLongHashMap();
+        copy.putAll(map);
+
+        assertEquals(map.size(), copy.size());
+        exp.forEach((k, v) -> assertEquals((long)v, copy.get(k, 0L)));
+    }
+}
@@ -24,10 +24,12 @@ import org.apache.ignite.tcbot.common.interceptor.MonitoredTaskInterceptorModule
 import org.apache.ignite.tcbot.engine.board.BoardService;
 import org.apache.ignite.tcbot.engine.buildtime.BuildTimeService;
 import org.apache.ignite.tcbot.engine.chain.BuildChainProcessor;
+import org.apache.ignite.tcbot.engine.defect.DefectsStorage;
 import org.apache.ignite.tcbot.engine.issue.IIssuesStorage;
 import org.apache.ignite.tcbot.engine.issue.IssuesStorage;
 import org.apache.ignite.tcbot.engine.tracked.IDetailedStatusForTrackedBranch;
 import org.apache.ignite.tcbot.engine.tracked.TrackedBranchChainsProcessor;
+import org.apache.ignite.tcbot.engine.tracked.TrackedBranchResultsCache;
 
 /**
  *
@@ -37,12 +39,14 @@ public class TcBotEngineModule extends AbstractModule {
     @Override protected void configure() {
         bind(BuildChainProcessor.class).in(new SingletonScope());
         bind(IDetailedStatusForTrackedBranch.class).to(TrackedBranchChainsProcessor.class).in(new SingletonScope());
+        bind(TrackedBranchResultsCache.class).in(new SingletonScope());
 
         bind(BuildTimeService.class).in(new SingletonScope());
 
         bind(IIssuesStorage.class).to(IssuesStorage.class).in(new SingletonScope());
 
         bind(BoardService.class).in(new SingletonScope());
+        bind(DefectsStorage.class).in(new SingletonScope());
 
         install(new TcBotCommonModule());
     }
@@ -16,20 +16,22 @@
  */
 package org.apache.ignite.tcbot.engine.board;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import org.apache.ignite.ci.issue.Issue;
 import org.apache.ignite.ci.issue.IssueKey;
+import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.ci.teamcity.ignited.change.ChangeCompacted;
 import org.apache.ignite.ci.teamcity.ignited.change.ChangeDao;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
@@ -66,71 +68,121 @@ public class BoardService {
 
     @Inject BuildChainProcessor buildChainProcessor;
 
+    /** Materialized board. */
+    private final BoardView view = new BoardView();
+
     /**
      * @param creds Credentials.
      */
     public BoardSummaryUi summary(ICredentialsProv creds) {
+        return summary(creds, 0, 0);
+    }
+
+    /**
+     * Returns defects changed since provided version of board. Defect is rendered again only if it was changed or if
+     * recent builds of its suites were changed. Whole board is returned if version is from other epoch.
+     *
+     * @param creds Credentials.
+     * @param sinceEpoch Epoch of board version known to client.
+     * @param sinceVer Board version known to client, 0 for whole board.
+     */
+    public BoardSummaryUi summary(ICredentialsProv creds, long sinceEpoch, long sinceVer) {
         issuesToDefectsLater();
 
-        Map<Integer, Future<FatBuildCompacted>> allBuildsMap = new HashMap<>();
+        if (!view.isLoaded())
+            view.load(defectStorage.loadAllDefects());
 
-        List<DefectCompacted> defects = defectStorage.loadAllDefects();
+        Map<String, ITeamcityIgnited> servers = new HashMap<>();
+        Map<String, Integer> recentBuilds = new HashMap<>();
+        Map<Integer, Future<FatBuildCompacted>> allBuildsMap = new HashMap<>();
 
-        BoardSummaryUi res = new BoardSummaryUi();
-        for (DefectCompacted next : defects) {
-            BoardDefectSummaryUi defectUi = new BoardDefectSummaryUi(next, compactor);
+        Function<DefectCompacted, ITeamcityIgnited> srv = defect ->
+            servers.computeIfAbsent(defect.tcSrvCode(compactor), srvCode -> tcProv.server(srvCode, creds));
 
-            String srvCode = next.tcSrvCode(compactor);
+        return view.summary(sinceEpoch, sinceVer,
+            defect -> creds.hasAccess(defect.tcSrvCode(compactor)),
+            defect -> recentBuilds(defect, srv.apply(defect), recentBuilds),
+            defect -> render(defect, srv.apply(defect), allBuildsMap));
+    }
 
-            if(!creds.hasAccess(srvCode))
-                continue;
+    /**
+     * @param defect Defect.
+     * @param tcIgn Server.
+     * @param recentBuilds Cache of recent build ID by server, suite and branch.
+     * @return IDs of recent finished builds of defect suites, used to check if defect should be rendered again.
+     */
+    private List<Integer> recentBuilds(DefectCompacted defect, ITeamcityIgnited tcIgn,
+        Map<String, Integer> recentBuilds) {
+        List<Integer> res = new ArrayList<>();
+
+        for (DefectFirstBuild cause : defect.buildsInvolved().values()) {
+            String buildTypeId = compactor.getStringFromId(cause.buildTypeId());
+            String branch = compactor.getStringFromId(cause.branchName());
+            String key = tcIgn.serverCode() + "/" + buildTypeId + "/" + branch;
+
+            res.add(recentBuilds.computeIfAbsent(key, k ->
+                tcIgn.getAllBuildsCompacted(buildTypeId, branch)
+                    .stream()
+                    .filter(bref -> !bref.isCancelled(compactor))
+                    .filter(bref -> bref.isFinished(compactor))
+                    .mapToInt(BuildRefCompacted::id)
+                    .max()
+                    .orElse(-1)));
+        }
 
-            ITeamcityIgnited tcIgn = tcProv.server(srvCode, creds);
+        return res;
+    }
 
-            ITcServerConfig cfg = tcIgn.config();
+    /**
+     * @param next Defect.
+     * @param tcIgn Server.
+     * @param allBuildsMap Builds loaded during request.
+     */
+    private BoardDefectSummaryUi render(DefectCompacted next, ITeamcityIgnited tcIgn,
+        Map<Integer, Future<FatBuildCompacted>> allBuildsMap) {
+        BoardDefectSummaryUi defectUi = new BoardDefectSummaryUi(next, compactor);
 
-            List<BlameCandidate> candidates = next.blameCandidates();
+        ITcServerConfig cfg = tcIgn.config();
 
+        Map<Integer, DefectFirstBuild> build = next.buildsInvolved();
+        for (DefectFirstBuild cause : build.values()) {
+            FatBuildCompacted fatBuild = cause.build(fatBuildDao, next.tcSrvId());
+            if (fatBuild == null)
+                continue;
 
-            Map<Integer, DefectFirstBuild> build = next.buildsInvolved();
-            for (DefectFirstBuild cause : build.values()) {
-                FatBuildCompacted firstBuild = cause.build();
-                defectUi.addTags(SingleBuildRunCtx.getBuildTagsFromParameters(cfg, compactor, firstBuild));
-                FatBuildCompacted fatBuild = fatBuildDao.getFatBuild(next.tcSrvId(), firstBuild.id());
+            defectUi.addTags(SingleBuildRunCtx.getBuildTagsFromParameters(cfg, compactor, fatBuild));
 
-                List<Future<FatBuildCompacted>> futures = buildChainProcessor.replaceWithRecent(fatBuild, allBuildsMap, tcIgn);
+            List<Future<FatBuildCompacted>> futures = buildChainProcessor.replaceWithRecent(fatBuild, allBuildsMap, tcIgn);
 
-                Stream<FatBuildCompacted> results = FutureUtil.getResults(futures);
-                List<FatBuildCompacted> freshRebuild = results.collect(Collectors.toList());
-                if(!freshRebuild.isEmpty()) {
-                    FatBuildCompacted buildCompacted = freshRebuild.get(0);
+            Stream<FatBuildCompacted> results = FutureUtil.getResults(futures);
+            List<FatBuildCompacted> freshRebuild = results.collect(Collectors.toList());
+            if(!freshRebuild.isEmpty()) {
+                FatBuildCompacted buildCompacted = freshRebuild.get(0);
 
-                    Set<DefectIssue> issues = cause.issues();
-                    for (DefectIssue issue : issues) {
-                        Optional<ITest> any = buildCompacted.getAllTests()
-                            .filter(t -> t.testName() == issue.testNameCid())
-                            .findAny();
+                Map<Integer, ITest> tests = new HashMap<>();
+                buildCompacted.getAllTests().forEach(t -> tests.putIfAbsent(t.testName(), t));
 
-                        if(any.isPresent()) {
-                            boolean failed = any.get().isFailedTest(compactor);
-                            if(!failed)
-                                defectUi.addFixedIssue();
-                            else
-                                defectUi.addNotFixedIssue();
-                        }
+                Set<DefectIssue> issues = cause.issues();
+                for (DefectIssue issue : issues) {
+                    ITest test = tests.get(issue.testNameCid());
 
-                        String testOrBuildName = compactor.getStringFromId(issue.testNameCid());
-                        defectUi.addIssue(testOrBuildName, "");
+                    if(test != null) {
+                        boolean failed = test.isFailedTest(compactor);
+                        if(!failed)
+                            defectUi.addFixedIssue();
+                        else
+                            defectUi.addNotFixedIssue();
                     }
+
+                    String testOrBuildName = compactor.getStringFromId(issue.testNameCid());
+                    defectUi.addIssue(testOrBuildName, "");
                 }
             }
-
-            defectUi.branch =  next.tcBranch(compactor);
-
-            res.addDefect(defectUi);
         }
 
-        return res;
+        defectUi.branch =  next.tcBranch(compactor);
+
+        return defectUi;
     }
 
     public void issuesToDefectsLater() {
@@ -175,7 +227,7 @@ public class BoardService {
                 int trackedBranchCid = compactor.getStringId(issue.trackedBranchName);
 
                 int tcSrvCodeCid = compactor.getStringId(srvCode);
-                defectStorage.merge(tcSrvCodeCid, srvId, fatBuild,
+                DefectCompacted merged = defectStorage.merge(tcSrvCodeCid, srvId, fatBuild,
                     (k, defect) -> {
                         defect.trackedBranchCidSetIfEmpty(trackedBranchCid);
 
@@ -195,6 +247,7 @@ public class BoardService {
                         return defect;
                     });
 
+                view.defectChanged(merged);
             });
 
     }
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.board;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.apache.ignite.tcbot.engine.defect.DefectCompacted;
+import org.apache.ignite.tcbot.engine.ui.BoardDefectSummaryUi;
+import org.apache.ignite.tcbot.engine.ui.BoardSummaryUi;
+
+/**
+ * Materialized board: rendered summary of each open defect. Defect is rendered again only if it was changed, or if
+ * fingerprint of other data used for rendering (e.g. IDs of recent builds) was changed. Each row keeps board version of
+ * its last change, so client may request only rows changed since version known to it. Versions are valid only within
+ * epoch of the view, so if client version is from other epoch (e.g. bot was restarted), or if removals since client
+ * version are not kept anymore, whole board is returned.
+ *
+ * Rendering is done without lock, row is published only if defect was not changed concurrently.
+ */
+class BoardView {
+    /** Max count of removed defects kept to report removal to clients having older version of board. */
+    static final int MAX_REMOVED = 10_000;
+
+    /** Last epoch used by a view of this process. */
+    private static final AtomicLong LAST_EPOCH = new AtomicLong();
+
+    /** Epoch: creation time of this view, unique for views of the process. */
+    private final long epoch = LAST_EPOCH.updateAndGet(prev -> Math.max(prev + 1, System.currentTimeMillis()));
+
+    /** Board version, incremented on each change of any row. */
+    @GuardedBy("this")
+    private long ver;
+
+    /** Defect ID -> Row. */
+    @GuardedBy("this")
+    private final Map<Integer, Row> rows = new TreeMap<>();
+
+    /** Removed defect ID -> Board version of removal, ordered by version. */
+    @GuardedBy("this")
+    private final Map<Integer, Long> removed = new LinkedHashMap<>();
+
+    /** Max board version of removal which was evicted from {@link #removed}. */
+    @GuardedBy("this")
+    private long evictedRemovalVer;
+
+    /** Defects were loaded from storage. */
+    @GuardedBy("this")
+    private boolean loaded;
+
+    /**
+     * @return {@code True} if defects were loaded from storage.
+     */
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Adds defects loaded from storage. Defects already changed by {@link #defectChanged(DefectCompacted)} are newer
+     * than loaded ones and are kept.
+     *
+     * @param defects Open defects.
+     */
+    synchronized void load(Collection<DefectCompacted> defects) {
+        for (DefectCompacted defect : defects) {
+            if (!removed.containsKey(defect.id()))
+                rows.putIfAbsent(defect.id(), new Row(defect, null, null, 0));
+        }
+
+        loaded = true;
+    }
+
+    /**
+     * @param defect Created, updated or resolved defect.
+     */
+    synchronized void defectChanged(DefectCompacted defect) {
+        int id = defect.id();
+
+        if (defect.resolvedByUsernameId() >= 1) {
+            // Defect is remembered as removed even if it was not loaded yet, so it is not added by load.
+            rows.remove(id);
+            removed.remove(id);
+            removed.put(id, ++ver);
+
+            evictRemoved();
+
+            return;
+        }
+
+        Row prev = rows.get(id);
+
+        rows.put(id, new Row(defect, null, null, prev == null ? 0 : prev.ver));
+
+        removed.remove(id);
+    }
+
+    /**
+     * Evicts oldest removals if there are more than {@link #MAX_REMOVED} of them.
+     */
+    @GuardedBy("this")
+    private void evictRemoved() {
+        for (Iterator<Long> it = removed.values().iterator(); removed.size() > MAX_REMOVED; ) {
+            evictedRemovalVer = it.next();
+
+            it.remove();
+        }
+    }
+
+    /**
+     * Renders changed rows and returns rows changed since provided version. Whole board is returned if version is
+     * unknown for this view.
+     *
+     * @param sinceEpoch Epoch of board version known to client.
+     * @param sinceVer Board version known to client, 0 for whole board.
+     * @param access Filter of defects available for user.
+     * @param fingerprint Function to get fingerprint of data used for rendering besides defect itself.
+     * @param renderer Defect renderer.
+     * @return Board summary containing rows changed since provided version.
+     */
+    BoardSummaryUi summary(long sinceEpoch,
+        long sinceVer,
+        Predicate<DefectCompacted> access,
+        Function<DefectCompacted, Object> fingerprint,
+        Function<DefectCompacted, BoardDefectSummaryUi> renderer) {
+        List<Row> snapshot;
+
+        synchronized (this) {
+            snapshot = new ArrayList<>(rows.values());
+        }
+
+        List<Row> rendered = new ArrayList<>();
+
+        for (Row row : snapshot) {
+            if (!access.test(row.defect))
+                continue;
+
+            Object curFingerprint = fingerprint.apply(row.defect);
+
+            if (row.ui == null || !Objects.equals(row.fingerprint, curFingerprint))
+                rendered.add(new Row(row.defect, curFingerprint, renderer.apply(row.defect), 0));
+        }
+
+        BoardSummaryUi res = new BoardSummaryUi();
+
+        synchronized (this) {
+            boolean full = sinceEpoch != epoch || sinceVer <= 0 || sinceVer > ver || sinceVer < evictedRemovalVer;
+
+            if (full)
+                sinceVer = 0;
+
+            for (Row row : rendered) {
+                Row cur = rows.get(row.defect.id());
+
+                // Defect was changed during rendering, it will be rendered again by next request.
+                if (cur == null || cur.defect != row.defect)
+                    continue;
+
+                rows.put(row.defect.id(), new Row(row.defect, row.fingerprint, row.ui, ++ver));
+            }
+
+            for (Row row : rows.values()) {
+                if (row.ui != null && row.ver > sinceVer && access.test(row.defect))
+                    res.addDefect(row.ui);
+            }
+
+            if (!full) {
+                for (Map.Entry<Integer, Long> e : removed.entrySet()) {
+                    if (e.getValue() > sinceVer)
+                        res.addRemovedDefect(e.getKey());
+                }
+            }
+
+            res.fullBoard(full);
+            res.epoch(epoch);
+            res.version(ver);
+        }
+
+        return res;
+    }
+
+    /**
+     * Rendered defect, immutable.
+     */
+    private static class Row {
+        /** Defect. */
+        private final DefectCompacted defect;
+
+        /** Fingerprint of data used for rendering. */
+        @Nullable private final Object fingerprint;
+
+        /** Rendered defect, {@code null} if rendering is required. */
+        @Nullable private final BoardDefectSummaryUi ui;
+
+        /** Board version of last change of rendered defect. */
+        private final long ver;
+
+        /**
+         * @param defect Defect.
+         * @param fingerprint Fingerprint.
+         * @param ui Rendered defect.
+         * @param ver Version.
+         */
+        Row(DefectCompacted defect, @Nullable Object fingerprint, @Nullable BoardDefectSummaryUi ui, long ver) {
+            this.defect = defect;
+            this.fingerprint = fingerprint;
+            this.ui = ui;
+            this.ver = ver;
+        }
+    }
+}
@@ -17,20 +17,23 @@
 
 package org.apache.ignite.tcbot.engine.chain;
 
-import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -193,10 +196,8 @@ public class BuildChainProcessor {
 
             buildsForSuite.forEach(buildCompacted -> ctx.addBuild(loadChanges(buildCompacted, tcIgn)));
 
-            //ask for history for the suite in parallel
-            tcUpdatePool.getService().submit(() -> {
-                ctx.history(tcIgn, failRateBranchId, null);
-            });
+            //ask for history for the suite in parallel, it is only a prefetch
+            tcUpdatePool.submit(TcUpdatePool.Lane.BACKGROUND, () -> ctx.history(tcIgn, failRateBranchId, null));
 
             analyzeTests(ctx, tcIgn, procLog);
 
@@ -239,36 +240,29 @@ public class BuildChainProcessor {
         return fullChainRunCtx;
     }
 
+    /**
+     * Loads whole snapshot dependencies graph of the chains. Each frontier is read from the DB by one batched request,
+     * dependencies of a build are requested as soon as the build is available, without waiting for other builds of
+     * the same level. Builds requiring reload from TC are reloaded in parallel.
+     *
+     * @param entryPoints Entry point(s): Build(s) to start scan from.
+     * @param mode background data update mode.
+     * @param tcIgn Teamcity Ignited.
+     * @return Build ID to build future mapping, all futures are completed.
+     */
     @Nonnull
+    @AutoProfiling
     public Map<Integer, Future<FatBuildCompacted>> loadAllBuildsInChains(Collection<Integer> entryPoints,
         SyncMode mode,
         ITeamcityIgnited tcIgn) {
-        Map<Integer, Future<FatBuildCompacted>> builds = new ConcurrentHashMap<>();
+        ChainGraphLoad load = new ChainGraphLoad(mode, tcIgn,
+            mode == SyncMode.NONE ? MoreExecutors.newDirectExecutorService() : tcUpdatePool.getService());
 
-        Stream<Future<FatBuildCompacted>> entryPointsFatBuilds = entryPoints.stream()
-            .filter(Objects::nonNull)
-            .map(id -> getOrLoadBuild(id, mode, builds, tcIgn));
+        load.loadFrontier(entryPoints.stream().filter(Objects::nonNull));
 
-        Set<Integer> remainedUnloadedDeps = entryPointsFatBuilds
-            .flatMap(ref -> dependencies(ref, mode, builds, tcIgn).stream()).collect(Collectors.toSet());
+        load.await();
 
-        for (int level = 1; level < 5; level++) {
-            if (remainedUnloadedDeps.isEmpty())
-                break;
-
-            Set<Integer> depsNextLevel = remainedUnloadedDeps
-                .stream()
-                .map(builds::get)
-                .peek(val -> Preconditions.checkNotNull(val, "Build future should be in context"))
-                .flatMap(ref -> dependencies(ref, mode, builds, tcIgn).stream()).collect(Collectors.toSet());
-
-            if(logger.isDebugEnabled())
-                logger.debug("Level [" + level + "] dependencies:" + depsNextLevel);
-
-            remainedUnloadedDeps = depsNextLevel;
-        }
-
-        return builds;
+        return load.builds;
     }
 
     @Nonnull
@@ -455,31 +449,6 @@ public class BuildChainProcessor {
         }
     }
 
-    /**
-     * @param buildFut Chain build future.
-     * @param mode Mode.
-     * @param builds Build futures map.
-     * @param teamcityIgnited Teamcity ignited.
-     * @return Set of new builds found during this dependencies check round.
-     */
-    @Nonnull
-    private Set<Integer> dependencies(
-        Future<FatBuildCompacted> buildFut,
-        SyncMode mode,
-        Map<Integer, Future<FatBuildCompacted>> builds,
-        ITeamcityIgnited teamcityIgnited) {
-        Set<Integer> newBuilds = new HashSet<>();
-
-        IntStream.of(FutureUtil.getResult(buildFut).snapshotDependencies())
-            .forEach(id -> builds.computeIfAbsent(id, id0 -> {
-                newBuilds.add(id0);
-
-                return loadBuildAsync(id0, mode, teamcityIgnited);
-            }));
-
-        return newBuilds;
-    }
-
     public Future<FatBuildCompacted> loadBuildAsync(Integer id, SyncMode mode, ITeamcityIgnited teamcityIgnited) {
         if (mode == SyncMode.NONE)
             return Futures.immediateFuture(teamcityIgnited.getFatBuild(id, SyncMode.NONE));
@@ -490,4 +459,112 @@ public class BuildChainProcessor {
     private List<Future<FatBuildCompacted>> completed(List<FatBuildCompacted> builds) {
         return builds.stream().map(Futures::immediateFuture).collect(Collectors.toList());
     }
+    /**
+     * Snapshot dependencies graph being loaded.
+     */
+    private static class ChainGraphLoad {
+        /** Mode. */
+        private final SyncMode mode;
+
+        /** Teamcity ignited. */
+        private final ITeamcityIgnited tcIgn;
+
+        /** Executor for loading. */
+        private final ExecutorService executor;
+
+        /** Build futures, futures of dependencies are registered before parent future is completed. */
+        private final Map<Integer, Future<FatBuildCompacted>> builds = new ConcurrentHashMap<>();
+
+        /** Submitted tasks, each task submits its subtasks before completion. */
+        private final Queue<Future<?>> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * @param mode Mode.
+         * @param tcIgn Teamcity ignited.
+         * @param executor Executor.
+         */
+        ChainGraphLoad(SyncMode mode, ITeamcityIgnited tcIgn, ExecutorService executor) {
+            this.mode = mode;
+            this.tcIgn = tcIgn;
+            this.executor = executor;
+        }
+
+        /**
+         * Waits for all tasks, including tasks submitted during waiting.
+         */
+        void await() {
+            Future<?> task;
+
+            while ((task = tasks.poll()) != null)
+                FutureUtil.getResult(task);
+        }
+
+        /**
+         * Registers futures for builds not yet known and submits one batched load for them.
+         *
+         * @param ids Build IDs.
+         */
+        void loadFrontier(Stream<Integer> ids) {
+            Map<Integer, CompletableFuture<FatBuildCompacted>> frontier = new HashMap<>();
+
+            ids.forEach(id -> {
+                CompletableFuture<FatBuildCompacted> fut = new CompletableFuture<>();
+
+                if (builds.putIfAbsent(id, fut) == null)
+                    frontier.put(id, fut);
+            });
+
+            if (frontier.isEmpty())
+                return;
+
+            if (logger.isDebugEnabled())
+                logger.debug("Loading dependencies frontier: " + frontier.keySet());
+
+            tasks.add(executor.submit(() -> {
+                Map<Integer, FatBuildCompacted> actual;
+
+                try {
+                    actual = tcIgn.getActualFatBuilds(frontier.keySet(), mode);
+
+                    frontier.forEach((id, fut) -> {
+                        if (!actual.containsKey(id))
+                            tasks.add(executor.submit(() -> loadBuild(id, fut)));
+                    });
+
+                    loadFrontier(actual.values().stream()
+                        .flatMap(b -> IntStream.of(b.snapshotDependencies()).boxed()));
+                }
+                catch (Throwable e) {
+                    frontier.values().forEach(fut -> fut.completeExceptionally(e));
+
+                    throw e;
+                }
+
+                actual.forEach((id, b) -> frontier.get(id).complete(b));
+            }));
+        }
+
+        /**
+         * Loads single build, submits load of its dependencies and completes build future after that.
+         *
+         * @param id Build ID.
+         * @param fut Future to complete.
+         */
+        private void loadBuild(Integer id, CompletableFuture<FatBuildCompacted> fut) {
+            FatBuildCompacted build;
+
+            try {
+                build = tcIgn.getFatBuild(id, mode);
+
+                loadFrontier(IntStream.of(build.snapshotDependencies()).boxed());
+            }
+            catch (Throwable e) {
+                fut.completeExceptionally(e);
+
+                throw e;
+            }
+
+            fut.complete(build);
+        }
+    }
 }
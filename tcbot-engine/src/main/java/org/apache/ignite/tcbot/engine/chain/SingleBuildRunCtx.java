@@ -150,10 +150,8 @@ public class SingleBuildRunCtx implements ISuiteResults {
     @Nullable public Integer getBuildIdIfHasThreadDump() {
         ILogCheckResult logCheckRes = getLogCheckIfFinished();
 
-        if (logCheckRes == null || !logCheckRes.hasThreadDump())
-            return null;
-
-        return !Strings.isNullOrEmpty(logCheckRes.getLastThreadDump()) ? buildId() : null;
+        // Empty dump is never stored, so there is no need to decompress it.
+        return logCheckRes != null && logCheckRes.hasThreadDump() ? buildId() : null;
     }
 
     @Nullable public ILogCheckResult getLogCheckIfFinished() {
@@ -26,6 +26,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.ignite.tcbot.common.conf.IBuildParameterSpec;
 import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
+import org.apache.ignite.tcbot.common.util.HttpUtil;
 
 /**
  * Teamcity connection configuration or reference to another config.
@@ -36,6 +37,9 @@ public class TcServerConfig implements ITcServerConfig {
 
     public static final String TC_BUILD_LOGS_DIR = "logs";
 
+    /** Default max count of builds per second loaded from the server by background loader. */
+    public static final int DEFAULT_FAT_BUILDS_LOAD_RATE = 100;
+
     /** TC server name. */
     @Nonnull private String code;
 
@@ -69,6 +73,18 @@ public class TcServerConfig implements ITcServerConfig {
     /** Additional service code to check access before allowing accessing this service. */
     private String additionalServiceToCheckAccess;
 
+    /** HTTP connect timeout, milliseconds. */
+    @Nullable private Integer connectTimeoutMs;
+
+    /** HTTP read timeout, milliseconds. */
+    @Nullable private Integer readTimeoutMs;
+
+    /** Max count of HTTP requests to the server executed concurrently. */
+    @Nullable private Integer maxConcurrentRequests;
+
+    /** Max count of builds per second loaded from the server by background loader. */
+    @Nullable private Integer fatBuildsLoadRate;
+
     public TcServerConfig() {
 
     }
@@ -150,6 +166,30 @@ public class TcServerConfig implements ITcServerConfig {
         return Collections.unmodifiableList(trustedSuites);
     }
 
+    /** {@inheritDoc} */
+    @Override public int connectTimeoutMs() {
+        return connectTimeoutMs != null && connectTimeoutMs > 0 ? connectTimeoutMs : HttpUtil.DFLT_TIMEOUT_MS;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int readTimeoutMs() {
+        return readTimeoutMs != null && readTimeoutMs > 0 ? readTimeoutMs : HttpUtil.DFLT_TIMEOUT_MS;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int maxConcurrentRequests() {
+        return maxConcurrentRequests != null && maxConcurrentRequests > 0
+            ? maxConcurrentRequests
+            : DEFAULT_MAX_CONCURRENT_REQUESTS;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int fatBuildsLoadRate() {
+        return fatBuildsLoadRate != null && fatBuildsLoadRate > 0
+            ? fatBuildsLoadRate
+            : DEFAULT_FAT_BUILDS_LOAD_RATE;
+    }
+
     /**
      * @param props Properties.
      */
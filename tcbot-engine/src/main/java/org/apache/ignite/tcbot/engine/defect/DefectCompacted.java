@@ -59,6 +59,15 @@ public class DefectCompacted {
         return resolvedByUsernameId;
     }
 
+    /**
+     * @param usernameId Compactor string ID of user resolved the defect.
+     */
+    public DefectCompacted resolvedByUsernameId(int usernameId) {
+        resolvedByUsernameId = usernameId;
+
+        return this;
+    }
+
     /**
      * @param collect Collected commits, should be sorted.
      */
@@ -76,10 +85,31 @@ public class DefectCompacted {
         return this;
     }
 
+    /**
+     * @return Commits hashes involved, sorted.
+     */
+    public List<CommitCompacted> commits() {
+        return Collections.unmodifiableList(commits);
+    }
+
     public Map<Integer, DefectFirstBuild> buildsInvolved() {
         return Collections.unmodifiableMap(buildsInvolved);
     }
 
+    /**
+     * Converts first builds saved by previous versions to slim format.
+     *
+     * @return {@code True} if entity was changed and should be saved.
+     */
+    public boolean migrate() {
+        boolean changed = false;
+
+        for (DefectFirstBuild build : buildsInvolved.values())
+            changed |= build.migrate();
+
+        return changed;
+    }
+
     public DefectFirstBuild computeIfAbsent(FatBuildCompacted build) {
         return buildsInvolved.computeIfAbsent(build.id(), k -> new DefectFirstBuild(build));
     }
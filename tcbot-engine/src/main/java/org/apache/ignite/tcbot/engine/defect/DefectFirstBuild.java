@@ -19,17 +19,64 @@ package org.apache.ignite.tcbot.engine.defect;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.tcbot.persistence.Persisted;
+import org.apache.ignite.tcignited.build.FatBuildDao;
 
+/**
+ * First failed build of defect. Contains only build data required for the board, full build is available from {@link
+ * FatBuildDao}.
+ */
 @Persisted
 public class DefectFirstBuild {
-    private FatBuildCompacted build;
+    /** Build ID. */
+    private int buildId;
+
+    /** Build type ID compactor string ID. */
+    private int buildTypeId = -1;
+
+    /** Build type name compactor string ID. */
+    private int buildTypeName = -1;
+
+    /** Branch name compactor string ID. */
+    private int branchName = -1;
+
+    /** Full build, was saved by previous versions. Is removed by {@link #migrate()}. */
+    @Deprecated
+    @Nullable private FatBuildCompacted build;
 
     private Set<DefectIssue> issues = new HashSet<>();
 
     public DefectFirstBuild(FatBuildCompacted build) {
-        this.build = build;
+        init(build);
+    }
+
+    /**
+     * @param build Build.
+     */
+    private void init(FatBuildCompacted build) {
+        buildId = build.id();
+        buildTypeId = build.buildTypeId();
+        buildTypeName = build.buildTypeName();
+        branchName = build.branchName();
+    }
+
+    /**
+     * Replaces full build saved by previous versions with build data required.
+     *
+     * @return {@code True} if entity was changed and should be saved.
+     */
+    @SuppressWarnings("deprecation")
+    public boolean migrate() {
+        if (build == null)
+            return false;
+
+        init(build);
+
+        build = null;
+
+        return true;
     }
 
     public DefectFirstBuild addIssue(int typeCid, Integer testNameCid) {
@@ -38,8 +85,37 @@ public class DefectFirstBuild {
         return this;
     }
 
-    public FatBuildCompacted build() {
-        return build;
+    /** */
+    @SuppressWarnings("deprecation")
+    public int buildId() {
+        return build != null ? build.id() : buildId;
+    }
+
+    /** */
+    @SuppressWarnings("deprecation")
+    public int buildTypeId() {
+        return build != null ? build.buildTypeId() : buildTypeId;
+    }
+
+    /** */
+    @SuppressWarnings("deprecation")
+    public int buildTypeName() {
+        return build != null ? build.buildTypeName() : buildTypeName;
+    }
+
+    /** */
+    @SuppressWarnings("deprecation")
+    public int branchName() {
+        return build != null ? build.branchName() : branchName;
+    }
+
+    /**
+     * @param fatBuildDao Fat build DAO.
+     * @param srvId Server ID.
+     * @return Full build or {@code null} if build is not found.
+     */
+    @Nullable public FatBuildCompacted build(FatBuildDao fatBuildDao, int srvId) {
+        return fatBuildDao.getFatBuild(srvId, buildId());
     }
 
     public Set<DefectIssue> issues() {
@@ -16,13 +16,15 @@
  */
 package org.apache.ignite.tcbot.engine.defect;
 
+import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.GuardedBy;
 import javax.cache.Cache;
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -37,9 +39,17 @@ import org.apache.ignite.ci.teamcity.ignited.change.ChangeDao;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
+import org.apache.ignite.transactions.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.ignite.transactions.TransactionConcurrency.PESSIMISTIC;
+import static org.apache.ignite.transactions.TransactionIsolation.REPEATABLE_READ;
 
-@NotThreadSafe
 public class DefectsStorage {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(DefectsStorage.class);
+
     /** Bot detected defects. */
     public static final String BOT_DETECTED_DEFECTS = "botDetectedDefects";
     /** Bot detected defects sequence. */
@@ -50,6 +60,10 @@ public class DefectsStorage {
     @Inject
     private ChangeDao changeDao;
 
+    /** Open defects index, {@code null} until first merge. */
+    @GuardedBy("this")
+    private OpenDefectsIndex openDefects;
+
 
     public DefectsStorage() {
     }
@@ -74,63 +88,114 @@ public class DefectsStorage {
         return ignite.getOrCreateCache(ccfg);
     }
 
-    public DefectCompacted merge(
+    /**
+     * Merges detected issue into open defect caused by the same first build or the same commits, or creates new
+     * defect. Open defects are found using in-memory index, defect and index are updated under lock, defect is saved in
+     * transaction.
+     *
+     * @param tcSrvCodeCid Server code compactor string ID.
+     * @param srvId Server ID.
+     * @param fatBuild First failed build.
+     * @param function Function to apply to existing or new defect.
+     */
+    public synchronized DefectCompacted merge(
         int tcSrvCodeCid,
         final int srvId,
         FatBuildCompacted fatBuild,
         BiFunction<Integer, DefectCompacted, DefectCompacted> function) {
 
         IgniteCache<Integer, DefectCompacted> cache = cache();
+        OpenDefectsIndex idx = openDefects(cache);
 
-        try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
-            .setFilter((k, v) -> v.resolvedByUsernameId() < 1 && v.tcSrvId() == srvId))) {
-            for (Cache.Entry<Integer, DefectCompacted> next : qry) {
-                DefectCompacted openDefect = next.getValue();
+        Integer id = idx.defectForBuild(srvId, fatBuild.id());
+
+        Map<Integer, ChangeCompacted> changeList = null;
+        List<CommitCompacted> commitsToUse = null;
+
+        if (id == null) {
+            int[] changes = fatBuild.changes();
+            changeList = changeDao.getAll(srvId, changes);
+
+            commitsToUse = changeList
+                .values()
+                .stream()
+                .map(ChangeCompacted::commitVersion)
+                .map(CommitCompacted::new)
+                .sorted(CommitCompacted::compareTo)
+                .collect(Collectors.toList());
+
+            id = idx.defectForCommits(srvId, commitsToUse);
+        }
+
+        boolean create = id == null;
 
-                if (openDefect.hasBuild(fatBuild.id()))
-                    return processExisting(function, cache, next.getKey(), openDefect);
+        if (create)
+            id = (int)sequence().incrementAndGet();
+
+        DefectCompacted res;
+
+        try (Transaction tx = getIgnite().transactions().txStart(PESSIMISTIC, REPEATABLE_READ)) {
+            if (create) {
+                DefectCompacted defect = new DefectCompacted(id)
+                    .commits(commitsToUse)
+                    .changeMap(changeList)
+                    .tcBranch(fatBuild.branchName())
+                    .tcSrvId(srvId)
+                    .tcSrvCodeCid(tcSrvCodeCid);
+
+                res = function.apply(id, defect);
+
+                cache.putIfAbsent(id, res);
             }
+            else {
+                DefectCompacted openDefect = cache.get(id);
+
+                Preconditions.checkState(openDefect != null, "Indexed open defect is missing: " + id);
+
+                res = processExisting(function, cache, id, openDefect);
+            }
+
+            tx.commit();
         }
 
-        int[] changes = fatBuild.changes();
-        Map<Integer, ChangeCompacted> changeList = changeDao.getAll(srvId, changes);
+        idx.put(res);
+
+        return res;
+    }
 
-        List<CommitCompacted> commitsToUse = changeList
-            .values()
-            .stream()
-            .map(ChangeCompacted::commitVersion)
-            .map(CommitCompacted::new)
-            .sorted(CommitCompacted::compareTo)
-            .collect(Collectors.toList());
+    /**
+     * @param cache Defects cache.
+     * @return Index of open defects, loaded from the cache at first usage.
+     */
+    @GuardedBy("this")
+    private OpenDefectsIndex openDefects(IgniteCache<Integer, DefectCompacted> cache) {
+        if (openDefects != null)
+            return openDefects;
+
+        OpenDefectsIndex idx = new OpenDefectsIndex();
 
         try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
-            .setFilter((k, v) -> v.resolvedByUsernameId() < 1 && v.tcSrvId() == srvId))) {
+            .setFilter((k, v) -> v.resolvedByUsernameId() < 1))) {
             for (Cache.Entry<Integer, DefectCompacted> next : qry) {
                 DefectCompacted openDefect = next.getValue();
 
-                if (openDefect.sameCommits(commitsToUse))
-                    return processExisting(function, cache, next.getKey(), openDefect);
+                openDefect.id(next.getKey());
+
+                idx.put(openDefect);
             }
         }
 
-        int id = (int)sequence().incrementAndGet();
-
-        DefectCompacted defect = new DefectCompacted(id)
-            .commits(commitsToUse)
-            .changeMap(changeList)
-            .tcBranch(fatBuild.branchName())
-            .tcSrvId(srvId)
-            .tcSrvCodeCid(tcSrvCodeCid);
-
-        DefectCompacted defectT = function.apply(id, defect);
+        logger.info("Open defects index loaded: " + idx.size() + " defects");
 
-        boolean putSuccess = cache.putIfAbsent(id, defectT);
+        openDefects = idx;
 
-        return defectT;
+        return idx;
     }
 
     public DefectCompacted processExisting(BiFunction<Integer, DefectCompacted, DefectCompacted> function,
         IgniteCache<Integer, DefectCompacted> cache, Integer id, DefectCompacted openDefect) {
+        openDefect.migrate();
+
         DefectCompacted defect = function.apply(id, openDefect);
 
         defect.id(id);
@@ -140,6 +205,47 @@ public class DefectsStorage {
         return defect;
     }
 
+    /**
+     * Converts first builds of all defects saved by previous versions to slim format.
+     *
+     * @param ignite Ignite.
+     * @param batchSize Count of entries saved at once.
+     * @return Count of migrated entries.
+     */
+    public static int migrateFirstBuilds(Ignite ignite, int batchSize) {
+        IgniteCache<Integer, DefectCompacted> cache = ignite.cache(BOT_DETECTED_DEFECTS);
+
+        if (cache == null)
+            return 0;
+
+        int cnt = 0;
+        Map<Integer, DefectCompacted> batch = new TreeMap<>();
+
+        for (Cache.Entry<Integer, DefectCompacted> next : cache) {
+            DefectCompacted defect = next.getValue();
+
+            if (!defect.migrate())
+                continue;
+
+            batch.put(next.getKey(), defect);
+
+            if (batch.size() >= batchSize) {
+                cache.putAll(batch);
+
+                cnt += batch.size();
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            cache.putAll(batch);
+
+            cnt += batch.size();
+        }
+
+        return cnt;
+    }
+
     public List<DefectCompacted> loadAllDefects() {
         List<DefectCompacted> res = new ArrayList<>();
         try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache().query(new ScanQuery<Integer, DefectCompacted>()
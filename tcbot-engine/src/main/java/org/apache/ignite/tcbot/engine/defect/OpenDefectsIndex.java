@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.defect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * In-memory index of open (not resolved) defects: defect ID by (server, first build ID) and by (server, commits
+ * involved). Contains same data as would be found by scan of all defects, so merge of detected issue into defect does
+ * not require scan.
+ */
+@NotThreadSafe
+class OpenDefectsIndex {
+    /** Server ID and first build ID -> Defect ID. */
+    private final Map<Long, Integer> byBuild = new HashMap<>();
+
+    /** Server ID -> Sorted commits -> Defect ID. */
+    private final Map<Integer, Map<List<CommitCompacted>, Integer>> byCommits = new HashMap<>();
+
+    /**
+     * Adds open defect to index, or removes resolved defect from it.
+     *
+     * @param defect Defect, ID should be set.
+     */
+    void put(DefectCompacted defect) {
+        if (defect.resolvedByUsernameId() >= 1) {
+            remove(defect);
+
+            return;
+        }
+
+        int id = defect.id();
+
+        for (Integer buildId : defect.buildsInvolved().keySet())
+            byBuild.putIfAbsent(buildKey(defect.tcSrvId(), buildId), id);
+
+        byCommits.computeIfAbsent(defect.tcSrvId(), k -> new HashMap<>())
+            .putIfAbsent(new ArrayList<>(defect.commits()), id);
+    }
+
+    /**
+     * @param defect Defect to remove.
+     */
+    void remove(DefectCompacted defect) {
+        int id = defect.id();
+
+        for (Integer buildId : defect.buildsInvolved().keySet())
+            byBuild.remove(buildKey(defect.tcSrvId(), buildId), id);
+
+        Map<List<CommitCompacted>, Integer> srvCommits = byCommits.get(defect.tcSrvId());
+
+        if (srvCommits != null)
+            srvCommits.remove(defect.commits(), id);
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param buildId Build ID.
+     * @return ID of open defect having the build as first failed build, or {@code null}.
+     */
+    @Nullable Integer defectForBuild(int srvId, int buildId) {
+        return byBuild.get(buildKey(srvId, buildId));
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param commits Sorted commits.
+     * @return ID of open defect caused by the same commits, or {@code null}.
+     */
+    @Nullable Integer defectForCommits(int srvId, List<CommitCompacted> commits) {
+        Map<List<CommitCompacted>, Integer> srvCommits = byCommits.get(srvId);
+
+        return srvCommits == null ? null : srvCommits.get(commits);
+    }
+
+    /**
+     * @return Count of indexed open defects.
+     */
+    int size() {
+        return (int)byCommits.values().stream().mapToLong(Map::size).sum();
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param buildId Build ID.
+     */
+    private static long buildKey(int srvId, int buildId) {
+        return (long)buildId & 0xFFFFFFFFL | (long)srvId << 32;
+    }
+}
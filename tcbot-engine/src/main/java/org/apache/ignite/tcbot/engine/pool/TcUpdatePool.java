@@ -17,18 +17,61 @@
 
 package org.apache.ignite.tcbot.engine.pool;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
 
 /**
- * Component for storing catchable results into ignite and get updates
+ * Component for storing catchable results into ignite and get updates.
+ *
+ * Tasks are queued in priority lanes: {@link Lane#INTERACTIVE} tasks are started before any {@link Lane#BACKGROUND}
+ * task. Each lane queue is bounded, if it is full the task is executed by the submitting thread. By default, tasks
+ * submitted in a {@link RequestScope} are interactive, tasks submitted by other threads are background ones. Tasks
+ * inherit lane and request scope of the task submitting them.
  */
 public class TcUpdatePool {
+    /** Count of pool threads. */
+    public static final int THREADS = 30;
+
+    /** Max count of tasks waiting in one lane. */
+    public static final int MAX_QUEUED_PER_LANE = 1000;
+
+    /** Current request scope of thread. */
+    private static final ThreadLocal<RequestScope> CUR_SCOPE = new ThreadLocal<>();
+
+    /** Lane of task being executed by pool thread. */
+    private static final ThreadLocal<Lane> CUR_LANE = new ThreadLocal<>();
+
+    /** Tasks sequence, preserves FIFO order inside of a lane. */
+    private static final AtomicLong TASK_SEQ = new AtomicLong();
+
     private ThreadFactory threadFactory = Executors.defaultThreadFactory();
 
-    private ExecutorService service = Executors.newFixedThreadPool(30, r -> {
+    /** Lane metrics. */
+    private final Map<Lane, LaneMetrics> metrics = new EnumMap<>(Lane.class);
+
+    {
+        for (Lane lane : Lane.values())
+            metrics.put(lane, new LaneMetrics());
+    }
+
+    private LanesExecutor service = new LanesExecutor(r -> {
         Thread thread = threadFactory.newThread(r);
 
         thread.setName("tc-upd-" + thread.getName());
@@ -36,14 +79,66 @@ public class TcUpdatePool {
         return thread;
     });
 
-
     /**
-     * @return Executor service to process TC communication requests there.
+     * @return Executor service to process TC communication requests there. Lane of tasks is determined by the
+     * submitting thread.
      */
     public ExecutorService getService() {
         return service;
     }
 
+    /**
+     * @param lane Lane.
+     * @param task Task.
+     * @return Future of task result.
+     */
+    public <T> Future<T> submit(Lane lane, Callable<T> task) {
+        PoolTask<T> poolTask = new PoolTask<>(task, lane);
+
+        service.execute(poolTask);
+
+        return poolTask;
+    }
+
+    /**
+     * Opens request scope in the current thread, replacing previous scope if it was not closed. Tasks submitted in the
+     * scope may be cancelled all together.
+     *
+     * @return Scope of the request.
+     */
+    public RequestScope openScope() {
+        RequestScope scope = new RequestScope();
+
+        CUR_SCOPE.set(scope);
+
+        return scope;
+    }
+
+    /**
+     * @return Metrics of lanes.
+     */
+    public Map<Lane, LaneMetrics> metrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Resets timings of all lanes.
+     */
+    public void resetMetrics() {
+        metrics.values().forEach(LaneMetrics::reset);
+    }
+
+    /**
+     * @return Lane for tasks submitted by the current thread.
+     */
+    private static Lane currentLane() {
+        Lane lane = CUR_LANE.get();
+
+        if (lane != null)
+            return lane;
+
+        return CUR_SCOPE.get() != null ? Lane.INTERACTIVE : Lane.BACKGROUND;
+    }
 
     public void stop() {
         service.shutdown();
@@ -54,4 +149,255 @@ public class TcUpdatePool {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * Priority lane.
+     */
+    public enum Lane {
+        /** Data required to answer UI request. */
+        INTERACTIVE,
+
+        /** Scheduled checks and speculative prefetch. */
+        BACKGROUND
+    }
+
+    /**
+     * Tasks submitted by a request, removed on completion.
+     */
+    public static class RequestScope implements AutoCloseable {
+        /** Unfinished tasks. */
+        private final Set<PoolTask<?>> tasks = ConcurrentHashMap.newKeySet();
+
+        /** Scope was cancelled. */
+        private volatile boolean cancelled;
+
+        /**
+         * Cancels tasks of the scope which are not started yet. Tasks being executed are not interrupted, because
+         * interruption may break Ignite operations. New tasks of the scope are cancelled on submit.
+         *
+         * @return Count of cancelled tasks.
+         */
+        public int cancel() {
+            cancelled = true;
+
+            int cnt = 0;
+
+            for (PoolTask<?> task : tasks) {
+                if (task.cancel(false))
+                    cnt++;
+            }
+
+            return cnt;
+        }
+
+        /**
+         * Detaches scope from the current thread, submitted tasks continue execution.
+         */
+        @Override public void close() {
+            if (CUR_SCOPE.get() == this)
+                CUR_SCOPE.remove();
+        }
+    }
+
+    /**
+     * Metrics of one lane.
+     */
+    public static class LaneMetrics {
+        /** Tasks waiting for execution. */
+        private final AtomicInteger queued = new AtomicInteger();
+
+        /** Tasks executed by submitter because lane was full. */
+        private final AtomicLong callerRuns = new AtomicLong();
+
+        /** Cancelled tasks. */
+        private final AtomicLong cancelled = new AtomicLong();
+
+        /** Time spent in queue. */
+        private final LatencyHistogram wait = new LatencyHistogram();
+
+        /** Execution time. */
+        private final LatencyHistogram exec = new LatencyHistogram();
+
+        /**
+         * @return Tasks waiting for execution.
+         */
+        public int queued() {
+            return queued.get();
+        }
+
+        /**
+         * @return Tasks executed by submitter because lane was full.
+         */
+        public long callerRuns() {
+            return callerRuns.get();
+        }
+
+        /**
+         * @return Cancelled tasks.
+         */
+        public long cancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * @return Time spent in queue.
+         */
+        public LatencyHistogram waitTime() {
+            return wait;
+        }
+
+        /**
+         * @return Execution time.
+         */
+        public LatencyHistogram execTime() {
+            return exec;
+        }
+
+        /** */
+        private void reset() {
+            callerRuns.set(0);
+            cancelled.set(0);
+            wait.reset();
+            exec.reset();
+        }
+    }
+
+    /**
+     * Task ordered by lane, and then by submission order.
+     */
+    private class PoolTask<T> extends FutureTask<T> implements Comparable<PoolTask<?>> {
+        /** Lane. */
+        private final Lane lane;
+
+        /** Request scope. */
+        @Nullable private final RequestScope scope;
+
+        /** Submission order. */
+        private final long seq = TASK_SEQ.incrementAndGet();
+
+        /** Enqueue time. */
+        private long enqueuedNs;
+
+        /**
+         * @param callable Callable.
+         * @param lane Lane.
+         */
+        PoolTask(Callable<T> callable, Lane lane) {
+            super(callable);
+
+            this.lane = lane;
+
+            scope = CUR_SCOPE.get();
+
+            if (scope != null) {
+                scope.tasks.add(this);
+
+                if (scope.cancelled)
+                    cancel(false);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            if (isDone())
+                return;
+
+            long startNs = System.nanoTime();
+            LaneMetrics laneMetrics = metrics.get(lane);
+
+            if (enqueuedNs != 0)
+                laneMetrics.wait.record(startNs - enqueuedNs);
+
+            Lane prevLane = CUR_LANE.get();
+            RequestScope prevScope = CUR_SCOPE.get();
+
+            CUR_LANE.set(lane);
+            CUR_SCOPE.set(scope);
+
+            try {
+                super.run();
+            }
+            finally {
+                CUR_LANE.set(prevLane);
+                CUR_SCOPE.set(prevScope);
+
+                laneMetrics.exec.record(System.nanoTime() - startNs);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void done() {
+            if (isCancelled())
+                metrics.get(lane).cancelled.incrementAndGet();
+
+            if (scope != null)
+                scope.tasks.remove(this);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(PoolTask<?> o) {
+            int res = lane.compareTo(o.lane);
+
+            return res != 0 ? res : Long.compare(seq, o.seq);
+        }
+    }
+
+    /**
+     * Executor with priority queue bounded per lane.
+     */
+    private class LanesExecutor extends ThreadPoolExecutor {
+        /**
+         * @param threadFactory Thread factory.
+         */
+        LanesExecutor(ThreadFactory threadFactory) {
+            super(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), threadFactory);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new PoolTask<>(callable, currentLane());
+        }
+
+        /** {@inheritDoc} */
+        @Override protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T val) {
+            return new PoolTask<>(Executors.callable(runnable, val), currentLane());
+        }
+
+        /** {@inheritDoc} */
+        @Override public void execute(Runnable cmd) {
+            PoolTask<?> task = cmd instanceof PoolTask
+                ? (PoolTask<?>)cmd
+                : new PoolTask<>(Executors.callable(cmd), currentLane());
+
+            if (task.isDone())
+                return;
+
+            LaneMetrics laneMetrics = metrics.get(task.lane);
+
+            if (laneMetrics.queued.incrementAndGet() > MAX_QUEUED_PER_LANE && !isShutdown()) {
+                laneMetrics.queued.decrementAndGet();
+                laneMetrics.callerRuns.incrementAndGet();
+
+                task.run();
+
+                return;
+            }
+
+            task.enqueuedNs = System.nanoTime();
+
+            try {
+                super.execute(task);
+            }
+            catch (RuntimeException e) {
+                laneMetrics.queued.decrementAndGet();
+
+                throw e;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void beforeExecute(Thread t, Runnable r) {
+            metrics.get(((PoolTask<?>)r).lane).queued.decrementAndGet();
+        }
+    }
 }
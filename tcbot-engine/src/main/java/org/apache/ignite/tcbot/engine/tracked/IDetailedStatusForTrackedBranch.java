@@ -27,6 +27,9 @@ import org.apache.ignite.tcignited.creds.ICredentialsProv;
  * Process failures for some setup tracked branch, which may be triggered/monitored by TC Bot.
  */
 public interface IDetailedStatusForTrackedBranch {
+    /** Default time to wait for chains, slower chains are returned as still loading. */
+    public static final long DFLT_CHAIN_DEADLINE_MS = 20_000;
+
     /**
      * @param branch Branch.
      * @param checkAllLogs Check all logs.
@@ -41,6 +44,8 @@ public interface IDetailedStatusForTrackedBranch {
      * @param maxDurationSec Show test as failed if duration is greater than provided seconds count.
      * @param showMuted Show muted tests.
      * @param showIgnored Show ignored tests.
+     * @param chainDeadlineMs Time to wait for chains evaluated concurrently, chains not loaded in time are returned
+     * as still loading. If 0, method waits for all chains.
      */
     public DsSummaryUi getTrackedBranchTestFailures(
         @Nullable String branch,
@@ -55,7 +60,32 @@ public interface IDetailedStatusForTrackedBranch {
         @Nullable SortOption sortOption,
         int maxDurationSec,
         boolean showMuted,
-        boolean showIgnored);
+        boolean showIgnored,
+        long chainDeadlineMs);
+
+    /**
+     * Evaluates chains with {@link #DFLT_CHAIN_DEADLINE_MS} deadline, see parameters in {@link
+     * #getTrackedBranchTestFailures(String, Boolean, int, ICredentialsProv, SyncMode, boolean, String, String,
+     * DisplayMode, SortOption, int, boolean, boolean, long)}.
+     */
+    public default DsSummaryUi getTrackedBranchTestFailures(
+        @Nullable String branch,
+        @Nullable Boolean checkAllLogs,
+        int buildResMergeCnt,
+        ICredentialsProv creds,
+        SyncMode syncMode,
+        boolean calcTrustedTests,
+        @Nullable String tagSelected,
+        @Nullable String tagForHistSelected,
+        @Nullable DisplayMode displayMode,
+        @Nullable SortOption sortOption,
+        int maxDurationSec,
+        boolean showMuted,
+        boolean showIgnored) {
+        return getTrackedBranchTestFailures(branch, checkAllLogs, buildResMergeCnt, creds, syncMode, calcTrustedTests,
+            tagSelected, tagForHistSelected, displayMode, sortOption, maxDurationSec, showMuted, showIgnored,
+            DFLT_CHAIN_DEADLINE_MS);
+    }
 
     /**
      * @param name Name.
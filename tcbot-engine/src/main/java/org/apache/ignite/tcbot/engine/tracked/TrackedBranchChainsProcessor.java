@@ -18,11 +18,19 @@ package org.apache.ignite.tcbot.engine.tracked;
 
 import com.google.common.base.Strings;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -32,7 +40,9 @@ import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.tcbot.common.conf.IBuildParameterSpec;
 import org.apache.ignite.tcbot.common.conf.IParameterValueSpec;
 import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
+import org.apache.ignite.tcbot.common.util.FutureUtil;
 import org.apache.ignite.tcbot.engine.chain.BuildChainProcessor;
 import org.apache.ignite.tcbot.engine.chain.FullChainRunCtx;
 import org.apache.ignite.tcbot.engine.chain.LatestRebuildMode;
@@ -41,6 +51,7 @@ import org.apache.ignite.tcbot.engine.chain.SortOption;
 import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
 import org.apache.ignite.tcbot.engine.conf.ITrackedBranch;
 import org.apache.ignite.tcbot.engine.conf.ITrackedChain;
+import org.apache.ignite.tcbot.engine.pool.TcUpdatePool;
 import org.apache.ignite.tcbot.engine.ui.DsChainUi;
 import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
 import org.apache.ignite.tcbot.engine.ui.GuardBranchStatusUi;
@@ -57,6 +68,9 @@ import static com.google.common.base.Strings.isNullOrEmpty;
  * Process failures for some setup tracked branch, which may be triggered/monitored by TC Bot.
  */
 public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBranch {
+    /** Max count of chains evaluated in the pool at the same time. */
+    private static final int MAX_CHAINS_IN_POOL = TcUpdatePool.THREADS / 3;
+
     /** TC ignited server provider. */
     @Inject private ITeamcityIgnitedProvider tcIgnitedProv;
 
@@ -69,6 +83,12 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
     /** Compactor. */
     @Inject private IStringCompactor compactor;
 
+    /** Pool for chains evaluation. */
+    @Inject private TcUpdatePool tcUpdatePool;
+
+    /** Permits for chains evaluated in the pool. */
+    private final Semaphore chainsInPool = new Semaphore(MAX_CHAINS_IN_POOL);
+
     /** {@inheritDoc} */
     @AutoProfiling
     @Nonnull
@@ -85,7 +105,8 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
         @Nullable SortOption sortOption,
         int maxDurationSec,
         boolean showMuted,
-        boolean showIgnored) {
+        boolean showIgnored,
+        long chainDeadlineMs) {
         final DsSummaryUi res = new DsSummaryUi();
         final AtomicInteger runningUpdates = new AtomicInteger();
 
@@ -94,74 +115,188 @@ public class TrackedBranchChainsProcessor implements IDetailedStatusForTrackedBr
 
         final ITrackedBranch tracked = tcBotCfg.getTrackedBranches().getBranchMandatory(branchNn);
 
-        tracked.chainsStream()
+        List<ITrackedChain> chains = tracked.chainsStream()
             .filter(chainTracked -> tcIgnitedProv.hasAccess(chainTracked.serverCode(), creds))
-            .map(chainTracked -> {
-                final String srvCodeOrAlias = chainTracked.serverCode();
+            .collect(Collectors.toList());
 
-                final String branchForTc = chainTracked.tcBranch();
+        long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(chainDeadlineMs);
+        List<Future<DsChainUi>> futs = new ArrayList<>(chains.size());
 
-                //branch is tracked, so fail rate should be taken from this branch data (otherwise it is specified).
-                final String baseBranchTc = chainTracked.tcBaseBranch().orElse(branchForTc);
+        for (ITrackedChain chainTracked : chains) {
+            Callable<DsChainUi> task = () -> {
+                long startNs = System.nanoTime();
 
-                ITeamcityIgnited tcIgnited = tcIgnitedProv.server(srvCodeOrAlias, creds);
+                DsChainUi chainStatus = chainStatus(chainTracked, checkAllLogs, buildResMergeCnt, creds, syncMode,
+                    calcTrustedTests, tagSelected, tagForHistSelected, displayMode, sortOption, maxDurationSec,
+                    showMuted, showIgnored, runningUpdates);
 
-                Map<Integer, Integer> requireParamVal = new HashMap<>();
+                chainStatus.loadTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
 
-                if (!Strings.isNullOrEmpty(tagForHistSelected)) {
-                    requireParamVal.putAll(
-                        reverseTagToParametersRequired(tagForHistSelected, srvCodeOrAlias));
-                }
+                return chainStatus;
+            };
+
+            futs.add(submitChain(task));
+        }
 
-                DsChainUi chainStatus = new DsChainUi(srvCodeOrAlias,
-                    tcIgnited.serverCode(),
-                    branchForTc);
+        for (int i = 0; i < chains.size(); i++) {
+            Future<DsChainUi> fut = futs.get(i);
 
-                chainStatus.baseBranchForTc = baseBranchTc;
+            if (chainDeadlineMs <= 0) {
+                res.addChainOnServer(FutureUtil.getResult(fut));
 
-                String suiteIdMandatory = chainTracked.tcSuiteId();
+                continue;
+            }
 
-                List<Integer> chains = tcIgnited.getLastNBuildsFromHistory(suiteIdMandatory, branchForTc, buildResMergeCnt);
+            try {
+                res.addChainOnServer(fut.get(Math.max(0, deadlineNs - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            catch (TimeoutException ignored) {
+                // Chain continues loading in background, so data is likely to be ready for next request.
+                res.addChainOnServer(stillLoadingChain(chains.get(i), creds, chainDeadlineMs));
+
+                runningUpdates.incrementAndGet();
+            }
+            catch (InterruptedException | ExecutionException e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        }
+
+        res.servers.sort(Comparator.comparing(DsChainUi::serverName));
 
-                ProcessLogsMode logs;
-                if (buildResMergeCnt > 1)
-                    logs = (checkAllLogs != null && checkAllLogs) ? ProcessLogsMode.ALL : ProcessLogsMode.DISABLED;
-                else
-                    logs = (checkAllLogs != null && checkAllLogs) ? ProcessLogsMode.ALL : ProcessLogsMode.SUITE_NOT_COMPLETE;
+        res.postProcess(runningUpdates.get());
 
-                LatestRebuildMode rebuild = buildResMergeCnt > 1 ? LatestRebuildMode.ALL : LatestRebuildMode.LATEST;
+        return res;
+    }
 
-                boolean includeScheduled = buildResMergeCnt == 1;
+    /**
+     * Submits chain evaluation to the pool if there is free permit, otherwise evaluates chain in current thread.
+     * Chain evaluation waits for subtasks executed in the same pool, so count of such tasks in pool is limited.
+     *
+     * @param task Chain evaluation task.
+     */
+    private Future<DsChainUi> submitChain(Callable<DsChainUi> task) {
+        if (chainsInPool.tryAcquire()) {
+            try {
+                return tcUpdatePool.getService().submit(() -> {
+                    try {
+                        return task.call();
+                    }
+                    finally {
+                        chainsInPool.release();
+                    }
+                });
+            }
+            catch (RuntimeException e) {
+                chainsInPool.release();
 
-                final FullChainRunCtx ctx = chainProc.loadFullChainContext(
-                    tcIgnited,
-                    chains,
-                    rebuild,
-                    logs,
-                    includeScheduled,
-                    baseBranchTc,
-                    syncMode,
-                    sortOption,
-                    requireParamVal
-                );
+                throw e;
+            }
+        }
 
-                int cnt = (int)ctx.getRunningUpdates().count();
-                if (cnt > 0)
-                    runningUpdates.addAndGet(cnt);
+        FutureTask<DsChainUi> fut = new FutureTask<>(task);
 
-                chainStatus.initFromContext(tcIgnited, ctx, baseBranchTc, compactor, calcTrustedTests, tagSelected,
-                    displayMode, maxDurationSec, requireParamVal,
-                    showMuted, showIgnored);
+        fut.run();
 
-                return chainStatus;
-            })
-            .forEach(res::addChainOnServer);
+        return fut;
+    }
 
-        res.servers.sort(Comparator.comparing(DsChainUi::serverName));
+    /**
+     * @param chainTracked Chain tracked.
+     * @param creds Credentials.
+     * @param loadTimeMs Time spent for loading.
+     * @return Chain status without results, to be shown until chain is loaded.
+     */
+    private DsChainUi stillLoadingChain(ITrackedChain chainTracked, ICredentialsProv creds, long loadTimeMs) {
+        String srvCodeOrAlias = chainTracked.serverCode();
+        ITeamcityIgnited tcIgnited = tcIgnitedProv.server(srvCodeOrAlias, creds);
 
-        res.postProcess(runningUpdates.get());
+        DsChainUi chainStatus = new DsChainUi(srvCodeOrAlias, tcIgnited.serverCode(), chainTracked.tcBranch());
 
-        return res;
+        chainStatus.chainName = chainTracked.tcSuiteId();
+        chainStatus.baseBranchForTc = chainTracked.tcBaseBranch().orElse(chainTracked.tcBranch());
+        chainStatus.stillLoading = true;
+        chainStatus.loadTimeMs = loadTimeMs;
+
+        return chainStatus;
+    }
+
+    /**
+     * Loads chain and creates its status, see parameters in {@link #getTrackedBranchTestFailures}.
+     *
+     * @param runningUpdates Counter of running updates.
+     */
+    private DsChainUi chainStatus(
+        ITrackedChain chainTracked,
+        @Nullable Boolean checkAllLogs,
+        int buildResMergeCnt,
+        ICredentialsProv creds,
+        SyncMode syncMode,
+        boolean calcTrustedTests,
+        @Nullable String tagSelected,
+        @Nullable String tagForHistSelected,
+        @Nullable DisplayMode displayMode,
+        @Nullable SortOption sortOption,
+        int maxDurationSec,
+        boolean showMuted,
+        boolean showIgnored,
+        AtomicInteger runningUpdates) {
+        final String srvCodeOrAlias = chainTracked.serverCode();
+
+        final String branchForTc = chainTracked.tcBranch();
+
+        //branch is tracked, so fail rate should be taken from this branch data (otherwise it is specified).
+        final String baseBranchTc = chainTracked.tcBaseBranch().orElse(branchForTc);
+
+        ITeamcityIgnited tcIgnited = tcIgnitedProv.server(srvCodeOrAlias, creds);
+
+        Map<Integer, Integer> requireParamVal = new HashMap<>();
+
+        if (!Strings.isNullOrEmpty(tagForHistSelected)) {
+            requireParamVal.putAll(
+                reverseTagToParametersRequired(tagForHistSelected, srvCodeOrAlias));
+        }
+
+        DsChainUi chainStatus = new DsChainUi(srvCodeOrAlias,
+            tcIgnited.serverCode(),
+            branchForTc);
+
+        chainStatus.baseBranchForTc = baseBranchTc;
+
+        String suiteIdMandatory = chainTracked.tcSuiteId();
+
+        List<Integer> chains = tcIgnited.getLastNBuildsFromHistory(suiteIdMandatory, branchForTc, buildResMergeCnt);
+
+        ProcessLogsMode logs;
+        if (buildResMergeCnt > 1)
+            logs = (checkAllLogs != null && checkAllLogs) ? ProcessLogsMode.ALL : ProcessLogsMode.DISABLED;
+        else
+            logs = (checkAllLogs != null && checkAllLogs) ? ProcessLogsMode.ALL : ProcessLogsMode.SUITE_NOT_COMPLETE;
+
+        LatestRebuildMode rebuild = buildResMergeCnt > 1 ? LatestRebuildMode.ALL : LatestRebuildMode.LATEST;
+
+        boolean includeScheduled = buildResMergeCnt == 1;
+
+        final FullChainRunCtx ctx = chainProc.loadFullChainContext(
+            tcIgnited,
+            chains,
+            rebuild,
+            logs,
+            includeScheduled,
+            baseBranchTc,
+            syncMode,
+            sortOption,
+            requireParamVal
+        );
+
+        int cnt = (int)ctx.getRunningUpdates().count();
+        if (cnt > 0)
+            runningUpdates.addAndGet(cnt);
+
+        chainStatus.initFromContext(tcIgnited, ctx, baseBranchTc, compactor, calcTrustedTests, tagSelected,
+            displayMode, maxDurationSec, requireParamVal,
+            showMuted, showIgnored);
+
+        return chainStatus;
     }
 
     public Map<Integer, Integer> reverseTagToParametersRequired(@Nullable String tagForHistSelected,
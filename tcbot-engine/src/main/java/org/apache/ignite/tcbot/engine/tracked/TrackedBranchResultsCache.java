@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.tracked;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
+import org.apache.ignite.tcbot.engine.conf.ITcBotConfig;
+import org.apache.ignite.tcbot.engine.conf.ITrackedBranch;
+import org.apache.ignite.tcbot.engine.conf.ITrackedChain;
+import org.apache.ignite.tcbot.engine.ui.DsSummaryUi;
+import org.apache.ignite.tcbot.engine.ui.UpdateInfo;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.scheduler.IScheduler;
+import org.apache.ignite.tcignited.ITeamcityIgnited;
+import org.apache.ignite.tcignited.ITeamcityIgnitedProvider;
+import org.apache.ignite.tcignited.buildref.BranchDataVersions;
+import org.apache.ignite.tcignited.buildref.BranchEquivalence;
+import org.apache.ignite.tcignited.creds.ICredentialsProv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Cache of tracked branch results built without synchronization with TeamCity. Result is cached for branch, request
+ * parameters and set of servers accessible for user. Cached result is valid until data of branches used by the
+ * tracked branch is changed, see {@link BranchDataVersions}.
+ *
+ * Clients waiting for update are checked only after data change, so count of results being built depends on rate of
+ * changes but not on count of viewers.
+ */
+public class TrackedBranchResultsCache {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(TrackedBranchResultsCache.class);
+
+    /** Max age of result: mutes and configuration changes are not tracked by data versions. */
+    private static final long MAX_RESULT_AGE_MINUTES = 5;
+
+    /** Delay of waiters check after data change, data is usually saved by several chunks. */
+    private static final long CHECK_DELAY_MS = 1000;
+
+    /** Max count of clients waiting for update at the same time, other clients get result immediately. */
+    private static final int MAX_WAITERS = 64;
+
+    /** Tc Bot config. */
+    @Inject private ITcBotConfig tcBotCfg;
+
+    /** TC ignited server provider. */
+    @Inject private ITeamcityIgnitedProvider tcIgnitedProv;
+
+    /** Compactor. */
+    @Inject private IStringCompactor compactor;
+
+    /** Branch equivalence. */
+    @Inject private BranchEquivalence branchEquivalence;
+
+    /** Versions of branches data. */
+    @Inject private BranchDataVersions branchVersions;
+
+    /** Scheduler. */
+    @Inject private IScheduler scheduler;
+
+    /** Results. */
+    private final Cache<ResultKey, CachedResult> results = CacheBuilder.newBuilder()
+        .maximumSize(256)
+        .expireAfterWrite(MAX_RESULT_AGE_MINUTES, TimeUnit.MINUTES)
+        .build();
+
+    /** Results being built now, used to build result once for several concurrent requests. */
+    private final ConcurrentMap<ResultKey, CompletableFuture<CachedResult>> loading = new ConcurrentHashMap<>();
+
+    /** Clients waiting for update. */
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    /** Permits for waiting clients. */
+    private final Semaphore waitPermits = new Semaphore(MAX_WAITERS);
+
+    /** Data change listener registered flag. */
+    private final AtomicBoolean lsnrRegistered = new AtomicBoolean();
+
+    /** Waiters check scheduled flag. */
+    private final AtomicBoolean checkScheduled = new AtomicBoolean();
+
+    /**
+     * @param branch Tracked branch name, default is used if null.
+     * @param paramsKey Request parameters affecting result.
+     * @param creds Credentials.
+     * @param loader Loader of the result, called if cached result is absent or outdated.
+     * @return Result for current data version.
+     */
+    @Nonnull
+    public CachedResult get(@Nullable String branch, String paramsKey, ICredentialsProv creds,
+        Supplier<DsSummaryUi> loader) {
+        String branchNn = isNullOrEmpty(branch) ? ITcServerConfig.DEFAULT_TRACKED_BRANCH_NAME : branch;
+        ITrackedBranch tracked = tcBotCfg.getTrackedBranches().getBranchMandatory(branchNn);
+
+        Set<String> accessible = new TreeSet<>();
+
+        tracked.chainsStream()
+            .map(ITrackedChain::serverCode)
+            .filter(srvCode -> tcIgnitedProv.hasAccess(srvCode, creds))
+            .forEach(accessible::add);
+
+        ResultKey key = new ResultKey(branchNn, paramsKey, accessible);
+
+        // Version is taken before result is built, so changes saved while building cause one more rebuild.
+        long dataVer = dataVersion(tracked, creds);
+
+        CachedResult cached = results.getIfPresent(key);
+
+        if (cached != null && cached.dataVer == dataVer && !cached.isStillLoading())
+            return cached;
+
+        CompletableFuture<CachedResult> fut = new CompletableFuture<>();
+        CompletableFuture<CachedResult> loadingFut = loading.putIfAbsent(key, fut);
+
+        if (loadingFut != null) {
+            try {
+                return loadingFut.get();
+            }
+            catch (InterruptedException | ExecutionException e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        }
+
+        try {
+            CachedResult res = new CachedResult(dataVer, loader.get());
+
+            results.put(key, res);
+
+            fut.complete(res);
+
+            return res;
+        }
+        catch (RuntimeException | Error e) {
+            fut.completeExceptionally(e);
+
+            throw e;
+        }
+        finally {
+            loading.remove(key, fut);
+        }
+    }
+
+    /**
+     * Waits until result becomes different from the one known by client. Method returns immediately if result is
+     * already different, or if too many clients are waiting.
+     *
+     * @param branch Tracked branch name, default is used if null.
+     * @param paramsKey Request parameters affecting result.
+     * @param creds Credentials.
+     * @param loader Loader of the result.
+     * @param knownHash Hash of result shown by client, see {@link UpdateInfo#hashCodeHex}.
+     * @param timeoutMs Max time to wait.
+     * @return Changed result, or current result if it was not changed during timeout.
+     */
+    @Nonnull
+    public CachedResult awaitChange(@Nullable String branch, String paramsKey, ICredentialsProv creds,
+        Supplier<DsSummaryUi> loader, String knownHash, long timeoutMs) {
+        CachedResult cur = get(branch, paramsKey, creds, loader);
+
+        if (!Objects.equals(cur.hash(), knownHash) || !waitPermits.tryAcquire())
+            return cur;
+
+        registerListenerIfNeeded();
+
+        Waiter waiter = new Waiter(branch, paramsKey, creds, loader, knownHash);
+
+        waiters.add(waiter);
+
+        try {
+            return waiter.fut.get(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            return cur;
+        }
+        catch (InterruptedException | ExecutionException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+        finally {
+            waiters.remove(waiter);
+
+            waitPermits.release();
+        }
+    }
+
+    /**
+     * @return Count of clients waiting for update.
+     */
+    public int waitersCount() {
+        return waiters.size();
+    }
+
+    /**
+     * @param tracked Tracked branch.
+     * @param creds Credentials.
+     * @return Max version of data of branches of chains accessible for user.
+     */
+    private long dataVersion(ITrackedBranch tracked, ICredentialsProv creds) {
+        return tracked.chainsStream()
+            .filter(chain -> tcIgnitedProv.hasAccess(chain.serverCode(), creds))
+            .mapToLong(chain -> {
+                ITeamcityIgnited tcIgnited = tcIgnitedProv.server(chain.serverCode(), creds);
+                int srvId = ITeamcityIgnited.serverIdToInt(tcIgnited.serverCode());
+                String branchForTc = chain.tcBranch();
+
+                Set<Integer> branchIds = new HashSet<>(branchEquivalence.branchIdsForQuery(branchForTc, compactor));
+                branchIds.addAll(branchEquivalence.branchIdsForQuery(chain.tcBaseBranch().orElse(branchForTc), compactor));
+
+                return branchVersions.version(srvId, branchIds);
+            })
+            .max()
+            .orElse(0);
+    }
+
+    /**
+     * Registers data change listener at first wait.
+     */
+    private void registerListenerIfNeeded() {
+        if (lsnrRegistered.compareAndSet(false, true)) {
+            branchVersions.addListener(() -> {
+                if (!waiters.isEmpty() && checkScheduled.compareAndSet(false, true))
+                    scheduler.invokeLater(this::checkWaiters, CHECK_DELAY_MS, TimeUnit.MILLISECONDS);
+            });
+        }
+    }
+
+    /**
+     * Checks if results were changed for waiting clients. Waiters with the same key share one result build.
+     */
+    private void checkWaiters() {
+        checkScheduled.set(false);
+
+        for (Waiter waiter : waiters) {
+            if (waiter.fut.isDone())
+                continue;
+
+            try {
+                CachedResult res = get(waiter.branch, waiter.paramsKey, waiter.creds, waiter.loader);
+
+                if (!Objects.equals(res.hash(), waiter.knownHash))
+                    waiter.fut.complete(res);
+            }
+            catch (Exception e) {
+                logger.error("Unable to check tracked branch result update: " + e.getMessage(), e);
+
+                waiter.fut.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Result with version of data it was built for.
+     */
+    public static class CachedResult {
+        /** Data version. */
+        private final long dataVer;
+
+        /** Result. */
+        private final DsSummaryUi res;
+
+        /**
+         * @param dataVer Data version.
+         * @param res Result.
+         */
+        CachedResult(long dataVer, DsSummaryUi res) {
+            this.dataVer = dataVer;
+            this.res = res;
+        }
+
+        /**
+         * @return Result, shared between clients, so it should not be modified.
+         */
+        public DsSummaryUi result() {
+            return res;
+        }
+
+        /**
+         * @return {@code True} if some chain was not loaded in time, so result should be built again.
+         */
+        boolean isStillLoading() {
+            return res.servers.stream().anyMatch(chain -> chain.stillLoading);
+        }
+
+        /**
+         * @return Hash of result.
+         */
+        public String hash() {
+            return res.hashCodeHex;
+        }
+    }
+
+    /**
+     * Key of result.
+     */
+    private static class ResultKey {
+        /** Tracked branch. */
+        private final String branch;
+
+        /** Parameters. */
+        private final String params;
+
+        /** Accessible servers. */
+        private final Set<String> accessible;
+
+        /**
+         * @param branch Branch.
+         * @param params Parameters.
+         * @param accessible Accessible servers.
+         */
+        ResultKey(String branch, String params, Set<String> accessible) {
+            this.branch = branch;
+            this.params = params;
+            this.accessible = accessible;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            ResultKey key = (ResultKey)o;
+            return Objects.equals(branch, key.branch) &&
+                Objects.equals(params, key.params) &&
+                Objects.equals(accessible, key.accessible);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int hashCode() {
+            return Objects.hash(branch, params, accessible);
+        }
+    }
+
+    /**
+     * Client waiting for update.
+     */
+    private static class Waiter {
+        /** Branch. */
+        private final String branch;
+
+        /** Parameters. */
+        private final String paramsKey;
+
+        /** Credentials. */
+        private final ICredentialsProv creds;
+
+        /** Loader. */
+        private final Supplier<DsSummaryUi> loader;
+
+        /** Hash of result shown by client. */
+        private final String knownHash;
+
+        /** Future completed with changed result. */
+        private final CompletableFuture<CachedResult> fut = new CompletableFuture<>();
+
+        /**
+         * @param branch Branch.
+         * @param paramsKey Parameters.
+         * @param creds Credentials.
+         * @param loader Loader.
+         * @param knownHash Known hash.
+         */
+        Waiter(String branch, String paramsKey, ICredentialsProv creds, Supplier<DsSummaryUi> loader,
+            String knownHash) {
+            this.branch = branch;
+            this.paramsKey = paramsKey;
+            this.creds = creds;
+            this.loader = loader;
+            this.knownHash = knownHash;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.ignite.tcbot.engine.defect.DefectCompacted;
+import org.apache.ignite.tcbot.engine.defect.DefectFirstBuild;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 
 public class BoardDefectSummaryUi {
@@ -48,7 +49,7 @@ public class BoardDefectSummaryUi {
 
     public List<String> getSuites() {
         return defect.buildsInvolved().values().stream().map(
-            b -> b.build().buildTypeName()
+            DefectFirstBuild::buildTypeName
         ).distinct().map(compactor::getStringFromId).collect(Collectors.toList());
     }
 
@@ -22,6 +22,17 @@ import java.util.ArrayList;
 public class BoardSummaryUi {
     private List<BoardDefectSummaryUi> defects = new ArrayList<>();
 
+    /** IDs of defects removed since version requested. */
+    private List<Integer> removedDefects = new ArrayList<>();
+
+    /** Board version, may be used to request only changes since this version. */
+    private long version;
+
+    /** Epoch of board version, should be provided with version to request changes. */
+    private long epoch;
+
+    /** Whole board is returned, defects absent in summary are removed. */
+    private boolean fullBoard;
 
     public void addDefect(BoardDefectSummaryUi defect) {
         this.defects.add(defect);
@@ -30,4 +41,36 @@ public class BoardSummaryUi {
     public List<BoardDefectSummaryUi> getDefects() {
         return defects;
     }
+
+    public void addRemovedDefect(int defectId) {
+        removedDefects.add(defectId);
+    }
+
+    public List<Integer> getRemovedDefects() {
+        return removedDefects;
+    }
+
+    public void version(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void epoch(long epoch) {
+        this.epoch = epoch;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void fullBoard(boolean fullBoard) {
+        this.fullBoard = fullBoard;
+    }
+
+    public boolean isFullBoard() {
+        return fullBoard;
+    }
 }
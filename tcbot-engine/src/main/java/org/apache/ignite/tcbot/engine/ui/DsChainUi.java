@@ -134,6 +134,12 @@ public class DsChainUi {
     /** Total blockers count. */
     public int totalBlockers;
 
+    /** Chain was not loaded in time, results will be provided by later requests. */
+    public boolean stillLoading;
+
+    /** Time of chain loading, ms. Not used in hash code, so it is same for the same data. */
+    @Nullable public Long loadTimeMs;
+
     /**
      * @param srvCode Server code.
      * @param tcSvcCode Tc service code.
@@ -306,6 +312,7 @@ public class DsChainUi {
             return false;
         DsChainUi status = (DsChainUi)o;
         return buildNotFound == status.buildNotFound &&
+            stillLoading == status.stillLoading &&
             Objects.equals(chainName, status.chainName) &&
             Objects.equals(serverId, status.serverId) &&
             Objects.equals(serverCode, status.serverCode) &&
@@ -338,7 +345,7 @@ public class DsChainUi {
             ticketFullName, webToTicket, prNum, webToPr, suites, failedTests, failedToFinish, durationPrintable,
             durationNetTimePrintable,  sourceUpdateDurationPrintable, artifcactPublishingDurationPrintable,
             dependeciesResolvingDurationPrintable,  testsDurationPrintable, lostInTimeouts, topLongRunning,
-            logConsumers, buildNotFound, baseBranchForTc);
+            logConsumers, buildNotFound, baseBranchForTc, stillLoading);
     }
 
     public DsChainUi setBuildNotFound(boolean buildNotFound) {
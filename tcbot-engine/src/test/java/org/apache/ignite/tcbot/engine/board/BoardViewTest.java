@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.apache.ignite.tcbot.engine.defect.DefectCompacted;
+import org.apache.ignite.tcbot.engine.ui.BoardDefectSummaryUi;
+import org.apache.ignite.tcbot.engine.ui.BoardSummaryUi;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link BoardView} renders only changed defects and returns only rows changed since requested version.
+ */
+public class BoardViewTest {
+    /** Count of synthetic defects. */
+    private static final int DEFECTS = 5000;
+
+    /** Defects of each N-th suite are not available for user. */
+    private static final int NO_ACCESS_EACH = 10;
+
+    /** Count of suites, defects of one suite share recent build. */
+    private static final int SUITES = 500;
+
+    /** Recent build ID of each suite. */
+    private final int[] recentBuilds = new int[SUITES];
+
+    /** Renders count. */
+    private final AtomicInteger renders = new AtomicInteger();
+
+    /** Access filter. */
+    private final Predicate<DefectCompacted> access = defect -> suite(defect) % NO_ACCESS_EACH != 0;
+
+    /** Fingerprint: recent build of defect suite. */
+    private final Function<DefectCompacted, Object> fingerprint = defect -> recentBuilds[suite(defect)];
+
+    /** Renderer. */
+    private final Function<DefectCompacted, BoardDefectSummaryUi> renderer = defect -> {
+        renders.incrementAndGet();
+
+        return new BoardDefectSummaryUi(defect, null);
+    };
+
+    @Test
+    public void testOnlyChangedDefectsAreRenderedAndReturned() {
+        BoardView view = new BoardView();
+        view.load(defects(DEFECTS));
+
+        int available = DEFECTS - DEFECTS / NO_ACCESS_EACH;
+
+        BoardSummaryUi full = view.summary(0, 0, access, fingerprint, renderer);
+
+        assertEquals(available, full.getDefects().size());
+        assertEquals(available, renders.getAndSet(0));
+
+        BoardSummaryUi unchanged = view.summary(full.getEpoch(), full.getVersion(), access, fingerprint, renderer);
+
+        assertEquals(0, unchanged.getDefects().size());
+        assertEquals(0, renders.get());
+        assertEquals(full.getVersion(), unchanged.getVersion());
+
+        // New build of one suite arrived.
+        recentBuilds[1]++;
+
+        BoardSummaryUi newBuild = view.summary(unchanged.getEpoch(), unchanged.getVersion(), access, fingerprint, renderer);
+
+        int defectsOfSuite = DEFECTS / SUITES;
+
+        assertEquals(defectsOfSuite, newBuild.getDefects().size());
+        assertEquals(defectsOfSuite, renders.getAndSet(0));
+
+        for (BoardDefectSummaryUi ui : newBuild.getDefects())
+            assertEquals(1, ui.getId() % SUITES);
+
+        // One defect was changed and other one resolved.
+        view.defectChanged(new DefectCompacted(2));
+        view.defectChanged(resolved(3));
+
+        BoardSummaryUi changed = view.summary(newBuild.getEpoch(), newBuild.getVersion(), access, fingerprint, renderer);
+
+        assertEquals(1, changed.getDefects().size());
+        assertEquals(2, changed.getDefects().get(0).getId());
+        assertEquals(1, changed.getRemovedDefects().size());
+        assertEquals(3, (int)changed.getRemovedDefects().get(0));
+        assertEquals(1, renders.getAndSet(0));
+
+        assertEquals(available - 1, view.summary(0, 0, access, fingerprint, renderer).getDefects().size());
+        assertEquals(0, renders.get());
+    }
+
+    @Test
+    public void testDefectChangedBeforeLoadIsKept() {
+        BoardView view = new BoardView();
+
+        DefectCompacted changed = new DefectCompacted(1);
+        view.defectChanged(changed);
+        view.defectChanged(resolved(2));
+
+        view.load(defects(3));
+
+        List<DefectCompacted> rendered = new ArrayList<>();
+        BoardSummaryUi res = view.summary(0, 0, d -> true, d -> 0, d -> {
+            rendered.add(d);
+
+            return new BoardDefectSummaryUi(d, null);
+        });
+
+        assertTrue(res.isFullBoard());
+        assertEquals(2, res.getDefects().size());
+        assertTrue(rendered.contains(changed));
+        assertTrue(res.getDefects().stream().noneMatch(ui -> ui.getId() == 2));
+    }
+
+    @Test
+    public void testWholeBoardReturnedForUnknownVersion() {
+        BoardView view = new BoardView();
+        view.load(defects(3));
+
+        BoardSummaryUi full = view.summary(0, 0, d -> true, d -> 0, renderer);
+
+        assertTrue(full.isFullBoard());
+        assertEquals(3, full.getDefects().size());
+
+        view.defectChanged(new DefectCompacted(1));
+
+        BoardSummaryUi changed = view.summary(full.getEpoch(), full.getVersion(), d -> true, d -> 0, renderer);
+
+        assertFalse(changed.isFullBoard());
+        assertEquals(1, changed.getDefects().size());
+
+        // Version is newer than version of board.
+        BoardSummaryUi newer = view.summary(full.getEpoch(), changed.getVersion() + 1, d -> true, d -> 0, renderer);
+
+        assertTrue(newer.isFullBoard());
+        assertEquals(3, newer.getDefects().size());
+
+        // Bot was restarted, versions are counted from the beginning.
+        BoardView restarted = new BoardView();
+        restarted.load(defects(3));
+        restarted.summary(0, 0, d -> true, d -> 0, renderer);
+        restarted.defectChanged(resolved(0));
+
+        BoardSummaryUi afterRestart = restarted.summary(changed.getEpoch(), changed.getVersion(), d -> true, d -> 0,
+            renderer);
+
+        assertNotEquals(changed.getEpoch(), afterRestart.getEpoch());
+        assertTrue(afterRestart.isFullBoard());
+        assertEquals(2, afterRestart.getDefects().size());
+        assertTrue(afterRestart.getRemovedDefects().isEmpty());
+    }
+
+    @Test
+    public void testWholeBoardReturnedIfRemovalsWereEvicted() {
+        BoardView view = new BoardView();
+        view.load(defects(1));
+
+        BoardSummaryUi full = view.summary(0, 0, d -> true, d -> 0, renderer);
+
+        for (int id = 1; id <= BoardView.MAX_REMOVED + 1; id++)
+            view.defectChanged(resolved(id));
+
+        BoardSummaryUi evicted = view.summary(full.getEpoch(), full.getVersion(), d -> true, d -> 0, renderer);
+
+        assertTrue(evicted.isFullBoard());
+        assertEquals(1, evicted.getDefects().size());
+        assertTrue(evicted.getRemovedDefects().isEmpty());
+
+        view.defectChanged(resolved(0));
+
+        BoardSummaryUi removed = view.summary(evicted.getEpoch(), evicted.getVersion(), d -> true, d -> 0, renderer);
+
+        assertFalse(removed.isFullBoard());
+        assertEquals(0, removed.getDefects().size());
+        assertEquals(Collections.singletonList(0), removed.getRemovedDefects());
+    }
+
+    /**
+     * @param defect Defect.
+     */
+    private static int suite(DefectCompacted defect) {
+        return defect.id() % SUITES;
+    }
+
+    /**
+     * @param cnt Count.
+     * @return Defects with IDs from 0 to count.
+     */
+    private static List<DefectCompacted> defects(int cnt) {
+        List<DefectCompacted> res = new ArrayList<>();
+
+        for (int i = 0; i < cnt; i++)
+            res.add(new DefectCompacted(i));
+
+        return res;
+    }
+
+    /**
+     * @param id Defect ID.
+     */
+    private static DefectCompacted resolved(int id) {
+        return new DefectCompacted(id).resolvedByUsernameId(1);
+    }
+}
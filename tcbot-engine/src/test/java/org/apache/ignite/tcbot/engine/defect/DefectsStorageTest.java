@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.defect;
+
+import com.google.inject.Guice;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import javax.cache.Cache;
+import javax.xml.bind.DatatypeConverter;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
+import org.apache.ignite.ci.teamcity.ignited.change.ChangeCompacted;
+import org.apache.ignite.ci.teamcity.ignited.change.ChangeDao;
+import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcservice.model.changes.Change;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.ignite.tcbot.engine.defect.OpenDefectsIndexTest.build;
+import static org.apache.ignite.tcbot.engine.defect.OpenDefectsIndexTest.commitVersion;
+import static org.apache.ignite.tcbot.engine.defect.OpenDefectsIndexTest.commits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link DefectsStorage#merge} finds open defects using the index the same way as scan of all defects did,
+ * and that first builds saved by previous versions are migrated.
+ */
+public class DefectsStorageTest {
+    /** Discovery port, differs from ports of other test nodes. */
+    private static final int DISCOVERY_PORT = 47550;
+
+    /** Server ID. */
+    private static final int SRV_ID = 1;
+
+    /** Server code compactor string ID. */
+    private static final int SRV_CODE_CID = 3;
+
+    /** Ignite. */
+    private static Ignite ignite;
+
+    /** Compactor. */
+    private static final IStringCompactor compactor = new InMemoryStringCompactor();
+
+    /** Storage. */
+    private DefectsStorage storage;
+
+    @BeforeClass
+    public static void startIgnite() {
+        TcpDiscoverySpi spi = new TcpDiscoverySpi();
+
+        spi.setLocalPort(DISCOVERY_PORT);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcpDiscoveryVmIpFinder()
+            .setAddresses(Collections.singletonList("127.0.0.1:" + DISCOVERY_PORT)));
+
+        ignite = Ignition.start(new IgniteConfiguration()
+            .setIgniteInstanceName(DefectsStorageTest.class.getSimpleName())
+            .setDiscoverySpi(spi));
+    }
+
+    @AfterClass
+    public static void stopIgnite() {
+        if (ignite != null)
+            ignite.close();
+    }
+
+    @Before
+    public void initStorage() {
+        DefectsStorage.botDetectedIssuesCache(ignite).clear();
+
+        storage = newStorage();
+    }
+
+    @Test
+    public void testMergeByFirstBuild() {
+        DefectCompacted created = storage.merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2), addIssue(build(100), 10));
+
+        // Changes of the build are not used if the build is already a first build of open defect.
+        DefectCompacted merged = storage.merge(SRV_CODE_CID, SRV_ID, build(100, 3), addIssue(build(100), 11));
+
+        assertEquals(created.id(), merged.id());
+        assertEquals(commits(1, 2), merged.commits());
+        assertEquals(2, merged.buildsInvolved().get(100).issues().size());
+        assertEquals(1, DefectsStorage.botDetectedIssuesCache(ignite).size());
+    }
+
+    @Test
+    public void testMergeByIdenticalCommits() {
+        DefectCompacted created = storage.merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2), addIssue(build(100), 10));
+
+        // Other build of the same changes, changes order doesn't matter.
+        DefectCompacted merged = storage.merge(SRV_CODE_CID, SRV_ID, build(101, 2, 1), addIssue(build(101), 10));
+
+        assertEquals(created.id(), merged.id());
+        assertEquals(2, merged.buildsInvolved().size());
+        assertTrue(merged.hasBuild(101));
+        assertEquals(merged.buildsInvolved().keySet(),
+            DefectsStorage.botDetectedIssuesCache(ignite).get(created.id()).buildsInvolved().keySet());
+    }
+
+    @Test
+    public void testNewDefectCreated() {
+        DefectCompacted first = storage.merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2), addIssue(build(100), 10));
+        DefectCompacted otherCommits = storage.merge(SRV_CODE_CID, SRV_ID, build(101, 1), addIssue(build(101), 10));
+        DefectCompacted otherSrv = storage.merge(SRV_CODE_CID, SRV_ID + 1, build(100, 1, 2),
+            addIssue(build(100), 10));
+
+        assertNotEquals(first.id(), otherCommits.id());
+        assertNotEquals(first.id(), otherSrv.id());
+        assertNotEquals(otherCommits.id(), otherSrv.id());
+
+        DefectCompacted saved = DefectsStorage.botDetectedIssuesCache(ignite).get(otherCommits.id());
+
+        assertEquals(commits(1), saved.commits());
+        assertEquals(SRV_ID, saved.tcSrvId());
+        assertTrue(saved.hasBuild(101));
+        assertEquals(3, DefectsStorage.botDetectedIssuesCache(ignite).size());
+    }
+
+    @Test
+    public void testResolvedDefectIsNotMerged() {
+        DefectCompacted created = storage.merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2), addIssue(build(100), 10));
+
+        storage.merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2), (id, defect) -> defect.resolvedByUsernameId(7));
+
+        DefectCompacted sameBuild = storage.merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2), addIssue(build(100), 10));
+        DefectCompacted sameCommits = storage.merge(SRV_CODE_CID, SRV_ID, build(101, 1, 2),
+            addIssue(build(101), 10));
+
+        assertNotEquals(created.id(), sameBuild.id());
+        assertEquals(sameBuild.id(), sameCommits.id());
+
+        // Resolved defect is not loaded to index after restart.
+        DefectCompacted afterRestart = newStorage().merge(SRV_CODE_CID, SRV_ID, build(100, 1, 2),
+            addIssue(build(100), 11));
+
+        assertEquals(sameBuild.id(), afterRestart.id());
+    }
+
+    @Test
+    public void testLoadedIndexFindsSameDefectAsScan() {
+        Random rnd = new Random(42);
+        IgniteCache<Integer, DefectCompacted> cache = DefectsStorage.botDetectedIssuesCache(ignite);
+        // Server ID, build ID and changes of builds.
+        List<int[]> builds = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            int id = (int)ignite.atomicSequence(DefectsStorage.BOT_DETECTED_DEFECTS_SEQ, 0, true).incrementAndGet();
+            int srvId = SRV_ID + rnd.nextInt(2);
+            boolean resolved = rnd.nextInt(5) == 0;
+
+            // Resolved defects share builds and commits with open ones.
+            int seed = resolved ? rnd.nextInt(i + 1) : i;
+            int[] changes = {seed * 2, seed * 2 + 1};
+
+            DefectCompacted defect = new DefectCompacted(id).commits(commits(changes)).tcSrvId(srvId);
+
+            for (int b = 0; b < 1 + rnd.nextInt(3); b++) {
+                int buildId = seed * 10 + b;
+
+                defect.computeIfAbsent(build(buildId, changes));
+                builds.add(new int[] {srvId, buildId, changes[0], changes[1]});
+            }
+
+            if (resolved)
+                defect.resolvedByUsernameId(7);
+
+            cache.put(id, defect);
+        }
+
+        int created = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            int[] query = builds.get(rnd.nextInt(builds.size()));
+            int srvId = query[0];
+            int[] changes = Arrays.copyOfRange(query, 2, query.length);
+            FatBuildCompacted build;
+
+            switch (rnd.nextInt(3)) {
+                case 0:
+                    // Known first build.
+                    build = build(query[1], changes);
+
+                    break;
+
+                case 1:
+                    // New build of known commits.
+                    build = build(1_000_000 + i, changes);
+
+                    break;
+
+                default:
+                    // New build of unknown commits.
+                    build = build(1_000_000 + i, 2_000_000 + i);
+            }
+
+            List<CommitCompacted> commits = commits(build.changes());
+            Integer exp = scanForOpenDefect(cache, srvId, build.id(), commits);
+            int sizeBefore = cache.size();
+
+            DefectCompacted res = storage.merge(SRV_CODE_CID, srvId, build, addIssue(build, 10));
+
+            assertTrue(res.hasBuild(build.id()));
+
+            if (exp != null) {
+                assertEquals(exp.intValue(), res.id());
+                assertEquals(sizeBefore, cache.size());
+            }
+            else {
+                assertEquals(commits, res.commits());
+                assertEquals(sizeBefore + 1, cache.size());
+
+                created++;
+            }
+
+            int[] next = new int[2 + build.changes().length];
+
+            next[0] = srvId;
+            next[1] = build.id();
+            System.arraycopy(build.changes(), 0, next, 2, build.changes().length);
+
+            builds.add(next);
+        }
+
+        assertTrue(created > 0);
+    }
+
+    @Test
+    public void testMigrateFirstBuilds() throws Exception {
+        IgniteCache<Integer, DefectCompacted> cache = DefectsStorage.botDetectedIssuesCache(ignite);
+
+        FatBuildCompacted fatBuild = build(100, 1, 2);
+
+        fatBuild.buildTypeId(compactor.getStringId("IgniteTests24Java8_Cache1"));
+        fatBuild.buildTypeName("Cache 1", compactor);
+        fatBuild.branchName(compactor.getStringId("refs/heads/master"));
+
+        DefectCompacted defect = new DefectCompacted(1).commits(commits(1, 2)).tcSrvId(SRV_ID);
+
+        defect.computeIfAbsent(fatBuild).addIssue(1, 10);
+        cache.put(1, defect);
+        cache.put(2, oldFormat(defect, fatBuild));
+
+        assertEquals(1, DefectsStorage.migrateFirstBuilds(ignite, 100));
+        assertEquals(0, DefectsStorage.migrateFirstBuilds(ignite, 100));
+
+        DefectFirstBuild migrated = cache.get(2).buildsInvolved().get(100);
+
+        assertEquals(100, migrated.buildId());
+        assertEquals(fatBuild.buildTypeId(), migrated.buildTypeId());
+        assertEquals("Cache 1", compactor.getStringFromId(migrated.buildTypeName()));
+        assertEquals("refs/heads/master", compactor.getStringFromId(migrated.branchName()));
+        assertEquals(cache.get(1).buildsInvolved().get(100).issues(), migrated.issues());
+        assertNull(field(DefectFirstBuild.class, "build").get(migrated));
+    }
+
+    /**
+     * Creates defect as it was saved by previous versions: first build contains full build only.
+     *
+     * @param defect Defect.
+     * @param fatBuild First failed build.
+     */
+    private static DefectCompacted oldFormat(DefectCompacted defect, FatBuildCompacted fatBuild) throws Exception {
+        DefectCompacted old = new DefectCompacted(2).commits(defect.commits()).tcSrvId(defect.tcSrvId());
+        DefectFirstBuild firstBuild = old.computeIfAbsent(fatBuild).addIssue(1, 10);
+
+        field(DefectFirstBuild.class, "build").set(firstBuild, fatBuild);
+        field(DefectFirstBuild.class, "buildId").set(firstBuild, 0);
+        field(DefectFirstBuild.class, "buildTypeId").set(firstBuild, -1);
+        field(DefectFirstBuild.class, "buildTypeName").set(firstBuild, -1);
+        field(DefectFirstBuild.class, "branchName").set(firstBuild, -1);
+
+        return old;
+    }
+
+    /**
+     * @param cls Class.
+     * @param name Field name.
+     */
+    private static Field field(Class<?> cls, String name) throws Exception {
+        Field field = cls.getDeclaredField(name);
+
+        field.setAccessible(true);
+
+        return field;
+    }
+
+    /**
+     * Finds open defect as {@link DefectsStorage#merge} did before in-memory index: by first build, then by commits.
+     *
+     * @param cache Cache.
+     * @param srvId Server ID.
+     * @param buildId Build ID.
+     * @param commits Sorted commits of build.
+     * @return Defect ID or {@code null} if defect should be created.
+     */
+    private static Integer scanForOpenDefect(IgniteCache<Integer, DefectCompacted> cache, int srvId, int buildId,
+        List<CommitCompacted> commits) {
+        try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
+            .setFilter((k, v) -> v.resolvedByUsernameId() < 1 && v.tcSrvId() == srvId))) {
+            for (Cache.Entry<Integer, DefectCompacted> next : qry) {
+                if (next.getValue().hasBuild(buildId))
+                    return next.getKey();
+            }
+        }
+
+        try (QueryCursor<Cache.Entry<Integer, DefectCompacted>> qry = cache.query(new ScanQuery<Integer, DefectCompacted>()
+            .setFilter((k, v) -> v.resolvedByUsernameId() < 1 && v.tcSrvId() == srvId))) {
+            for (Cache.Entry<Integer, DefectCompacted> next : qry) {
+                if (next.getValue().sameCommits(commits))
+                    return next.getKey();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param build First failed build.
+     * @param testNameCid Test name compactor string ID.
+     * @return Function adding test failure to defect.
+     */
+    private static BiFunction<Integer, DefectCompacted, DefectCompacted> addIssue(FatBuildCompacted build,
+        int testNameCid) {
+        return (id, defect) -> {
+            defect.computeIfAbsent(build).addIssue(1, testNameCid);
+
+            return defect;
+        };
+    }
+
+    /**
+     * @return Storage with index not loaded yet, changes are provided by mocked DAO.
+     */
+    private static DefectsStorage newStorage() {
+        ChangeDao changeDao = mock(ChangeDao.class);
+
+        when(changeDao.getAll(anyInt(), any(int[].class))).thenAnswer(inv -> {
+            Map<Integer, ChangeCompacted> res = new HashMap<>();
+
+            for (int changeId : inv.<int[]>getArgument(1))
+                res.put(changeId, change(changeId));
+
+            return res;
+        });
+
+        return Guice.createInjector(binder -> {
+            binder.bind(Ignite.class).toInstance(ignite);
+            binder.bind(ChangeDao.class).toInstance(changeDao);
+        }).getInstance(DefectsStorage.class);
+    }
+
+    /**
+     * @param changeId Change ID.
+     */
+    private static ChangeCompacted change(int changeId) {
+        Change change = new Change();
+
+        change.id = String.valueOf(changeId);
+        change.version = DatatypeConverter.printHexBinary(commitVersion(changeId));
+        change.username = "user" + changeId;
+
+        return new ChangeCompacted(compactor, change);
+    }
+}
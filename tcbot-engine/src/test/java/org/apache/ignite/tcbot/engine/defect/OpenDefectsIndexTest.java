@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.defect;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks lookups of {@link OpenDefectsIndex} by first build and by commits.
+ */
+public class OpenDefectsIndexTest {
+    /** Server ID. */
+    private static final int SRV_ID = 1;
+
+    /** Other server ID. */
+    private static final int OTHER_SRV_ID = 2;
+
+    @Test
+    public void testLookupByBuildAndCommits() {
+        OpenDefectsIndex idx = new OpenDefectsIndex();
+
+        idx.put(defect(1, SRV_ID, commits(10, 11), 100, 101));
+        idx.put(defect(2, OTHER_SRV_ID, commits(10, 11), 100));
+
+        assertEquals(2, idx.size());
+
+        assertEquals(Integer.valueOf(1), idx.defectForBuild(SRV_ID, 100));
+        assertEquals(Integer.valueOf(1), idx.defectForBuild(SRV_ID, 101));
+        assertEquals(Integer.valueOf(2), idx.defectForBuild(OTHER_SRV_ID, 100));
+        assertNull(idx.defectForBuild(OTHER_SRV_ID, 101));
+        assertNull(idx.defectForBuild(SRV_ID, 102));
+
+        assertEquals(Integer.valueOf(1), idx.defectForCommits(SRV_ID, commits(10, 11)));
+        assertEquals(Integer.valueOf(2), idx.defectForCommits(OTHER_SRV_ID, commits(10, 11)));
+        assertNull(idx.defectForCommits(SRV_ID, commits(10)));
+        assertNull(idx.defectForCommits(3, commits(10, 11)));
+    }
+
+    @Test
+    public void testFirstIndexedDefectIsKept() {
+        OpenDefectsIndex idx = new OpenDefectsIndex();
+
+        idx.put(defect(1, SRV_ID, commits(10), 100));
+        idx.put(defect(2, SRV_ID, commits(10), 100));
+
+        // Same as scan: first found defect is used for merge.
+        assertEquals(Integer.valueOf(1), idx.defectForBuild(SRV_ID, 100));
+        assertEquals(Integer.valueOf(1), idx.defectForCommits(SRV_ID, commits(10)));
+
+        // Removal of the other defect doesn't affect entries of the first one.
+        idx.remove(defect(2, SRV_ID, commits(10), 100));
+
+        assertEquals(Integer.valueOf(1), idx.defectForBuild(SRV_ID, 100));
+        assertEquals(Integer.valueOf(1), idx.defectForCommits(SRV_ID, commits(10)));
+    }
+
+    @Test
+    public void testResolvedDefectIsRemoved() {
+        OpenDefectsIndex idx = new OpenDefectsIndex();
+
+        DefectCompacted defect = defect(1, SRV_ID, commits(10, 11), 100);
+
+        idx.put(defect);
+
+        // New first build was added to the open defect.
+        defect.computeIfAbsent(build(101));
+        idx.put(defect);
+
+        assertEquals(Integer.valueOf(1), idx.defectForBuild(SRV_ID, 101));
+
+        defect.resolvedByUsernameId(5);
+        idx.put(defect);
+
+        assertEquals(0, idx.size());
+        assertNull(idx.defectForBuild(SRV_ID, 100));
+        assertNull(idx.defectForBuild(SRV_ID, 101));
+        assertNull(idx.defectForCommits(SRV_ID, commits(10, 11)));
+    }
+
+    /**
+     * @param id Defect ID.
+     * @param srvId Server ID.
+     * @param commits Commits.
+     * @param buildIds First failed builds.
+     */
+    static DefectCompacted defect(int id, int srvId, List<CommitCompacted> commits, int... buildIds) {
+        DefectCompacted defect = new DefectCompacted(id).commits(commits).tcSrvId(srvId);
+
+        for (int buildId : buildIds)
+            defect.computeIfAbsent(build(buildId));
+
+        return defect;
+    }
+
+    /**
+     * @param buildId Build ID.
+     * @param changes Change IDs.
+     */
+    static FatBuildCompacted build(int buildId, int... changes) {
+        FatBuildCompacted build = new FatBuildCompacted();
+
+        build.setId(buildId);
+        build.changes(changes);
+
+        return build;
+    }
+
+    /**
+     * @param changes Change IDs, commit of change is derived from the ID.
+     * @return Sorted commits.
+     */
+    static List<CommitCompacted> commits(int... changes) {
+        CommitCompacted[] res = new CommitCompacted[changes.length];
+
+        for (int i = 0; i < changes.length; i++)
+            res[i] = new CommitCompacted(commitVersion(changes[i]));
+
+        Arrays.sort(res);
+
+        return Arrays.asList(res);
+    }
+
+    /**
+     * @param changeId Change ID.
+     * @return Git revision of the change, 20 bytes.
+     */
+    static byte[] commitVersion(int changeId) {
+        return ByteBuffer.allocate(20).putInt(16, changeId * 31).array();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.engine.pool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link TcUpdatePool} lanes are isolated, and that {@link TcUpdatePool.RequestScope} determines lane and
+ * allows to cancel tasks of a request.
+ */
+public class TcUpdatePoolTest {
+    /** Pool. */
+    private TcUpdatePool pool;
+
+    /** Releases tasks occupying all pool threads. */
+    private CountDownLatch release;
+
+    /** Started blocking tasks. */
+    private CountDownLatch blockersStarted;
+
+    /** */
+    @Before
+    public void setUp() {
+        pool = new TcUpdatePool();
+        release = new CountDownLatch(1);
+        blockersStarted = new CountDownLatch(TcUpdatePool.THREADS);
+    }
+
+    /** */
+    @After
+    public void tearDown() {
+        release.countDown();
+
+        pool.stop();
+    }
+
+    /**
+     * Full background lane makes background submitter execute the task itself, while interactive task is queued and
+     * is started before all waiting background tasks.
+     */
+    @Test
+    public void testFullBackgroundLaneDoesNotBlockInteractive() throws Exception {
+        occupyAllThreads();
+
+        AtomicInteger startOrder = new AtomicInteger();
+
+        for (int i = 0; i < TcUpdatePool.MAX_QUEUED_PER_LANE; i++)
+            pool.submit(TcUpdatePool.Lane.BACKGROUND, startOrder::getAndIncrement);
+
+        TcUpdatePool.LaneMetrics background = pool.metrics().get(TcUpdatePool.Lane.BACKGROUND);
+        TcUpdatePool.LaneMetrics interactive = pool.metrics().get(TcUpdatePool.Lane.INTERACTIVE);
+
+        assertEquals(TcUpdatePool.MAX_QUEUED_PER_LANE, background.queued());
+
+        // Background submitter is throttled by executing the task itself.
+        Thread submitter = Thread.currentThread();
+        Future<Thread> overflow = pool.getService().submit(Thread::currentThread);
+
+        assertTrue(overflow.isDone());
+        assertSame(submitter, overflow.get());
+        assertEquals(1, background.callerRuns());
+
+        Future<Integer> req;
+
+        TcUpdatePool.RequestScope scope = pool.openScope();
+
+        try {
+            req = pool.getService().submit(startOrder::getAndIncrement);
+        }
+        finally {
+            scope.close();
+        }
+
+        assertFalse(req.isDone());
+        assertEquals(1, interactive.queued());
+        assertEquals(0, interactive.callerRuns());
+
+        release.countDown();
+
+        // Queue is ordered by lane, so interactive task is taken first by one of released threads.
+        assertTrue(req.get(10, TimeUnit.SECONDS) < TcUpdatePool.THREADS);
+    }
+
+    /**
+     * Tasks submitted in a scope are interactive, tasks submitted by them inherit the scope, and all not started
+     * tasks of the scope are cancelled together.
+     */
+    @Test
+    public void testRequestScopeTasksAreCancelledTogether() throws Exception {
+        occupyAllThreads();
+
+        int tasks = 5;
+        List<Future<?>> futs = new ArrayList<>();
+        TcUpdatePool.RequestScope scope = pool.openScope();
+
+        try {
+            for (int i = 0; i < tasks; i++)
+                futs.add(pool.getService().submit(() -> { }));
+
+            assertEquals(tasks, pool.metrics().get(TcUpdatePool.Lane.INTERACTIVE).queued());
+            assertEquals(tasks, scope.cancel());
+
+            // Task submitted in cancelled scope is not executed.
+            futs.add(pool.getService().submit(() -> { }));
+        }
+        finally {
+            scope.close();
+        }
+
+        for (Future<?> fut : futs)
+            assertTrue(fut.isCancelled());
+
+        assertEquals(tasks + 1, pool.metrics().get(TcUpdatePool.Lane.INTERACTIVE).cancelled());
+
+        // Closed scope is detached from the thread, next task is background one.
+        pool.getService().submit(() -> { });
+
+        assertEquals(1, pool.metrics().get(TcUpdatePool.Lane.BACKGROUND).queued());
+
+        release.countDown();
+
+        // Nested task inherits lane of the interactive parent task.
+        Future<Future<Thread>> nested;
+
+        TcUpdatePool.RequestScope nestedScope = pool.openScope();
+
+        try {
+            nested = pool.getService().submit(() -> pool.getService().submit(Thread::currentThread));
+        }
+        finally {
+            nestedScope.close();
+        }
+
+        assertNotSame(Thread.currentThread(), nested.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+
+        // Metrics are recorded after future completion, wait for all tasks to finish.
+        pool.stop();
+
+        assertEquals(tasks + 1, pool.metrics().get(TcUpdatePool.Lane.INTERACTIVE).cancelled());
+        assertEquals(2, pool.metrics().get(TcUpdatePool.Lane.INTERACTIVE).execTime().count());
+    }
+
+    /**
+     * Blocks all pool threads by background tasks waiting for {@link #release}.
+     */
+    private void occupyAllThreads() throws InterruptedException {
+        for (int i = 0; i < TcUpdatePool.THREADS; i++) {
+            pool.submit(TcUpdatePool.Lane.BACKGROUND, () -> {
+                blockersStarted.countDown();
+
+                return release.await(1, TimeUnit.MINUTES);
+            });
+        }
+
+        assertTrue(blockersStarted.await(10, TimeUnit.SECONDS));
+        assertEquals(0, pool.metrics().get(TcUpdatePool.Lane.BACKGROUND).queued());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.ci.tcbot.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+
+/**
+ * Preset dictionary for deflate compression of {@link StringFieldCompacted}. Contains fragments which are repeated in
+ * Java stack traces, thread dumps and test logs. Deflate may refer to the dictionary in the same way as to previously
+ * compressed text, so even short stack traces are compressed well.
+ *
+ * Contents of dictionary can never be changed: persisted values are compressed with it. Compressed stream contains
+ * Adler-32 checksum of dictionary, so to introduce improved dictionary a new constant should be added and resolved in
+ * {@link #forChecksum(int)}. Fragments used most often are placed at the end, deflate encodes short distances better.
+ */
+class StackTraceDictionary {
+    /** Dictionary, version 1. */
+    static final byte[] V1 = String.join("",
+        "java.util.concurrent.TimeoutException: ",
+        "java.lang.IllegalStateException: ",
+        "java.lang.IllegalArgumentException: ",
+        "java.lang.NullPointerException",
+        "java.lang.OutOfMemoryError: Java heap space",
+        "java.lang.InterruptedException",
+        "org.apache.ignite.IgniteCheckedException: ",
+        "org.apache.ignite.IgniteException: ",
+        "class org.apache.ignite.IgniteCheckedException: Failed to ",
+        "org.apache.ignite.internal.IgniteFutureTimeoutCheckedException: Timeout has occurred: ",
+        "org.apache.ignite.internal.cluster.ClusterTopologyCheckedException: ",
+        "Caused by: ",
+        "\t... ", " more\n",
+        "Suppressed: ",
+        "------- Stdout: ------- ",
+        "------- Stderr: ------- ",
+        "[ERROR][main][root] Test failed.",
+        "[INFO ][main][root] >>> Starting test: ",
+        "[INFO ][main][root] >>> Stopping test: ",
+        " in ", " ms <<<\n",
+        "Critical failure. Will be handled accordingly to configured handler ",
+        "[hnd=StopNodeOrHaltFailureHandler [tryStop=false, timeout=0, super=AbstractFailureHandler ",
+        "[ignoredFailureTypes=[SYSTEM_WORKER_BLOCKED, SYSTEM_CRITICAL_OPERATION_TIMEOUT]]], ",
+        "failureCtx=FailureContext [type=",
+        "Found one Java-level deadlock:\n",
+        "Java stack information for the threads listed above:\n",
+        "Full thread dump Java HotSpot(TM) 64-Bit Server VM (25.",
+        "\"main\" #1 prio=5 os_prio=0 tid=0x",
+        " nid=0x",
+        " waiting on condition [0x",
+        " runnable [0x",
+        " in Object.wait() [0x",
+        "   java.lang.Thread.State: RUNNABLE\n",
+        "   java.lang.Thread.State: TIMED_WAITING (parking)\n",
+        "   java.lang.Thread.State: WAITING (parking)\n",
+        "   java.lang.Thread.State: TIMED_WAITING (sleeping)\n",
+        "   java.lang.Thread.State: WAITING (on object monitor)\n",
+        "\t- parking to wait for  <0x",
+        "> (a java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject)\n",
+        "\t- waiting on <0x",
+        "\t- locked <0x",
+        "\t- None\n",
+        "\tat sun.misc.Unsafe.park(Native Method)\n",
+        "\tat java.lang.Thread.sleep(Native Method)\n",
+        "\tat java.lang.Object.wait(Native Method)\n",
+        "\tat java.util.concurrent.locks.LockSupport.park(LockSupport.java:175)\n",
+        "\tat java.util.concurrent.locks.LockSupport.parkNanos(LockSupport.java:215)\n",
+        "\tat java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject.await(AbstractQueuedSynchronizer.java:2039)\n",
+        "\tat java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject.awaitNanos(AbstractQueuedSynchronizer.java:2078)\n",
+        "\tat java.util.concurrent.LinkedBlockingQueue.take(LinkedBlockingQueue.java:442)\n",
+        "\tat java.util.concurrent.LinkedBlockingQueue.poll(LinkedBlockingQueue.java:467)\n",
+        "\tat java.util.concurrent.ScheduledThreadPoolExecutor$DelayedWorkQueue.take(ScheduledThreadPoolExecutor.java:1093)\n",
+        "\tat java.util.concurrent.ThreadPoolExecutor.getTask(ThreadPoolExecutor.java:1074)\n",
+        "\tat java.util.concurrent.ThreadPoolExecutor.runWorker(ThreadPoolExecutor.java:1134)\n",
+        "\tat java.util.concurrent.ThreadPoolExecutor$Worker.run(ThreadPoolExecutor.java:624)\n",
+        "\tat org.apache.ignite.internal.util.future.GridFutureAdapter.get0(GridFutureAdapter.java:",
+        "\tat org.apache.ignite.internal.util.future.GridFutureAdapter.get(GridFutureAdapter.java:",
+        "\tat org.apache.ignite.internal.util.worker.GridWorker.run(GridWorker.java:120)\n",
+        "\tat org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionsExchangeFuture.",
+        "\tat org.apache.ignite.internal.processors.cache.GridCachePartitionExchangeManager$ExchangeWorker.body0(",
+        "\tat org.apache.ignite.internal.processors.cache.",
+        "\tat org.apache.ignite.internal.processors.",
+        "\tat org.apache.ignite.internal.util.IgniteUtils.",
+        "\tat org.apache.ignite.internal.",
+        "\tat org.apache.ignite.testframework.GridTestUtils.",
+        "\tat org.apache.ignite.testframework.junits.common.GridCommonAbstractTest.",
+        "\tat junit.framework.Assert.fail(Assert.java:57)\n",
+        "\tat junit.framework.Assert.assertTrue(Assert.java:22)\n",
+        "\tat junit.framework.TestCase.fail(TestCase.java:227)\n",
+        "\tat junit.framework.TestCase.runTest(TestCase.java:176)\n",
+        "\tat sun.reflect.NativeMethodAccessorImpl.invoke0(Native Method)\n",
+        "\tat sun.reflect.NativeMethodAccessorImpl.invoke(NativeMethodAccessorImpl.java:62)\n",
+        "\tat sun.reflect.DelegatingMethodAccessorImpl.invoke(DelegatingMethodAccessorImpl.java:43)\n",
+        "\tat java.lang.reflect.Method.invoke(Method.java:498)\n",
+        "\tat org.apache.ignite.testframework.junits.GridAbstractTest.runTestInternal(GridAbstractTest.java:",
+        "\tat org.apache.ignite.testframework.junits.GridAbstractTest.access$000(GridAbstractTest.java:",
+        "\tat org.apache.ignite.testframework.junits.GridAbstractTest$5.run(GridAbstractTest.java:",
+        "\tat java.lang.Thread.run(Thread.java:748)\n",
+        "junit.framework.AssertionFailedError: https://issues.apache.org/jira/browse/IGNITE-",
+        "java.lang.AssertionError: ",
+        ".java:",
+        ")\n\tat org.apache.ignite.",
+        ")\n\tat java.util.concurrent.",
+        ")\n\tat "
+    ).getBytes(StandardCharsets.UTF_8);
+
+    /** Adler-32 checksum of {@link #V1}. */
+    private static final int V1_CHECKSUM = checksum(V1);
+
+    /**
+     * @param adler Checksum of dictionary requested by inflater.
+     * @return Dictionary or null if checksum is unknown.
+     */
+    static byte[] forChecksum(int adler) {
+        return adler == V1_CHECKSUM ? V1 : null;
+    }
+
+    /**
+     * @param dict Dictionary.
+     */
+    private static int checksum(byte[] dict) {
+        Adler32 adler = new Adler32();
+
+        adler.update(dict, 0, dict.length);
+
+        return (int)adler.getValue();
+    }
+}
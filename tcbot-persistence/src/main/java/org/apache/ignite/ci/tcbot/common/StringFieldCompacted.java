@@ -28,13 +28,21 @@ import javax.annotation.Nonnull;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
 /**
  * Field is included into bigger entries, so it is placed in backward compatible package.
+ *
+ * Codec is selected once per value using cheap heuristics instead of trying all codecs: short and high entropy values
+ * are stored as is, stack traces and big texts are compressed by deflate with preset {@link StackTraceDictionary},
+ * other texts are compressed by Snappy. Values compressed by GZip by previous versions are still readable.
  */
 @Persisted
 public class StringFieldCompacted {
@@ -43,6 +51,30 @@ public class StringFieldCompacted {
     public static final int FLAG_UNCOMPRESSED = 0;
     public static final int FLAG_SNAPPY = 1;
     public static final int FLAG_GZIP = 2;
+    /** Deflate with preset dictionary: 4 bytes of uncompressed length followed by zlib stream. */
+    public static final int FLAG_DEFLATE = 3;
+
+    /** Values shorter than this are stored uncompressed: codec headers eat possible gain. */
+    static final int MIN_COMPRESS_LEN = 64;
+
+    /** Values of this size or bigger are compressed by deflate regardless of content. */
+    static final int DEFLATE_MIN_LEN = 4096;
+
+    /** Count of bytes sampled to estimate entropy. */
+    private static final int ENTROPY_SAMPLE = 512;
+
+    /** Values with sampled entropy above this (bits per byte) are considered incompressible. */
+    private static final double MAX_ENTROPY = 7.0;
+
+    /** Size of chunk inflated at once, when only first lines are required. */
+    private static final int LINES_CHUNK = 1024;
+
+    /** Deflater per thread, native resources are kept between usages. */
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+
+    /** Inflater per thread. */
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
     byte flag;
     byte data[];
 
@@ -78,22 +110,66 @@ public class StringFieldCompacted {
                 return null;
             }
         }
+        else if (flag == FLAG_DEFLATE) {
+            try {
+                return new String(inflate(data, Integer.MAX_VALUE), StandardCharsets.UTF_8);
+            }
+            catch (DataFormatException e) {
+                logger.error("Inflate failed: " + e.getMessage(), e);
+                return null;
+            }
+        }
         else
             return null;
     }
 
+    /**
+     * Decompresses only beginning of value, which is enough to render a preview of a long text (e.g. thread dump).
+     * Deflate and GZip streams are decoded only up to the requested line.
+     *
+     * @param maxLines Maximum count of lines to return.
+     * @return First lines of value (whole value if it is shorter) or null if value can't be decompressed. Value is
+     * cut before line separator.
+     */
+    public String firstLines(int maxLines) {
+        if (data == null || maxLines <= 0)
+            return "";
+
+        byte[] bytes;
+
+        try {
+            if (flag == FLAG_UNCOMPRESSED)
+                bytes = data;
+            else if (flag == FLAG_SNAPPY)
+                bytes = Snappy.uncompress(data);
+            else if (flag == FLAG_GZIP)
+                bytes = unzip(data, maxLines);
+            else if (flag == FLAG_DEFLATE)
+                bytes = inflate(data, maxLines);
+            else
+                return null;
+        }
+        catch (IOException | DataFormatException e) {
+            logger.error("Decompression failed: " + e.getMessage(), e);
+            return null;
+        }
+
+        return new String(bytes, 0, linesEnd(bytes, bytes.length, maxLines), StandardCharsets.UTF_8);
+    }
+
     @Nonnull
     public static String unzipToString(byte[] data) throws IOException {
-        final ByteArrayInputStream in = new ByteArrayInputStream(data);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try (final GZIPInputStream gzi = new GZIPInputStream(in)) {
-            byte[] outbuf = new byte[data.length];
-            int len;
-            while ((len = gzi.read(outbuf, 0, outbuf.length)) != -1)
-                bos.write(outbuf, 0, len);
-        }
+        return new String(unzip(data, Integer.MAX_VALUE), StandardCharsets.UTF_8);
+    }
 
-        return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+    /**
+     * @param data GZip data.
+     * @param maxLines Decompression is stopped after this count of lines was read.
+     */
+    private static byte[] unzip(byte[] data, int maxLines) throws IOException {
+        try (final GZIPInputStream gzi = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return readFully(gzi, gzipSize(data), maxLines);
+        }
     }
 
     public void setValue(String str) {
@@ -103,8 +179,6 @@ public class StringFieldCompacted {
         }
 
         byte[] uncompressed;
-        byte[] snappy = null;
-        byte[] gzip = null;
         try {
             uncompressed = str.getBytes(StandardCharsets.UTF_8);
         }
@@ -113,39 +187,38 @@ public class StringFieldCompacted {
             return;
         }
 
-        try {
-            snappy = Snappy.compress(uncompressed);
-        }
-        catch (Exception e) {
-            logger.error("Snappy.compress failed: " + e.getMessage(), e);
-        }
-
-        try {
-            gzip = zipBytes(uncompressed);
-        }
-        catch (Exception e) {
-            logger.error("Snappy.compress failed: " + e.getMessage(), e);
-        }
-
-        final int snappyLen = snappy != null ? snappy.length : -1;
-        final int gzipLen = gzip != null ? gzip.length : -1;
-
         flag = FLAG_UNCOMPRESSED;
         //uncompressed
         data = uncompressed;
 
-        if (snappyLen > 0 && snappyLen < data.length) {
-            flag = FLAG_SNAPPY;
-            data = snappy;
+        if (uncompressed.length < MIN_COMPRESS_LEN || !isCompressible(uncompressed))
+            return;
+
+        byte codec;
+        byte[] compressed = null;
+
+        if (uncompressed.length >= DEFLATE_MIN_LEN || isStackTrace(str)) {
+            codec = FLAG_DEFLATE;
+            compressed = deflate(uncompressed);
         }
+        else {
+            codec = FLAG_SNAPPY;
 
-        if (gzipLen > 0 && gzipLen < data.length) {
-            flag = FLAG_GZIP;
-            data = gzip;
+            try {
+                compressed = Snappy.compress(uncompressed);
+            }
+            catch (Exception e) {
+                logger.error("Snappy.compress failed: " + e.getMessage(), e);
+            }
         }
 
-        logger.debug("U " + uncompressed.length + " S " + snappyLen + " Z " + gzipLen + ": F (" +
-            flag + ")");
+        if (compressed != null && compressed.length < uncompressed.length) {
+            flag = codec;
+            data = compressed;
+        }
+
+        if (logger.isDebugEnabled())
+            logger.debug("U " + uncompressed.length + " C " + data.length + ": F (" + flag + ")");
     }
 
     public static byte[] zipBytes(byte[] uncompressed) throws IOException {
@@ -157,6 +230,207 @@ public class StringFieldCompacted {
         return out.toByteArray();
     }
 
+    /**
+     * Estimates Shannon entropy of bytes sampled uniformly from the value, to skip compression of already compressed
+     * or random data.
+     *
+     * @param bytes Value bytes.
+     */
+    static boolean isCompressible(byte[] bytes) {
+        int step = Math.max(1, bytes.length / ENTROPY_SAMPLE);
+        int[] freq = new int[256];
+        int cnt = 0;
+
+        for (int i = 0; i < bytes.length; i += step, cnt++)
+            freq[bytes[i] & 0xFF]++;
+
+        double entropy = 0;
+
+        for (int f : freq) {
+            if (f == 0)
+                continue;
+
+            double p = (double)f / cnt;
+
+            entropy -= p * Math.log(p);
+        }
+
+        return entropy / Math.log(2) <= MAX_ENTROPY;
+    }
+
+    /**
+     * @param str Value.
+     * @return {@code True} if value contains stack trace elements or exception, which are covered by dictionary.
+     */
+    static boolean isStackTrace(String str) {
+        return str.contains("\tat ") || str.contains("Exception") || str.contains("Error:");
+    }
+
+    /**
+     * @param uncompressed Bytes to compress.
+     * @return Length prefixed deflate stream or null if compressed data is not smaller than input.
+     */
+    private static byte[] deflate(byte[] uncompressed) {
+        Deflater deflater = DEFLATER.get();
+
+        deflater.reset();
+        deflater.setDictionary(StackTraceDictionary.V1);
+        deflater.setInput(uncompressed);
+        deflater.finish();
+
+        // Output is limited by input size, there is no sense to continue if data is not compressible.
+        byte[] out = new byte[4 + uncompressed.length];
+        int len = uncompressed.length;
+
+        out[0] = (byte)(len >>> 24);
+        out[1] = (byte)(len >>> 16);
+        out[2] = (byte)(len >>> 8);
+        out[3] = (byte)len;
+
+        int off = 4;
+
+        while (!deflater.finished() && off < out.length)
+            off += deflater.deflate(out, off, out.length - off);
+
+        return deflater.finished() ? Arrays.copyOf(out, off) : null;
+    }
+
+    /**
+     * @param data Length prefixed deflate stream.
+     * @param maxLines Inflation is stopped after this count of lines was decompressed.
+     * @return Decompressed bytes, may be longer than requested lines.
+     */
+    private static byte[] inflate(byte[] data, int maxLines) throws DataFormatException {
+        int len = ((data[0] & 0xFF) << 24) | ((data[1] & 0xFF) << 16) | ((data[2] & 0xFF) << 8) | (data[3] & 0xFF);
+
+        Inflater inflater = INFLATER.get();
+
+        inflater.reset();
+        inflater.setInput(data, 4, data.length - 4);
+
+        byte[] out = new byte[len];
+        int off = 0;
+        int lines = 0;
+
+        while (off < len && !inflater.finished()) {
+            int chunk = maxLines == Integer.MAX_VALUE ? len - off : Math.min(LINES_CHUNK, len - off);
+            int n = inflater.inflate(out, off, chunk);
+
+            if (n == 0) {
+                if (inflater.needsDictionary()) {
+                    byte[] dict = StackTraceDictionary.forChecksum(inflater.getAdler());
+
+                    if (dict == null)
+                        throw new DataFormatException("Unknown dictionary: " + inflater.getAdler());
+
+                    inflater.setDictionary(dict);
+
+                    continue;
+                }
+
+                if (inflater.needsInput())
+                    throw new DataFormatException("Unexpected end of deflate stream");
+            }
+
+            if (maxLines != Integer.MAX_VALUE)
+                lines += countLines(out, off, off + n);
+
+            off += n;
+
+            if (lines >= maxLines)
+                return Arrays.copyOf(out, off);
+        }
+
+        return out;
+    }
+
+    /**
+     * @param data GZip data.
+     * @return Uncompressed size from GZip trailer (ISIZE field).
+     */
+    private static int gzipSize(byte[] data) {
+        int l = data.length;
+
+        if (l < 4)
+            return 0;
+
+        return (data[l - 4] & 0xFF) | ((data[l - 3] & 0xFF) << 8) | ((data[l - 2] & 0xFF) << 16) | ((data[l - 1] & 0xFF) << 24);
+    }
+
+    /**
+     * @param in Input stream.
+     * @param expSize Expected size, buffer is extended if stream is longer.
+     * @param maxLines Reading is stopped after this count of lines was read.
+     */
+    private static byte[] readFully(InputStream in, int expSize, int maxLines) throws IOException {
+        byte[] buf = new byte[expSize > 0 ? expSize : LINES_CHUNK];
+        int off = 0;
+        int lines = 0;
+
+        while (true) {
+            if (off == buf.length) {
+                // Expected size is only a hint (ISIZE is stored modulo 2^32), check stream end before extension.
+                int next = in.read();
+
+                if (next < 0)
+                    break;
+
+                buf = Arrays.copyOf(buf, buf.length * 2);
+                buf[off++] = (byte)next;
+            }
+
+            int chunk = maxLines == Integer.MAX_VALUE ? buf.length - off : Math.min(LINES_CHUNK, buf.length - off);
+            int n = in.read(buf, off, chunk);
+
+            if (n < 0)
+                break;
+
+            if (maxLines != Integer.MAX_VALUE)
+                lines += countLines(buf, off, off + n);
+
+            off += n;
+
+            if (lines >= maxLines)
+                return Arrays.copyOf(buf, off);
+        }
+
+        return off == buf.length ? buf : Arrays.copyOf(buf, off);
+    }
+
+    /**
+     * @param bytes Bytes.
+     * @param len Count of valid bytes.
+     * @param maxLines Lines count.
+     * @return End of {@code maxLines} lines (position of line separator) or {@code len} if there are less lines.
+     */
+    private static int linesEnd(byte[] bytes, int len, int maxLines) {
+        int lines = 0;
+
+        for (int i = 0; i < len; i++) {
+            if (bytes[i] == '\n' && ++lines == maxLines)
+                return i;
+        }
+
+        return len;
+    }
+
+    /**
+     * @param bytes Bytes.
+     * @param from From index, inclusive.
+     * @param to To index, exclusive.
+     * @return Count of line separators in range.
+     */
+    private static int countLines(byte[] bytes, int from, int to) {
+        int lines = 0;
+
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n')
+                lines++;
+        }
+
+        return lines;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean equals(Object o) {
         if (this == o)
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.persistence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.cache.Cache;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteAtomicSequence;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.QueryEntity;
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.ScanQuery;
+import org.apache.ignite.cache.query.SqlQuery;
+import org.apache.ignite.ci.teamcity.ignited.IgniteStringCompactor.CompactorEntity;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
+import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
+import org.apache.ignite.tcbot.common.util.ObjectInterner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.ignite.tcbot.persistence.IgniteStringCompactor.STRINGS_CACHE;
+
+/**
+ * String compactor keeping whole dictionary in memory. Dictionary is loaded from {@link
+ * IgniteStringCompactor#STRINGS_CACHE} once at first usage. Later lookups do not allocate and do not touch Ignite: ID to
+ * string is resolved using array indexed by ID, string to ID is resolved using open addressing hash table containing
+ * IDs only. New strings are written through to the Ignite cache, so persisted format is same as for {@link
+ * IgniteStringCompactor}.
+ *
+ * Reads are not synchronized. Writers publish array element first and hash slot after that; if a reader observes
+ * partially published data, lookup misses and is repeated under lock.
+ */
+public class IndexedStringCompactor implements IStringCompactor {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(IndexedStringCompactor.class);
+
+    /** Strings sequence, shared with {@link IgniteStringCompactor}. */
+    private static final String STRINGS_SEQ = "stringsSeq";
+
+    /** Initial capacity of ID to string array and hash table. */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    /** Ignite provider. */
+    @Inject private Provider<Ignite> igniteProvider;
+
+    /** Init guard. */
+    private final AtomicBoolean initGuard = new AtomicBoolean();
+
+    /** Init latch. */
+    private final CountDownLatch initLatch = new CountDownLatch(1);
+
+    /** Strings cache. */
+    private IgniteCache<String, CompactorEntity> stringsCache;
+
+    /** Sequence. */
+    private IgniteAtomicSequence seq;
+
+    /** ID to string mapping, index is string ID. */
+    @GuardedBy("this")
+    private volatile String[] idToStr = new String[INITIAL_CAPACITY];
+
+    /** String to ID open addressing hash table. Zero is empty slot, IDs generated by sequence are positive. */
+    @GuardedBy("this")
+    private volatile int[] strToId = new int[INITIAL_CAPACITY];
+
+    /** Count of strings in hash table. */
+    @GuardedBy("this")
+    private int size;
+
+    /**
+     * Initializes caches and loads full dictionary to memory.
+     */
+    @AutoProfiling
+    public void init() {
+        Ignite ignite = igniteProvider.get();
+        CacheConfiguration<String, CompactorEntity> cfg = CacheConfigs.getCache8PartsConfig(STRINGS_CACHE);
+
+        cfg.setQueryEntities(Collections.singletonList(new QueryEntity(String.class, CompactorEntity.class)));
+
+        stringsCache = ignite.getOrCreateCache(cfg);
+
+        seq = ignite.atomicSequence(STRINGS_SEQ, 0, true);
+
+        int cnt = 0;
+
+        try (QueryCursor<Cache.Entry<String, CompactorEntity>> qryCursor
+                 = stringsCache.query(new ScanQuery<String, CompactorEntity>())) {
+            synchronized (this) {
+                for (Cache.Entry<String, CompactorEntity> next : qryCursor) {
+                    CompactorEntity entity = next.getValue();
+
+                    if (register(entity.id(), next.getKey()))
+                        cnt++;
+                }
+            }
+        }
+
+        logger.info("String compactor loaded " + cnt + " strings from persistence");
+    }
+
+    /**
+     * Initializes the compactor if it was not done yet, or waits for initialization from other thread.
+     */
+    private void initIfNeeded() {
+        if (initLatch.getCount() == 0)
+            return;
+
+        if (initGuard.compareAndSet(false, true)) {
+            init();
+
+            initLatch.countDown();
+        }
+        else {
+            try {
+                initLatch.await();
+            }
+            catch (InterruptedException e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getStringId(String val) {
+        if (val == null)
+            return -1;
+
+        initIfNeeded();
+
+        int id = find(strToId, idToStr, val);
+        if (id > 0)
+            return id;
+
+        synchronized (this) {
+            id = find(strToId, idToStr, val);
+            if (id > 0)
+                return id;
+
+            CompactorEntity entity = stringsCache.get(val);
+
+            if (entity == null) {
+                int codeCandidate = (int)seq.incrementAndGet();
+
+                boolean valWasSet = stringsCache.putIfAbsent(val, new CompactorEntity(codeCandidate, val));
+
+                entity = valWasSet ? new CompactorEntity(codeCandidate, val) : stringsCache.get(val);
+            }
+
+            register(entity.id(), entity.val());
+
+            return entity.id();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String getStringFromId(int id) {
+        if (id < 0)
+            return null;
+
+        initIfNeeded();
+
+        String[] arr = idToStr;
+        String val = id < arr.length ? arr[id] : null;
+
+        if (val != null)
+            return val;
+
+        synchronized (this) {
+            arr = idToStr;
+            val = id < arr.length ? arr[id] : null;
+
+            if (val != null)
+                return val;
+
+            // String was probably added by other node.
+            val = loadFromPersistence(id);
+
+            if (val != null)
+                register(id, val);
+            else
+                System.err.println("Error: String Not found string by id " + id);
+
+            return val;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public Integer getStringIdIfPresent(String val) {
+        if (val == null)
+            return -1;
+
+        initIfNeeded();
+
+        int id = find(strToId, idToStr, val);
+        if (id > 0)
+            return id;
+
+        synchronized (this) {
+            id = find(strToId, idToStr, val);
+            if (id > 0)
+                return id;
+
+            CompactorEntity entity = stringsCache.get(val);
+            if (entity == null)
+                return null;
+
+            register(entity.id(), entity.val());
+
+            return entity.id();
+        }
+    }
+
+    /**
+     * @param id String ID.
+     * @return String from persistence or null if string is not found.
+     */
+    @AutoProfiling
+    @Nullable protected String loadFromPersistence(int id) {
+        try (QueryCursor<Cache.Entry<String, CompactorEntity>> qryCursor
+                 = stringsCache.query(new SqlQuery<String, CompactorEntity>(CompactorEntity.class, "id = ?").setArgs(id))) {
+            Iterator<Cache.Entry<String, CompactorEntity>> iter = qryCursor.iterator();
+
+            if (!iter.hasNext())
+                return null;
+
+            return iter.next().getValue().val();
+        }
+    }
+
+    /**
+     * @param tbl Hash table.
+     * @param strings ID to string mapping.
+     * @param val Value to find.
+     * @return ID of string or 0 if string was not found.
+     */
+    private static int find(int[] tbl, String[] strings, String val) {
+        int mask = tbl.length - 1;
+
+        for (int idx = hash(val) & mask; ; idx = (idx + 1) & mask) {
+            int id = tbl[idx];
+
+            if (id == 0)
+                return 0;
+
+            if (id < strings.length && val.equals(strings[id]))
+                return id;
+        }
+    }
+
+    /**
+     * Saves mapping into in-memory dictionary.
+     *
+     * @param id String ID.
+     * @param val String.
+     * @return {@code True} if new string was registered.
+     */
+    @GuardedBy("this")
+    private boolean register(int id, String val) {
+        if (id <= 0 || val == null)
+            return false;
+
+        String[] strings = idToStr;
+
+        if (id < strings.length && strings[id] != null)
+            return false;
+
+        if (id >= strings.length) {
+            strings = Arrays.copyOf(strings, Math.max(strings.length * 2, Integer.highestOneBit(id) << 1));
+
+            idToStr = strings;
+        }
+
+        strings[id] = ObjectInterner.internString(val);
+
+        int[] tbl = strToId;
+
+        // Keep load factor below 0.5 for short probe sequences.
+        if ((size + 1) * 2 > tbl.length) {
+            tbl = rehash(tbl, strings, tbl.length * 2);
+
+            strToId = tbl;
+        }
+
+        insert(tbl, strings, id);
+
+        size++;
+
+        return true;
+    }
+
+    /**
+     * @param tbl Hash table.
+     * @param strings ID to string mapping.
+     * @param capacity New capacity, power of 2.
+     * @return New hash table with all IDs from the old one.
+     */
+    private static int[] rehash(int[] tbl, String[] strings, int capacity) {
+        int[] res = new int[capacity];
+
+        for (int id : tbl) {
+            if (id != 0)
+                insert(res, strings, id);
+        }
+
+        return res;
+    }
+
+    /**
+     * @param tbl Hash table.
+     * @param strings ID to string mapping.
+     * @param id ID to insert.
+     */
+    private static void insert(int[] tbl, String[] strings, int id) {
+        int mask = tbl.length - 1;
+        int idx = hash(strings[id]) & mask;
+
+        while (tbl[idx] != 0)
+            idx = (idx + 1) & mask;
+
+        tbl[idx] = id;
+    }
+
+    /**
+     * @param val Value.
+     * @return Spread hash code of string.
+     */
+    private static int hash(String val) {
+        int h = val.hashCode();
+
+        return h ^ (h >>> 16);
+    }
+}
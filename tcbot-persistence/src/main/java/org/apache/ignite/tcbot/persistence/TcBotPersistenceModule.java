@@ -26,6 +26,6 @@ public class TcBotPersistenceModule extends AbstractModule {
         super.configure();
 
 
-        bind(IStringCompactor.class).to(IgniteStringCompactor.class).in(new SingletonScope());
+        bind(IStringCompactor.class).to(IndexedStringCompactor.class).in(new SingletonScope());
     }
 }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcbot.persistence;
+
+import com.google.inject.Guice;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.ignite.tcbot.persistence.IgniteStringCompactor.STRINGS_CACHE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks {@link IndexedStringCompactor} lookups under concurrent registration and after restart.
+ */
+public class IndexedStringCompactorTest {
+    /** Discovery port, differs from ports of other test nodes. */
+    private static final int DISCOVERY_PORT = 47530;
+
+    /** Count of strings, exceeds initial capacity so arrays are grown during the test. */
+    private static final int STRINGS = 70_000;
+
+    /** Threads. */
+    private static final int THREADS = 8;
+
+    /** Ignite. */
+    private static Ignite ignite;
+
+    @BeforeClass
+    public static void startIgnite() {
+        TcpDiscoverySpi spi = new TcpDiscoverySpi();
+
+        spi.setLocalPort(DISCOVERY_PORT);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcpDiscoveryVmIpFinder()
+            .setAddresses(Collections.singletonList("127.0.0.1:" + DISCOVERY_PORT)));
+
+        ignite = Ignition.start(new IgniteConfiguration()
+            .setIgniteInstanceName(IndexedStringCompactorTest.class.getSimpleName())
+            .setDiscoverySpi(spi));
+    }
+
+    @AfterClass
+    public static void stopIgnite() {
+        if (ignite != null)
+            ignite.close();
+    }
+
+    @Before
+    public void clearStrings() {
+        if (ignite.cache(STRINGS_CACHE) != null)
+            ignite.cache(STRINGS_CACHE).clear();
+    }
+
+    @Test
+    public void testConcurrentRegistrationAndLookup() throws Exception {
+        IndexedStringCompactor compactor = newCompactor();
+
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<int[]>> futs = new ArrayList<>();
+        int[] expIds;
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int shift = t * (STRINGS / THREADS);
+
+                futs.add(executor.submit(() -> {
+                    int[] ids = new int[STRINGS];
+
+                    barrier.await();
+
+                    for (int i = 0; i < STRINGS; i++) {
+                        int strIdx = (i + shift) % STRINGS;
+                        String str = "str" + strIdx;
+
+                        int id = compactor.getStringId(str);
+
+                        assertEquals(str, compactor.getStringFromId(id));
+
+                        ids[strIdx] = id;
+
+                        // Read back some strings registered earlier, probably by other threads.
+                        int otherIdx = ThreadLocalRandom.current().nextInt(i + 1);
+                        int otherId = ids[(otherIdx + shift) % STRINGS];
+
+                        assertEquals("str" + (otherIdx + shift) % STRINGS, compactor.getStringFromId(otherId));
+                    }
+
+                    return ids;
+                }));
+            }
+
+            expIds = futs.get(0).get();
+
+            for (Future<int[]> fut : futs)
+                assertArrayEquals(expIds, fut.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(STRINGS, Arrays.stream(expIds).distinct().count());
+
+        for (int i = 0; i < STRINGS; i++)
+            assertEquals(expIds[i], (int)compactor.getStringIdIfPresent("str" + i));
+    }
+
+    @Test
+    public void testStringsAreReloadedAfterRestart() {
+        IndexedStringCompactor before = newCompactor();
+
+        int id1 = before.getStringId("first");
+        int id2 = before.getStringId("second");
+
+        IndexedStringCompactor restarted = newCompactor();
+
+        assertEquals("first", restarted.getStringFromId(id1));
+        assertEquals("second", restarted.getStringFromId(id2));
+        assertEquals(id2, restarted.getStringId("second"));
+
+        // String registered by other compactor after this one was loaded is found in persistence.
+        int lateId = before.getStringId("late");
+
+        assertEquals("late", restarted.getStringFromId(lateId));
+        assertEquals(lateId, (int)restarted.getStringIdIfPresent("late"));
+        assertEquals(lateId, restarted.getStringId("late"));
+
+        assertNull(restarted.getStringIdIfPresent("absent"));
+        assertNull(restarted.getStringFromId(Integer.MAX_VALUE - 1));
+        assertTrue(restarted.getStringId("new") > lateId);
+    }
+
+    /**
+     * @return New compactor instance, loads strings from the cache at first usage.
+     */
+    private static IndexedStringCompactor newCompactor() {
+        return Guice.createInjector(binder -> binder.bind(Ignite.class).toInstance(ignite))
+            .getInstance(IndexedStringCompactor.class);
+    }
+}
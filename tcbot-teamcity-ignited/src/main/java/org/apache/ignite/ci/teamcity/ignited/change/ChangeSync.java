@@ -17,6 +17,7 @@
 package org.apache.ignite.ci.teamcity.ignited.change;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcservice.model.changes.Change;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
@@ -29,6 +30,11 @@ import org.xml.sax.SAXParseException;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ChangeSync {
     /** Logger. */
@@ -48,6 +54,77 @@ public class ChangeSync {
         return reloadChange(srvId, changeId, conn);
     }
 
+    /**
+     * Ensures changes are present in the DB. Changes missing in DB or having outdated version are requested from TC
+     * by pages of {@link ITeamcityConn#MAX_CHANGES_PER_REQUEST} IDs and are saved by one batch operation.
+     *
+     * @param srvId Server id.
+     * @param changeIds Change IDs.
+     * @param conn TC connection to load missing data.
+     * @return Changes mapped by change ID.
+     */
+    @AutoProfiling
+    public Map<Integer, ChangeCompacted> changes(int srvId, Collection<Integer> changeIds, ITeamcityConn conn) {
+        if (changeIds.isEmpty())
+            return new HashMap<>();
+
+        int[] ids = changeIds.stream().mapToInt(Integer::intValue).distinct().toArray();
+
+        Map<Integer, ChangeCompacted> existing = changeDao.getAll(srvId, ids);
+
+        List<Integer> missing = new ArrayList<>();
+
+        for (int changeId : ids) {
+            ChangeCompacted change = existing.get(changeId);
+
+            if (change == null || change.isOutdatedEntityVersion())
+                missing.add(changeId);
+        }
+
+        if (missing.isEmpty())
+            return existing;
+
+        Map<Integer, ChangeCompacted> loaded = new HashMap<>();
+
+        for (List<Integer> page : Lists.partition(missing, ITeamcityConn.MAX_CHANGES_PER_REQUEST)) {
+            List<Change> changes;
+
+            try {
+                changes = conn.getChanges(page);
+            }
+            catch (Exception e) {
+                logger.warn("Loading changes page of " + page.size() + " for server [" + conn.serverCode() + "] " +
+                    "failed, changes will be loaded one by one: " + e.getMessage(), e);
+
+                for (Integer changeId : page)
+                    existing.put(changeId, reloadChange(srvId, changeId, conn));
+
+                continue;
+            }
+
+            for (Change change : changes) {
+                ChangeCompacted compacted = new ChangeCompacted(compactor, change);
+
+                if (compacted.id() > 0)
+                    loaded.put(compacted.id(), compacted);
+            }
+
+            for (Integer changeId : page) {
+                if (!loaded.containsKey(changeId)) {
+                    logger.info("Change [" + changeId + "] was not returned by server [" + conn.serverCode() + "]");
+
+                    loaded.put(changeId, new ChangeCompacted(compactor, new Change()));
+                }
+            }
+        }
+
+        changeDao.putAll(srvId, loaded);
+
+        existing.putAll(loaded);
+
+        return existing;
+    }
+
     @Nonnull
     @AutoProfiling
     public ChangeCompacted reloadChange(int srvId, int changeId, ITeamcityConn conn) {
@@ -22,6 +22,7 @@ import com.google.common.base.Strings;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -362,6 +363,21 @@ public class FatBuildCompacted extends BuildRefCompacted implements IVersionedEn
         }
     }
 
+    /**
+     * @param tests Tests already compacted.
+     */
+    public FatBuildCompacted addTests(Collection<TestCompactedV2> tests) {
+        if (tests.isEmpty())
+            return this;
+
+        if (testsV2 == null)
+            testsV2 = new ArrayList<>(tests.size());
+
+        testsV2.addAll(tests);
+
+        return this;
+    }
+
     /**
      * @param compactor Compactor.
      * @param page Page.
@@ -133,4 +133,18 @@ public class MuteInfoCompacted {
     public int id() {
         return id;
     }
+
+    /**
+     * @return Scope.
+     */
+    public MuteScopeCompacted scope() {
+        return scope;
+    }
+
+    /**
+     * @return Names of muted tests, may be null.
+     */
+    public int[] testNames() {
+        return testNames;
+    }
 }
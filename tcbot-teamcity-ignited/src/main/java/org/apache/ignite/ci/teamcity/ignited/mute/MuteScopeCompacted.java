@@ -82,4 +82,18 @@ public class MuteScopeCompacted {
 
         return scope;
     }
+
+    /**
+     * @return Project ID, 0 if mute is not related to project.
+     */
+    public int projectId() {
+        return projectId;
+    }
+
+    /**
+     * @return Build types, may be null.
+     */
+    public List<BuildTypeRefCompacted> buildTypes() {
+        return buildTypes;
+    }
 }
\ No newline at end of file
@@ -92,6 +92,13 @@ public class Invocation {
         return this;
     }
 
+    /**
+     * @return Raw changes state: {@link #CHANGE_PRESENT}, {@link #NO_CHANGES} or {@link #CHANGE_NOT_FILLED}.
+     */
+    public byte changePresent() {
+        return changePresent;
+    }
+
     public ChangesState changesState() {
         if (changePresent == NO_CHANGES)
             return ChangesState.NONE;
@@ -19,6 +19,7 @@ package org.apache.ignite.tcignited;
 import com.google.common.base.Strings;
 import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -157,6 +158,18 @@ public interface ITeamcityIgnited {
      */
     public FatBuildCompacted getFatBuild(int id, SyncMode mode);
 
+    /**
+     * Reads builds from the DB using one batched request. Builds absent in the DB, or requiring reload from TC for
+     * given mode, are not returned, caller should use {@link #getFatBuild(int, SyncMode)} for these.
+     *
+     * @param ids Build IDs.
+     * @param mode Refresh mode. For {@link SyncMode#NONE} fake stubs are returned for missing builds.
+     * @return Build ID to build mapping.
+     */
+    public default Map<Integer, FatBuildCompacted> getActualFatBuilds(Collection<Integer> ids, SyncMode mode) {
+        return Collections.emptyMap();
+    }
+
     public Collection<ChangeCompacted> getAllChanges(int[] changeIds);
 
     /**
@@ -16,6 +16,7 @@
  */
 package org.apache.ignite.tcignited;
 
+import com.google.common.primitives.Ints;
 import java.io.File;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -61,6 +62,7 @@ import org.apache.ignite.tcignited.buildlog.BuildLogCheckResultDao;
 import org.apache.ignite.tcignited.buildref.BranchEquivalence;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 import org.apache.ignite.tcignited.buildref.BuildRefSync;
+import org.apache.ignite.tcignited.buildref.BuildRefWatermarkDao;
 import org.apache.ignite.tcignited.history.BuildStartTimeStorage;
 import org.apache.ignite.tcignited.history.HistoryCollector;
 import org.apache.ignite.tcignited.history.IRunHistory;
@@ -107,6 +109,9 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
     /** Build reference (short version of build data) sync. */
     @Inject private BuildRefSync buildRefSync;
 
+    /** Build reference sync watermark DAO. */
+    @Inject private BuildRefWatermarkDao buildRefWatermarkDao;
+
     /** Build condition DAO. */
     @Inject private BuildConditionDao buildConditionDao;
 
@@ -165,6 +170,7 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
 
         srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvCode);
         buildRefDao.init(); //todo init somehow in auto
+        buildRefWatermarkDao.init();
         buildConditionDao.init();
         fatBuildDao.init();
         changesDao.init();
@@ -413,29 +419,29 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
     /** {@inheritDoc} */
     @AutoProfiling
     @Override @Nonnull public List<Integer> getLastNBuildsFromHistory(String btId, String branchForTc, int cnt) {
-        List<BuildRefCompacted> hist = getAllBuildsCompacted(btId, branchForTc);
-
-        List<Integer> chains = hist.stream()
-            .filter(ref -> !ref.isFakeStub())
-            .filter(t -> !t.isCancelled(compactor))
-            .filter(t -> t.isFinished(compactor))
-            .sorted(Comparator.comparing(BuildRefCompacted::id).reversed())
-            .limit(cnt)
-            .map(BuildRefCompacted::id)
-            .collect(Collectors.toList());
+        ensureActualizeRequested();
+
+        Integer buildTypeIdId = compactor.getStringIdIfPresent(btId);
+        if (buildTypeIdId == null)
+            return Collections.emptyList();
+
+        Set<Integer> branchNameIds = branchEquivalence.branchIdsForQuery(branchForTc, compactor);
+
+        if (branchNameIds.isEmpty())
+            return Collections.emptyList();
+
+        List<BuildRefCompacted> chains = buildRefDao.getLatestBuilds(srvIdMaskHigh, buildTypeIdId, branchNameIds,
+            t -> !t.isFakeStub() && !t.isCancelled(compactor) && t.isFinished(compactor),
+            cnt);
 
         if (chains.isEmpty()) {
             // probably there are no not-cacelled builds at all, check for cancelled
-            chains = hist.stream()
-                .filter(ref -> !ref.isFakeStub())
-                .filter(t -> t.isFinished(compactor))
-                .sorted(Comparator.comparing(BuildRefCompacted::id).reversed())
-                .map(BuildRefCompacted::id)
-                .limit(cnt)
-                .collect(Collectors.toList());
+            chains = buildRefDao.getLatestBuilds(srvIdMaskHigh, buildTypeIdId, branchNameIds,
+                t -> !t.isFakeStub() && t.isFinished(compactor),
+                cnt);
         }
 
-        return chains;
+        return chains.stream().map(BuildRefCompacted::id).collect(Collectors.toList());
     }
 
     /** {@inheritDoc} */
@@ -604,6 +610,29 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
         return savedVer;
     }
 
+    /** {@inheritDoc} */
+    @AutoProfiling
+    @Override public Map<Integer, FatBuildCompacted> getActualFatBuilds(Collection<Integer> ids, SyncMode mode) {
+        ensureActualizeRequested();
+
+        Map<Long, FatBuildCompacted> existing = fatBuildDao.getAllFatBuilds(srvIdMaskHigh, ids);
+        Map<Integer, FatBuildCompacted> res = new HashMap<>();
+
+        for (Integer id : ids) {
+            FatBuildCompacted build = existing.get(FatBuildDao.buildIdToCacheKey(srvIdMaskHigh, id));
+
+            if (mode == SyncMode.NONE)
+                res.put(id, build != null ? build : new FatBuildCompacted().setFakeStub(true));
+            else if (build != null && fatBuildSync.isActual(build, mode)) {
+                fatBuildDao.runTestMigrationIfNeeded(srvIdMaskHigh, build);
+
+                res.put(id, build);
+            }
+        }
+
+        return res;
+    }
+
     protected FatBuildCompacted getFatBuildFromIgnite(int buildId) {
         ensureActualizeRequested();
 
@@ -613,17 +642,7 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public Collection<ChangeCompacted> getAllChanges(int[] changeIds) {
-        final Map<Integer, ChangeCompacted> changes = changesDao.getAll(srvIdMaskHigh, changeIds);
-
-        for (int changeId : changeIds) {
-            if (!changes.containsKey(changeId)) {
-                final ChangeCompacted change = changeSync.reloadChange(srvIdMaskHigh, changeId, conn);
-
-                changes.put(changeId, change);
-            }
-        }
-
-        return changes.values();
+        return changeSync.changes(srvIdMaskHigh, Ints.asList(changeIds), conn).values();
     }
 
     public void actualizeRecentBuildRefs() {
@@ -678,7 +697,15 @@ public class TeamcityIgnitedImpl implements ITeamcityIgnited {
      *
      */
     private void sheduleResyncBuildRefs() {
-        scheduler.sheduleNamed(taskName("fullReindex"), this::fullReindex, 2, TimeUnit.HOURS);
+        scheduler.sheduleNamed(taskName("fullReindex"), this::fullReindexIfRequired, 2, TimeUnit.HOURS);
+    }
+
+    /**
+     * Runs full reindex as consistency check if it was not done recently, incremental sync is watermark based.
+     */
+    void fullReindexIfRequired() {
+        if (buildRefSync.isFullReindexRequired(srvCode))
+            fullReindex();
     }
 
     /**
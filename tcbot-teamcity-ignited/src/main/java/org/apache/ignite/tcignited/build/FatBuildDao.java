@@ -19,13 +19,19 @@ package org.apache.ignite.tcignited.build;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -43,10 +49,16 @@ import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.cache.CacheEntryProcessor;
 import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
+import org.apache.ignite.ci.teamcity.ignited.fatbuild.StatisticsCompacted;
+import org.apache.ignite.internal.util.GridIntList;
+import org.apache.ignite.internal.util.GridLongList;
+import org.apache.ignite.lang.IgniteFuture;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
+import org.apache.ignite.tcbot.common.util.IntLongHashMap;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
+import org.apache.ignite.tcignited.buildref.BranchDataVersions;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 import org.apache.ignite.tcignited.buildtime.BuildTimeResult;
 import org.apache.ignite.tcignited.history.HistoryCollector;
@@ -55,6 +67,7 @@ import org.apache.ignite.tcservice.model.hist.BuildRef;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +83,9 @@ public class FatBuildDao {
     public static final String TEAMCITY_FAT_BUILD_CACHE_NAME = "teamcityFatBuild";
     public static final int MAX_FAT_BUILD_CHUNK = 32 * 10;
 
+    /** Max count of start time lookup chunks processed concurrently by one call. */
+    public static final int MAX_START_TIME_CHUNKS_IN_FLIGHT = 4;
+
     /** Ignite provider. */
     @Inject private Provider<Ignite> igniteProvider;
 
@@ -85,6 +101,9 @@ public class FatBuildDao {
     /** History collector. */
     @Inject private HistoryCollector histCollector;
 
+    /** Versions of branches data. */
+    @Inject private BranchDataVersions branchVersions;
+
     /**
      *
      */
@@ -113,13 +132,42 @@ public class FatBuildDao {
                                        @Nullable Statistics statistics,
                                        @Nullable ChangesList changesList,
                                        @Nullable FatBuildCompacted existingBuild) {
+        List<TestCompactedV2> compactedTests = new ArrayList<>();
+
+        for (TestOccurrencesFull next : tests) {
+            for (TestOccurrenceFull test : next.getTests())
+                compactedTests.add(compactTest(test));
+        }
+
+        return saveBuild(srvIdMaskHigh, buildId, build, compactedTests, problems, statistics, changesList,
+            existingBuild);
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     * @param buildId Build id.
+     * @param build Build data.
+     * @param tests Tests, already compacted, see {@link #compactTest(TestOccurrenceFull)}.
+     * @param problems Problems.
+     * @param statistics Statistics.
+     * @param changesList Changes list.
+     * @param existingBuild existing version of build in the DB.
+     * @return Fat Build saved (if modifications detected), otherwise null.
+     */
+    @Nullable public FatBuildCompacted saveBuild(int srvIdMaskHigh,
+                                       int buildId,
+                                       @Nonnull Build build,
+                                       @Nonnull Collection<TestCompactedV2> tests,
+                                       @Nullable List<ProblemOccurrence> problems,
+                                       @Nullable Statistics statistics,
+                                       @Nullable ChangesList changesList,
+                                       @Nullable FatBuildCompacted existingBuild) {
         Preconditions.checkNotNull(buildsCache, "init() was not called");
         Preconditions.checkNotNull(build, "build can't be null");
 
         FatBuildCompacted newBuild = new FatBuildCompacted(compactor, build);
 
-        for (TestOccurrencesFull next : tests)
-            newBuild.addTests(compactor, next.getTests(), logProductSpecific);
+        newBuild.addTests(tests);
 
         if (problems != null)
             newBuild.addProblems(compactor, problems);
@@ -139,11 +187,21 @@ public class FatBuildDao {
         return null;
     }
 
+    /**
+     * @param test Test occurrence received from TeamCity.
+     * @return Compacted test to be saved as part of fat build.
+     */
+    public TestCompactedV2 compactTest(TestOccurrenceFull test) {
+        return new TestCompactedV2(compactor, test, logProductSpecific);
+    }
+
     @AutoProfiling
     public void putFatBuild(int srvIdMaskHigh, int buildId, FatBuildCompacted newBuild) {
         buildsCache.put(buildIdToCacheKey(srvIdMaskHigh, buildId), newBuild);
 
-        histCollector.invalidateHistoryInMem(srvIdMaskHigh, newBuild);
+        histCollector.updateHistoryInMem(srvIdMaskHigh, newBuild);
+
+        branchVersions.onChange(srvIdMaskHigh, newBuild.branchName());
     }
 
     public static int[] extractChangeIds(@Nonnull ChangesList changesList) {
@@ -190,6 +248,36 @@ public class FatBuildDao {
         return buildsCache.getAll(ids);
     }
 
+    /**
+     * Loads finished builds, cancelled builds and stubs are filtered out by {@link FinishedBuildProc} before
+     * deserialization.
+     *
+     * @param srvId Server id.
+     * @param buildsIds Builds ids.
+     * @return Build ID to finished build mapping.
+     */
+    @AutoProfiling
+    public Map<Integer, FatBuildCompacted> getFinishedFatBuilds(int srvId, Collection<Integer> buildsIds) {
+        Preconditions.checkNotNull(buildsCache, "init() was not called");
+
+        FinishedBuildProc proc = new FinishedBuildProc(compactor.getStringId(BuildRef.STATUS_UNKNOWN),
+            compactor.getStringId(BuildRef.STATE_FINISHED));
+
+        Map<Long, EntryProcessorResult<BinaryObject>> map = buildsCache.<Long, BinaryObject>withKeepBinary()
+            .invokeAll(new TreeSet<>(keysByPartition(srvId, buildsIds)), proc);
+
+        Map<Integer, FatBuildCompacted> res = new HashMap<>();
+
+        map.forEach((k, r) -> {
+            BinaryObject buildBinary = r.get();
+
+            if (buildBinary != null)
+                res.put(BuildRefDao.cacheKeyToBuildId(k), buildBinary.deserialize());
+        });
+
+        return res;
+    }
+
     /**
      * @param key Key.
      * @param srvId Server id.
@@ -233,60 +321,125 @@ public class FatBuildDao {
     }
 
     /**
+     * Batched start time lookup. Keys are grouped by affinity partition, so each chunk is processed by as few nodes as
+     * possible, and up to {@link #MAX_START_TIME_CHUNKS_IN_FLIGHT} chunks are processed concurrently.
+     *
      * @param srvId Server id.
      * @param ids Ids.
+     * @return Build ID to start timestamp mapping, builds without start time or not found builds are skipped.
      */
-    public Map<Integer, Long> getBuildStartTime(int srvId, Set<Integer> ids) {
+    @AutoProfiling
+    public IntLongHashMap getBuildStartTime(int srvId, Set<Integer> ids) {
         IgniteCache<Long, BinaryObject> cacheBin = buildsCache.withKeepBinary();
-        Set<Long> keys = buildsIdsToCacheKeys(srvId, ids);
-        HashMap<Integer, Long> res = new HashMap<>();
-
-        Iterables.partition(keys, MAX_FAT_BUILD_CHUNK).forEach(
-            chunk -> {
-                Map<Long, EntryProcessorResult<Long>> map = cacheBin.invokeAll(keys, new GetStartTimeProc());
-                map.forEach((k, r) -> {
-                    Long ts = r.get();
-                    if (ts != null)
-                        res.put(BuildRefDao.cacheKeyToBuildId(k), ts);
-                });
-            }
-        );
+        IntLongHashMap res = new IntLongHashMap(ids.size());
+
+        Deque<IgniteFuture<Map<Long, EntryProcessorResult<Long>>>> inFlight = new ArrayDeque<>();
+
+        for (List<Long> chunk : Iterables.partition(keysByPartition(srvId, ids), MAX_FAT_BUILD_CHUNK)) {
+            if (inFlight.size() >= MAX_START_TIME_CHUNKS_IN_FLIGHT)
+                collectStartTimes(inFlight.poll().get(), res);
+
+            inFlight.add(cacheBin.invokeAllAsync(new TreeSet<>(chunk), new GetStartTimeProc()));
+        }
+
+        while (!inFlight.isEmpty())
+            collectStartTimes(inFlight.poll().get(), res);
 
         return res;
     }
 
+    /**
+     * @param srvId Server id.
+     * @param ids Build Ids.
+     * @return Cache keys sorted by affinity partition.
+     */
+    private List<Long> keysByPartition(int srvId, Collection<Integer> ids) {
+        return sortByPartition(buildsIdsToCacheKeys(srvId, ids));
+    }
+
+    /**
+     * @param keys Cache keys.
+     * @return Cache keys sorted by affinity partition.
+     */
+    private List<Long> sortByPartition(Collection<Long> keys) {
+        Affinity<Long> affinity = affinity();
+        Map<Integer, List<Long>> keysByPart = new TreeMap<>();
+
+        for (Long key : keys) {
+            if (key == null)
+                continue;
+
+            keysByPart.computeIfAbsent(affinity.partition(key), p -> new ArrayList<>()).add(key);
+        }
+
+        List<Long> res = new ArrayList<>(keys.size());
+
+        keysByPart.values().forEach(res::addAll);
+
+        return res;
+    }
+
+    /**
+     * @param map Entry processor results.
+     * @param res Build ID to start time mapping to add results to.
+     */
+    private static void collectStartTimes(Map<Long, EntryProcessorResult<Long>> map, IntLongHashMap res) {
+        map.forEach((k, r) -> {
+            Long ts = r.get();
+            if (ts != null)
+                res.put(BuildRefDao.cacheKeyToBuildId(k), ts);
+        });
+    }
+
+    /**
+     * Collects running time of non composite builds. Builds are processed in binary form by {@link BuildTimeProc}, so
+     * only start/finish dates, state, flags, statistics and problem types are read, and full builds are never
+     * deserialized or transferred. Keys are grouped by affinity partition, up to {@link
+     * #MAX_START_TIME_CHUNKS_IN_FLIGHT} chunks are processed concurrently.
+     *
+     * @param ageDays Age of builds in days, not used.
+     * @param idsToCheck Cache keys of builds to check.
+     */
+    @AutoProfiling
     public BuildTimeResult loadBuildTimeResult(int ageDays, List<Long> idsToCheck) {
         int stateRunning = compactor.getStringId(BuildRef.STATE_RUNNING);
         Integer buildDurationId = compactor.getStringIdIfPresent(Statistics.BUILD_DURATION);
         int timeoutProblemCode = compactor.getStringId(ProblemOccurrence.TC_EXECUTION_TIMEOUT);
 
+        BuildTimeProc proc = new BuildTimeProc(stateRunning, buildDurationId == null ? -1 : buildDurationId,
+            timeoutProblemCode);
+
+        IgniteCache<Long, BinaryObject> cacheBin = buildsCache.withKeepBinary();
         BuildTimeResult res = new BuildTimeResult();
 
-        // also may take affinity into account
-        Iterables.partition(idsToCheck, MAX_FAT_BUILD_CHUNK).forEach(
-                chunk -> {
-                    HashSet<Long> keys = new HashSet<>(chunk);
-                    Map<Long, FatBuildCompacted> all = buildsCache.getAll(keys);
-                    all.forEach((key, build) -> {
-                        if (build.isComposite())
-                            return;
+        Deque<IgniteFuture<Map<Long, EntryProcessorResult<long[]>>>> inFlight = new ArrayDeque<>();
 
-                        long runningTime = getBuildRunningTime(stateRunning, buildDurationId, build);
-                        if (runningTime > 0) {
-                            int buildTypeId = build.buildTypeId();
-                            System.err.println("Running " + runningTime + " BT: " + buildTypeId);
+        for (List<Long> chunk : Iterables.partition(sortByPartition(idsToCheck), MAX_FAT_BUILD_CHUNK)) {
+            if (inFlight.size() >= MAX_START_TIME_CHUNKS_IN_FLIGHT)
+                collectBuildTimes(inFlight.poll().get(), res);
 
-                            int srvId = BuildRefDao.cacheKeyToSrvId(key);
-                            boolean hasTimeout = build.hasBuildProblemType(timeoutProblemCode);
+            inFlight.add(cacheBin.invokeAllAsync(new TreeSet<>(chunk), proc));
+        }
 
-                            res.addBuild(srvId, buildTypeId, runningTime, hasTimeout);
-                        }
-                    });
-                }
-        );
+        while (!inFlight.isEmpty())
+            collectBuildTimes(inFlight.poll().get(), res);
 
         return res;
+    }
 
+    /**
+     * @param map Entry processor results, see {@link BuildTimeProc} for format.
+     * @param res Build time result to add builds to.
+     */
+    private static void collectBuildTimes(Map<Long, EntryProcessorResult<long[]>> map, BuildTimeResult res) {
+        map.forEach((k, r) -> {
+            long[] time = r.get();
+            if (time == null)
+                return;
+
+            res.addBuild(BuildRefDao.cacheKeyToSrvId(k), (int)time[BuildTimeProc.BUILD_TYPE],
+                time[BuildTimeProc.RUNNING_TIME], time[BuildTimeProc.TIMEOUT] != 0);
+        });
     }
 
     public static long getBuildRunningTime(int stateRunning, Integer buildDurationId,
@@ -322,45 +475,93 @@ public class FatBuildDao {
         return runningTime;
     }
 
-    public static long getBuildRunningTime(int stateRunning, Integer buildDurationId,
+    /**
+     * Same as {@link #getBuildRunningTime(int, Integer, FatBuildCompacted)}, but reads fields of build in binary form.
+     *
+     * @param stateRunning Running state string ID.
+     * @param buildDurationId Build duration statistic string ID or null if statistic was never saved.
+     * @param buildBinary Build in binary form.
+     * @return Running time in millis or -1 if it can't be determined.
+     */
+    public static long getBuildRunningTime(int stateRunning, @Nullable Integer buildDurationId,
         BinaryObject buildBinary) {
         Long startTs = buildBinary.field("startDate");
 
         if (startTs == null || startTs <= 0)
             return -1;
 
-
-        int status = buildBinary.field("status");
-        int state = buildBinary.field("state");
+        Integer state = buildBinary.field("state");
 
         long runningTime = -1;
-        if(stateRunning == state)
+        if (state != null && stateRunning == state)
             runningTime = System.currentTimeMillis() - startTs;
 
-        if(runningTime<0){
-
-            if (buildDurationId != null) {
-                BinaryObject statistics = buildBinary.field("statistics");
-                if(statistics!=null) {
-                    // statistics.field()
-                }
-                long val = -1; //statistics.findPropertyValue(buildDurationId);
-
-                runningTime = val >= 0 ? val : -1;
-            }
-
-        }
+        if (runningTime < 0 && buildDurationId != null)
+            runningTime = statisticValue(buildBinary, buildDurationId);
 
         if (runningTime < 0) {
             Long finishTs = buildBinary.field("finishDate");
 
-            if (finishTs != null)
+            if (finishTs != null && finishTs > 0)
                 runningTime = finishTs - startTs;
         }
 
         return runningTime;
     }
 
+    /**
+     * @param buildBinary Build in binary form.
+     * @param propCode Statistic name string ID.
+     * @return Statistic value or -1 if it is absent, see {@link StatisticsCompacted#findPropertyValue(int)}.
+     */
+    private static long statisticValue(BinaryObject buildBinary, int propCode) {
+        BinaryObject statistics = buildBinary.field("statistics");
+        if (statistics == null)
+            return -1;
+
+        GridIntList keys = statistics.field("keys");
+        GridLongList values = statistics.field("values");
+        if (keys == null || values == null)
+            return -1;
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i) == propCode)
+                return i < values.size() ? values.get(i) : -1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param buildBinary Build in binary form.
+     * @return {@code True} if build is composite, see {@link FatBuildCompacted#isComposite()}.
+     */
+    private static boolean isComposite(BinaryObject buildBinary) {
+        BitSet flags = buildBinary.field("flags");
+
+        return flags != null && flags.get(FatBuildCompacted.COMPOSITE_F) && flags.get(FatBuildCompacted.COMPOSITE_F + 1);
+    }
+
+    /**
+     * @param buildBinary Build in binary form.
+     * @param type Problem type string ID.
+     * @return {@code True} if build has problem of given type, see {@link FatBuildCompacted#hasBuildProblemType(int)}.
+     */
+    private static boolean hasBuildProblemType(BinaryObject buildBinary, int type) {
+        List<BinaryObject> problems = buildBinary.field("problems");
+        if (problems == null)
+            return false;
+
+        for (BinaryObject problem : problems) {
+            Integer problemType = problem.field("type");
+
+            if (problemType != null && problemType == type)
+                return true;
+        }
+
+        return false;
+    }
+
     public Affinity<Long> affinity() {
         return igniteProvider.get().affinity(buildsCache.getName());
     }
@@ -412,4 +613,103 @@ public class FatBuildDao {
         }
     }
 
+    /**
+     * Returns running time of non composite build as array of primitives: build type string ID at {@link #BUILD_TYPE},
+     * running time at {@link #RUNNING_TIME} and execution timeout flag at {@link #TIMEOUT}. Returns null for missing
+     * and composite builds and for builds without running time.
+     */
+    private static class BuildTimeProc implements CacheEntryProcessor<Long, BinaryObject, long[]> {
+        /** Index of build type ID in result. */
+        static final int BUILD_TYPE = 0;
+
+        /** Index of running time in result. */
+        static final int RUNNING_TIME = 1;
+
+        /** Index of timeout flag in result, 1 if build has execution timeout problem. */
+        static final int TIMEOUT = 2;
+
+        /** Running state string ID. */
+        private final int stateRunning;
+
+        /** Build duration statistic string ID, or -1. */
+        private final int buildDurationId;
+
+        /** Execution timeout problem type string ID. */
+        private final int timeoutProblemCode;
+
+        /**
+         * @param stateRunning Running state string ID.
+         * @param buildDurationId Build duration statistic string ID, or -1.
+         * @param timeoutProblemCode Execution timeout problem type string ID.
+         */
+        BuildTimeProc(int stateRunning, int buildDurationId, int timeoutProblemCode) {
+            this.stateRunning = stateRunning;
+            this.buildDurationId = buildDurationId;
+            this.timeoutProblemCode = timeoutProblemCode;
+        }
+
+        /** {@inheritDoc} */
+        @Override public long[] process(MutableEntry<Long, BinaryObject> entry,
+            Object... arguments) throws EntryProcessorException {
+            BinaryObject buildBinary = entry.getValue();
+
+            if (buildBinary == null || isComposite(buildBinary))
+                return null;
+
+            long runningTime = getBuildRunningTime(stateRunning, buildDurationId < 0 ? null : buildDurationId,
+                buildBinary);
+
+            if (runningTime <= 0)
+                return null;
+
+            Integer buildTypeId = buildBinary.field("buildTypeId");
+
+            return new long[] {
+                buildTypeId == null ? -1 : buildTypeId,
+                runningTime,
+                hasBuildProblemType(buildBinary, timeoutProblemCode) ? 1 : 0};
+        }
+    }
+
+    /**
+     * Returns build in binary form if it is finished and not cancelled, so other builds are not deserialized and
+     * transferred.
+     */
+    private static class FinishedBuildProc implements CacheEntryProcessor<Long, BinaryObject, BinaryObject> {
+        /** Unknown status string ID, it is set to cancelled builds. */
+        private final int statusUnknown;
+
+        /** Finished state string ID. */
+        private final int stateFinished;
+
+        /**
+         * @param statusUnknown Unknown status string ID.
+         * @param stateFinished Finished state string ID.
+         */
+        FinishedBuildProc(int statusUnknown, int stateFinished) {
+            this.statusUnknown = statusUnknown;
+            this.stateFinished = stateFinished;
+        }
+
+        /** {@inheritDoc} */
+        @Override public BinaryObject process(MutableEntry<Long, BinaryObject> entry,
+            Object... arguments) throws EntryProcessorException {
+            BinaryObject buildBinary = entry.getValue();
+
+            if (buildBinary == null)
+                return null;
+
+            Integer id = buildBinary.field("id");
+            Integer status = buildBinary.field("status");
+            Integer state = buildBinary.field("state");
+
+            if (id == null || id < 0
+                || status == null || status == statusUnknown
+                || state == null || state != stateFinished)
+                return null;
+
+            return buildBinary;
+        }
+    }
+
 }
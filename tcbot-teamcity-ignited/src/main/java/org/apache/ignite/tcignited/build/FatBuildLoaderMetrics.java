@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.build;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Metrics of background fat builds loading for one server.
+ */
+public class FatBuildLoaderMetrics {
+    /** Window to measure load rate. */
+    private static final long RATE_WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Server ID. */
+    private final String srvId;
+
+    /** Builds waiting in the queue. */
+    private volatile int queued;
+
+    /** Builds being loaded by workers. */
+    private volatile int loading;
+
+    /** Builds loaded by workers. */
+    private final AtomicLong loaded = new AtomicLong();
+
+    /** Load errors. */
+    private final AtomicLong errors = new AtomicLong();
+
+    /** Requests not sent because same build was already queued or being loaded. */
+    private final AtomicLong duplicatesSuppressed = new AtomicLong();
+
+    /** Start of current rate window. */
+    @GuardedBy("this")
+    private long windowStartMs = System.currentTimeMillis();
+
+    /** Builds loaded in current rate window. */
+    @GuardedBy("this")
+    private long windowLoaded;
+
+    /** Load rate measured in last completed window. */
+    @GuardedBy("this")
+    private double buildsPerSec;
+
+    /**
+     * @param srvId Server ID.
+     */
+    public FatBuildLoaderMetrics(String srvId) {
+        this.srvId = srvId;
+    }
+
+    /**
+     * @param queued Builds waiting in the queue.
+     * @param loading Builds being loaded by workers.
+     */
+    void queueState(int queued, int loading) {
+        this.queued = queued;
+        this.loading = loading;
+    }
+
+    /**
+     * Registers loaded build.
+     */
+    synchronized void onLoaded() {
+        loaded.incrementAndGet();
+
+        rollWindow();
+
+        windowLoaded++;
+    }
+
+    /**
+     * Registers load error.
+     */
+    void onError() {
+        errors.incrementAndGet();
+    }
+
+    /**
+     * Registers request which was served by already queued or running load.
+     */
+    void onDuplicateSuppressed() {
+        duplicatesSuppressed.incrementAndGet();
+    }
+
+    /**
+     * Completes current rate window if it is expired.
+     */
+    @GuardedBy("this")
+    private void rollWindow() {
+        long now = System.currentTimeMillis();
+        long elapsed = now - windowStartMs;
+
+        if (elapsed < RATE_WINDOW_MS)
+            return;
+
+        buildsPerSec = windowLoaded * 1000.0 / elapsed;
+        windowLoaded = 0;
+        windowStartMs = now;
+    }
+
+    /**
+     * @return Server ID.
+     */
+    public String srvId() {
+        return srvId;
+    }
+
+    /**
+     * @return Builds waiting in the queue.
+     */
+    public int queued() {
+        return queued;
+    }
+
+    /**
+     * @return Builds being loaded by workers.
+     */
+    public int loading() {
+        return loading;
+    }
+
+    /**
+     * @return Builds loaded by workers.
+     */
+    public long loaded() {
+        return loaded.get();
+    }
+
+    /**
+     * @return Load errors.
+     */
+    public long errors() {
+        return errors.get();
+    }
+
+    /**
+     * @return Requests not sent because same build was already queued or being loaded.
+     */
+    public long duplicatesSuppressed() {
+        return duplicatesSuppressed.get();
+    }
+
+    /**
+     * @return Builds loaded per second, measured in last completed minute.
+     */
+    public synchronized double buildsPerSec() {
+        rollWindow();
+
+        return buildsPerSec;
+    }
+}
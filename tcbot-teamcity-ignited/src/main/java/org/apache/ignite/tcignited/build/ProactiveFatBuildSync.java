@@ -18,24 +18,31 @@ package org.apache.ignite.tcignited.build;
 
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.RateLimiter;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
-import org.apache.ignite.cache.affinity.Affinity;
+import javax.inject.Provider;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.ci.teamcity.ignited.change.ChangeSync;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
@@ -54,14 +61,24 @@ import org.apache.ignite.tcservice.ITeamcityConn;
 import org.apache.ignite.tcservice.model.changes.ChangesList;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
+import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
-import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Loads fat builds from TC. Builds to be loaded in background are placed into a queue shared by {@link
+ * #FAT_BUILD_PROACTIVE_TASKS} workers of the server, requests of workers to the server are rate limited. Concurrent
+ * reloads of the same build share one request.
+ */
 public class ProactiveFatBuildSync {
+    /** Count of workers loading queued builds of one server. */
     public static final int FAT_BUILD_PROACTIVE_TASKS = 5;
 
+    /** Count of builds taken from the queue by worker at once, these builds are read from DB by one request. */
+    private static final int WORKER_BATCH_SIZE = 32;
+
     /** Logger. */
     private static final Logger logger = LoggerFactory.getLogger(ProactiveFatBuildSync.class);
 
@@ -80,21 +97,75 @@ public class ProactiveFatBuildSync {
     /** Change sync. */
     @Inject private ChangeSync changeSync;
 
+    /** This component created by Guice, workers are invoked through it to apply monitoring interceptors. */
+    @Inject private Provider<ProactiveFatBuildSync> self;
+
     @GuardedBy("this")
     private Map<String, SyncTask> buildToLoad = new HashMap<>();
 
-    public void doLoadBuilds(int i, String srvNme, ITeamcityConn conn, Set<Integer> paginateUntil) {
-        doLoadBuilds(i, srvNme, conn, paginateUntil, getSyncTask(conn).loadingBuilds);
+    /** Builds being reloaded from TC, mapped by build cache key. */
+    private final ConcurrentMap<Long, CompletableFuture<FatBuildCompacted>> inFlight = new ConcurrentHashMap<>();
+
+    /** Loader metrics, mapped by server code. */
+    private final ConcurrentMap<String, FatBuildLoaderMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Loads provided builds synchronously, with the same rate limit as workers use.
+     *
+     * @param ldrNo Loader number for monitoring.
+     * @param srvNme Server name.
+     * @param conn Connection.
+     * @param load Builds to load.
+     */
+    @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
+    @MonitoredTask(name = "Proactive Builds Loading (srv,agent)", nameExtArgsIndexes = {1, 0})
+    @AutoProfiling
+    public String doLoadBuilds(int ldrNo, String srvNme, ITeamcityConn conn, Set<Integer> load) {
+        if (load.isEmpty())
+            return "Nothing to load";
+
+        SyncTask syncTask = getSyncTask(conn);
+
+        syncTask.loadingBuilds.addAll(load);
+
+        LoadResult res = new LoadResult();
+
+        try {
+            loadBatch(conn, syncTask, load, res);
+        }
+        finally {
+            syncTask.loadingBuilds.removeAll(load);
+        }
+
+        return "Builds updated " + res.loaded + " from " + load.size() + " requested, errors: " + res.errors;
     }
 
     /**
      * Scope of work: builds to be loaded from a connection.
      */
     private static class SyncTask {
+        /** Connection. */
         ITeamcityConn conn;
-        Set<Integer> ids = new HashSet<>();
 
+        /** Builds waiting to be loaded, in scheduling order. */
+        Set<Integer> ids = new LinkedHashSet<>();
+
+        /** Builds taken by workers. */
         GridConcurrentHashSet<Integer> loadingBuilds = new GridConcurrentHashSet<>();
+
+        /** Limits rate of builds loading from the server. */
+        RateLimiter rateLimiter;
+    }
+
+    /**
+     * Counters of one load round.
+     */
+    private static class LoadResult {
+        /** Builds saved. */
+        int loaded;
+
+        /** Errors. */
+        int errors;
     }
 
     /**
@@ -106,19 +177,26 @@ public class ProactiveFatBuildSync {
         if (buildsToAskFromTc.isEmpty())
             return;
 
+        String srvCode = conn.serverCode();
+        FatBuildLoaderMetrics srvMetrics = metrics(srvCode);
+
         synchronized (this) {
             final SyncTask syncTask = getSyncTask(conn);
 
-            buildsToAskFromTc.stream()
-                    .filter(id -> !syncTask.loadingBuilds.contains(id))
-                    .forEach(syncTask.ids::add);
-        }
+            for (Integer id : buildsToAskFromTc) {
+                if (syncTask.loadingBuilds.contains(id) || !syncTask.ids.add(id))
+                    srvMetrics.onDuplicateSuppressed();
+            }
 
-        int ldrToActivate = ThreadLocalRandom.current().nextInt(FAT_BUILD_PROACTIVE_TASKS);
+            srvMetrics.queueState(syncTask.ids.size(), syncTask.loadingBuilds.size());
+        }
 
-        scheduler.sheduleNamed(taskName("loadFatBuilds" + ldrToActivate, conn.serverCode()),
-                () -> loadFatBuilds(ldrToActivate, conn.serverCode()), 2, TimeUnit.MINUTES);
+        for (int i = 0; i < FAT_BUILD_PROACTIVE_TASKS; i++) {
+            int ldrNo = i;
 
+            scheduler.sheduleNamed(taskName("loadFatBuilds" + ldrNo, srvCode),
+                () -> self.get().loadFatBuilds(ldrNo, srvCode), 2, TimeUnit.MINUTES);
+        }
     }
 
     @Nonnull
@@ -127,9 +205,39 @@ public class ProactiveFatBuildSync {
 
         syncTask.conn = conn;
 
+        if (syncTask.rateLimiter == null) {
+            syncTask.rateLimiter = RateLimiter.create(conn.config().fatBuildsLoadRate());
+        }
+
         return syncTask;
     }
 
+    /**
+     * @param srvCode Server code.
+     * @return Loader metrics of the server.
+     */
+    private FatBuildLoaderMetrics metrics(String srvCode) {
+        return metrics.computeIfAbsent(srvCode, FatBuildLoaderMetrics::new);
+    }
+
+    /**
+     * @return Loader metrics of all servers.
+     */
+    public synchronized Collection<FatBuildLoaderMetrics> metrics() {
+        buildToLoad.forEach((srvCode, task) -> metrics(srvCode).queueState(task.ids.size(), task.loadingBuilds.size()));
+
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * Finds builds existing in build references cache, but missing in fat builds cache, and also re-checks queued and
+     * running builds. Build references are scanned partition by partition in a single pass: references and fat builds
+     * caches share affinity function and key layout, so each batch checked by {@link FatBuildDao#getMissingBuilds} is
+     * local for one partition of fat builds cache.
+     *
+     * @param srvCode Server code.
+     * @param conn Connection.
+     */
     @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
     @MonitoredTask(name = "Find missing builds", nameExtArgsIndexes = {0})
     @AutoProfiling
@@ -138,42 +246,29 @@ public class ProactiveFatBuildSync {
 
         List<Integer> buildsIdsToLoad = new ArrayList<>();
         AtomicInteger totalAskedToLoad = new AtomicInteger();
+        AtomicLong totalChecked = new AtomicLong();
 
-        Affinity<Long> affinity = fatBuildDao.affinity();
-        int partitions = affinity.partitions();
+        int partitions = buildRefDao.affinity().partitions();
         int checkBatchSize = 1000;
+        long startNanos = System.nanoTime();
 
         GridIntList keysToCheck = new GridIntList();
         for (int p = 0; p < partitions; p++) {
-            int curPart = p;
-
-            buildRefDao.compactedBuildsForServer(srvIdMaskHigh, bref -> true)
-                .filter(
-                    bref -> {
-                        long fatBuildKey = FatBuildDao.buildIdToCacheKey(srvIdMaskHigh, bref.id());
-                        int part = affinity.partition(fatBuildKey);
-                        return part == curPart;
-                    }
-                )
+            buildRefDao.compactedBuildsForServer(srvIdMaskHigh, p, null)
                 .forEach(buildRef -> {
                     int buildId = buildRef.id();
 
+                    totalChecked.incrementAndGet();
+
                     if (buildRef.isRunning(compactor) || buildRef.isQueued(compactor))
                         buildsIdsToLoad.add(buildId); //re-check queued
                     else
                         keysToCheck.add(buildId); // check if missing
 
-                    int initSize = keysToCheck.size();
-                    if (initSize >= checkBatchSize) {
-                        System.err.println("findMissingBuilds: Srv: " + srvCode + " Checking " + initSize + " builds for partition " + curPart);
+                    if (keysToCheck.size() >= checkBatchSize) {
+                        buildsIdsToLoad.addAll(fatBuildDao.getMissingBuilds(srvIdMaskHigh, keysToCheck.array()));
 
-                        int[] buildIds = keysToCheck.array();
                         keysToCheck.clear();
-
-                        Collection<Integer> builds = fatBuildDao.getMissingBuilds(srvIdMaskHigh, buildIds);
-                        System.err.println("foundMissing: " + builds.size() + ": Srv: " + srvCode + " Checking " + initSize + " builds for partition " + curPart);
-
-                        buildsIdsToLoad.addAll(builds);
                     }
 
                     if (buildsIdsToLoad.size() >= 100) {
@@ -182,89 +277,148 @@ public class ProactiveFatBuildSync {
                         buildsIdsToLoad.clear();
                     }
                 });
-        }
 
-        if (!keysToCheck.isEmpty())
-            buildsIdsToLoad.addAll(fatBuildDao.getMissingBuilds(srvIdMaskHigh, keysToCheck.array()));
+            // finish partition to keep next batch partition-local
+            if (!keysToCheck.isEmpty()) {
+                buildsIdsToLoad.addAll(fatBuildDao.getMissingBuilds(srvIdMaskHigh, keysToCheck.array()));
+
+                keysToCheck.clear();
+            }
 
+            if (!buildsIdsToLoad.isEmpty()) {
+                totalAskedToLoad.addAndGet(buildsIdsToLoad.size());
+                scheduleBuildsLoad(conn, buildsIdsToLoad);
+                buildsIdsToLoad.clear();
+            }
 
-        if (!buildsIdsToLoad.isEmpty()) {
-            totalAskedToLoad.addAndGet(buildsIdsToLoad.size());
-            scheduleBuildsLoad(conn, buildsIdsToLoad);
+            logger.info("findMissingBuilds: Srv: " + srvCode + " partition " + (p + 1) + "/" + partitions
+                + " done, checked " + totalChecked.get() + " builds, asked to load " + totalAskedToLoad.get());
         }
 
-        return "Invoked later load for " + totalAskedToLoad.get() + " builds from " + srvCode;
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        return "Invoked later load for " + totalAskedToLoad.get() + " builds from " + srvCode
+            + ", checked " + totalChecked.get() + " build refs in " + partitions + " partitions"
+            + " (" + (totalChecked.get() * 1000 / elapsedMs) + " refs/s)";
     }
 
-    /** */
-    private void loadFatBuilds(int ldrNo, String srvId) {
-        Set<Integer> load;
-        ITeamcityConn conn;
-        final GridConcurrentHashSet<Integer> loadingBuilds;
+    /**
+     * Worker: loads builds from the queue of the server until the queue is empty.
+     *
+     * @param ldrNo Worker number.
+     * @param srvId Server code.
+     */
+    @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
+    @MonitoredTask(name = "Proactive Builds Loading (srv,agent)", nameExtArgsIndexes = {1, 0})
+    @AutoProfiling
+    public String loadFatBuilds(int ldrNo, String srvId) {
+        SyncTask syncTask;
 
         synchronized (this) {
-            final SyncTask syncTask = buildToLoad.get(srvId);
-            if (syncTask == null)
-                return;
+            syncTask = buildToLoad.get(srvId);
+        }
 
-            if (syncTask.ids.isEmpty()) {
-                syncTask.conn = null;
-                return;
-            }
+        if (syncTask == null)
+            return "Nothing to load";
 
-            if (syncTask.conn == null)
-                return;
+        LoadResult res = new LoadResult();
+        int requested = 0;
 
-            load = syncTask.ids;
-            //marking that builds are in progress
+        while (true) {
+            List<Integer> batch = pollQueued(srvId, syncTask);
 
-            loadingBuilds = syncTask.loadingBuilds;
-            loadingBuilds.addAll(load);
+            if (batch.isEmpty())
+                break;
 
-            syncTask.ids = new HashSet<>();
+            requested += batch.size();
 
-            conn = syncTask.conn;
-            syncTask.conn = null;
+            try {
+                loadBatch(syncTask.conn, syncTask, batch, res);
+            }
+            finally {
+                syncTask.loadingBuilds.removeAll(batch);
+            }
         }
 
-        doLoadBuilds(ldrNo, srvId, conn, load,  loadingBuilds);
+        return "Builds updated " + res.loaded + " from " + requested + " requested, errors: " + res.errors;
     }
 
-    @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
-    @MonitoredTask(name = "Proactive Builds Loading (srv,agent)", nameExtArgsIndexes = {1, 0})
-    @AutoProfiling
-    public String doLoadBuilds(int ldrNo, String srvId, ITeamcityConn conn, Set<Integer> load,
-                               GridConcurrentHashSet<Integer> loadingBuilds) {
-        if(load.isEmpty())
-            return "Nothing to load";
+    /**
+     * Takes next builds from the queue and marks them as being loaded.
+     *
+     * @param srvId Server code.
+     * @param syncTask Sync task.
+     * @return Builds to load, empty if queue is empty.
+     */
+    private synchronized List<Integer> pollQueued(String srvId, SyncTask syncTask) {
+        List<Integer> batch = new ArrayList<>();
+
+        for (Iterator<Integer> iter = syncTask.ids.iterator(); iter.hasNext() && batch.size() < WORKER_BATCH_SIZE; ) {
+            batch.add(iter.next());
+
+            iter.remove();
+        }
+
+        syncTask.loadingBuilds.addAll(batch);
+
+        metrics(srvId).queueState(syncTask.ids.size(), syncTask.loadingBuilds.size());
 
-        final int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvId);
+        return batch;
+    }
 
-        AtomicInteger err = new AtomicInteger();
-        AtomicInteger ld = new AtomicInteger();
+    /**
+     * Loads builds, existing builds are read from DB by one request. Requests to TC are rate limited.
+     *
+     * @param conn Connection.
+     * @param syncTask Sync task.
+     * @param load Builds to load.
+     * @param res Counters to update.
+     */
+    private void loadBatch(ITeamcityConn conn, SyncTask syncTask, Collection<Integer> load, LoadResult res) {
+        String srvCode = conn.serverCode();
+        int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvCode);
+        FatBuildLoaderMetrics srvMetrics = metrics(srvCode);
 
         Map<Long, FatBuildCompacted> builds = fatBuildDao.getAllFatBuilds(srvIdMaskHigh, load);
 
-        load.forEach(
-                buildId -> {
-                    try {
-                        FatBuildCompacted existingBuild = builds.get(FatBuildDao.buildIdToCacheKey(srvIdMaskHigh, buildId));
+        // Changes of all builds in batch are loaded together after builds.
+        Set<Integer> changesToLoad = new HashSet<>();
 
-                        FatBuildCompacted savedVer = loadBuild(conn, buildId, existingBuild, SyncMode.RELOAD_QUEUED);
+        for (Integer buildId : load) {
+            try {
+                FatBuildCompacted existingBuild = builds.get(FatBuildDao.buildIdToCacheKey(srvIdMaskHigh, buildId));
 
-                        if (savedVer != null)
-                            ld.incrementAndGet();
+                if (existingBuild == null || !isActual(existingBuild, SyncMode.RELOAD_QUEUED))
+                    syncTask.rateLimiter.acquire();
 
-                        loadingBuilds.remove(buildId);
-                    }
-                    catch (Exception e) {
-                        logger.error("", e);
-                        err.incrementAndGet();
-                    }
+                FatBuildCompacted savedVer = loadBuild(conn, buildId, existingBuild, SyncMode.RELOAD_QUEUED,
+                    changesToLoad);
+
+                if (savedVer != null) {
+                    res.loaded++;
+
+                    srvMetrics.onLoaded();
                 }
-        );
+            }
+            catch (Exception e) {
+                logger.error("", e);
+
+                res.errors++;
+
+                srvMetrics.onError();
+            }
+        }
+
+        try {
+            changeSync.changes(srvIdMaskHigh, changesToLoad, conn);
+        }
+        catch (Exception e) {
+            logger.error("Loading " + changesToLoad.size() + " changes failed", e);
+
+            res.errors++;
 
-        return "Builds updated " + ld.get() + " from " + load.size() + " requested, errors: " + err;
+            srvMetrics.onError();
+        }
     }
 
     @Nonnull
@@ -327,31 +481,86 @@ public class ProactiveFatBuildSync {
     public FatBuildCompacted loadBuild(ITeamcityConn conn, int buildId,
         @Nullable FatBuildCompacted existingBuild,
         SyncMode mode) {
-        if (existingBuild != null && !existingBuild.isOutdatedEntityVersion()) {
-            boolean finished =
-                existingBuild.state(compactor) != null // don't count old fake builds as finished
-                    && !existingBuild.isRunning(compactor)
-                    && !existingBuild.isQueued(compactor);
-
-            if (finished || mode != SyncMode.RELOAD_QUEUED)
-                return null;
-        }
-
-        FatBuildCompacted savedVer = reloadBuild(conn, buildId, existingBuild);
+        return loadBuild(conn, buildId, existingBuild, mode, null);
+    }
 
-        if (savedVer == null)
+    /**
+     * @param conn TC connection to load data
+     * @param buildId build ID (TC identification).
+     * @param existingBuild build from DB.
+     * @param mode Refresh mode.
+     * @param changesToLoad Collector of change IDs to be loaded later by caller, {@code null} to load changes now.
+     * @return null if nothing was saved, use existing build. Non null value indicates that
+     * new build if it was updated.
+     */
+    @Nullable
+    private FatBuildCompacted loadBuild(ITeamcityConn conn, int buildId,
+        @Nullable FatBuildCompacted existingBuild,
+        SyncMode mode,
+        @Nullable Collection<Integer> changesToLoad) {
+        if (existingBuild != null && isActual(existingBuild, mode))
             return null;
 
-        BuildRefCompacted refCompacted = new BuildRefCompacted(savedVer);
-        if (savedVer.isFakeStub())
-            refCompacted.setId(buildId); //to provide possiblity to save the build
-
         final String srvCode = conn.serverCode();
         final int srvIdMask = ITeamcityIgnited.serverIdToInt(srvCode);
 
-        buildRefDao.save(srvIdMask, refCompacted);
+        long key = FatBuildDao.buildIdToCacheKey(srvIdMask, buildId);
+        CompletableFuture<FatBuildCompacted> fut = new CompletableFuture<>();
+        CompletableFuture<FatBuildCompacted> loading = inFlight.putIfAbsent(key, fut);
+
+        if (loading != null) {
+            metrics(srvCode).onDuplicateSuppressed();
+
+            try {
+                return loading.join();
+            }
+            catch (CompletionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+
+                throw e;
+            }
+        }
+
+        try {
+            FatBuildCompacted savedVer = reloadBuild(conn, buildId, existingBuild, changesToLoad);
+
+            if (savedVer != null) {
+                BuildRefCompacted refCompacted = new BuildRefCompacted(savedVer);
+                if (savedVer.isFakeStub())
+                    refCompacted.setId(buildId); //to provide possiblity to save the build
+
+                buildRefDao.save(srvIdMask, refCompacted);
+            }
+
+            fut.complete(savedVer);
+
+            return savedVer;
+        }
+        catch (Throwable e) {
+            fut.completeExceptionally(e);
+
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, fut);
+        }
+    }
+
+    /**
+     * @param existingBuild Build from DB.
+     * @param mode Refresh mode.
+     * @return {@code True} if build from DB may be used as is and reload from TC is not required.
+     */
+    public boolean isActual(@Nonnull FatBuildCompacted existingBuild, SyncMode mode) {
+        if (existingBuild.isOutdatedEntityVersion())
+            return false;
+
+        boolean finished =
+            existingBuild.state(compactor) != null // don't count old fake builds as finished
+                && !existingBuild.isRunning(compactor)
+                && !existingBuild.isQueued(compactor);
 
-        return savedVer;
+        return finished || mode != SyncMode.RELOAD_QUEUED;
     }
 
     /**
@@ -359,13 +568,13 @@ public class ProactiveFatBuildSync {
      * @param conn
      * @param buildId
      * @param existingBuild
+     * @param changesToLoad Collector of change IDs to be loaded later by caller, {@code null} to load changes now.
      * @return new build if it was updated or <code>null</code> if no updates detected
      */
     @SuppressWarnings({"WeakerAccess"})
     @AutoProfiling
-    @Nullable public FatBuildCompacted reloadBuild(ITeamcityConn conn, int buildId, @Nullable FatBuildCompacted existingBuild) {
-        //todo some sort of locking to avoid double requests
-
+    @Nullable public FatBuildCompacted reloadBuild(ITeamcityConn conn, int buildId,
+        @Nullable FatBuildCompacted existingBuild, @Nullable Collection<Integer> changesToLoad) {
         final String srvName = conn.serverCode();
         final int srvIdMask = ITeamcityIgnited.serverIdToInt(srvName);
 
@@ -375,7 +584,7 @@ public class ProactiveFatBuildSync {
         }
 
         Build build;
-        List<TestOccurrencesFull> tests = new ArrayList<>();
+        List<TestCompactedV2> tests = new ArrayList<>();
         List<ProblemOccurrence> problems = null;
         Statistics statistics = null;
         ChangesList changesList = null;
@@ -390,31 +599,42 @@ public class ProactiveFatBuildSync {
                         "Build IDs are not consistent: returned " + build.getId() + " queued is " + buildId);
             }
 
+            // Independent sub-requests are sent concurrently with loading of test pages.
+            CompletableFuture<ProblemOccurrences> problemsFut
+                = build.problemOccurrences != null ? conn.getProblemsAsync(buildId) : null;
+
+            CompletableFuture<Statistics> statisticsFut
+                = build.statisticsRef != null ? conn.getStatisticsAsync(buildId) : null;
+
+            CompletableFuture<ChangesList> changesListFut
+                = build.changesRef != null ? conn.getChangesListAsync(buildId) : null;
+
             if (build.testOccurrences != null && !build.isComposite()) { // don't query tests for compoite
                 String nextHref = null;
                 do {
-                    TestOccurrencesFull page = conn.getTestsPage(buildId, nextHref, true);
-                    nextHref = page.nextHref();
-
-                    tests.add(page);
+                    // Tests are compacted while page is being read, page is never kept in memory as a whole.
+                    nextHref = conn.streamTestsPage(buildId, nextHref, true,
+                        test -> tests.add(fatBuildDao.compactTest(test)));
                 }
                 while (!Strings.isNullOrEmpty(nextHref));
             }
 
-            if (build.problemOccurrences != null)
-                problems = conn.getProblems(buildId).getProblemsNonNull();
+            if (problemsFut != null)
+                problems = problemsFut.join().getProblemsNonNull();
 
-            if (build.statisticsRef != null)
-                statistics = conn.getStatistics(buildId);
+            if (statisticsFut != null)
+                statistics = statisticsFut.join();
 
-            if (build.changesRef != null) {
-                changesList = conn.getChangesList(buildId);
+            if (changesListFut != null) {
+                changesList = changesListFut.join();
 
-                for (int changeId : FatBuildDao.extractChangeIds(changesList)) {
-                    // consult change sync for provided changes data
+                List<Integer> changeIds = Ints.asList(FatBuildDao.extractChangeIds(changesList));
 
-                    changeSync.change(srvIdMask, changeId, conn);
-                }
+                // consult change sync for provided changes data
+                if (changesToLoad != null)
+                    changesToLoad.addAll(changeIds);
+                else
+                    changeSync.changes(srvIdMask, changeIds, conn);
             }
         }
         catch (Exception e) {
@@ -432,7 +652,10 @@ public class ProactiveFatBuildSync {
                     if (build.isFakeStub())
                         build.setCancelled();
 
-                    tests = Collections.singletonList(existingBuild.getTestOcurrences(compactor));
+                    tests.clear();
+
+                    for (TestOccurrenceFull test : existingBuild.getTestOcurrences(compactor).getTests())
+                        tests.add(fatBuildDao.compactTest(test));
 
                     problems = existingBuild.problems(compactor);
 
@@ -28,12 +28,13 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 class BuildLogProcessor implements IBuildLogProcessor {
     /** Logger. */
@@ -105,34 +106,63 @@ class BuildLogProcessor implements IBuildLogProcessor {
         if (zipFile == null)
             return null;
 
-        return runCheckForZippedLog(dumpLastTest, zipFile);
+        return runCheckForZippedLog(buildId, dumpLastTest, zipFile);
     }
 
 
+    /**
+     * Analyzes the first entry of the build log archive. {@link ZipFile} reads the central directory using random access,
+     * and the entry is inflated and checked by a pipeline of {@link BuildLogStreamChecker}.
+     *
+     * @param buildId Build ID, used for logging.
+     * @param dumpLastTest Save last started test and thread dump.
+     * @param zipFile Build log archive.
+     */
     @SuppressWarnings("WeakerAccess")
     @AutoProfiling
     @Nullable
-    protected LogCheckResultCompacted runCheckForZippedLog(boolean dumpLastTest, File zipFile) throws IOException {
+    protected LogCheckResultCompacted runCheckForZippedLog(int buildId, boolean dumpLastTest, File zipFile) throws IOException {
         LogCheckTask task = taskProvider.get();
 
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
 
-            //get the zip file content
-            try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile))) {
-                ZipEntry ze = zis.getNextEntry();    //get the zipped file list entry
+            while (entries.hasMoreElements()) {
+                ZipEntry ze = entries.nextElement();
 
-                while (ze != null) {
-                    BuildLogStreamChecker checker = task.createChecker();
-                    checker.apply(zis, zipFile);
-                    LogCheckResultCompacted finalize = task.finalize(dumpLastTest);
-                    if (finalize != null)
-                        return finalize;
+                if (ze.isDirectory())
+                    continue;
 
-                    ze = zis.getNextEntry();
+                BuildLogStreamChecker checker = task.createChecker();
+
+                long startNs = System.nanoTime();
+                long chars;
+
+                try (InputStream is = zip.getInputStream(ze)) {
+                    chars = checker.apply(is, zipFile);
                 }
-                zis.closeEntry();
-            }
 
+                logThroughput(buildId, chars, System.nanoTime() - startNs);
+
+                LogCheckResultCompacted finalize = task.finalize(dumpLastTest);
+                if (finalize != null)
+                    return finalize;
+            }
+        }
 
         return null;
     }
+
+    /**
+     * @param buildId Build ID.
+     * @param chars Chars processed, 1 byte per char is supposed.
+     * @param nanos Time spent.
+     */
+    private void logThroughput(int buildId, long chars, long nanos) {
+        double mb = chars / (1024.0 * 1024);
+        double sec = Math.max(nanos, 1) / 1e9;
+
+        logger.info(String.format("Build log analyzed for build %d: %.1f MB in %d ms, %.1f MB/s",
+            buildId, mb, TimeUnit.NANOSECONDS.toMillis(nanos), mb / sec));
+    }
 }
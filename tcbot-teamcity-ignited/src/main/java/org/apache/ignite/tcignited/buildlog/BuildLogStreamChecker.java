@@ -17,35 +17,128 @@
 
 package org.apache.ignite.tcignited.buildlog;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.Stream;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
 
 /**
- * Use one instance per one stream, class is statefull and not thread safe
+ * Log is split to chunks of lines. Chunks are classified by {@link ILogProductSpecific#lineFlags(CharSequence)} in
+ * parallel, and handlers are notified about lines sequentially in the log order by the calling thread. Chunk buffers
+ * are reused, so memory consumption does not depend on log size.
  */
 class BuildLogStreamChecker {
+    /** Pool for lines classification, shared by all checkers. */
+    private static final ForkJoinPool CLASSIFY_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /** Max count of chunks read but not yet handled. */
+    private static final int MAX_CHUNKS_IN_FLIGHT = CLASSIFY_POOL.getParallelism() * 2;
+
+    /** Log product specific. */
+    private final ILogProductSpecific logSpecific;
+
     private final List<ILineHandler> lineHandlersList;
 
-    BuildLogStreamChecker(ILineHandler... lineHandlers) {
+    /** Chunk capacity in chars. */
+    private int chunkChars = LogChunkReader.DFLT_CHUNK_CHARS;
+
+    BuildLogStreamChecker(ILogProductSpecific logSpecific, ILineHandler... lineHandlers) {
+        this.logSpecific = logSpecific;
         lineHandlersList = Arrays.asList(lineHandlers);
     }
 
-    void apply(ZipInputStream zipInputStream, File zipFile) {
-        Reader reader = new InputStreamReader(zipInputStream, StandardCharsets.UTF_8);
+    /**
+     * @param chunkChars Chunk capacity in chars.
+     */
+    BuildLogStreamChecker chunkChars(int chunkChars) {
+        this.chunkChars = chunkChars;
+
+        return this;
+    }
+
+    /**
+     * @param is Log input stream, is not closed by this method.
+     * @param zipFile Log file.
+     * @return Count of chars processed.
+     */
+    long apply(InputStream is, File zipFile) throws IOException {
+        LogChunkReader reader
+            = new LogChunkReader(new InputStreamReader(is, StandardCharsets.UTF_8), chunkChars);
+
+        Deque<Future<LogChunkReader.Chunk>> inFlight = new ArrayDeque<>();
+        Deque<LogChunkReader.Chunk> free = new ArrayDeque<>();
+        LogLine line = new LogLine();
+
+        try {
+            while (true) {
+                LogChunkReader.Chunk chunk = free.isEmpty() ? reader.newChunk() : free.poll();
+
+                if (!reader.next(chunk))
+                    break;
+
+                inFlight.add(CLASSIFY_POOL.submit(() -> {
+                    chunk.classify(logSpecific);
+
+                    return chunk;
+                }));
+
+                if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT)
+                    free.add(handle(inFlight.poll(), zipFile, line));
+            }
 
-        try (Stream<String> lines = new BufferedReader(reader).lines()) {
-            lines.forEach(line -> lineHandlersList.forEach(h -> h.accept(line, zipFile)));
+            while (!inFlight.isEmpty())
+                free.add(handle(inFlight.poll(), zipFile, line));
         }
         finally {
+            inFlight.forEach(f -> f.cancel(false));
+
             lineHandlersList.forEach(this::closeSilent);
         }
+
+        return reader.charsRead();
+    }
+
+    /**
+     * Waits for chunk classification and notifies handlers about lines of the chunk.
+     *
+     * @param fut Future of classified chunk.
+     * @param zipFile Log file.
+     * @param line Line view to reuse.
+     * @return Processed chunk, can be reused.
+     */
+    private LogChunkReader.Chunk handle(Future<LogChunkReader.Chunk> fut, File zipFile, LogLine line) {
+        LogChunkReader.Chunk chunk;
+
+        try {
+            chunk = fut.get();
+        }
+        catch (InterruptedException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+
+            throw ExceptionUtil.propagateException(e);
+        }
+
+        for (int i = 0; i < chunk.lines; i++) {
+            chunk.line(i, line);
+
+            for (ILineHandler h : lineHandlersList)
+                h.accept(line, zipFile);
+        }
+
+        return chunk;
     }
 
     private void closeSilent(ILineHandler handler) {
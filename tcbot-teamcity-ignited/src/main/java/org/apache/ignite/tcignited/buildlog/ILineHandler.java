@@ -24,4 +24,12 @@ import java.io.File;
  */
 public interface ILineHandler extends AutoCloseable {
     public void accept(String line, File file);
+
+    /**
+     * @param line Line with precomputed flags, valid only during this call.
+     * @param file Log file.
+     */
+    public default void accept(LogLine line, File file) {
+        accept(line.toString(), file);
+    }
 }
@@ -21,6 +21,21 @@ package org.apache.ignite.tcignited.buildlog;
  *
  */
 public interface ILogProductSpecific {
+    /** Line flag: test is starting, see {@link #isTestStarting(String)}. */
+    public static final int TEST_STARTING = 1;
+
+    /** Line flag: test is stopping, see {@link #isTestStopping(String)}. */
+    public static final int TEST_STOPPING = 1 << 1;
+
+    /** Line flag: warning should be saved, see {@link #needWarn(String)}. */
+    public static final int NEED_WARN = 1 << 2;
+
+    /** Line flag: line reports Java-level deadlock, see {@link LogMsgToWarn#getProblemCode(String)}. */
+    public static final int JAVA_LEVEL_DEADLOCK = 1 << 3;
+
+    /** Line flag: thread dump is starting, see {@link ThreadDumpInMemoryHandler#FULL_THREAD_DUMP}. */
+    public static final int THREAD_DUMP_START = 1 << 4;
+
     /**
      * @param line Line.
      */
@@ -35,4 +50,33 @@ public interface ILogProductSpecific {
      * @param line Line.
      */
     public boolean needWarn(String line);
+
+    /**
+     * Classifies line for all checks at once. Implementations are expected to scan line only once, method may be called
+     * concurrently for different lines.
+     *
+     * @param line Line.
+     * @return Bitwise OR of line flags, e.g. {@link #TEST_STARTING}.
+     */
+    public default int lineFlags(CharSequence line) {
+        String str = line.toString();
+        int flags = 0;
+
+        if (isTestStarting(str))
+            flags |= TEST_STARTING;
+
+        if (isTestStopping(str))
+            flags |= TEST_STOPPING;
+
+        if (needWarn(str))
+            flags |= NEED_WARN;
+
+        if (LogMsgToWarn.getProblemCode(str) != null)
+            flags |= JAVA_LEVEL_DEADLOCK;
+
+        if (str.contains(ThreadDumpInMemoryHandler.FULL_THREAD_DUMP))
+            flags |= THREAD_DUMP_START;
+
+        return flags;
+    }
 }
@@ -38,6 +38,9 @@ class LogCheckResultCompacted implements ILogCheckResult, IVersionedEntity {
     /** Latest version. */
     private static final int LATEST_VERSION = 7;
 
+    /** Lines of thread dump included into {@link #toString()}, dump is not decompressed fully. */
+    private static final int THREAD_DUMP_PREVIEW_LINES = 10;
+
     /** Entity version. */
     @SuppressWarnings("FieldCanBeLocal") private Integer _version = LATEST_VERSION;
 
@@ -88,7 +91,7 @@ class LogCheckResultCompacted implements ILogCheckResult, IVersionedEntity {
     @Override public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("lastStartedTest", lastStartedTest)
-            .add("lastThreadDump", lastThreadDump)
+            .add("lastThreadDump", lastThreadDump.firstLines(THREAD_DUMP_PREVIEW_LINES))
             .add("testWarns", getWarns())
             .add("buildCustomProblems", buildCustomProblems)
             .toString();
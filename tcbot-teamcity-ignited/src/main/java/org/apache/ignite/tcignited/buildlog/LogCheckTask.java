@@ -38,6 +38,10 @@ class LogCheckTask {
     @Inject
     private IStringCompactor compactor;
 
+    /** Log product specific. */
+    @Inject
+    private ILogProductSpecific logSpecific;
+
     public LogCheckTask() {
     }
 
@@ -46,7 +50,7 @@ class LogCheckTask {
     }
 
     public BuildLogStreamChecker createChecker() {
-        return new BuildLogStreamChecker(threadDumpCp, testLogHandler);
+        return new BuildLogStreamChecker(logSpecific, threadDumpCp, testLogHandler);
     }
 
     public LogCheckResultCompacted finalize(boolean isIncompleteSuite) {
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits character stream to chunks of lines. Line terminators are the same as for {@link
+ * java.io.BufferedReader#readLine()}: '\n', '\r' or "\r\n". Chunks are filled into provided buffers, so buffers may be
+ * reused for next chunks after processing.
+ */
+class LogChunkReader {
+    /** Default chunk capacity in chars. */
+    static final int DFLT_CHUNK_CHARS = 1 << 16;
+
+    /** Reader. */
+    private final Reader reader;
+
+    /** Capacity of new chunks. */
+    private final int chunkChars;
+
+    /** Unterminated tail of previous chunk. */
+    private char[] carry = new char[0];
+
+    /** Length of tail of previous chunk. */
+    private int carryLen;
+
+    /** Previous chunk was ended by '\r', so leading '\n' should be skipped. */
+    private boolean skipLf;
+
+    /** End of stream reached. */
+    private boolean eof;
+
+    /** Count of chars read. */
+    private long charsRead;
+
+    /**
+     * @param reader Reader.
+     * @param chunkChars Capacity of new chunks.
+     */
+    LogChunkReader(Reader reader, int chunkChars) {
+        this.reader = reader;
+        this.chunkChars = chunkChars;
+    }
+
+    /**
+     * @return New empty chunk.
+     */
+    Chunk newChunk() {
+        return new Chunk(chunkChars);
+    }
+
+    /**
+     * @return Count of chars read.
+     */
+    long charsRead() {
+        return charsRead;
+    }
+
+    /**
+     * Fills chunk with next lines.
+     *
+     * @param chunk Chunk to fill, previous content is dropped.
+     * @return {@code False} if there are no more lines.
+     */
+    boolean next(Chunk chunk) throws IOException {
+        chunk.lines = 0;
+
+        if (eof && carryLen == 0)
+            return false;
+
+        if (chunk.buf.length < carryLen)
+            chunk.buf = new char[Math.max(carryLen * 2, chunkChars)];
+
+        System.arraycopy(carry, 0, chunk.buf, 0, carryLen);
+
+        int len = carryLen;
+        int lineStart = 0;
+        int pos = 0;
+
+        carryLen = 0;
+
+        while (true) {
+            len = fill(chunk, len);
+
+            if (skipLf && pos < len) {
+                if (chunk.buf[pos] == '\n') {
+                    pos++;
+                    lineStart = pos;
+                }
+
+                skipLf = false;
+            }
+
+            char[] buf = chunk.buf;
+
+            for (; pos < len; pos++) {
+                char c = buf[pos];
+
+                if (c != '\n' && c != '\r')
+                    continue;
+
+                chunk.addLine(lineStart, pos);
+
+                if (c == '\r') {
+                    if (pos + 1 < len) {
+                        if (buf[pos + 1] == '\n')
+                            pos++;
+                    }
+                    else if (!eof)
+                        skipLf = true;
+                }
+
+                lineStart = pos + 1;
+            }
+
+            if (chunk.lines > 0 || eof)
+                break;
+
+            // Line is longer than buffer.
+            chunk.buf = Arrays.copyOf(chunk.buf, chunk.buf.length * 2);
+        }
+
+        if (lineStart < len) {
+            if (eof)
+                chunk.addLine(lineStart, len);
+            else {
+                carryLen = len - lineStart;
+
+                if (carry.length < carryLen)
+                    carry = new char[Math.max(carryLen, carry.length * 2)];
+
+                System.arraycopy(chunk.buf, lineStart, carry, 0, carryLen);
+            }
+        }
+
+        return chunk.lines > 0;
+    }
+
+    /**
+     * Reads from stream until chunk buffer is full or end of stream is reached.
+     *
+     * @param chunk Chunk.
+     * @param len Count of chars already in buffer.
+     * @return Count of chars in buffer.
+     */
+    private int fill(Chunk chunk, int len) throws IOException {
+        while (!eof && len < chunk.buf.length) {
+            int read = reader.read(chunk.buf, len, chunk.buf.length - len);
+
+            if (read < 0)
+                eof = true;
+            else {
+                len += read;
+                charsRead += read;
+            }
+        }
+
+        return len;
+    }
+
+    /**
+     * Lines of log sharing one buffer.
+     */
+    static class Chunk {
+        /** Buffer. */
+        char[] buf;
+
+        /** Line start indexes, inclusive. */
+        int[] starts = new int[256];
+
+        /** Line end indexes, exclusive. */
+        int[] ends = new int[256];
+
+        /** Line flags. */
+        int[] flags = new int[256];
+
+        /** Count of lines. */
+        int lines;
+
+        /**
+         * @param chars Capacity.
+         */
+        Chunk(int chars) {
+            buf = new char[chars];
+        }
+
+        /**
+         * @param start Start index, inclusive.
+         * @param end End index, exclusive.
+         */
+        private void addLine(int start, int end) {
+            if (lines == starts.length) {
+                starts = Arrays.copyOf(starts, lines * 2);
+                ends = Arrays.copyOf(ends, lines * 2);
+                flags = Arrays.copyOf(flags, lines * 2);
+            }
+
+            starts[lines] = start;
+            ends[lines] = end;
+            flags[lines] = 0;
+            lines++;
+        }
+
+        /**
+         * Computes flags of all lines in chunk.
+         *
+         * @param logSpecific Log product specific.
+         */
+        void classify(ILogProductSpecific logSpecific) {
+            LogLine line = new LogLine();
+
+            for (int i = 0; i < lines; i++)
+                flags[i] = logSpecific.lineFlags(line.reset(buf, starts[i], ends[i], 0));
+        }
+
+        /**
+         * @param idx Line index.
+         * @param line Line view to reset.
+         * @return Line view.
+         */
+        LogLine line(int idx, LogLine line) {
+            return line.reset(buf, starts[idx], ends[idx], flags[idx]);
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.ignite.tcignited.buildlog;
 
+import com.google.common.collect.ImmutableMap;
+
 /**
  * Ignite specific logic related to build logs.
  */
@@ -29,6 +31,24 @@ public class LogIgniteSpecific implements ILogProductSpecific {
     private static final String TEST_NAME_END = " <<<";
     /** Stopping test. */
     private static final String STOPPING_TEST = ">>> Stopping test: ";
+    /** Assertion error. */
+    private static final String ASSERTION_ERROR = "java.lang.AssertionError:";
+    /** Critical failure. */
+    private static final String CRITICAL_FAILURE = "Critical failure. Will be handled accordingly to configured handler";
+
+    /** Flag of test name end marker, not overlapping with line flags. */
+    private static final int TEST_NAME_END_FLAG = 1 << 30;
+
+    /** All markers, test start flag is set only if line also contains test name end. */
+    private static final MultiPatternMatcher MARKERS = new MultiPatternMatcher(ImmutableMap.<String, Integer>builder()
+        .put(STARTING_TEST, TEST_STARTING)
+        .put(TEST_NAME_END, TEST_NAME_END_FLAG)
+        .put(STOPPING_TEST, TEST_STOPPING)
+        .put(ASSERTION_ERROR, NEED_WARN)
+        .put(JAVA_LEVEL_DEADLOCK_TXT, NEED_WARN | JAVA_LEVEL_DEADLOCK)
+        .put(CRITICAL_FAILURE, NEED_WARN)
+        .put(ThreadDumpInMemoryHandler.FULL_THREAD_DUMP, THREAD_DUMP_START)
+        .build());
 
     /** {@inheritDoc} */
     @Override public boolean isTestStarting(String line) {
@@ -42,8 +62,18 @@ public class LogIgniteSpecific implements ILogProductSpecific {
 
     /** {@inheritDoc} */
     @Override public boolean needWarn(String line) {
-        return line.contains("java.lang.AssertionError:")
+        return line.contains(ASSERTION_ERROR)
             || line.contains(JAVA_LEVEL_DEADLOCK_TXT)
-            || line.contains("Critical failure. Will be handled accordingly to configured handler");
+            || line.contains(CRITICAL_FAILURE);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int lineFlags(CharSequence line) {
+        int flags = line instanceof LogLine ? ((LogLine)line).match(MARKERS) : MARKERS.match(line);
+
+        if ((flags & TEST_NAME_END_FLAG) == 0)
+            flags &= ~TEST_STARTING;
+
+        return flags & ~TEST_NAME_END_FLAG;
     }
 }
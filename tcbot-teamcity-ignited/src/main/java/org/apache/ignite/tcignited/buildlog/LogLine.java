@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+/**
+ * Reusable view of one log line inside of shared char buffer, with flags precomputed by {@link
+ * ILogProductSpecific#lineFlags(CharSequence)}. Handlers should not keep a reference to line: buffer content is changed
+ * after line processing.
+ */
+public final class LogLine implements CharSequence {
+    /** Buffer. */
+    private char[] buf;
+
+    /** Start index in buffer, inclusive. */
+    private int start;
+
+    /** End index in buffer, exclusive. */
+    private int end;
+
+    /** Line flags. */
+    private int flags;
+
+    /**
+     * @param buf Buffer.
+     * @param start Start index in buffer, inclusive.
+     * @param end End index in buffer, exclusive.
+     * @param flags Line flags.
+     */
+    LogLine reset(char[] buf, int start, int end, int flags) {
+        this.buf = buf;
+        this.start = start;
+        this.end = end;
+        this.flags = flags;
+
+        return this;
+    }
+
+    /**
+     * @return Bitwise OR of line flags, e.g. {@link ILogProductSpecific#TEST_STARTING}.
+     */
+    public int flags() {
+        return flags;
+    }
+
+    /**
+     * @param flag Flag.
+     * @return {@code True} if all bits of the flag are set for line.
+     */
+    public boolean hasFlag(int flag) {
+        return (flags & flag) == flag;
+    }
+
+    /**
+     * @param matcher Matcher.
+     * @return Flags of patterns found in line.
+     */
+    int match(MultiPatternMatcher matcher) {
+        return matcher.match(buf, start, end);
+    }
+
+    /**
+     * Appends line content without creating string.
+     *
+     * @param sb String builder.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return sb.append(buf, start, end - start);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int length() {
+        return end - start;
+    }
+
+    /** {@inheritDoc} */
+    @Override public char charAt(int idx) {
+        return buf[start + idx];
+    }
+
+    /** {@inheritDoc} */
+    @Override public CharSequence subSequence(int from, int to) {
+        return new String(buf, start + from, to - from);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return new String(buf, start, end - start);
+    }
+}
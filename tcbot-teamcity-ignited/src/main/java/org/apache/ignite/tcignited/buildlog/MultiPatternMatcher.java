@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton finding all given substrings in one pass over text. Each pattern has bit flags, match result
+ * is bitwise OR of flags of all patterns found in the text. Automaton is immutable, so it is thread safe.
+ */
+public class MultiPatternMatcher {
+    /** Count of chars having direct mapping to alphabet index. */
+    private static final int ASCII = 128;
+
+    /** Alphabet index of ASCII chars, 0 means char is not used in patterns. */
+    private final int[] asciiIdx = new int[ASCII];
+
+    /** Alphabet index of non-ASCII chars used in patterns. */
+    private final Map<Character, Integer> otherIdx = new HashMap<>();
+
+    /** Alphabet size, including index 0 for all chars not used in patterns. */
+    private final int alphabet;
+
+    /** Transitions of deterministic automaton: state * alphabet + char index -> state. */
+    private final int[] delta;
+
+    /** Flags of patterns ending at state, including patterns being suffixes of the state. */
+    private final int[] out;
+
+    /**
+     * @param patterns Pattern to flags mapping, patterns should not be empty.
+     */
+    public MultiPatternMatcher(Map<String, Integer> patterns) {
+        int alphabetSize = 1;
+
+        for (String pattern : patterns.keySet()) {
+            if (pattern.isEmpty())
+                throw new IllegalArgumentException("Empty pattern");
+
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+
+                if (charIdx(c) == 0) {
+                    if (c < ASCII)
+                        asciiIdx[c] = alphabetSize;
+                    else
+                        otherIdx.put(c, alphabetSize);
+
+                    alphabetSize++;
+                }
+            }
+        }
+
+        alphabet = alphabetSize;
+
+        // Trie, -1 is absent transition.
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> trieOut = new ArrayList<>();
+
+        trie.add(newNode());
+        trieOut.add(0);
+
+        patterns.forEach((pattern, flags) -> {
+            int state = 0;
+
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = charIdx(pattern.charAt(i));
+                int next = trie.get(state)[c];
+
+                if (next < 0) {
+                    next = trie.size();
+
+                    trie.add(newNode());
+                    trieOut.add(0);
+
+                    trie.get(state)[c] = next;
+                }
+
+                state = next;
+            }
+
+            trieOut.set(state, trieOut.get(state) | flags);
+        });
+
+        int states = trie.size();
+
+        delta = new int[states * alphabet];
+        out = new int[states];
+
+        for (int s = 0; s < states; s++)
+            out[s] = trieOut.get(s);
+
+        // Breadth first traversal: failure link of a state always points to a state of smaller depth.
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int c = 0; c < alphabet; c++) {
+            int next = trie.get(0)[c];
+
+            if (next < 0)
+                delta[c] = 0;
+            else {
+                delta[c] = next;
+                fail[next] = 0;
+
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            out[state] |= out[fail[state]];
+
+            for (int c = 0; c < alphabet; c++) {
+                int next = trie.get(state)[c];
+
+                if (next < 0)
+                    delta[state * alphabet + c] = delta[fail[state] * alphabet + c];
+                else {
+                    delta[state * alphabet + c] = next;
+                    fail[next] = delta[fail[state] * alphabet + c];
+
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return New trie node without transitions.
+     */
+    private int[] newNode() {
+        int[] node = new int[alphabet];
+
+        Arrays.fill(node, -1);
+
+        return node;
+    }
+
+    /**
+     * @param c Char.
+     * @return Alphabet index of char.
+     */
+    private int charIdx(char c) {
+        if (c < ASCII)
+            return asciiIdx[c];
+
+        if (otherIdx.isEmpty())
+            return 0;
+
+        Integer idx = otherIdx.get(c);
+
+        return idx == null ? 0 : idx;
+    }
+
+    /**
+     * @param text Text to search patterns in.
+     * @return Bitwise OR of flags of all patterns found.
+     */
+    public int match(CharSequence text) {
+        int state = 0;
+        int res = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = delta[state * alphabet + charIdx(text.charAt(i))];
+
+            res |= out[state];
+        }
+
+        return res;
+    }
+
+    /**
+     * @param buf Buffer with text.
+     * @param from Start index, inclusive.
+     * @param to End index, exclusive.
+     * @return Bitwise OR of flags of all patterns found.
+     */
+    public int match(char[] buf, int from, int to) {
+        int state = 0;
+        int res = 0;
+
+        for (int i = from; i < to; i++) {
+            state = delta[state * alphabet + charIdx(buf[i])];
+
+            res |= out[state];
+        }
+
+        return res;
+    }
+}
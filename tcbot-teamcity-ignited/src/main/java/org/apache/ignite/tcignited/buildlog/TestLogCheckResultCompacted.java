@@ -55,8 +55,11 @@ class TestLogCheckResultCompacted implements ITestLogCheckResult {
     }
 
 
-    public void addLineStat(String line) {
-        int i = line.length() + 1; //here suppose UTF-8, 1 byte per char; 1 newline char
+    /**
+     * @param lineLen Line length in chars.
+     */
+    public void addLineStat(int lineLen) {
+        int i = lineLen + 1; //here suppose UTF-8, 1 byte per char; 1 newline char
         cntLines++;
         cntBytes += i;
     }
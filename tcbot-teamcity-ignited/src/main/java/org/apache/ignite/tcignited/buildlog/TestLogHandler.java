@@ -19,6 +19,7 @@ package org.apache.ignite.tcignited.buildlog;
 
 import java.io.File;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrence;
 
 import javax.inject.Inject;
 
@@ -44,18 +45,33 @@ public class TestLogHandler implements ILineHandler {
     private ILogProductSpecific logSpecific;
 
     @Override public void accept(String line, File fromLogFile) {
+        accept(line, logSpecific.lineFlags(line), fromLogFile);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void accept(LogLine line, File fromLogFile) {
+        accept(line, line.flags(), fromLogFile);
+    }
+
+    /**
+     * @param line Line, string is created only for lines being saved.
+     * @param flags Line flags.
+     * @param fromLogFile Log file.
+     */
+    private void accept(CharSequence line, int flags, File fromLogFile) {
         if (workFolder == null)
             workFolder = fromLogFile.getParentFile();
 
-        if (logSpecific.isTestStarting(line)) {
+        if ((flags & ILogProductSpecific.TEST_STARTING) != 0) {
             if (currentTestName != null)
                 currentTestName = null;
 
-            String startTest = line.substring(line.indexOf(STARTING_TEST) + STARTING_TEST.length(), line.indexOf(TEST_NAME_END));
+            String str = line.toString();
+            String startTest = str.substring(str.indexOf(STARTING_TEST) + STARTING_TEST.length(), str.indexOf(TEST_NAME_END));
 
             this.currentTestName = startTest;
         }
-        else if (currentTestName != null && logSpecific.isTestStopping(line)) {
+        else if (currentTestName != null && (flags & ILogProductSpecific.TEST_STOPPING) != 0) {
             //currentTestName = null;
 
         }
@@ -63,15 +79,13 @@ public class TestLogHandler implements ILineHandler {
         if (currentTestName == null)
             return;
 
-        curTest().addLineStat(line);
-
-        if (logSpecific.needWarn(line))
-            curTest().addWarning(line);
+        curTest().addLineStat(line.length());
 
-        String problemCode = LogMsgToWarn.getProblemCode(line);
+        if ((flags & ILogProductSpecific.NEED_WARN) != 0)
+            curTest().addWarning(line.toString());
 
-        if (problemCode != null)
-            res.addProblem(problemCode, compactor);
+        if ((flags & ILogProductSpecific.JAVA_LEVEL_DEADLOCK) != 0)
+            res.addProblem(ProblemOccurrence.JAVA_LEVEL_DEADLOCK, compactor);
     }
 
     private TestLogCheckResultCompacted curTest() {
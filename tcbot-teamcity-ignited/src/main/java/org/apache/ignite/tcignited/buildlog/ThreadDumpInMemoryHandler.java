@@ -43,6 +43,20 @@ public class ThreadDumpInMemoryHandler implements ILineHandler {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public void accept(LogLine line, File fromLogFile) {
+        if (currentThDump == null && line.hasFlag(ILogProductSpecific.THREAD_DUMP_START))
+            currentThDump = new StringBuilder();
+
+        if (line.length() > 0 && line.charAt(0) == '[')
+            closeCurrentIfNeed();
+
+        if (currentThDump != null) {
+            line.appendTo(currentThDump);
+            currentThDump.append("\n");
+        }
+    }
+
     private void closeCurrentIfNeed() {
         if (currentThDump != null) {
             lastThreadDump = currentThDump.toString();
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Versions of builds data for each server and branch. Version is changed each time build reference or fat build of
+ * the branch is saved. All versions are taken from one sequence, so maximal version of several branches is changed
+ * if data of any of these branches was changed.
+ */
+public class BranchDataVersions {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(BranchDataVersions.class);
+
+    /** Sequence for versions. */
+    private final AtomicLong seq = new AtomicLong();
+
+    /** Versions: Server ID and branch name ID->version. */
+    private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /** Listeners to be notified about any change. */
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Updates version of the branch and notifies listeners. Listeners are called from thread saving data, so they
+     * should not block.
+     *
+     * @param srvId Server ID.
+     * @param branchNameId Branch name ID.
+     */
+    public void onChange(int srvId, int branchNameId) {
+        versions.put(key(srvId, branchNameId), seq.incrementAndGet());
+
+        for (Runnable lsnr : listeners) {
+            try {
+                lsnr.run();
+            }
+            catch (Exception e) {
+                logger.error("Branch data change listener failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param branchNameIds Branch name IDs.
+     * @return Maximal version of data of provided branches, 0 if data was not changed since start.
+     */
+    public long version(int srvId, Collection<Integer> branchNameIds) {
+        long res = 0;
+
+        for (Integer branchNameId : branchNameIds) {
+            Long ver = versions.get(key(srvId, branchNameId));
+
+            if (ver != null)
+                res = Math.max(res, ver);
+        }
+
+        return res;
+    }
+
+    /**
+     * @param lsnr Listener to be called after each change.
+     */
+    public void addListener(Runnable lsnr) {
+        listeners.add(lsnr);
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param branchNameId Branch name ID.
+     */
+    private static long key(int srvId, int branchNameId) {
+        return (long)srvId << 32 | (branchNameId & 0xFFFFFFFFL);
+    }
+}
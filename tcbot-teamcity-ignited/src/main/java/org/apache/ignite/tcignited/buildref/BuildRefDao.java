@@ -19,6 +19,7 @@ package org.apache.ignite.tcignited.buildref;
 
 import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -26,8 +27,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -39,9 +43,9 @@ import javax.inject.Provider;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
 import org.apache.ignite.cache.QueryEntity;
+import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.cache.query.QueryCursor;
 import org.apache.ignite.cache.query.ScanQuery;
-import org.apache.ignite.cache.query.SqlQuery;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
 import org.apache.ignite.ci.teamcity.ignited.runhist.RunHistKey;
 import org.apache.ignite.configuration.CacheConfiguration;
@@ -70,6 +74,9 @@ public class BuildRefDao {
     /** Compactor. */
     @Inject private IStringCompactor compactor;
 
+    /** Versions of branches data. */
+    @Inject private BranchDataVersions branchVersions;
+
     /** Non persistence cache for all BuildRefsCompacted for particular branch.
      * RunHistKey(ServerId||BranchId||suiteId)-> Build reference
      */
@@ -91,6 +98,12 @@ public class BuildRefDao {
         .softValues()
         .build();
 
+    /** Secondary index of builds by branch and build type, and of queued and running builds. */
+    private final BuildRefIndex idx = new BuildRefIndex();
+
+    /** Servers having index loaded from persistence. */
+    private final Set<Integer> idxLoadedSrvs = ConcurrentHashMap.newKeySet();
+
     /** */
     public BuildRefDao init() {
         CacheConfiguration<Long, BuildRefCompacted> cfg = CacheConfigs.getCacheV2Config(TEAMCITY_BUILD_CACHE_NAME);
@@ -124,6 +137,42 @@ public class BuildRefDao {
             .map(javax.cache.Cache.Entry::getValue);
     }
 
+    /**
+     * Scans only one partition of build references cache. Both build references and fat builds caches use same
+     * affinity function and key layout, so keys returned by this scan are located in the same partition of fat builds
+     * cache.
+     *
+     * @param srvId Server id.
+     * @param part Partition to scan.
+     * @param filter Filter to be applied to the build references.
+     * @return builds for a server located in the partition.
+     */
+    @Nonnull
+    public Stream<BuildRefCompacted> compactedBuildsForServer(
+        final int srvId,
+        int part,
+        @Nullable final IgnitePredicate<BuildRefCompacted> filter) {
+        QueryCursor<Cache.Entry<Long, BuildRefCompacted>> qry
+            = buildRefsCache.query(
+                new ScanQuery<Long, BuildRefCompacted>().setPartition(part).setFilter(
+                    (k, v) -> {
+                        if (!isKeyForServer(k, srvId))
+                            return false;
+
+                        return filter == null || filter.apply(v);
+                    }));
+
+        return StreamSupport.stream(qry.spliterator(), false)
+            .map(javax.cache.Cache.Entry::getValue);
+    }
+
+    /**
+     * @return Affinity of build references cache.
+     */
+    public Affinity<Long> affinity() {
+        return igniteProvider.get().affinity(buildRefsCache.getName());
+    }
+
     /**
      * @param key Key.
      * @param srvId Server id.
@@ -162,7 +211,14 @@ public class BuildRefDao {
         if (size != 0) {
             buildRefsCache.putAll(entriesToPut);
 
-            invalidateHistoryInMem(srvId, entriesToPut.values().stream());
+            entriesToPut.forEach((k, v) -> removeFromIndexIfMoved(srvId, existingEntries.get(k), v));
+            idx.addAll(srvId, entriesToPut.values(), this::isQueuedOrRunning);
+
+            Stream<BuildRefCompacted> prevVersions = entriesToPut.keySet().stream()
+                .map(existingEntries::get)
+                .filter(Objects::nonNull);
+
+            invalidateHistoryInMem(srvId, Stream.concat(entriesToPut.values().stream(), prevVersions));
         }
 
         return entriesToPut.keySet();
@@ -180,6 +236,11 @@ public class BuildRefDao {
 
         buildRefsInMemCacheForAllBranch.invalidateAll(cacheForAllBranch);
         buildRefsInMemCache.invalidateAll(setOfHistToClear);
+
+        setOfHistToClear.stream()
+            .map(RunHistKey::branch)
+            .distinct()
+            .forEach(branch -> branchVersions.onChange(srvId, branch));
     }
 
     /**
@@ -221,11 +282,11 @@ public class BuildRefDao {
             try {
                 List<BuildRefCompacted> compactedBuildsForBranch =
                     buildRefsInMemCache.get(runHistKey, () -> {
-                        List<BuildRefCompacted> branch = getBuildsForBranch(srvId, branchNameId);
+                        ensureIndexLoaded(srvId);
 
-                        List<BuildRefCompacted> resForBranch = branch.stream()
-                            .filter(e -> e.buildTypeId() == buildTypeIdId)
-                            .collect(Collectors.toList());
+                        List<BuildRefCompacted> resForBranch = getBuildRefs(srvId,
+                            idx.buildIds(srvId, branchNameId, buildTypeIdId),
+                            ref -> ref.branchName() == branchNameId && ref.buildTypeId() == buildTypeIdId);
 
                         if (!resForBranch.isEmpty()) {
                             System.err.println("Branch " + compactor.getStringFromId(branchNameId)
@@ -251,17 +312,134 @@ public class BuildRefDao {
      */
     @AutoProfiling
     public List<BuildRefCompacted> getQueuedAndRunning(int srvId) {
-        GridIntList list = new GridIntList(2);
-        Integer stateQueuedId = compactor.getStringIdIfPresent(BuildRef.STATE_QUEUED);
-        if (stateQueuedId != null)
-            list.add(stateQueuedId);
+        ensureIndexLoaded(srvId);
+
+        return getBuildRefs(srvId, idx.queuedAndRunning(srvId), this::isQueuedOrRunning);
+    }
+
+    /**
+     * Finds latest builds using index, build references are loaded from persistence by small batches starting from the
+     * newest build.
+     *
+     * @param srvId Server id.
+     * @param buildTypeIdId Build type (suite) id from compactor.
+     * @param branchNameIds Branch names for query.
+     * @param filter Filter for builds to be included.
+     * @param cnt Max count of builds to return.
+     * @return Builds sorted by ID, newest first.
+     */
+    @AutoProfiling
+    @Nonnull public List<BuildRefCompacted> getLatestBuilds(int srvId,
+        int buildTypeIdId,
+        Collection<Integer> branchNameIds,
+        Predicate<BuildRefCompacted> filter,
+        int cnt) {
+        ensureIndexLoaded(srvId);
+
+        int[] ids = new int[0];
+
+        for (Integer branchNameId : branchNameIds)
+            ids = BuildRefIndex.union(ids, idx.buildIds(srvId, branchNameId, buildTypeIdId));
+
+        List<BuildRefCompacted> res = new ArrayList<>();
+        int batch = Math.max(cnt, 16);
+
+        for (int end = ids.length; end > 0 && res.size() < cnt; batch *= 2) {
+            int start = Math.max(0, end - batch);
+
+            List<BuildRefCompacted> refs = getBuildRefs(srvId, Arrays.copyOfRange(ids, start, end),
+                ref -> ref.buildTypeId() == buildTypeIdId && branchNameIds.contains(ref.branchName()) && filter.test(ref));
+
+            for (int i = refs.size() - 1; i >= 0 && res.size() < cnt; i--)
+                res.add(refs.get(i));
+
+            end = start;
+        }
 
+        return res;
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param buildIds Build IDs sorted.
+     * @param filter Filter to exclude stale index entries.
+     * @return Build references in the same order as IDs.
+     */
+    private List<BuildRefCompacted> getBuildRefs(int srvId, int[] buildIds, Predicate<BuildRefCompacted> filter) {
+        if (buildIds.length == 0)
+            return Collections.emptyList();
+
+        Set<Long> keys = new TreeSet<>();
+
+        for (int buildId : buildIds)
+            keys.add(buildIdToCacheKey(srvId, buildId));
+
+        Map<Long, BuildRefCompacted> refs = buildRefsCache.getAll(keys);
+        List<BuildRefCompacted> res = new ArrayList<>(refs.size());
+
+        for (int buildId : buildIds) {
+            BuildRefCompacted ref = refs.get(buildIdToCacheKey(srvId, buildId));
+
+            if (ref != null && filter.test(ref))
+                res.add(ref);
+        }
+
+        return res;
+    }
+
+    /**
+     * Loads index for server from persistence if it was not done yet. Builds saved concurrently with loading are added
+     * to the index by save methods, adding same build twice does not change index.
+     *
+     * @param srvId Server id.
+     */
+    private void ensureIndexLoaded(int srvId) {
+        if (idxLoadedSrvs.contains(srvId))
+            return;
+
+        synchronized (idxLoadedSrvs) {
+            if (idxLoadedSrvs.contains(srvId))
+                return;
+
+            loadIndex(srvId);
+
+            idxLoadedSrvs.add(srvId);
+        }
+    }
+
+    /**
+     * @param srvId Server id.
+     */
+    @AutoProfiling
+    protected void loadIndex(int srvId) {
+        int parts = affinity().partitions();
+
+        for (int p = 0; p < parts; p++) {
+            List<BuildRefCompacted> refs = compactedBuildsForServer(srvId, p, null).collect(Collectors.toList());
+
+            idx.addAll(srvId, refs, this::isQueuedOrRunning);
+        }
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param prev Previous version of the build reference.
+     * @param ref New version of the build reference.
+     */
+    private void removeFromIndexIfMoved(int srvId, @Nullable BuildRefCompacted prev, BuildRefCompacted ref) {
+        if (prev != null && (prev.branchName() != ref.branchName() || prev.buildTypeId() != ref.buildTypeId()))
+            idx.remove(srvId, prev);
+    }
+
+    /**
+     * @param ref Build reference.
+     */
+    private boolean isQueuedOrRunning(BuildRefCompacted ref) {
+        Integer stateQueuedId = compactor.getStringIdIfPresent(BuildRef.STATE_QUEUED);
         Integer stateRunningId = compactor.getStringIdIfPresent(BuildRef.STATE_RUNNING);
-        if (stateRunningId != null)
-            list.add(stateRunningId);
 
-        return compactedBuildsForServer(srvId, bref -> list.contains(bref.state()))
-            .collect(Collectors.toList());
+        return (stateQueuedId != null && ref.state() == stateQueuedId)
+            || (stateRunningId != null && ref.state() == stateRunningId);
     }
 
     private static long branchNameToHistCacheKey(long srvId, int branchName) {
@@ -288,21 +466,10 @@ public class BuildRefDao {
     }
 
     public List<BuildRefCompacted> getBuildsForBranchNonCached(int srvId, int branchNameId) {
-        List<BuildRefCompacted> list = new ArrayList<>();
-
-        try (QueryCursor<Cache.Entry<Long, BuildRefCompacted>> qryCursor = buildRefsCache.query(
-            new SqlQuery<Long, BuildRefCompacted>(BuildRefCompacted.class, "branchName = ?")
-                .setArgs((Integer)branchNameId))) {
+        ensureIndexLoaded(srvId);
 
-            for (Cache.Entry<Long, BuildRefCompacted> next : qryCursor) {
-                Long key = next.getKey();
-
-                if (!isKeyForServer(key, srvId))
-                    continue;
-
-                list.add(next.getValue());
-            }
-        }
+        List<BuildRefCompacted> list = getBuildRefs(srvId, idx.buildIds(srvId, branchNameId),
+            ref -> ref.branchName() == branchNameId);
 
         if (!list.isEmpty()) {
             System.err.println(" Branch " + compactor.getStringFromId(branchNameId)
@@ -323,7 +490,12 @@ public class BuildRefDao {
 
         if (buildPersisted == null || !buildPersisted.equals(refCompacted)) {
             buildRefsCache.put(cacheKey, refCompacted);
-            invalidateHistoryInMem(srvId, Stream.of(refCompacted));
+
+            removeFromIndexIfMoved(srvId, buildPersisted, refCompacted);
+            idx.addAll(srvId, Collections.singletonList(refCompacted), this::isQueuedOrRunning);
+
+            invalidateHistoryInMem(srvId,
+                buildPersisted == null ? Stream.of(refCompacted) : Stream.of(refCompacted, buildPersisted));
 
             return true;
         }
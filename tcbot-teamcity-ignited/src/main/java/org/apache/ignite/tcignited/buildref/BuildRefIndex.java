@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
+import org.apache.ignite.internal.util.GridIntList;
+
+/**
+ * In-memory secondary index of build references: (server, branch, build type) to sorted array of build IDs, and set of
+ * queued and running builds for each server. Index may contain stale IDs, e.g. if branch of a build was changed by
+ * another node, so callers should check values found by index.
+ */
+class BuildRefIndex {
+    /** Empty array. */
+    private static final int[] EMPTY = new int[0];
+
+    /** Server ID || Branch ID -> Build type ID -> Sorted build IDs. Arrays are never modified after publication. */
+    private final ConcurrentMap<Long, ConcurrentMap<Integer, int[]>> byBranch = new ConcurrentHashMap<>();
+
+    /** Server ID -> IDs of queued and running builds. */
+    private final ConcurrentMap<Integer, Set<Integer>> queuedAndRunning = new ConcurrentHashMap<>();
+
+    /**
+     * @param srvId Server ID.
+     * @param branchId Branch ID.
+     */
+    private static long branchKey(long srvId, int branchId) {
+        return (long)branchId | srvId << 32;
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param refs Build references.
+     * @param live Predicate returning {@code true} for queued and running builds.
+     */
+    void addAll(int srvId, Collection<BuildRefCompacted> refs, Predicate<BuildRefCompacted> live) {
+        Map<Long, Map<Integer, GridIntList>> grouped = new HashMap<>();
+
+        for (BuildRefCompacted ref : refs) {
+            grouped.computeIfAbsent(branchKey(srvId, ref.branchName()), k -> new HashMap<>())
+                .computeIfAbsent(ref.buildTypeId(), k -> new GridIntList())
+                .add(ref.id());
+
+            if (live.test(ref))
+                liveSet(srvId).add(ref.id());
+            else {
+                Set<Integer> set = queuedAndRunning.get(srvId);
+
+                if (set != null)
+                    set.remove(ref.id());
+            }
+        }
+
+        grouped.forEach((branchKey, byBt) -> {
+            ConcurrentMap<Integer, int[]> btMap = byBranch.computeIfAbsent(branchKey, k -> new ConcurrentHashMap<>());
+
+            byBt.forEach((btId, ids) -> {
+                int[] add = ids.array();
+
+                Arrays.sort(add);
+
+                btMap.merge(btId, add, BuildRefIndex::union);
+            });
+        });
+    }
+
+    /**
+     * Removes build from branch index, e.g. if branch or build type of build was changed.
+     *
+     * @param srvId Server ID.
+     * @param ref Previous version of build reference.
+     */
+    void remove(int srvId, BuildRefCompacted ref) {
+        ConcurrentMap<Integer, int[]> btMap = byBranch.get(branchKey(srvId, ref.branchName()));
+
+        if (btMap == null)
+            return;
+
+        btMap.computeIfPresent(ref.buildTypeId(), (btId, arr) -> {
+            int idx = Arrays.binarySearch(arr, ref.id());
+
+            if (idx < 0)
+                return arr;
+
+            if (arr.length == 1)
+                return null;
+
+            int[] res = new int[arr.length - 1];
+
+            System.arraycopy(arr, 0, res, 0, idx);
+            System.arraycopy(arr, idx + 1, res, idx, arr.length - idx - 1);
+
+            return res;
+        });
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param branchId Branch ID.
+     * @param buildTypeId Build type ID.
+     * @return Sorted build IDs, should not be modified.
+     */
+    int[] buildIds(int srvId, int branchId, int buildTypeId) {
+        ConcurrentMap<Integer, int[]> btMap = byBranch.get(branchKey(srvId, branchId));
+
+        if (btMap == null)
+            return EMPTY;
+
+        int[] ids = btMap.get(buildTypeId);
+
+        return ids == null ? EMPTY : ids;
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param branchId Branch ID.
+     * @return Sorted build IDs of all build types.
+     */
+    int[] buildIds(int srvId, int branchId) {
+        ConcurrentMap<Integer, int[]> btMap = byBranch.get(branchKey(srvId, branchId));
+
+        if (btMap == null)
+            return EMPTY;
+
+        int[] res = EMPTY;
+
+        for (int[] ids : btMap.values())
+            res = union(res, ids);
+
+        return res;
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @return IDs of queued and running builds.
+     */
+    int[] queuedAndRunning(int srvId) {
+        Set<Integer> set = queuedAndRunning.get(srvId);
+
+        if (set == null)
+            return EMPTY;
+
+        return set.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * @param srvId Server ID.
+     */
+    private Set<Integer> liveSet(int srvId) {
+        return queuedAndRunning.computeIfAbsent(srvId, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * @param a Sorted array.
+     * @param b Sorted array.
+     * @return Sorted array with elements of both arrays without duplicates.
+     */
+    static int[] union(int[] a, int[] b) {
+        int[] res = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+
+        while (i < a.length || j < b.length) {
+            int next;
+
+            if (j == b.length || (i < a.length && a[i] <= b[j]))
+                next = a[i++];
+            else
+                next = b[j++];
+
+            if (k == 0 || res[k - 1] != next)
+                res[k++] = next;
+        }
+
+        return k == res.length ? res : Arrays.copyOf(res, k);
+    }
+}
@@ -19,7 +19,9 @@ package org.apache.ignite.tcignited.buildref;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -32,13 +34,21 @@ import org.apache.ignite.tcignited.ITeamcityIgnited;
 import org.apache.ignite.tcignited.build.ProactiveFatBuildSync;
 import org.apache.ignite.tcservice.ITeamcityConn;
 import org.apache.ignite.tcservice.model.hist.BuildRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class checks all builds ocurred on a TC server.
  * All builds stored into build refs cache.
  * Modified builds are sheduled to be reloaded in build sync.
+ *
+ * Incremental sync requests only builds started after highest build ID seen by previous sync (watermark). Queued and
+ * running builds known before are reloaded by caller directly. Full reindex is done rarely, as consistency check.
  */
 public class BuildRefSync {
+    /** Logger. */
+    private static final Logger logger = LoggerFactory.getLogger(BuildRefSync.class);
+
     /**
      * Max builds to check during incremental sync. If this value is reached (50 pages) and some stuck builds still not
      * found, then iteration stops
@@ -48,9 +58,18 @@ public class BuildRefSync {
     /** Incremental builds WO modification to be found to stop iterating. */
     public static final int INCREMENTAL_BUILDS_WO_MODIFICATION_TO_STOP  = 1000;
 
+    /** Minimal interval between full reindexes. */
+    public static final Duration FULL_REINDEX_INTERVAL = Duration.ofDays(1);
+
     /** Build reference DAO. */
     @Inject private BuildRefDao buildRefDao;
 
+    /** Watermark DAO. */
+    @Inject private BuildRefWatermarkDao watermarkDao;
+
+    /** Statistics of last sync, mapped by server ID. */
+    private final Map<String, BuildRefSyncStats> stats = new ConcurrentHashMap<>();
+
     /** Build Sync. */
     @Inject private ProactiveFatBuildSync fatBuildSync;
 
@@ -75,17 +94,30 @@ public class BuildRefSync {
         SyncMode syncMode,
         @Nullable Set<Integer> mandatoryToReload,
         ITeamcityConn conn) {
+        int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvId);
+        BuildRefWatermark watermark = watermarkDao.get(srvIdMaskHigh);
+
+        if (syncMode == SyncMode.INCREMENTAL && watermark != null && watermark.maxBuildId > 0) {
+            try {
+                return runSinceWatermark(srvId, watermark, mandatoryToReload, conn);
+            }
+            catch (RuntimeException e) {
+                // Watermark build may be removed from the server, continue with pages scan.
+                logger.warn("Build refs sync since build " + watermark.maxBuildId + " failed for " + srvId, e);
+            }
+        }
+
+        long start = System.currentTimeMillis();
 
         AtomicReference<String> outLinkNext = new AtomicReference<>();
         List<BuildRef> tcDataFirstPage = conn.getBuildRefsPage(null, outLinkNext);
 
-        long start = System.currentTimeMillis();
-        int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvId);
         Set<Long> buildsUpdated = buildRefDao.saveChunk(srvIdMaskHigh, tcDataFirstPage);
         int totalUpdated = buildsUpdated.size();
         fatBuildSync.scheduleBuildsLoad(conn, cacheKeysToBuildIds(buildsUpdated));
 
         int totalChecked = tcDataFirstPage.size();
+        int maxSeenId = maxBuildId(tcDataFirstPage, -1);
         int neededToFind = 0;
         if (mandatoryToReload != null) {
             neededToFind = mandatoryToReload.size();
@@ -123,6 +155,7 @@ public class BuildRefSync {
             int savedCurChunk = curChunkBuildsSaved.size();
 
             totalChecked += tcDataNextPage.size();
+            maxSeenId = maxBuildId(tcDataNextPage, maxSeenId);
             if (savedCurChunk != 0) {
                 lastTimeUpdateFound = System.currentTimeMillis();
 
@@ -151,6 +184,11 @@ public class BuildRefSync {
             }
         }
 
+        if (syncMode != SyncMode.ULTRAFAST) {
+            // Only first page was checked by ultrafast sync, builds below it may be not seen yet.
+            onSyncCompleted(srvId, watermark, syncMode, start, totalChecked, totalUpdated, maxSeenId);
+        }
+
         StringBuilder sb = new StringBuilder();
         sb.append("Entries saved ");
         sb.append(totalUpdated);
@@ -176,6 +214,132 @@ public class BuildRefSync {
         return sb.toString();
     }
 
+    /**
+     * Requests all builds started after the watermark build.
+     *
+     * @param srvId Server id.
+     * @param watermark Watermark.
+     * @param mandatoryToReload [in/out] Build ID should be found before end of sync.
+     * @param conn Teamcity to check builds
+     */
+    private String runSinceWatermark(String srvId,
+        BuildRefWatermark watermark,
+        @Nullable Set<Integer> mandatoryToReload,
+        ITeamcityConn conn) {
+        long start = System.currentTimeMillis();
+        int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvId);
+        int neededToFind = mandatoryToReload == null ? 0 : mandatoryToReload.size();
+
+        int totalChecked = 0;
+        int totalUpdated = 0;
+        int maxSeenId = watermark.maxBuildId;
+
+        AtomicReference<String> outLinkNext = new AtomicReference<>();
+        String nextPageUrl = null;
+
+        do {
+            List<BuildRef> tcDataPage = conn.getBuildRefsPageSince(watermark.maxBuildId, nextPageUrl, outLinkNext);
+            nextPageUrl = outLinkNext.getAndSet(null);
+
+            Set<Long> curChunkBuildsSaved = buildRefDao.saveChunk(srvIdMaskHigh, tcDataPage);
+            totalUpdated += curChunkBuildsSaved.size();
+            fatBuildSync.scheduleBuildsLoad(conn, cacheKeysToBuildIds(curChunkBuildsSaved));
+
+            totalChecked += tcDataPage.size();
+            maxSeenId = maxBuildId(tcDataPage, maxSeenId);
+
+            if (!isEmpty(mandatoryToReload))
+                tcDataPage.stream().map(BuildRef::getId).forEach(mandatoryToReload::remove);
+        }
+        while (nextPageUrl != null);
+
+        onSyncCompleted(srvId, watermark, SyncMode.INCREMENTAL, start, totalChecked, totalUpdated, maxSeenId);
+
+        return "Entries saved " + totalUpdated +
+            " Builds checked " + totalChecked +
+            " since build " + watermark.maxBuildId +
+            (mandatoryToReload != null
+                ? " Needed to find " + neededToFind + " remained to find " + mandatoryToReload.size()
+                : "");
+    }
+
+    /**
+     * Saves new watermark and sync statistics.
+     *
+     * @param srvId Server id.
+     * @param prevWatermark Watermark before sync.
+     * @param syncMode Sync mode.
+     * @param start Sync start timestamp.
+     * @param checked References received from the server.
+     * @param saved References found modified and saved.
+     * @param maxSeenId Highest build ID seen during sync.
+     */
+    private void onSyncCompleted(String srvId,
+        @Nullable BuildRefWatermark prevWatermark,
+        SyncMode syncMode,
+        long start,
+        int checked,
+        int saved,
+        int maxSeenId) {
+        int srvIdMaskHigh = ITeamcityIgnited.serverIdToInt(srvId);
+        long now = System.currentTimeMillis();
+
+        BuildRefWatermark watermark = new BuildRefWatermark();
+
+        if (prevWatermark != null) {
+            watermark.maxBuildId = prevWatermark.maxBuildId;
+            watermark.lastModifiedTs = prevWatermark.lastModifiedTs;
+            watermark.lastFullReindexTs = prevWatermark.lastFullReindexTs;
+        }
+
+        watermark.maxBuildId = Math.max(watermark.maxBuildId, maxSeenId);
+        watermark.lastSyncTs = now;
+
+        if (saved > 0)
+            watermark.lastModifiedTs = now;
+
+        if (syncMode == SyncMode.FULL_REINDEX)
+            watermark.lastFullReindexTs = now;
+
+        watermarkDao.save(srvIdMaskHigh, watermark);
+
+        stats.put(srvId,
+            new BuildRefSyncStats(srvId, syncMode, now, now - start, checked, saved, watermark.maxBuildId));
+    }
+
+    /**
+     * @param srvId Server id.
+     * @return {@code True} if full reindex was not done during {@link #FULL_REINDEX_INTERVAL}.
+     */
+    public boolean isFullReindexRequired(String srvId) {
+        BuildRefWatermark watermark = watermarkDao.get(ITeamcityIgnited.serverIdToInt(srvId));
+
+        return watermark == null
+            || System.currentTimeMillis() - watermark.lastFullReindexTs > FULL_REINDEX_INTERVAL.toMillis();
+    }
+
+    /**
+     * @return Statistics of last completed sync for each server.
+     */
+    public Collection<BuildRefSyncStats> stats() {
+        return stats.values();
+    }
+
+    /**
+     * @param refs References.
+     * @param max Current maximum.
+     */
+    private static int maxBuildId(List<BuildRef> refs, int max) {
+        for (BuildRef ref : refs) {
+            Integer id = ref.getId();
+
+            if (id != null && id > max)
+                max = id;
+        }
+
+        return max;
+    }
+
     public boolean isEmpty(@Nullable Set<Integer> mandatoryToReload) {
         return mandatoryToReload == null || mandatoryToReload.isEmpty();
     }
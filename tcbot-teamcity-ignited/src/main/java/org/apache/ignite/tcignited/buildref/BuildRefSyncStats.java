@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+/**
+ * Statistics of last completed build references sync for one server.
+ */
+public class BuildRefSyncStats {
+    /** Server ID. */
+    private final String srvId;
+
+    /** Sync mode. */
+    private final BuildRefSync.SyncMode mode;
+
+    /** Sync end timestamp. */
+    private final long endTs;
+
+    /** Sync duration. */
+    private final long durationMs;
+
+    /** References received from the server. */
+    private final int checked;
+
+    /** References found modified and saved. */
+    private final int saved;
+
+    /** Highest build ID seen after sync. */
+    private final int maxBuildId;
+
+    /**
+     * @param srvId Server ID.
+     * @param mode Sync mode.
+     * @param endTs Sync end timestamp.
+     * @param durationMs Sync duration.
+     * @param checked References received from the server.
+     * @param saved References found modified and saved.
+     * @param maxBuildId Highest build ID seen after sync.
+     */
+    public BuildRefSyncStats(String srvId, BuildRefSync.SyncMode mode, long endTs, long durationMs, int checked,
+        int saved, int maxBuildId) {
+        this.srvId = srvId;
+        this.mode = mode;
+        this.endTs = endTs;
+        this.durationMs = durationMs;
+        this.checked = checked;
+        this.saved = saved;
+        this.maxBuildId = maxBuildId;
+    }
+
+    /**
+     * @return Server ID.
+     */
+    public String srvId() {
+        return srvId;
+    }
+
+    /**
+     * @return Sync mode.
+     */
+    public BuildRefSync.SyncMode mode() {
+        return mode;
+    }
+
+    /**
+     * @return Time passed since the end of sync, this is maximal age of build references data.
+     */
+    public long lagMs() {
+        return System.currentTimeMillis() - endTs;
+    }
+
+    /**
+     * @return Sync duration.
+     */
+    public long durationMs() {
+        return durationMs;
+    }
+
+    /**
+     * @return References received from the server.
+     */
+    public int checked() {
+        return checked;
+    }
+
+    /**
+     * @return References found modified and saved.
+     */
+    public int saved() {
+        return saved;
+    }
+
+    /**
+     * @return Highest build ID seen after sync.
+     */
+    public int maxBuildId() {
+        return maxBuildId;
+    }
+
+    /**
+     * @return References received from the server per second.
+     */
+    public double refsPerSec() {
+        return checked * 1000.0 / Math.max(durationMs, 1);
+    }
+}
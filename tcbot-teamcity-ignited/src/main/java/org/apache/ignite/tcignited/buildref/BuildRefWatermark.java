@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+import org.apache.ignite.tcbot.persistence.Persisted;
+
+/**
+ * Build references sync progress for one server.
+ */
+@Persisted
+public class BuildRefWatermark {
+    /** Highest build ID seen in build references from the server, -1 if sync was not done yet. */
+    int maxBuildId = -1;
+
+    /** Timestamp of last sync which found modified references. */
+    long lastModifiedTs;
+
+    /** Timestamp of last successfully completed sync. */
+    long lastSyncTs;
+
+    /** Timestamp of last completed full reindex. */
+    long lastFullReindexTs;
+
+    /**
+     * @return Highest build ID seen, -1 if sync was not done yet.
+     */
+    public int maxBuildId() {
+        return maxBuildId;
+    }
+
+    /**
+     * @return Timestamp of last sync which found modified references.
+     */
+    public long lastModifiedTs() {
+        return lastModifiedTs;
+    }
+
+    /**
+     * @return Timestamp of last successfully completed sync.
+     */
+    public long lastSyncTs() {
+        return lastSyncTs;
+    }
+
+    /**
+     * @return Timestamp of last completed full reindex.
+     */
+    public long lastFullReindexTs() {
+        return lastFullReindexTs;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildref;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+
+import static org.apache.ignite.tcbot.persistence.CacheConfigs.getCache8PartsConfig;
+
+/**
+ * Stores build references sync watermark per server.
+ */
+public class BuildRefWatermarkDao {
+    /** Cache name. */
+    public static final String BUILD_REF_WATERMARK_CACHE_NAME = "buildRefSyncWatermark";
+
+    /** Ignite provider. */
+    @Inject private Provider<Ignite> igniteProvider;
+
+    /** Watermarks cache, key is server ID. */
+    private IgniteCache<Integer, BuildRefWatermark> cache;
+
+    /**
+     * Initialize.
+     */
+    public BuildRefWatermarkDao init() {
+        cache = igniteProvider.get().getOrCreateCache(getCache8PartsConfig(BUILD_REF_WATERMARK_CACHE_NAME));
+
+        return this;
+    }
+
+    /**
+     * @param srvId Server id.
+     * @return Watermark or null if server was never synced.
+     */
+    @Nullable public BuildRefWatermark get(int srvId) {
+        return cache.get(srvId);
+    }
+
+    /**
+     * @param srvId Server id.
+     * @param watermark Watermark.
+     */
+    public void save(int srvId, BuildRefWatermark watermark) {
+        cache.put(srvId, watermark);
+    }
+}
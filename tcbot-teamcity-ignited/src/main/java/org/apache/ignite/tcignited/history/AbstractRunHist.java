@@ -71,35 +71,40 @@ public abstract class AbstractRunHist implements IRunHistory {
             return null;
 
         return "Test seems to be flaky: " +
-            "changed its status [" + statusChange + "/" + getInvocations().count() + "] without code modifications";
+            "changed its status [" + statusChange + "/" + getInvocationsCount() + "] without code modifications";
     }
 
     /**
      * @return number of status change without code modifications for test to be considered as flaky
      */
     public int getStatusChangesWithoutCodeModification() {
-        int statusChange = 0;
-
-        Invocation prev = null;
+        //todo here all previous MISSING invocations status could be checked
+        return stats().statusChanges();
+    }
 
-        for (Invocation cur : invocations()) {
-            if (cur == null)
-                continue;
+    /** {@inheritDoc} */
+    @Nullable @Override public Integer getLatestStatusChangeBuildId() {
+        return stats().lastStatusChangeBuildId();
+    }
 
-            if (cur.status() == InvocationData.MISSING)
-                continue;
+    /** {@inheritDoc} */
+    @Nullable @Override public Integer getFirstFailureBuildId() {
+        return stats().firstFailureBuildId();
+    }
 
-            //todo here all previous MISSING invocations status could be checked
-            if (prev != null) {
-                if (prev.status() != cur.status()
-                    && cur.changesState() == ChangesState.NONE
-                    && prev.changesState() != ChangesState.UNKNOWN)
-                    statusChange++;
-            }
+    /**
+     * @return Count of invocations including missing ones.
+     */
+    protected long getInvocationsCount() {
+        return getInvocations().count();
+    }
 
-            prev = cur;
-        }
-        return statusChange;
+    /**
+     * @return Statistics of runs, computed by full scan of invocations. May be overridden if statistics is maintained
+     * by history.
+     */
+    RunHistStats stats() {
+        return RunHistStats.compute(invocations());
     }
 
     @Nullable
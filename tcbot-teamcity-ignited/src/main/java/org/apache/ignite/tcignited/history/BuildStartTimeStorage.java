@@ -34,6 +34,7 @@ import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
 import org.apache.ignite.tcbot.common.TcBotConst;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
+import org.apache.ignite.tcbot.common.util.IntLongHashMap;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
 import org.apache.ignite.tcignited.buildref.BuildRefDao;
 
@@ -117,10 +118,15 @@ public class BuildStartTimeStorage {
             .filter(Objects::nonNull).map(id -> buildIdToCacheKey(srvId, id)).collect(Collectors.toSet());
     }
 
-    public Map<Integer, Long> getBuildsStartTime(int srvId, Set<Integer> ids) {
+    /**
+     * @param srvId Server id.
+     * @param ids Build Ids.
+     * @return Build ID to start timestamp mapping for builds having start time saved.
+     */
+    public IntLongHashMap getBuildsStartTime(int srvId, Set<Integer> ids) {
         Set<Long> cacheKeys = buildsIdsToCacheKeys(srvId, ids);
 
-        Map<Integer, Long> res = new HashMap<>();
+        IntLongHashMap res = new IntLongHashMap(cacheKeys.size());
 
         buildStartTime.getAll(cacheKeys).forEach((k, ts) -> {
             if (ts != null && ts > 0) {
@@ -135,11 +141,15 @@ public class BuildStartTimeStorage {
         return res;
     }
 
-    public void setBuildsStartTime(int srvId, Map<Integer, Long> builds) {
+    /**
+     * @param srvId Server id.
+     * @param builds Build ID to start timestamp mapping.
+     */
+    public void setBuildsStartTime(int srvId, IntLongHashMap builds) {
         Map<Long, Long> res = new HashMap<>();
 
         builds.forEach((buildId, ts) -> {
-            if (ts != null && ts > 0) {
+            if (ts > 0) {
                 res.put(buildIdToCacheKey(srvId, buildId), ts);
 
                 processBuildForBorder(srvId, buildId, ts);
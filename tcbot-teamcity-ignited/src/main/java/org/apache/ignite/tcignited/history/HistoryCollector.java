@@ -21,16 +21,17 @@ import com.google.common.collect.Iterables;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.cache.Cache;
 import javax.inject.Inject;
@@ -39,6 +40,7 @@ import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.cache.query.QueryCursor;
 import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.ci.teamcity.ignited.BuildRefCompacted;
+import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
 import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
 import org.apache.ignite.ci.teamcity.ignited.runhist.RunHistKey;
 import org.apache.ignite.tcbot.common.TcBotConst;
@@ -48,6 +50,7 @@ import org.apache.ignite.tcbot.common.conf.TcBotSystemProperties;
 import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
 import org.apache.ignite.tcbot.common.exeption.ServicesStartingException;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
+import org.apache.ignite.tcbot.common.util.IntLongHashMap;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcignited.ITeamcityIgnited;
 import org.apache.ignite.tcignited.build.FatBuildDao;
@@ -99,6 +102,9 @@ public class HistoryCollector {
         .softValues()
         .build();
 
+    /** Server ID to server code mapping for servers with history loaded, used to patch history in memory. */
+    private final Map<Integer, String> srvIdToCode = new ConcurrentHashMap<>();
+
     /**
      * @param srvCode Server id mask to be placed at high bits in the key.
      * @param testName Test name.
@@ -118,6 +124,8 @@ public class HistoryCollector {
         int srvId = ITeamcityIgnited.serverIdToInt(srvCode);
         RunHistKey runHistKey = new RunHistKey(srvId, buildTypeId, normalizedBaseBranch);
 
+        srvIdToCode.putIfAbsent(srvId, srvCode);
+
         SuiteHistory hist;
         try {
             hist = runHistInMemCache.get(runHistKey,
@@ -166,27 +174,12 @@ public class HistoryCollector {
             + compactor.getStringFromId(buildTypeId)
             + " branch " + compactor.getStringFromId(normalizedBaseBranch) + ": " + buildIds.size() + " builds" );
 
-        Map<Integer, Long> buildStartTimes = getStartTimeFromSpecialCache(srvId, buildIds);
-
-        Set<Integer> notFoundKeys = new HashSet<>(buildIds);
-        notFoundKeys.removeAll(buildStartTimes.keySet());
-
-        if (!notFoundKeys.isEmpty()) {
-            Map<Integer, Long> buildStartTimeFromFatBuild = getStartTimeFromFatBuild(srvId, notFoundKeys);
-
-            buildStartTimes.putAll(buildStartTimeFromFatBuild);
-
-            buildStartTimeStorage.setBuildsStartTime(srvId, buildStartTimeFromFatBuild);
-        }
+        IntLongHashMap buildStartTimes = getBuildsStartTime(srvId, buildIds);
 
         long minBuildStartTs = curTs - Duration.ofDays(TcBotConst.HISTORY_MAX_DAYS).toMillis();
 
         Set<Integer> buildInScope = buildIds.stream().filter(
-            bId -> {
-                Long startTime = buildStartTimes.get(bId);
-
-                return startTime != null && startTime > minBuildStartTs;
-            }
+            bId -> buildStartTimes.get(bId, 0L) > minBuildStartTs
         ).collect(Collectors.toSet());
 
         logger.info("*** Build " + btId + " branch " + branchId + " builds in scope " +
@@ -195,15 +188,42 @@ public class HistoryCollector {
         return buildInScope;
     }
 
+    /**
+     * Batched start time lookup: start times are taken from special cache first, missing times are loaded from fat
+     * builds and saved to special cache.
+     *
+     * @param srvId Server id.
+     * @param buildIds Build Ids.
+     * @return Build ID to start timestamp mapping, builds without known start time are skipped.
+     */
+    private IntLongHashMap getBuildsStartTime(int srvId, Set<Integer> buildIds) {
+        IntLongHashMap buildStartTimes = getStartTimeFromSpecialCache(srvId, buildIds);
+
+        if (buildStartTimes.size() == buildIds.size())
+            return buildStartTimes;
+
+        Set<Integer> notFoundKeys = buildIds.stream()
+            .filter(bId -> !buildStartTimes.containsKey(bId))
+            .collect(Collectors.toSet());
+
+        IntLongHashMap buildStartTimeFromFatBuild = getStartTimeFromFatBuild(srvId, notFoundKeys);
+
+        buildStartTimes.putAll(buildStartTimeFromFatBuild);
+
+        buildStartTimeStorage.setBuildsStartTime(srvId, buildStartTimeFromFatBuild);
+
+        return buildStartTimes;
+    }
+
     @SuppressWarnings("WeakerAccess")
     @AutoProfiling
-    protected Map<Integer, Long> getStartTimeFromSpecialCache(int srvId, Set<Integer> buildIds) {
+    protected IntLongHashMap getStartTimeFromSpecialCache(int srvId, Set<Integer> buildIds) {
         return buildStartTimeStorage.getBuildsStartTime(srvId, buildIds);
     }
 
     @SuppressWarnings("WeakerAccess")
     @AutoProfiling
-    protected Map<Integer, Long> getStartTimeFromFatBuild(int srvId, Set<Integer> buildIds) {
+    protected IntLongHashMap getStartTimeFromFatBuild(int srvId, Set<Integer> buildIds) {
         return fatBuildDao.getBuildStartTime(srvId, buildIds);
     }
 
@@ -247,14 +267,97 @@ public class HistoryCollector {
         return summary;
     }
 
+    /**
+     * Patches in-memory history of suite with saved build instead of dropping it. If history for the suite and branch
+     * is not loaded, nothing is done: it will be loaded on demand.
+     *
+     * @param srvId Server id.
+     * @param build Saved build.
+     */
+    @AutoProfiling
+    public void updateHistoryInMem(int srvId, FatBuildCompacted build) {
+        Set<Integer> branches = new HashSet<>();
+        branches.add(build.branchName());
+
+        Integer normalizedBranch = compactor.getStringIdIfPresent(
+            BranchEquivalence.normalizeBranch(compactor.getStringFromId(build.branchName())));
+        if (normalizedBranch != null)
+            branches.add(normalizedBranch);
+
+        long minBuildStartTs = System.currentTimeMillis() - Duration.ofDays(TcBotConst.HISTORY_MAX_DAYS).toMillis();
+        boolean applicable = applicableForHistory(build) && build.getStartDateTs() > minBuildStartTs;
+
+        // Invocation is saved by build ID only, so it is created once for normalized branch used by history search.
+        int invBranch = normalizedBranch != null ? normalizedBranch : build.branchName();
+        SuiteInvocation sinv = null;
+
+        for (Integer branch : branches) {
+            RunHistKey key = new RunHistKey(srvId, build.buildTypeId(), branch);
+            SuiteHistory hist = runHistInMemCache.getIfPresent(key);
+
+            if (hist == null)
+                continue;
+
+            String srvCode = srvIdToCode.get(srvId);
+
+            if (!applicable || srvCode == null) {
+                if (srvCode == null || hist.contains(build.id()))
+                    runHistInMemCache.invalidate(key);
+
+                continue;
+            }
+
+            if (sinv == null) {
+                BiPredicate<Integer, Integer> paramsFilter = paramsFilter(srvCode);
+                int successStatusStrId = compactor.getStringId(TestOccurrence.STATUS_SUCCESS);
+
+                sinv = toSuiteInvocation(srvId, invBranch, build, successStatusStrId, paramsFilter);
+            }
+
+            hist.addOrReplace(sinv);
+        }
+
+        if (sinv != null)
+            histDao.putAll(srvId, Collections.singletonMap(build.id(), sinv));
+    }
+
+    /**
+     * @param srvCode Server code.
+     * @return Filter for build parameters to be saved in suite invocation.
+     */
+    @Nonnull
+    private BiPredicate<Integer, Integer> paramsFilter(String srvCode) {
+        Set<Integer> filteringParameters = getFilteringParameters(srvCode);
+
+        return (k, v) -> filteringParameters.contains(k);
+    }
+
     /**
      * @param srvId Server id.
-     * @param b Build ref to invalidate.
+     * @param normalizedBaseBranch Normalized base branch.
+     * @param build Build.
+     * @param successStatusStrId Success status string id.
+     * @param paramsFilter Parameters filter.
      */
-    public void invalidateHistoryInMem(int srvId, BuildRefCompacted b) {
-        RunHistKey inv = new RunHistKey(srvId, b.buildTypeId(), b.branchName());
+    @Nonnull
+    private SuiteInvocation toSuiteInvocation(int srvId, int normalizedBaseBranch, FatBuildCompacted build,
+        int successStatusStrId, BiPredicate<Integer, Integer> paramsFilter) {
+        SuiteInvocation sinv = new SuiteInvocation(srvId, normalizedBaseBranch, build, compactor, paramsFilter);
+
+        List<ITest> tests = build.getAllTests().collect(Collectors.toList());
+        int[] testNames = new int[tests.size()];
+        Invocation[] invocations = new Invocation[tests.size()];
+
+        for (int i = 0; i < tests.size(); i++) {
+            ITest testCompacted = tests.get(i);
+
+            testNames[i] = testCompacted.testName();
+            invocations[i] = TestCompactedV2.toInvocation(testCompacted, build, successStatusStrId);
+        }
+
+        sinv.setTests(testNames, invocations);
 
-        runHistInMemCache.invalidate(inv);
+        return sinv;
     }
 
     @Nonnull
@@ -275,8 +378,7 @@ public class HistoryCollector {
                                                                          HashSet<Integer> missedBuildsIds,
                                                                          int normalizedBaseBranch) {
 
-        Set<Integer> filteringParameters = getFilteringParameters(srvCode);
-        BiPredicate<Integer, Integer> paramsFilter = (k, v) -> filteringParameters.contains(k);
+        BiPredicate<Integer, Integer> paramsFilter = paramsFilter(srvCode);
 
         Map<Integer, SuiteInvocation> suiteRunHist = new HashMap<>();
         int successStatusStrId = compactor.getStringId(TestOccurrence.STATUS_SUCCESS);
@@ -286,21 +388,10 @@ public class HistoryCollector {
         int srvId = ITeamcityIgnited.serverIdToInt(srvCode);
         Iterables.partition(missedBuildsIds, 32 * 10).forEach(
             chunk -> {
-                fatBuildDao.getAllFatBuilds(srvId, chunk).forEach((buildCacheKey, fatBuildCompacted) -> {
-                    if (!applicableForHistory(fatBuildCompacted))
-                        return;
-
-                    SuiteInvocation sinv = new SuiteInvocation(srvId, normalizedBaseBranch, fatBuildCompacted, compactor, paramsFilter);
-
-                    Stream<ITest> tests = fatBuildCompacted.getAllTests();
-                    tests.forEach(
-                        testCompacted -> {
-                            Invocation invocation = TestCompactedV2.toInvocation(testCompacted,
-                                fatBuildCompacted, successStatusStrId);
-
-                            sinv.addTest(testCompacted.testName(), invocation);
-                        }
-                    );
+                // Not finished and cancelled builds are skipped in binary form, see applicableForHistory().
+                fatBuildDao.getFinishedFatBuilds(srvId, chunk).forEach((buildId, fatBuildCompacted) -> {
+                    SuiteInvocation sinv = toSuiteInvocation(srvId, normalizedBaseBranch, fatBuildCompacted,
+                        successStatusStrId, paramsFilter);
 
                     suiteRunHist.put(fatBuildCompacted.id(), sinv);
                 });
@@ -380,8 +471,8 @@ public class HistoryCollector {
                             return stateQueued != state;
                         }));
 
-        int cnt = 0;
-        List<Long> idsToCheck = new ArrayList<>();
+        List<Long> candidates = new ArrayList<>();
+        Map<Integer, Set<Integer>> candidateIdsBySrv = new HashMap<>();
 
         try (QueryCursor<Cache.Entry<Long, BinaryObject>> cursor = query) {
             for (Cache.Entry<Long, BinaryObject> next : cursor) {
@@ -397,16 +488,31 @@ public class HistoryCollector {
                 if (!passesDate)
                     continue;
 
-                Long startTs = getBuildStartTime(srvId, buildId);
-                if (startTs == null || startTs < minTs)
-                    continue; //time not saved in the DB, skip
+                candidates.add(key);
+                candidateIdsBySrv.computeIfAbsent(srvId, k -> new HashSet<>()).add(buildId);
+            }
+        }
+
+        Map<Integer, IntLongHashMap> startTimesBySrv = new HashMap<>();
 
-                System.err.println("Found build at srv [" + srvId + "]: [" + buildId + "] to analyze, ts=" + startTs);
+        candidateIdsBySrv.forEach((srvId, buildIds) -> startTimesBySrv.put(srvId, getBuildsStartTime(srvId, buildIds)));
 
-                cnt++;
+        int cnt = 0;
+        List<Long> idsToCheck = new ArrayList<>();
 
-                idsToCheck.add(key);
-            }
+        for (Long key : candidates) {
+            int srvId = BuildRefDao.cacheKeyToSrvId(key);
+            int buildId = BuildRefDao.cacheKeyToBuildId(key);
+
+            long startTs = startTimesBySrv.get(srvId).get(buildId, -1L);
+            if (startTs < minTs)
+                continue; //time not saved in the DB, skip
+
+            System.err.println("Found build at srv [" + srvId + "]: [" + buildId + "] to analyze, ts=" + startTs);
+
+            cnt++;
+
+            idsToCheck.add(key);
         }
 
         System.err.println("Total builds to load " + cnt);
@@ -54,6 +54,16 @@ public interface IRunHistory {
 
     public int getCriticalFailuresCount();
 
+    /**
+     * @return Build where status of run was changed last time, or null if status was never changed.
+     */
+    @Nullable public Integer getLatestStatusChangeBuildId();
+
+    /**
+     * @return First build of the latest series of failures, or null if latest run was not failed.
+     */
+    @Nullable public Integer getFirstFailureBuildId();
+
     public int getRunsCount();
     public int getFailuresCount();
 
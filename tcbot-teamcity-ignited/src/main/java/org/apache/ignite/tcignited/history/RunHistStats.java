@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
+
+/**
+ * Aggregated statistics of suite or test runs: counters used to compute fail rate and flakiness, and builds where
+ * status was changed. Statistics are accumulated run by run in build order, so they may be maintained incrementally
+ * when a newer build is added to history.
+ *
+ * Instance is mutated only before it is published to readers, to add a run to published statistics use
+ * {@link #copy()}.
+ */
+class RunHistStats {
+    /** Count of runs, muted and ignored runs are not counted. */
+    private int runs;
+
+    /** Failures count. */
+    private int failures;
+
+    /** Critical failures count. */
+    private int criticalFailures;
+
+    /** Count of status changes without code modifications, this is flakiness score. */
+    private int statusChanges;
+
+    /** Status of latest run, {@link InvocationData#MISSING} if there were no runs. */
+    private byte lastStatus = (byte)InvocationData.MISSING;
+
+    /** Changes state of latest run. */
+    private ChangesState lastChangesState = ChangesState.UNKNOWN;
+
+    /** Build where status was changed last time, -1 if status was never changed. */
+    private int lastStatusChangeBuildId = -1;
+
+    /** First build of the latest series of failures, -1 if latest run is not a failure. */
+    private int firstFailureBuildId = -1;
+
+    /**
+     * @param status Status of run.
+     * @param changesState Changes state of run.
+     * @param buildId Build ID.
+     * @return {@code this} for chaining.
+     */
+    RunHistStats add(byte status, ChangesState changesState, int buildId) {
+        if (status == InvocationData.MISSING)
+            return this;
+
+        if (!Invocation.isMutedOrIgnored(status))
+            runs++;
+
+        boolean failure = isFailure(status);
+
+        if (failure)
+            failures++;
+
+        if (status == InvocationData.CRITICAL_FAILURE)
+            criticalFailures++;
+
+        if (lastStatus != InvocationData.MISSING && lastStatus != status) {
+            if (changesState == ChangesState.NONE && lastChangesState != ChangesState.UNKNOWN)
+                statusChanges++;
+
+            lastStatusChangeBuildId = buildId;
+        }
+
+        if (!failure)
+            firstFailureBuildId = -1;
+        else if (firstFailureBuildId < 0)
+            firstFailureBuildId = buildId;
+
+        lastStatus = status;
+        lastChangesState = changesState;
+
+        return this;
+    }
+
+    /**
+     * @param statuses Statuses of runs, in build order.
+     * @param suiteInvs Suite invocations, in the same order.
+     * @param size Count of runs.
+     */
+    static RunHistStats compute(byte[] statuses, Invocation[] suiteInvs, int size) {
+        RunHistStats res = new RunHistStats();
+
+        for (int i = 0; i < size; i++)
+            res.add(statuses[i], suiteInvs[i].changesState(), suiteInvs[i].buildId());
+
+        return res;
+    }
+
+    /**
+     * @param invocations Invocations, in build order.
+     */
+    static RunHistStats compute(Iterable<Invocation> invocations) {
+        RunHistStats res = new RunHistStats();
+
+        for (Invocation inv : invocations) {
+            if (inv != null)
+                res.add(inv.status(), inv.changesState(), inv.buildId());
+        }
+
+        return res;
+    }
+
+    /**
+     * @return Copy of this statistics, which may be modified.
+     */
+    RunHistStats copy() {
+        RunHistStats res = new RunHistStats();
+
+        res.runs = runs;
+        res.failures = failures;
+        res.criticalFailures = criticalFailures;
+        res.statusChanges = statusChanges;
+        res.lastStatus = lastStatus;
+        res.lastChangesState = lastChangesState;
+        res.lastStatusChangeBuildId = lastStatusChangeBuildId;
+        res.firstFailureBuildId = firstFailureBuildId;
+
+        return res;
+    }
+
+    /**
+     * @param status Status.
+     */
+    private static boolean isFailure(byte status) {
+        return status == InvocationData.FAILURE || status == InvocationData.CRITICAL_FAILURE;
+    }
+
+    /** */
+    int runs() {
+        return runs;
+    }
+
+    /** */
+    int failures() {
+        return failures;
+    }
+
+    /** */
+    int criticalFailures() {
+        return criticalFailures;
+    }
+
+    /** */
+    int statusChanges() {
+        return statusChanges;
+    }
+
+    /** */
+    Integer lastStatusChangeBuildId() {
+        return lastStatusChangeBuildId < 0 ? null : lastStatusChangeBuildId;
+    }
+
+    /** */
+    Integer firstFailureBuildId() {
+        return firstFailureBuildId < 0 ? null : firstFailureBuildId;
+    }
+}
@@ -19,136 +19,366 @@ package org.apache.ignite.tcignited.history;
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
 
 /**
  * Suite run history (in memory) summary with tests grouped by name.
+ *
+ * Data is stored in columnar layout: one axis of builds sorted by build ID and one status vector per test, index in
+ * the vector is position of the build at the axis. Vectors have spare capacity, so an invocation of a newer build is
+ * appended in place. Data is published to readers as immutable {@link Snapshot}, so history may be patched while it is
+ * used for rendering.
+ *
+ * Per test statistics ({@link RunHistStats}) are maintained together with columns: appending of a newer build updates
+ * statistics of tests from this build only, so fail rate and flakiness are read without scanning of the history.
  */
 public class SuiteHistory implements ISuiteRunHistory {
-    /** Tests history: Test name ID->statuses for invocations */
-    private Map<Integer, byte[]> testsInvStatues = new HashMap<>();
+    /** Missing status code. */
+    private static final byte MISSING_CODE = (byte)RunStatus.RES_MISSING.getCode();
 
-    /** Suite history. */
-    private RunHistCompacted suiteHist = new RunHistCompacted();
+    /** Minimal count of spare elements in columns. */
+    private static final int MIN_SPARE_CAPACITY = 8;
 
+    /** Current state of the history. */
+    private volatile Snapshot state;
+
+    /**
+     * @param suiteRunHist Suite invocations: Build ID->invocation.
+     */
     public SuiteHistory(Map<Integer, SuiteInvocation> suiteRunHist) {
-        //filling data for tests invoked.
-        Map<Integer, RunHistCompacted> testsHist = new HashMap<>();
+        int[] buildIds = suiteRunHist.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int buildsCnt = buildIds.length;
+        int capacity = capacityFor(buildsCnt);
+
+        Snapshot s = new Snapshot(Arrays.copyOf(buildIds, capacity), new Invocation[capacity], buildsCnt,
+            new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+        for (int idx = 0; idx < buildsCnt; idx++) {
+            SuiteInvocation suiteInv = suiteRunHist.get(buildIds[idx]);
 
-        suiteRunHist.forEach((buildId, suiteInv) -> addSuiteInvocation(suiteInv, testsHist));
+            s.suiteInvs[idx] = suiteInv.suiteInvocation();
 
-        suiteHist.sort();
+            int finalIdx = idx;
+            suiteInv.forEachTest((tName, code) -> s.column(tName)[finalIdx] = SuiteTestsCodec.status(code));
+        }
+
+        s.computeStats();
+
+        state = s;
+    }
+
+    /**
+     * @param state State.
+     */
+    private SuiteHistory(Snapshot state) {
+        this.state = state;
+    }
+
+    /**
+     * Adds invocation of a suite to this history, or replaces existing invocation of the same build. Invocation of
+     * build newer than all builds in the history is appended in place and statistics of its tests are updated
+     * incrementally, otherwise columns are copied and statistics are recomputed.
+     *
+     * @param suiteInv Suite invocation (build) to be added to history (summary).
+     */
+    public synchronized void addOrReplace(SuiteInvocation suiteInv) {
+        Invocation suite = suiteInv.suiteInvocation();
+        int buildId = suite.buildId();
+        Snapshot s = state;
+
+        int idx = Arrays.binarySearch(s.buildIds, 0, s.size, buildId);
+
+        if (idx >= 0) {
+            // Invocation of the same build is replaced in a copy, so readers of current snapshot are not affected.
+            Snapshot upd = s.copy();
+
+            upd.suiteInvs[idx] = suite;
+
+            upd.tests.forEach((tName, statuses) -> statuses[idx] = MISSING_CODE);
+
+            suiteInv.forEachTest((tName, code) -> upd.column(tName)[idx] = SuiteTestsCodec.status(code));
+
+            upd.computeStats();
+
+            state = upd;
+
+            return;
+        }
 
-        Map<Integer, Integer> buildIdToIdx = suiteHist.buildIdsMapping();
-        int buildsCnt = buildIdToIdx.size();
+        int insIdx = -(idx + 1);
+        boolean append = insIdx == s.size;
 
-        byte missingCode = (byte)RunStatus.RES_MISSING.getCode();
-        testsHist.forEach((k, testHist) -> {
-            byte[] testStatusesUltraComp = new byte[buildsCnt];
+        Snapshot upd = append && s.size < s.capacity() ? s : s.copyWithGap(insIdx);
 
-            for (int i = 0; i < testStatusesUltraComp.length; i++)
-                testStatusesUltraComp[i] = missingCode;
+        upd.buildIds[insIdx] = buildId;
+        upd.suiteInvs[insIdx] = suite;
 
-            testHist.getInvocations().forEach(
-                invocation -> {
-                    int i = invocation.buildId();
-                    Integer idx = buildIdToIdx.get(i);
-                    if (idx == null)
-                        return;
+        suiteInv.forEachTest((tName, code) -> {
+            byte status = SuiteTestsCodec.status(code);
 
-                    Preconditions.checkState(idx < testStatusesUltraComp.length);
+            upd.column(tName)[insIdx] = status;
 
-                    testStatusesUltraComp[idx] = invocation.status();
-                }
-            );
+            if (append) {
+                RunHistStats prev = upd.stats.get(tName);
+                RunHistStats next = prev == null ? new RunHistStats() : prev.copy();
 
-            testsInvStatues.put(k, testStatusesUltraComp);
+                upd.stats.put(tName, next.add(status, suite.changesState(), buildId));
+            }
         });
-    }
 
-    private SuiteHistory() {}
+        Snapshot res = new Snapshot(upd.buildIds, upd.suiteInvs, s.size + 1, upd.tests, upd.stats);
+
+        if (!append)
+            res.computeStats();
+
+        state = res;
+    }
 
     /**
-     * @param suiteInv suite invocation (build) to be added to history (summary).
-     * @param testsHist tests map.
+     * @param buildId Build id.
+     * @return {@code True} if invocation of the build is present in the history.
      */
-    private void addSuiteInvocation(SuiteInvocation suiteInv, Map<Integer, RunHistCompacted> testsHist) {
-        suiteInv.tests().forEach(
-            (tName, invocation) -> {
-                testsHist.computeIfAbsent(tName, k_ -> new RunHistCompacted())
-                    .addInvocation(invocation);
-            });
+    public boolean contains(int buildId) {
+        Snapshot s = state;
+
+        return Arrays.binarySearch(s.buildIds, 0, s.size, buildId) >= 0;
+    }
 
-        suiteHist.addInvocation(suiteInv.suiteInvocation());
+    /**
+     * @return Count of builds in the history.
+     */
+    public int size() {
+        return state.size;
     }
 
     /** {@inheritDoc} */
     @Nullable @Override public IRunHistory getTestRunHist(int testName) {
-        byte[] testInvStatuses = testsInvStatues.get(testName);
+        Snapshot s = state;
+        byte[] testInvStatuses = s.tests.get(testName);
 
-        if(testInvStatuses == null)
+        if (testInvStatuses == null)
             return null;
 
-        return new TestUltraCompactRunHist(testInvStatuses, suiteHist);
+        return new TestUltraCompactRunHist(testInvStatuses, s, s.stats.get(testName));
     }
 
     /** {@inheritDoc} */
     @Override public ISuiteRunHistory filter(Map<Integer, Integer> requireParameters) {
-        RunHistCompacted suitesFiltered = suiteHist.filterSuiteInvByParms(requireParameters);
-
-        Map<Integer, Integer> buildIdToIdx = suiteHist.buildIdsMapping();
+        Snapshot s = state;
 
-        Set<Integer> indexesToKeep = suitesFiltered.buildIds().stream().map(buildIdToIdx::get).collect(Collectors.toSet());
+        int[] idxToKeep = new int[s.size];
+        int keepCnt = 0;
 
-        SuiteHistory res = new SuiteHistory();
+        for (int i = 0; i < s.size; i++) {
+            if (s.suiteInvs[i].containsParameterValue(requireParameters))
+                idxToKeep[keepCnt++] = i;
+        }
 
-        res.suiteHist = suitesFiltered;
+        int capacity = capacityFor(keepCnt);
+        Snapshot res = new Snapshot(new int[capacity], new Invocation[capacity], keepCnt, new ConcurrentHashMap<>(),
+            new ConcurrentHashMap<>());
 
-        testsInvStatues.forEach((tName, invList) -> {
-            byte[] buildsFiltered = new byte[indexesToKeep.size()];
+        for (int j = 0; j < keepCnt; j++) {
+            res.buildIds[j] = s.buildIds[idxToKeep[j]];
+            res.suiteInvs[j] = s.suiteInvs[idxToKeep[j]];
+        }
 
-            int j = 0;
-            for (int i = 0; i < invList.length; i++) {
-                if (!indexesToKeep.contains(i))
-                    continue;
+        int finalKeepCnt = keepCnt;
+        s.tests.forEach((tName, invList) -> {
+            byte[] buildsFiltered = res.column(tName);
 
-                buildsFiltered[j] = invList[i];
-                j++;
-            }
-
-            res.testsInvStatues.put(tName, buildsFiltered);
+            for (int j = 0; j < finalKeepCnt; j++)
+                buildsFiltered[j] = invList[idxToKeep[j]];
         });
 
-        return res;
+        res.computeStats();
+
+        return new SuiteHistory(res);
     }
+
+    /** {@inheritDoc} */
     @Override public IRunHistory self() {
-        return suiteHist;
+        return new SuiteRunHist(state);
     }
 
+    /**
+     * @param size Size.
+     * @return Capacity of columns for provided count of builds.
+     */
+    private static int capacityFor(int size) {
+        return size + Math.max(MIN_SPARE_CAPACITY, size / 8);
+    }
+
+    /**
+     * Immutable (up to {@link #size}) state of history. Elements after size may be filled by writer before new
+     * snapshot is published.
+     */
+    private static class Snapshot {
+        /** Build IDs, sorted. */
+        private final int[] buildIds;
+
+        /** Suite invocations, same order as for build IDs. */
+        private final Invocation[] suiteInvs;
+
+        /** Count of builds in this snapshot. */
+        private final int size;
+
+        /** Tests history: Test name ID->statuses for invocations, each array has {@link #capacity()} length. */
+        private final Map<Integer, byte[]> tests;
+
+        /**
+         * Tests statistics: Test name ID->statistics for all invocations. Shared with snapshots having same columns,
+         * so reader of previous snapshot may observe statistics including newer build.
+         */
+        private final Map<Integer, RunHistStats> stats;
+
+        /**
+         * @param buildIds Build ids.
+         * @param suiteInvs Suite invocations.
+         * @param size Size.
+         * @param tests Tests.
+         * @param stats Tests statistics.
+         */
+        Snapshot(int[] buildIds, Invocation[] suiteInvs, int size, Map<Integer, byte[]> tests,
+            Map<Integer, RunHistStats> stats) {
+            this.buildIds = buildIds;
+            this.suiteInvs = suiteInvs;
+            this.size = size;
+            this.tests = tests;
+            this.stats = stats;
+        }
+
+        /**
+         * Computes statistics of all tests by full scan of columns.
+         */
+        void computeStats() {
+            tests.forEach((tName, statuses) -> stats.put(tName, RunHistStats.compute(statuses, suiteInvs, size)));
+        }
+
+        /**
+         * @return Capacity of columns.
+         */
+        int capacity() {
+            return buildIds.length;
+        }
+
+        /**
+         * @param tName Test name.
+         * @return Statuses column for test, created and filled as missing if needed.
+         */
+        byte[] column(int tName) {
+            return tests.computeIfAbsent(tName, k -> {
+                byte[] statuses = new byte[capacity()];
+
+                Arrays.fill(statuses, MISSING_CODE);
+
+                return statuses;
+            });
+        }
+
+        /**
+         * @return Copy of this snapshot with the same capacity, statistics are not copied.
+         */
+        Snapshot copy() {
+            Map<Integer, byte[]> newTests = new ConcurrentHashMap<>();
+
+            tests.forEach((tName, statuses) -> newTests.put(tName, statuses.clone()));
+
+            return new Snapshot(buildIds.clone(), suiteInvs.clone(), size, newTests, new ConcurrentHashMap<>());
+        }
+
+        /**
+         * @param gapIdx Position of element to be inserted.
+         * @return Copy of this snapshot with free element at provided position, size is not changed.
+         */
+        Snapshot copyWithGap(int gapIdx) {
+            int capacity = capacityFor(size + 1);
+            int tail = size - gapIdx;
+
+            int[] newBuildIds = new int[capacity];
+            System.arraycopy(buildIds, 0, newBuildIds, 0, gapIdx);
+            System.arraycopy(buildIds, gapIdx, newBuildIds, gapIdx + 1, tail);
+
+            Invocation[] newSuiteInvs = new Invocation[capacity];
+            System.arraycopy(suiteInvs, 0, newSuiteInvs, 0, gapIdx);
+            System.arraycopy(suiteInvs, gapIdx, newSuiteInvs, gapIdx + 1, tail);
+
+            Map<Integer, byte[]> newTests = new ConcurrentHashMap<>();
+
+            tests.forEach((tName, statuses) -> {
+                byte[] newStatuses = new byte[capacity];
+
+                System.arraycopy(statuses, 0, newStatuses, 0, gapIdx);
+                newStatuses[gapIdx] = MISSING_CODE;
+                System.arraycopy(statuses, gapIdx, newStatuses, gapIdx + 1, tail);
+                Arrays.fill(newStatuses, size + 1, capacity, MISSING_CODE);
+
+                newTests.put(tName, newStatuses);
+            });
+
+            // Statistics are valid if element is appended, otherwise these are recomputed by caller.
+            return new Snapshot(newBuildIds, newSuiteInvs, size, newTests, new ConcurrentHashMap<>(stats));
+        }
+    }
+
+    /**
+     * Suite invocations history based on snapshot.
+     */
+    private static class SuiteRunHist extends AbstractRunHist {
+        /** Snapshot. */
+        @Nonnull private final Snapshot snapshot;
+
+        /**
+         * @param snapshot Snapshot.
+         */
+        SuiteRunHist(@Nonnull Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /** {@inheritDoc} */
+        @Nullable @Override public List<Integer> getLatestRunResults() {
+            List<Integer> res = new ArrayList<>(snapshot.size);
+            for (int i = 0; i < snapshot.size; i++)
+                res.add((int)snapshot.suiteInvs[i].status());
+
+            return res;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Iterable<Invocation> invocations() {
+            return () -> Arrays.asList(snapshot.suiteInvs).subList(0, snapshot.size).iterator();
+        }
+    }
+
+    /**
+     * Test invocations history based on snapshot, counters are taken from statistics maintained by history.
+     */
     private static class TestUltraCompactRunHist extends AbstractRunHist {
         @Nonnull private final byte[] testInvStatuses;
-        @Nonnull private final RunHistCompacted suiteHist;
+        @Nonnull private final Snapshot suiteHist;
+        @Nonnull private final RunHistStats stats;
 
-        public TestUltraCompactRunHist(@Nonnull byte[] testInvStatuses, @Nonnull RunHistCompacted suiteHist) {
+        public TestUltraCompactRunHist(@Nonnull byte[] testInvStatuses, @Nonnull Snapshot suiteHist,
+            @Nullable RunHistStats stats) {
             this.testInvStatuses = testInvStatuses;
             this.suiteHist = suiteHist;
+            this.stats = stats != null ? stats : RunHistStats.compute(testInvStatuses, suiteHist.suiteInvs, suiteHist.size);
 
-            Preconditions.checkState(testInvStatuses.length == suiteHist.getInvocations().count());
+            Preconditions.checkState(testInvStatuses.length >= suiteHist.size);
         }
 
         /** {@inheritDoc} */
         @Nullable @Override public List<Integer> getLatestRunResults() {
-            List<Integer> res = new ArrayList<>();
-            for (int i = 0; i < testInvStatuses.length; i++)
+            List<Integer> res = new ArrayList<>(suiteHist.size);
+            for (int i = 0; i < suiteHist.size; i++)
                 res.add((int)testInvStatuses[i]);
 
             return res;
@@ -156,37 +386,27 @@ public class SuiteHistory implements ISuiteRunHistory {
 
         /** {@inheritDoc} */
         @Override public int getCriticalFailuresCount() {
-            int res = 0;
-            for (int i = 0; i < testInvStatuses.length; i++) {
-                if (testInvStatuses[i] == InvocationData.CRITICAL_FAILURE)
-                    res++;
-            }
-
-            return res;
+            return stats.criticalFailures();
         }
 
         /** {@inheritDoc} */
         @Override public int getRunsCount() {
-            int res = 0;
-            for (int i = 0; i < testInvStatuses.length; i++) {
-                byte status = testInvStatuses[i];
-                if (status != InvocationData.MISSING && !Invocation.isMutedOrIgnored(status))
-                    res++;
-            }
-
-            return res;
+            return stats.runs();
         }
 
         /** {@inheritDoc} */
         @Override public int getFailuresCount() {
-            int res = 0;
-            for (int i = 0; i < testInvStatuses.length; i++) {
-                byte status = testInvStatuses[i];
-                if (status == InvocationData.FAILURE || status == InvocationData.CRITICAL_FAILURE)
-                    res++;
-            }
+            return stats.failures();
+        }
 
-            return res;
+        /** {@inheritDoc} */
+        @Override protected long getInvocationsCount() {
+            return suiteHist.size;
+        }
+
+        /** {@inheritDoc} */
+        @Override RunHistStats stats() {
+            return stats;
         }
 
         /** {@inheritDoc} */
@@ -200,17 +420,17 @@ public class SuiteHistory implements ISuiteRunHistory {
         /** Cur index: index of element to be returned in case next is called now. */
         private int curIdx = 0;
         @Nonnull private final byte[] testInvStatuses;
-        @Nonnull private final RunHistCompacted suiteHist;
+        @Nonnull private final Snapshot suiteHist;
 
         public TestUltraCompactRunHistIterator(@Nonnull byte[] testInvStatuses,
-            @Nonnull RunHistCompacted suiteHist) {
+            @Nonnull Snapshot suiteHist) {
             this.testInvStatuses = testInvStatuses;
             this.suiteHist = suiteHist;
         }
 
         /** {@inheritDoc} */
         @Override public boolean hasNext() {
-            return curIdx < testInvStatuses.length;
+            return curIdx < suiteHist.size;
         }
 
         /** {@inheritDoc} */
@@ -218,7 +438,7 @@ public class SuiteHistory implements ISuiteRunHistory {
             if (!hasNext())
                 throw new NoSuchElementException();
 
-            Invocation suiteInv = suiteHist.getInvocationAt(curIdx);
+            Invocation suiteInv = suiteHist.suiteInvs[curIdx];
 
             Invocation invocation = new Invocation(suiteInv.buildId())
                 .withChangeState(suiteInv.changesState())
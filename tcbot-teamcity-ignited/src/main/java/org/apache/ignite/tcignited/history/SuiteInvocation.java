@@ -16,10 +16,9 @@
  */
 package org.apache.ignite.tcignited.history;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiPredicate;
+import javax.annotation.Nullable;
 import org.apache.ignite.cache.affinity.AffinityKeyMapped;
 import org.apache.ignite.cache.query.annotations.QuerySqlField;
 import org.apache.ignite.ci.teamcity.ignited.fatbuild.FatBuildCompacted;
@@ -27,15 +26,27 @@ import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcbot.persistence.IVersionedEntity;
 import org.apache.ignite.tcbot.persistence.Persisted;
+import org.apache.ignite.tcignited.history.SuiteTestsCodec.TestCodeConsumer;
 
 /**
  * Shorter verison of FatBuild with less data: created only if run history was required,
  * has time limitation of MAX_DAYS, may have TTL.
+ *
+ * Since version 3 tests are stored in columnar format, see {@link SuiteTestsCodec}.
  */
 @Persisted
 public class SuiteInvocation implements IVersionedEntity {
     /** Latest version. */
-    private static final int LATEST_VERSION = 2;
+    private static final int LATEST_VERSION = 3;
+
+    /** Version having tests stored as map. */
+    static final int TESTS_MAP_VERSION = 2;
+
+    /** Field name of packed tests, used for reading entry in binary form. */
+    static final String TESTS_PACKED = "testsPacked";
+
+    /** Field name of suite invocation, used for reading entry in binary form. */
+    static final String SUITE = "suite";
 
     /** Entity fields version. */
     @SuppressWarnings("FieldCanBeLocal")
@@ -56,7 +67,12 @@ public class SuiteInvocation implements IVersionedEntity {
 
     private Invocation suite;
 
-    private Map<Integer, Invocation> tests = new HashMap<>();
+    /** Tests in format of version 2, kept to read and migrate older entries. */
+    @Deprecated
+    @Nullable private Map<Integer, Invocation> tests;
+
+    /** Tests: test name IDs and statuses, see {@link SuiteTestsCodec}. */
+    private byte[] testsPacked = SuiteTestsCodec.EMPTY;
 
     private Long buildStartTime;
 
@@ -71,6 +87,32 @@ public class SuiteInvocation implements IVersionedEntity {
         this.buildTypeId = buildCompacted.buildTypeId();
     }
 
+    /**
+     * @param srvId Server id.
+     * @param buildTypeId Build type id.
+     * @param normalizedBaseBranch Normalized base branch.
+     * @param suite Suite invocation.
+     * @param buildStartTime Build start time.
+     */
+    public SuiteInvocation(int srvId, int buildTypeId, int normalizedBaseBranch, Invocation suite,
+        Long buildStartTime) {
+        this.srvId = srvId;
+        this.buildTypeId = buildTypeId;
+        this.normalizedBranchName = normalizedBaseBranch;
+        this.suite = suite;
+        this.buildStartTime = buildStartTime;
+    }
+
+    /**
+     * Creates invocation from fields read from binary object.
+     *
+     * @param suite Suite invocation.
+     * @param testsPacked Packed tests.
+     */
+    SuiteInvocation(Invocation suite, byte[] testsPacked) {
+        this.suite = suite;
+        this.testsPacked = testsPacked;
+    }
 
     /** {@inheritDoc} */
     @Override public int version() {
@@ -82,12 +124,66 @@ public class SuiteInvocation implements IVersionedEntity {
         return LATEST_VERSION;
     }
 
-    public void addTest(int testName, Invocation invocation) {
-        tests.put(testName, invocation);
+    /**
+     * Replaces tests of this invocation. If test name is present several times, last invocation is saved.
+     *
+     * @param testNames Test name IDs.
+     * @param invocations Test invocations, same order as for names.
+     */
+    public void setTests(int[] testNames, Invocation[] invocations) {
+        byte[] codes = new byte[invocations.length];
+
+        for (int i = 0; i < invocations.length; i++)
+            codes[i] = SuiteTestsCodec.code(invocations[i].status(), invocations[i].changePresent());
+
+        testsPacked = SuiteTestsCodec.encode(testNames, codes, testNames.length);
+    }
+
+    /**
+     * @param consumer Consumer of test name ID and status code, see {@link SuiteTestsCodec#status(byte)}.
+     */
+    public void forEachTest(TestCodeConsumer consumer) {
+        SuiteTestsCodec.forEach(testsPacked, consumer);
+    }
+
+    /**
+     * @return Count of tests.
+     */
+    public int testsCount() {
+        return SuiteTestsCodec.count(testsPacked);
     }
 
-    public Map<Integer, Invocation> tests() {
-        return Collections.unmodifiableMap(tests);
+    /**
+     * Converts tests saved in format of version 2 to columnar format.
+     *
+     * @return {@code True} if entry was changed and should be saved.
+     */
+    @SuppressWarnings("deprecation")
+    public boolean migrateToColumnar() {
+        if (_ver != TESTS_MAP_VERSION)
+            return false;
+
+        Map<Integer, Invocation> tests = this.tests;
+
+        if (tests != null) {
+            int[] names = new int[tests.size()];
+            Invocation[] invocations = new Invocation[tests.size()];
+            int idx = 0;
+
+            for (Map.Entry<Integer, Invocation> e : tests.entrySet()) {
+                names[idx] = e.getKey();
+                invocations[idx++] = e.getValue();
+            }
+
+            setTests(names, invocations);
+        }
+        else
+            testsPacked = SuiteTestsCodec.EMPTY;
+
+        this.tests = null;
+        _ver = LATEST_VERSION;
+
+        return true;
     }
 
     public Invocation suiteInvocation() {
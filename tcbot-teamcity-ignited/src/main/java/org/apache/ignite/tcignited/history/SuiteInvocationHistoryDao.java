@@ -26,9 +26,11 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.cache.QueryEntity;
 import org.apache.ignite.cache.query.QueryCursor;
 import org.apache.ignite.cache.query.SqlQuery;
+import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.tcbot.common.interceptor.AutoProfiling;
 import org.apache.ignite.tcbot.persistence.CacheConfigs;
@@ -40,6 +42,12 @@ import static java.util.concurrent.TimeUnit.HOURS;
  * Suite invocation history access object.
  */
 public class SuiteInvocationHistoryDao {
+    /** Suite history cache name. */
+    public static final String SUITE_HIST_CACHE_NAME = "teamcitySuiteHistory";
+
+    /** Version field name. */
+    private static final String VER_FIELD = "_ver";
+
     /** Ignite provider. */
     @Inject
     private Provider<Ignite> igniteProvider;
@@ -48,7 +56,7 @@ public class SuiteInvocationHistoryDao {
     private IgniteCache<Long, SuiteInvocation> suiteHist;
 
     public void init() {
-        CacheConfiguration<Long , SuiteInvocation> ccfg = CacheConfigs.getCacheV2Config("teamcitySuiteHistory");
+        CacheConfiguration<Long , SuiteInvocation> ccfg = CacheConfigs.getCacheV2Config(SUITE_HIST_CACHE_NAME);
         ccfg.setExpiryPolicyFactory(AccessedExpiryPolicy.factoryOf(new Duration(HOURS, 12)));
         ccfg.setEagerTtl(true);
 
@@ -59,30 +67,102 @@ public class SuiteInvocationHistoryDao {
         suiteHist = ignite.getOrCreateCache(ccfg);
     }
 
+    /**
+     * Reads suite invocations in binary form: only suite invocation and packed tests are deserialized. Entries saved in
+     * older format are migrated and saved back.
+     *
+     * @param srvId Server id.
+     * @param buildTypeId Build type id.
+     * @param normalizedBranchName Normalized branch name.
+     * @return Suite invocations: Build ID->invocation.
+     */
     @AutoProfiling
     public Map<Integer, SuiteInvocation> getSuiteRunHist(int srvId, int buildTypeId, int normalizedBranchName) {
         Map<Integer, SuiteInvocation> map = new HashMap<>();
+        Map<Long, SuiteInvocation> migrated = new HashMap<>();
+
+        IgniteCache<Long, BinaryObject> cache = suiteHist.withKeepBinary();
 
-        try (QueryCursor<Cache.Entry<Long, SuiteInvocation>> qryCursor = suiteHist.query(
-            new SqlQuery<Long, SuiteInvocation>(SuiteInvocation.class, "srvId = ? and buildTypeId = ? and normalizedBranchName = ?")
+        try (QueryCursor<Cache.Entry<Long, BinaryObject>> qryCursor = cache.query(
+            new SqlQuery<Long, BinaryObject>(SuiteInvocation.class, "srvId = ? and buildTypeId = ? and normalizedBranchName = ?")
                 .setArgs(srvId, buildTypeId, normalizedBranchName))) {
 
-            for (Cache.Entry<Long, SuiteInvocation> next : qryCursor) {
+            for (Cache.Entry<Long, BinaryObject> next : qryCursor) {
                 Long key = next.getKey();
                 int buildId = BuildRefDao.cacheKeyToBuildId(key);
 
-                SuiteInvocation invocation = next.getValue();
+                BinaryObject binary = next.getValue();
+                Short ver = binary.field(VER_FIELD);
 
-                if(invocation.isOutdatedEntityVersion())
+                if (ver == null || ver < SuiteInvocation.TESTS_MAP_VERSION)
                     continue;
 
+                SuiteInvocation invocation;
+
+                if (ver == SuiteInvocation.TESTS_MAP_VERSION) {
+                    invocation = binary.deserialize();
+
+                    if (invocation.migrateToColumnar())
+                        migrated.put(key, invocation);
+                }
+                else {
+                    BinaryObject suite = binary.field(SuiteInvocation.SUITE);
+                    byte[] testsPacked = binary.field(SuiteInvocation.TESTS_PACKED);
+
+                    invocation = new SuiteInvocation(suite.<Invocation>deserialize(), testsPacked);
+                }
+
                 map.put(buildId, invocation);
             }
         }
 
+        if (!migrated.isEmpty())
+            suiteHist.putAll(migrated);
+
         return map;
     }
 
+    /**
+     * Converts all entries saved with tests map to columnar format.
+     *
+     * @param ignite Ignite.
+     * @param batchSize Count of entries saved at once.
+     * @return Count of migrated entries.
+     */
+    public static int migrateToColumnar(Ignite ignite, int batchSize) {
+        IgniteCache<Long, SuiteInvocation> cache = ignite.cache(SUITE_HIST_CACHE_NAME);
+
+        if (cache == null)
+            return 0;
+
+        int cnt = 0;
+        Map<Long, SuiteInvocation> batch = new HashMap<>();
+
+        for (Cache.Entry<Long, SuiteInvocation> next : cache) {
+            SuiteInvocation invocation = next.getValue();
+
+            if (!invocation.migrateToColumnar())
+                continue;
+
+            batch.put(next.getKey(), invocation);
+
+            if (batch.size() >= batchSize) {
+                cache.putAll(batch);
+
+                cnt += batch.size();
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            cache.putAll(batch);
+
+            cnt += batch.size();
+        }
+
+        return cnt;
+    }
+
     @AutoProfiling
     public void putAll(int srvId, Map<Integer, SuiteInvocation> addl) {
         Map<Long, SuiteInvocation> data = new HashMap<>();
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
+
+/**
+ * Columnar format of test invocations of one suite invocation:
+ * <ul>
+ * <li>count of tests, varint;</li>
+ * <li>column of codes, one byte per test: status in low 5 bits and changes state in next 2 bits;</li>
+ * <li>column of test name IDs sorted, first ID is zigzag varint, others are varint deltas.</li>
+ * </ul>
+ * Codes column is placed before names, so both columns are read in one pass.
+ */
+public class SuiteTestsCodec {
+    /** Empty packed tests. */
+    static final byte[] EMPTY = {0};
+
+    /** Bits for status in code. */
+    private static final int STATUS_BITS = 5;
+
+    /** Status mask. */
+    private static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+
+    /**
+     * Consumer of decoded test.
+     */
+    @FunctionalInterface
+    public interface TestCodeConsumer {
+        /**
+         * @param testName Test name ID.
+         * @param code Code, use {@link #status(byte)} and {@link #changePresent(byte)} to decode.
+         */
+        void accept(int testName, byte code);
+    }
+
+    /**
+     * @param status Status.
+     * @param changePresent Change present, see {@link Invocation#CHANGE_PRESENT}.
+     */
+    static byte code(byte status, byte changePresent) {
+        Preconditions.checkState(status >= 0 && status <= STATUS_MASK, "Status not supported: " + status);
+
+        return (byte)(status | changePresent << STATUS_BITS);
+    }
+
+    /**
+     * @param code Code.
+     * @return Status.
+     */
+    public static byte status(byte code) {
+        return (byte)(code & STATUS_MASK);
+    }
+
+    /**
+     * @param code Code.
+     * @return Change present, see {@link Invocation#CHANGE_PRESENT}.
+     */
+    public static byte changePresent(byte code) {
+        return (byte)((code & 0xFF) >>> STATUS_BITS);
+    }
+
+    /**
+     * Packs tests, if test name is present several times, last code is kept.
+     *
+     * @param testNames Test name IDs.
+     * @param codes Codes.
+     * @param cnt Count of tests.
+     */
+    static byte[] encode(int[] testNames, byte[] codes, int cnt) {
+        // Name in high bits, position in low bits: stable sort by name.
+        long[] order = new long[cnt];
+
+        for (int i = 0; i < cnt; i++)
+            order[i] = (long)testNames[i] << 32 | i;
+
+        Arrays.sort(order);
+
+        int uniqueCnt = 0;
+
+        for (int i = 0; i < cnt; i++) {
+            if (i == cnt - 1 || (int)(order[i] >> 32) != (int)(order[i + 1] >> 32))
+                order[uniqueCnt++] = order[i];
+        }
+
+        byte[] buf = new byte[5 + uniqueCnt + 5 * uniqueCnt];
+        int pos = writeVarInt(buf, 0, uniqueCnt);
+
+        for (int i = 0; i < uniqueCnt; i++)
+            buf[pos++] = codes[(int)order[i]];
+
+        int prev = 0;
+
+        for (int i = 0; i < uniqueCnt; i++) {
+            int name = (int)(order[i] >> 32);
+
+            pos = writeVarInt(buf, pos, i == 0 ? zigzag(name) : name - prev);
+
+            prev = name;
+        }
+
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /**
+     * @param packed Packed tests.
+     * @return Count of tests.
+     */
+    public static int count(byte[] packed) {
+        return readVarInt(packed, 0, null);
+    }
+
+    /**
+     * @param packed Packed tests.
+     * @param consumer Consumer of tests, tests are provided in test name order.
+     */
+    public static void forEach(byte[] packed, TestCodeConsumer consumer) {
+        int[] pos = new int[1];
+        int cnt = readVarInt(packed, 0, pos);
+        int codesStart = pos[0];
+
+        pos[0] = codesStart + cnt;
+
+        int name = 0;
+
+        for (int i = 0; i < cnt; i++) {
+            int val = readVarInt(packed, pos[0], pos);
+
+            name = i == 0 ? unzigzag(val) : name + val;
+
+            consumer.accept(name, packed[codesStart + i]);
+        }
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param pos Position.
+     * @param val Value, treated as unsigned.
+     * @return Position after value.
+     */
+    private static int writeVarInt(byte[] buf, int pos, int val) {
+        while ((val & ~0x7F) != 0) {
+            buf[pos++] = (byte)((val & 0x7F) | 0x80);
+
+            val >>>= 7;
+        }
+
+        buf[pos++] = (byte)val;
+
+        return pos;
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param pos Position.
+     * @param next Holder for position after value, may be null.
+     * @return Value.
+     */
+    private static int readVarInt(byte[] buf, int pos, int[] next) {
+        int res = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte b = buf[pos++];
+
+            res |= (b & 0x7F) << shift;
+
+            if (b >= 0)
+                break;
+        }
+
+        if (next != null)
+            next[0] = pos;
+
+        return res;
+    }
+
+    /**
+     * @param val Value.
+     */
+    private static int zigzag(int val) {
+        return (val << 1) ^ (val >> 31);
+    }
+
+    /**
+     * @param val Value.
+     */
+    private static int unzigzag(int val) {
+        return (val >>> 1) ^ -(val & 1);
+    }
+}
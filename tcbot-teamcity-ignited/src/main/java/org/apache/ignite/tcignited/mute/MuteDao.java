@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.cache.Cache;
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -36,7 +37,8 @@ import org.apache.ignite.internal.util.typedef.F;
 import org.apache.ignite.internal.util.typedef.internal.U;
 
 /**
- *
+ * Mutes storage. Mutes are persisted in Ignite cache and indexed in memory by server and mute ID, index is loaded from
+ * the cache once for each server and is updated on save and remove.
  */
 public class MuteDao {
     /** Cache name. */
@@ -51,6 +53,12 @@ public class MuteDao {
     /** Compactor. */
     @Inject private IStringCompactor compactor;
 
+    /** Index of mutes. */
+    private final MuteIndex idx = new MuteIndex();
+
+    /** Servers having index loaded from persistence. */
+    private final Set<Integer> idxLoadedSrvs = ConcurrentHashMap.newKeySet();
+
     /**
      *
      */
@@ -64,17 +72,53 @@ public class MuteDao {
      */
     @AutoProfiling
     public SortedSet<MuteInfo> getMutes(int srvIdMaskHigh) {
-        Preconditions.checkNotNull(muteCache, "init() was not called");
-        long srvId = (long) srvIdMaskHigh << 32;
+        ensureIndexLoaded(srvIdMaskHigh);
 
         TreeSet<MuteInfo> res = new TreeSet<>();
 
+        for (MuteInfoCompacted mute : idx.mutes(srvIdMaskHigh))
+            res.add(mute.toMuteInfo(compactor));
+
+        return res;
+    }
+
+    /**
+     * Loads index for server from persistence if it was not done yet.
+     *
+     * @param srvIdMaskHigh Server id mask high.
+     */
+    private void ensureIndexLoaded(int srvIdMaskHigh) {
+        if (idxLoadedSrvs.contains(srvIdMaskHigh))
+            return;
+
+        synchronized (idxLoadedSrvs) {
+            if (idxLoadedSrvs.contains(srvIdMaskHigh))
+                return;
+
+            loadIndex(srvIdMaskHigh);
+
+            idxLoadedSrvs.add(srvIdMaskHigh);
+        }
+    }
+
+    /**
+     * @param srvIdMaskHigh Server id mask high.
+     */
+    private void loadIndex(int srvIdMaskHigh) {
+        Preconditions.checkNotNull(muteCache, "init() was not called");
+
         for (Cache.Entry<Long, MuteInfoCompacted> entry : muteCache) {
-            if ((entry.getKey() & srvId) == srvId)
-                res.add(entry.getValue().toMuteInfo(compactor));
+            if (cacheKeyToSrvId(entry.getKey()) == srvIdMaskHigh)
+                idx.put(srvIdMaskHigh, entry.getValue());
         }
+    }
 
-        return res;
+    /**
+     * @param key Cache key.
+     * @return Server ID.
+     */
+    private static int cacheKeyToSrvId(long key) {
+        return (int)(key >> 32);
     }
 
     /**
@@ -101,6 +145,8 @@ public class MuteDao {
         if (F.isEmpty(chunk))
             return;
 
+        ensureIndexLoaded(srvIdMaskHigh);
+
         HashMap<Long, MuteInfoCompacted> compactedMutes = new HashMap<>(U.capacity(chunk.size()));
 
         for (MuteInfo mute : chunk) {
@@ -111,13 +157,22 @@ public class MuteDao {
         }
 
         muteCache.putAll(compactedMutes);
+
+        compactedMutes.values().forEach(mute -> idx.put(srvIdMaskHigh, mute));
     }
 
     /**
      * @param srvIdMaskHigh Server id mask high.
      * @param muteId Mute id.
+     * @return {@code True} if mute was removed.
      */
     public boolean remove(int srvIdMaskHigh, int muteId) {
+        ensureIndexLoaded(srvIdMaskHigh);
+
+        // Index contains all persisted mutes, so absent IDs (gaps between synced mutes) don't touch the cache.
+        if (!idx.remove(srvIdMaskHigh, muteId))
+            return false;
+
         return muteCache.remove(muteIdToCacheKey(srvIdMaskHigh, muteId));
     }
 
@@ -126,17 +181,13 @@ public class MuteDao {
      * @param startId Start id.
      */
     public int removeAllAfter(int srvIdMaskHigh, int startId) {
-        int rmv = 0;
-        long srvId = (long) srvIdMaskHigh << 32;
+        ensureIndexLoaded(srvIdMaskHigh);
 
-        for (Cache.Entry<Long, MuteInfoCompacted> entry : muteCache) {
-            if ((srvId & entry.getKey()) != srvId)
-                continue;
+        int rmv = 0;
 
-            if (entry.getValue().id() > startId) {
-                if (muteCache.remove(entry.getKey()))
-                    rmv++;
-            }
+        for (Integer muteId : idx.idsAfter(srvIdMaskHigh, startId)) {
+            if (remove(srvIdMaskHigh, muteId))
+                rmv++;
         }
 
         return rmv;
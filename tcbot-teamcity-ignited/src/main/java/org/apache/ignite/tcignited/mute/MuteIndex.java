@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.mute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.apache.ignite.ci.teamcity.ignited.mute.MuteInfoCompacted;
+
+/**
+ * In-memory index of mutes: mutes of each server sorted by mute ID. Serves reads of server mutes and removal of mutes
+ * after provided ID without scan of Ignite cache.
+ */
+class MuteIndex {
+    /** Server ID -> Mute ID -> Mute. */
+    private final ConcurrentMap<Integer, ConcurrentNavigableMap<Integer, MuteInfoCompacted>> mutes
+        = new ConcurrentHashMap<>();
+
+    /**
+     * Adds mute to index or replaces previous version of mute with the same ID.
+     *
+     * @param srvId Server ID.
+     * @param mute Mute.
+     */
+    void put(int srvId, MuteInfoCompacted mute) {
+        srvMutes(srvId).put(mute.id(), mute);
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param muteId Mute ID.
+     * @return {@code True} if mute was present in index.
+     */
+    boolean remove(int srvId, int muteId) {
+        return srvMutes(srvId).remove(muteId) != null;
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @return Mutes of server sorted by ID.
+     */
+    Collection<MuteInfoCompacted> mutes(int srvId) {
+        ConcurrentNavigableMap<Integer, MuteInfoCompacted> srvMutes = mutes.get(srvId);
+
+        return srvMutes == null ? Collections.emptyList() : srvMutes.values();
+    }
+
+    /**
+     * @param srvId Server ID.
+     * @param startId Start ID, exclusive.
+     * @return IDs of server mutes greater than provided ID.
+     */
+    List<Integer> idsAfter(int srvId, int startId) {
+        ConcurrentNavigableMap<Integer, MuteInfoCompacted> srvMutes = mutes.get(srvId);
+
+        if (srvMutes == null)
+            return Collections.emptyList();
+
+        return new ArrayList<>(srvMutes.tailMap(startId, false).keySet());
+    }
+
+    /**
+     * @param srvId Server ID.
+     */
+    private ConcurrentNavigableMap<Integer, MuteInfoCompacted> srvMutes(int srvId) {
+        return mutes.computeIfAbsent(srvId, k -> new ConcurrentSkipListMap<>());
+    }
+}
@@ -18,10 +18,12 @@ package org.apache.ignite.ci.teamcity.ignited.fatbuild;
 
 import java.util.ArrayList;
 import java.util.stream.Collectors;
+import org.apache.ignite.ci.tcbot.common.StringFieldCompacted;
 import org.apache.ignite.tcbot.persistence.IStringCompactor;
 import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
 import org.apache.ignite.tcignited.build.TestCompactedV2;
 import org.apache.ignite.tcignited.buildlog.ILogProductSpecific;
+import org.apache.ignite.tcignited.buildlog.LogIgniteSpecific;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestRef;
 import org.junit.Test;
@@ -101,4 +103,29 @@ public class TestCompactedV2Test {
 
         assertFalse(buildCompacted.migrateTests(logSpec));
     }
+
+    @Test
+    public void testDetailsCompression() {
+        String details = "junit.framework.AssertionFailedError: https://issues.apache.org/jira/browse/IGNITE-10555\n" +
+            "\tat junit.framework.Assert.fail(Assert.java:57)\n" +
+            "\tat junit.framework.TestCase.fail(TestCase.java:227)\n" +
+            "\tat org.apache.ignite.testframework.junits.GridAbstractTest.runTestInternal(GridAbstractTest.java:2156)\n" +
+            "\tat java.lang.Thread.run(Thread.java:748)\n";
+
+        TestCompactedV2 t = new TestCompactedV2();
+        t.setDetails(details, new LogIgniteSpecific());
+
+        assertEquals("junit.framework.AssertionFailedError: https://issues.apache.org/jira/browse/IGNITE-10555\n",
+            t.getDetailsText());
+
+        StringFieldCompacted field = new StringFieldCompacted(details);
+
+        assertEquals(details, field.getValue());
+        assertEquals("junit.framework.AssertionFailedError: https://issues.apache.org/jira/browse/IGNITE-10555\n" +
+            "\tat junit.framework.Assert.fail(Assert.java:57)", field.firstLines(2));
+        assertEquals(details, field.firstLines(100));
+
+        assertEquals("short", new StringFieldCompacted("short").getValue());
+        assertEquals("", new StringFieldCompacted("").firstLines(1));
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.buildlog;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks chunked log processing gives the same lines and flags as line by line processing.
+ */
+public class BuildLogStreamCheckerTest {
+    /** Fragments of lines. */
+    private static final String[] FRAGMENTS = {
+        "[12:00:00] ", ">>> Starting test: ", "testFoo", " <<<", ">>> Stopping test: ", "java.lang.AssertionError:",
+        " Java-level deadlock:", "Critical failure. Will be handled accordingly to configured handler",
+        "Full thread dump ", ">>", " <<", "Java-level", "Жук", " ", "x"
+    };
+
+    /** Line terminators. */
+    private static final String[] TERMINATORS = {"\n", "\r", "\r\n", "\n\n", "\r\r\n"};
+
+    /**
+     * Flags computed by the automaton should be the same as for string checks.
+     */
+    @Test
+    public void testLineFlagsMatchStringChecks() {
+        LogIgniteSpecific specific = new LogIgniteSpecific();
+        ILogProductSpecific byStrings = new ILogProductSpecific() {
+            @Override public boolean isTestStarting(String line) {
+                return specific.isTestStarting(line);
+            }
+
+            @Override public boolean isTestStopping(String line) {
+                return specific.isTestStopping(line);
+            }
+
+            @Override public boolean needWarn(String line) {
+                return specific.needWarn(line);
+            }
+        };
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            String line = randomLine(random);
+
+            assertEquals(line, byStrings.lineFlags(line), specific.lineFlags(line));
+        }
+    }
+
+    /**
+     * Lines should be split the same way as by {@link BufferedReader}, including lines crossing chunk boundaries.
+     */
+    @Test
+    public void testChunksSplitLinesAsBufferedReader() throws IOException {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50; i++) {
+            StringBuilder sb = new StringBuilder();
+            int lines = random.nextInt(100);
+
+            for (int j = 0; j < lines; j++) {
+                sb.append(randomLine(random));
+
+                if (j < lines - 1 || random.nextBoolean())
+                    sb.append(TERMINATORS[random.nextInt(TERMINATORS.length)]);
+            }
+
+            String log = sb.toString();
+            List<String> exp = new BufferedReader(new StringReader(log)).lines().collect(Collectors.toList());
+
+            for (int chunkChars : new int[] {1, 2, 7, 64, LogChunkReader.DFLT_CHUNK_CHARS}) {
+                List<String> lineList = new ArrayList<>();
+                LogIgniteSpecific specific = new LogIgniteSpecific();
+
+                ILineHandler hnd = new ILineHandler() {
+                    @Override public void accept(String line, File file) {
+                        lineList.add(line);
+                    }
+
+                    @Override public void accept(LogLine line, File file) {
+                        assertEquals(specific.lineFlags(line.toString()), line.flags());
+
+                        accept(line.toString(), file);
+                    }
+
+                    @Override public void close() {
+                    }
+                };
+
+                new BuildLogStreamChecker(specific, hnd)
+                    .chunkChars(chunkChars)
+                    .apply(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), new File("log.zip"));
+
+                assertEquals("Chunk " + chunkChars + " for log [" + log + "]", exp, lineList);
+            }
+        }
+    }
+
+    /**
+     * @param random Random.
+     * @return Line of random fragments.
+     */
+    private static String randomLine(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int fragments = random.nextInt(6);
+
+        for (int i = 0; i < fragments; i++)
+            sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks history patched by {@link SuiteHistory#addOrReplace(SuiteInvocation)} is same as rebuilt history.
+ */
+public class SuiteHistoryTest {
+    /** Tests count. */
+    public static final int TESTS = 50;
+
+    @Test
+    public void testAppendAndInsertSameAsRebuild() {
+        Random random = new Random(42);
+        Map<Integer, SuiteInvocation> all = new HashMap<>();
+        List<Integer> buildIds = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            int buildId = 1000 + i * 3;
+
+            buildIds.add(buildId);
+            all.put(buildId, suiteInvocation(buildId, random));
+        }
+
+        Map<Integer, SuiteInvocation> initial = new HashMap<>();
+        buildIds.subList(0, 10).forEach(id -> initial.put(id, all.get(id)));
+
+        SuiteHistory patched = new SuiteHistory(initial);
+
+        List<Integer> rest = new ArrayList<>(buildIds.subList(10, buildIds.size()));
+
+        // Mostly appends, but some builds finish out of order.
+        Collections.swap(rest, 3, 17);
+        Collections.swap(rest, 40, 41);
+
+        rest.forEach(id -> patched.addOrReplace(all.get(id)));
+
+        // Re-run of build changes statuses.
+        int replacedId = buildIds.get(50);
+        SuiteInvocation replaced = suiteInvocation(replacedId, random);
+        all.put(replacedId, replaced);
+        patched.addOrReplace(replaced);
+
+        SuiteHistory rebuilt = new SuiteHistory(all);
+
+        assertEquals(rebuilt.size(), patched.size());
+        assertEquals(rebuilt.self().getLatestRunResults(), patched.self().getLatestRunResults());
+
+        for (int tName = 0; tName < TESTS; tName++) {
+            IRunHistory exp = rebuilt.getTestRunHist(tName);
+            IRunHistory act = patched.getTestRunHist(tName);
+
+            if (exp == null) {
+                assertNull(act);
+
+                continue;
+            }
+
+            assertEquals(exp.getLatestRunResults(), act.getLatestRunResults());
+            assertEquals(exp.getFailuresCount(), act.getFailuresCount());
+            assertEquals(exp.getRunsCount(), act.getRunsCount());
+            assertStatsEqual(exp, act);
+
+            // Statistics maintained by history are same as computed by full scan of invocations.
+            RunHistCompacted scanned = new RunHistCompacted();
+            ((AbstractRunHist)act).invocations().forEach(scanned::addInvocation);
+
+            assertStatsEqual(scanned, act);
+        }
+    }
+
+    @Test
+    public void testStatsUpdatedOnAppend() {
+        Map<Integer, SuiteInvocation> initial = new HashMap<>();
+        initial.put(1, suiteInvocation(1, false, InvocationData.OK));
+        initial.put(2, suiteInvocation(2, false, InvocationData.FAILURE));
+
+        SuiteHistory hist = new SuiteHistory(initial);
+
+        IRunHistory t = hist.getTestRunHist(0);
+        assertEquals(2, t.getRunsCount());
+        assertEquals(1, t.getFailuresCount());
+        assertEquals(Integer.valueOf(2), t.getLatestStatusChangeBuildId());
+        assertEquals(Integer.valueOf(2), t.getFirstFailureBuildId());
+
+        hist.addOrReplace(suiteInvocation(3, false, InvocationData.CRITICAL_FAILURE));
+        hist.addOrReplace(suiteInvocation(4, true, InvocationData.OK));
+        hist.addOrReplace(suiteInvocation(5, false, InvocationData.FAILURE));
+        hist.addOrReplace(suiteInvocation(6, false, InvocationData.FAILURE));
+
+        t = hist.getTestRunHist(0);
+        assertEquals(6, t.getRunsCount());
+        assertEquals(4, t.getFailuresCount());
+        assertEquals(1, t.getCriticalFailuresCount());
+        assertEquals(Integer.valueOf(5), t.getLatestStatusChangeBuildId());
+        assertEquals(Integer.valueOf(5), t.getFirstFailureBuildId());
+
+        // Status change in build 4 is caused by code modification, so it is not counted for flakiness.
+        assertEquals(3, ((AbstractRunHist)t).getStatusChangesWithoutCodeModification());
+
+        hist.addOrReplace(suiteInvocation(7, false, InvocationData.OK));
+
+        assertNull(hist.getTestRunHist(0).getFirstFailureBuildId());
+    }
+
+    /**
+     * @param exp Expected.
+     * @param act Actual.
+     */
+    private static void assertStatsEqual(IRunHistory exp, IRunHistory act) {
+        assertEquals(exp.getFailuresCount(), act.getFailuresCount());
+        assertEquals(exp.getRunsCount(), act.getRunsCount());
+        assertEquals(exp.getCriticalFailuresCount(), act.getCriticalFailuresCount());
+        assertEquals(((AbstractRunHist)exp).getStatusChangesWithoutCodeModification(),
+            ((AbstractRunHist)act).getStatusChangesWithoutCodeModification());
+        assertEquals(exp.getLatestStatusChangeBuildId(), act.getLatestStatusChangeBuildId());
+        assertEquals(exp.getFirstFailureBuildId(), act.getFirstFailureBuildId());
+        assertEquals(exp.getFlakyComments(), act.getFlakyComments());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByAppend() {
+        Random random = new Random(7);
+        Map<Integer, SuiteInvocation> initial = new HashMap<>();
+        initial.put(1, suiteInvocation(1, random));
+
+        SuiteHistory hist = new SuiteHistory(initial);
+        IRunHistory before = hist.getTestRunHist(0);
+
+        hist.addOrReplace(suiteInvocation(2, random));
+
+        assertEquals(1, before.getLatestRunResults().size());
+        assertEquals(2, hist.getTestRunHist(0).getLatestRunResults().size());
+        assertTrue(hist.contains(2));
+        assertFalse(hist.contains(3));
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByReplace() {
+        Map<Integer, SuiteInvocation> initial = new HashMap<>();
+        initial.put(1, suiteInvocation(1, false, InvocationData.OK));
+
+        SuiteHistory hist = new SuiteHistory(initial);
+        IRunHistory before = hist.getTestRunHist(0);
+        List<Integer> beforeResults = before.getLatestRunResults();
+
+        hist.addOrReplace(suiteInvocation(1, false, InvocationData.FAILURE));
+
+        assertEquals(beforeResults, before.getLatestRunResults());
+        assertEquals(0, before.getFailuresCount());
+        assertNotEquals(beforeResults, hist.getTestRunHist(0).getLatestRunResults());
+        assertEquals(1, hist.getTestRunHist(0).getFailuresCount());
+    }
+
+    @Test
+    public void testPackedTestsSortedAndLastDuplicateKept() {
+        int[] names = {Integer.MAX_VALUE, 7, -3, 100_000, 7, 0};
+        Invocation[] invocations = new Invocation[names.length];
+
+        for (int i = 0; i < names.length; i++)
+            invocations[i] = new Invocation(1).withStatus(i);
+
+        invocations[1].withChanges(new int[] {1});
+
+        SuiteInvocation inv = new SuiteInvocation(1, 2, 3, new Invocation(1), 1L);
+        inv.setTests(names, invocations);
+
+        List<Integer> actNames = new ArrayList<>();
+        List<Integer> actStatuses = new ArrayList<>();
+
+        inv.forEachTest((tName, code) -> {
+            actNames.add(tName);
+            actStatuses.add((int)SuiteTestsCodec.status(code));
+
+            if (tName == 7)
+                assertEquals(Invocation.CHANGE_NOT_FILLED, SuiteTestsCodec.changePresent(code));
+        });
+
+        assertEquals(5, inv.testsCount());
+        assertEquals(Arrays.asList(-3, 0, 7, 100_000, Integer.MAX_VALUE), actNames);
+        assertEquals(Arrays.asList(2, 5, 4, 3, 0), actStatuses);
+    }
+
+    /**
+     * @param buildId Build id.
+     * @param random Random.
+     */
+    public static SuiteInvocation suiteInvocation(int buildId, Random random) {
+        int[] changes = random.nextInt(5) == 0 ? new int[] {buildId} : new int[0];
+        Invocation suite = new Invocation(buildId).withStatus(InvocationData.OK).withChanges(changes);
+        SuiteInvocation inv = new SuiteInvocation(1, 2, 3, suite, (long)buildId);
+
+        int[] names = new int[TESTS];
+        Invocation[] invocations = new Invocation[TESTS];
+        int cnt = 0;
+
+        // Test 0 is always present, others may be missing.
+        for (int tName = 0; tName < TESTS; tName++) {
+            if (tName > 0 && random.nextInt(10) == 0)
+                continue;
+
+            int rnd = random.nextInt(20);
+            int status = rnd == 0 ? InvocationData.CRITICAL_FAILURE : rnd < 3 ? InvocationData.FAILURE : InvocationData.OK;
+
+            names[cnt] = tName;
+            invocations[cnt++] = new Invocation(buildId).withStatus(status);
+        }
+
+        inv.setTests(Arrays.copyOf(names, cnt), Arrays.copyOf(invocations, cnt));
+
+        return inv;
+    }
+
+    /**
+     * @param buildId Build id.
+     * @param changes Build contains changes.
+     * @param status Status of test 0, the only test in the suite.
+     */
+    private static SuiteInvocation suiteInvocation(int buildId, boolean changes, int status) {
+        Invocation suite = new Invocation(buildId).withStatus(InvocationData.OK)
+            .withChanges(changes ? new int[] {buildId} : new int[0]);
+        SuiteInvocation inv = new SuiteInvocation(1, 2, 3, suite, (long)buildId);
+
+        inv.setTests(new int[] {0}, new Invocation[] {new Invocation(buildId).withStatus(status)});
+
+        return inv;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.history;
+
+import com.google.inject.Guice;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.ci.teamcity.ignited.runhist.Invocation;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.apache.ignite.tcignited.buildref.BuildRefDao;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.ignite.tcignited.history.SuiteInvocationHistoryDao.SUITE_HIST_CACHE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that {@link SuiteInvocationHistoryDao} reads entries saved with tests map, saves them back in columnar format,
+ * and that {@link SuiteInvocationHistoryDao#migrateToColumnar(Ignite, int)} converts remaining entries.
+ */
+public class SuiteInvocationHistoryDaoTest {
+    /** Discovery port, differs from ports of other test nodes. */
+    private static final int DISCOVERY_PORT = 47540;
+
+    /** Server ID. */
+    private static final int SRV_ID = 1;
+
+    /** Build type ID. */
+    private static final int BUILD_TYPE_ID = 10;
+
+    /** Normalized branch name. */
+    private static final int BRANCH = 20;
+
+    /** Ignite. */
+    private static Ignite ignite;
+
+    /** Dao. */
+    private SuiteInvocationHistoryDao dao;
+
+    @BeforeClass
+    public static void startIgnite() {
+        TcpDiscoverySpi spi = new TcpDiscoverySpi();
+
+        spi.setLocalPort(DISCOVERY_PORT);
+        spi.setLocalPortRange(1);
+        spi.setIpFinder(new TcpDiscoveryVmIpFinder()
+            .setAddresses(Collections.singletonList("127.0.0.1:" + DISCOVERY_PORT)));
+
+        ignite = Ignition.start(new IgniteConfiguration()
+            .setIgniteInstanceName(SuiteInvocationHistoryDaoTest.class.getSimpleName())
+            .setDiscoverySpi(spi));
+    }
+
+    @AfterClass
+    public static void stopIgnite() {
+        if (ignite != null)
+            ignite.close();
+    }
+
+    @Before
+    public void initDao() {
+        dao = Guice.createInjector(binder -> binder.bind(Ignite.class).toInstance(ignite))
+            .getInstance(SuiteInvocationHistoryDao.class);
+
+        dao.init();
+
+        ignite.cache(SUITE_HIST_CACHE_NAME).clear();
+    }
+
+    @Test
+    public void testOldFormatIsReadAndSavedBack() throws Exception {
+        IgniteCache<Long, SuiteInvocation> cache = ignite.cache(SUITE_HIST_CACHE_NAME);
+
+        cache.put(key(100), oldFormat(100, InvocationData.OK, InvocationData.FAILURE));
+        cache.put(key(101), oldFormat(101, InvocationData.FAILURE, InvocationData.OK));
+
+        SuiteInvocation latest = new SuiteInvocation(SRV_ID, BUILD_TYPE_ID, BRANCH, suite(102), 102L);
+        latest.setTests(new int[] {0, 1}, new Invocation[] {
+            new Invocation(102).withStatus(InvocationData.OK),
+            new Invocation(102).withStatus(InvocationData.OK)});
+
+        dao.putAll(SRV_ID, Collections.singletonMap(102, latest));
+
+        Map<Integer, SuiteInvocation> hist = dao.getSuiteRunHist(SRV_ID, BUILD_TYPE_ID, BRANCH);
+
+        assertEquals(3, hist.size());
+        assertTests(hist.get(100), InvocationData.OK, InvocationData.FAILURE);
+        assertTests(hist.get(101), InvocationData.FAILURE, InvocationData.OK);
+        assertTests(hist.get(102), InvocationData.OK, InvocationData.OK);
+        assertEquals(101, hist.get(101).suiteInvocation().buildId());
+
+        // Entries read in old format were saved back in columnar format.
+        assertColumnar(key(100));
+        assertColumnar(key(101));
+
+        assertEquals(0, SuiteInvocationHistoryDao.migrateToColumnar(ignite, 300));
+        assertEquals(hist.keySet(), dao.getSuiteRunHist(SRV_ID, BUILD_TYPE_ID, BRANCH).keySet());
+    }
+
+    @Test
+    public void testMigrateToColumnar() throws Exception {
+        IgniteCache<Long, SuiteInvocation> cache = ignite.cache(SUITE_HIST_CACHE_NAME);
+        int builds = 1000;
+
+        for (int buildId = 0; buildId < builds; buildId++) {
+            int status = buildId % 2 == 0 ? InvocationData.OK : InvocationData.FAILURE;
+
+            cache.put(key(buildId), oldFormat(buildId, status, InvocationData.OK));
+        }
+
+        assertEquals(builds, SuiteInvocationHistoryDao.migrateToColumnar(ignite, 300));
+
+        for (int buildId = 0; buildId < builds; buildId++)
+            assertColumnar(key(buildId));
+
+        Map<Integer, SuiteInvocation> hist = dao.getSuiteRunHist(SRV_ID, BUILD_TYPE_ID, BRANCH);
+
+        assertEquals(builds, hist.size());
+
+        hist.forEach((buildId, inv) -> {
+            int status = buildId % 2 == 0 ? InvocationData.OK : InvocationData.FAILURE;
+
+            assertTests(inv, status, InvocationData.OK);
+        });
+
+        assertEquals(0, SuiteInvocationHistoryDao.migrateToColumnar(ignite, 300));
+    }
+
+    /**
+     * Creates invocation as it was saved in version 2: tests map and no packed tests.
+     *
+     * @param buildId Build ID.
+     * @param statuses Statuses of tests, test name ID is index of status.
+     */
+    private static SuiteInvocation oldFormat(int buildId, int... statuses) throws Exception {
+        SuiteInvocation inv = new SuiteInvocation(SRV_ID, BUILD_TYPE_ID, BRANCH, suite(buildId), (long)buildId);
+        Map<Integer, Invocation> tests = new HashMap<>();
+
+        for (int tName = 0; tName < statuses.length; tName++)
+            tests.put(tName, new Invocation(buildId).withStatus(statuses[tName]));
+
+        setField(inv, "_ver", (short)SuiteInvocation.TESTS_MAP_VERSION);
+        setField(inv, "tests", tests);
+        setField(inv, "testsPacked", null);
+
+        return inv;
+    }
+
+    /**
+     * @param inv Invocation.
+     * @param name Field name.
+     * @param val Value.
+     */
+    private static void setField(SuiteInvocation inv, String name, Object val) throws Exception {
+        Field field = SuiteInvocation.class.getDeclaredField(name);
+
+        field.setAccessible(true);
+        field.set(inv, val);
+    }
+
+    /**
+     * @param buildId Build ID.
+     */
+    private static Invocation suite(int buildId) {
+        return new Invocation(buildId).withStatus(InvocationData.OK);
+    }
+
+    /**
+     * @param buildId Build ID.
+     */
+    private static long key(int buildId) {
+        return BuildRefDao.buildIdToCacheKey(SRV_ID, buildId);
+    }
+
+    /**
+     * @param inv Invocation.
+     * @param statuses Expected statuses of tests, test name ID is index of status.
+     */
+    private static void assertTests(SuiteInvocation inv, int... statuses) {
+        byte[] act = new byte[inv.testsCount()];
+
+        inv.forEachTest((tName, code) -> act[tName] = SuiteTestsCodec.status(code));
+
+        assertEquals(statuses.length, act.length);
+
+        for (int i = 0; i < statuses.length; i++)
+            assertEquals(statuses[i], act[i]);
+    }
+
+    /**
+     * @param key Cache key.
+     */
+    private static void assertColumnar(long key) {
+        BinaryObject saved = ignite.cache(SUITE_HIST_CACHE_NAME).<Long, BinaryObject>withKeepBinary().get(key);
+
+        assertEquals(Short.valueOf((short)3), saved.<Short>field("_ver"));
+        assertNull(saved.field("tests"));
+        assertEquals(2, SuiteTestsCodec.count(saved.field(SuiteInvocation.TESTS_PACKED)));
+    }
+}
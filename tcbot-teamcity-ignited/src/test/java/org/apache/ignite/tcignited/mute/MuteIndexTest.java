@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcignited.mute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.ignite.ci.teamcity.ignited.mute.MuteInfoCompacted;
+import org.apache.ignite.tcbot.persistence.IStringCompactor;
+import org.apache.ignite.tcbot.persistence.InMemoryStringCompactor;
+import org.apache.ignite.tcservice.model.conf.BuildType;
+import org.apache.ignite.tcservice.model.conf.Project;
+import org.apache.ignite.tcservice.model.mute.MuteAssignment;
+import org.apache.ignite.tcservice.model.mute.MuteInfo;
+import org.apache.ignite.tcservice.model.mute.MuteScope;
+import org.apache.ignite.tcservice.model.mute.MuteTarget;
+import org.apache.ignite.tcservice.model.result.tests.TestRef;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks {@link MuteIndex} after mutes are added, replaced and removed.
+ */
+public class MuteIndexTest {
+    /** Server ID. */
+    private static final int SRV_ID = 1;
+
+    /** Other server ID. */
+    private static final int OTHER_SRV_ID = 2;
+
+    @Test
+    public void testPutReplaceAndRemove() {
+        IStringCompactor c = new InMemoryStringCompactor();
+        MuteIndex idx = new MuteIndex();
+
+        idx.put(SRV_ID, new MuteInfoCompacted(mute(2, null, "Project1_Bt1", "test3"), c));
+        idx.put(SRV_ID, new MuteInfoCompacted(mute(1, "Project1", null, "test1", "test2"), c));
+        idx.put(OTHER_SRV_ID, new MuteInfoCompacted(mute(3, "Project1", null, "test4"), c));
+
+        assertEquals(Arrays.asList(1, 2), ids(idx, SRV_ID));
+        assertEquals(Collections.singletonList(3), ids(idx, OTHER_SRV_ID));
+
+        // New version of mute replaces the previous one.
+        idx.put(SRV_ID, new MuteInfoCompacted(mute(1, "Project1", null, "test2"), c));
+
+        MuteInfoCompacted replaced = idx.mutes(SRV_ID).iterator().next();
+
+        assertEquals(1, replaced.testNames().length);
+        assertEquals(c.getStringId("test2"), replaced.testNames()[0]);
+
+        assertTrue(idx.remove(SRV_ID, 2));
+        assertFalse(idx.remove(SRV_ID, 2));
+        assertFalse(idx.remove(3, 1));
+
+        assertEquals(Collections.singletonList(1), ids(idx, SRV_ID));
+        assertTrue(idx.mutes(3).isEmpty());
+    }
+
+    @Test
+    public void testIdsAfter() {
+        IStringCompactor c = new InMemoryStringCompactor();
+        MuteIndex idx = new MuteIndex();
+
+        for (int id : new int[] {10, 5, 30, 20})
+            idx.put(SRV_ID, new MuteInfoCompacted(mute(id, "Project1", null, "test" + id), c));
+
+        idx.put(OTHER_SRV_ID, new MuteInfoCompacted(mute(40, "Project1", null, "test40"), c));
+
+        assertEquals(Arrays.asList(20, 30), idx.idsAfter(SRV_ID, 10));
+        assertEquals(Collections.emptyList(), idx.idsAfter(SRV_ID, 30));
+        assertEquals(Collections.emptyList(), idx.idsAfter(3, 0));
+    }
+
+    /**
+     * @param idx Index.
+     * @param srvId Server ID.
+     * @return IDs of server mutes in index order.
+     */
+    private static List<Integer> ids(MuteIndex idx, int srvId) {
+        return idx.mutes(srvId).stream().map(MuteInfoCompacted::id).collect(Collectors.toList());
+    }
+
+    /**
+     * @param id Mute ID.
+     * @param projectId Project ID, if mute has project scope.
+     * @param buildTypeId Build type ID, if mute has build type scope.
+     * @param tests Names of muted tests.
+     */
+    public static MuteInfo mute(int id, String projectId, String buildTypeId, String... tests) {
+        MuteInfo mute = new MuteInfo();
+
+        mute.id = id;
+
+        mute.assignment = new MuteAssignment();
+        mute.assignment.muteDate = "20171215T185123+0300";
+        mute.assignment.text = "https://issues.apache.org/jira/browse/IGNITE-" + id;
+
+        mute.scope = new MuteScope();
+
+        if (projectId != null) {
+            mute.scope.project = new Project();
+            mute.scope.project.id = projectId;
+            mute.scope.project.name(projectId);
+        }
+
+        if (buildTypeId != null) {
+            BuildType bt = new BuildType();
+
+            bt.setId(buildTypeId);
+            bt.setName(buildTypeId);
+
+            mute.scope.buildTypes = Collections.singletonList(bt);
+        }
+
+        mute.target = new MuteTarget();
+        mute.target.tests = new ArrayList<>();
+
+        for (int i = 0; i < tests.length; i++) {
+            TestRef test = new TestRef();
+
+            test.id = String.valueOf(id * 100L + i);
+            test.name = tests[i];
+
+            mute.target.tests.add(test);
+        }
+
+        return mute;
+    }
+}
@@ -21,10 +21,14 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -40,6 +44,7 @@ import org.apache.ignite.tcservice.model.mute.MuteInfo;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.apache.ignite.tcbot.common.exeption.ServiceConflictException;
 import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
@@ -56,6 +61,9 @@ import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
  * <li>{@link UncheckedIOException} in case communication failed.</ul>
  */
 public interface ITeamcityConn {
+    /** Maximum count of changes to be requested by {@link #getChanges(Collection)}, fits into default TC page. */
+    public static final int MAX_CHANGES_PER_REQUEST = 100;
+
     /**
      * @return Internal server ID as string
      */
@@ -87,6 +95,14 @@ public interface ITeamcityConn {
      */
     public List<BuildRef> getBuildRefsPage(String fullUrl, AtomicReference<String> nextPage);
 
+    /**
+     * @param sinceBuildId Build ID, only builds started after this build are returned.
+     * @param fullUrl Full url of next page, null for first page.
+     * @param nextPage Next page.
+     */
+    public List<BuildRef> getBuildRefsPageSince(int sinceBuildId, @Nullable String fullUrl,
+        AtomicReference<String> nextPage);
+
     /**
      * @param buildTypeId Build type id.
      * @param fullUrl Full url.
@@ -103,6 +119,25 @@ public interface ITeamcityConn {
      */
     public TestOccurrencesFull getTestsPage(int buildId, @Nullable String href, boolean testDtls);
 
+    /**
+     * Streaming version of {@link #getTestsPage(int, String, boolean)}: tests are passed to consumer one by one.
+     * Default implementation loads whole page first.
+     *
+     * @param buildId Build id.
+     * @param href Href. Null activates first page loaded.
+     * @param testDtls Query test details.
+     * @param consumer Consumer of each test occurrence in the page.
+     * @return Href of next page, or null if this page is the last one.
+     */
+    @Nullable public default String streamTestsPage(int buildId, @Nullable String href, boolean testDtls,
+        Consumer<TestOccurrenceFull> consumer) {
+        TestOccurrencesFull page = getTestsPage(buildId, href, testDtls);
+
+        page.getTests().forEach(consumer);
+
+        return page.nextHref();
+    }
+
     /**
      * Trigger build.
      * @param buildTypeId Build type (suite) identifier.
@@ -137,6 +172,53 @@ public interface ITeamcityConn {
      */
     public ChangesList getChangesList(int buildId);
 
+    /**
+     * Asynchronous version of {@link #getProblems(int)}. Default implementation loads data in the caller thread.
+     *
+     * @param buildId Build id.
+     * @return Future, completed exceptionally in case loading failed, see details in {@link ITeamcityConn}.
+     */
+    public default CompletableFuture<ProblemOccurrences> getProblemsAsync(int buildId) {
+        return completed(() -> getProblems(buildId));
+    }
+
+    /**
+     * Asynchronous version of {@link #getStatistics(int)}. Default implementation loads data in the caller thread.
+     *
+     * @param buildId Build id.
+     * @return Future, completed exceptionally in case loading failed, see details in {@link ITeamcityConn}.
+     */
+    public default CompletableFuture<Statistics> getStatisticsAsync(int buildId) {
+        return completed(() -> getStatistics(buildId));
+    }
+
+    /**
+     * Asynchronous version of {@link #getChangesList(int)}. Default implementation loads data in the caller thread.
+     *
+     * @param buildId Build id.
+     * @return Future, completed exceptionally in case loading failed, see details in {@link ITeamcityConn}.
+     */
+    public default CompletableFuture<ChangesList> getChangesListAsync(int buildId) {
+        return completed(() -> getChangesList(buildId));
+    }
+
+    /**
+     * @param supplier Supplier to be called in the current thread.
+     * @return Future completed with result of supplier.
+     */
+    public static <T> CompletableFuture<T> completed(Supplier<T> supplier) {
+        CompletableFuture<T> fut = new CompletableFuture<>();
+
+        try {
+            fut.complete(supplier.get());
+        }
+        catch (RuntimeException e) {
+            fut.completeExceptionally(e);
+        }
+
+        return fut;
+    }
+
     /**
      * @param changeId Change id.
      *
@@ -144,6 +226,15 @@ public interface ITeamcityConn {
      */
     public Change getChange(int changeId);
 
+    /**
+     * Loads several changes by one request. Changes which are not known to the server are absent in the result.
+     *
+     * @param changeIds Change IDs, count should not exceed {@link #MAX_CHANGES_PER_REQUEST}.
+     *
+     * @throws RuntimeException in case loading failed, see details in {@link ITeamcityConn}.
+     */
+    public List<Change> getChanges(Collection<Integer> changeIds);
+
     /**
      * List of project suites.
      *
@@ -19,8 +19,9 @@ package org.apache.ignite.tcservice;
 import com.google.inject.AbstractModule;
 import com.google.inject.internal.SingletonScope;
 import org.apache.ignite.tcservice.http.ITeamcityHttpConnection;
+import org.apache.ignite.tcservice.http.TeamcityHttpLatencies;
+import org.apache.ignite.tcservice.http.TeamcityPooledConnection;
 import org.apache.ignite.tcservice.http.TeamcityRecorder;
-import org.apache.ignite.tcservice.http.TeamcityRecordingConnection;
 import org.apache.ignite.tcservice.login.ITcLogin;
 import org.apache.ignite.tcservice.login.TcLoginImpl;
 
@@ -35,9 +36,10 @@ public class TcRealConnectionModule extends AbstractModule {
         if (conn != null)
             bind(ITeamcityHttpConnection.class).toInstance(conn);
         else
-            bind(ITeamcityHttpConnection.class).to(TeamcityRecordingConnection.class);
+            bind(ITeamcityHttpConnection.class).to(TeamcityPooledConnection.class).in(new SingletonScope());
 
         bind(TeamcityRecorder.class).in(new SingletonScope());
+        bind(TeamcityHttpLatencies.class).in(new SingletonScope());
         bind(ITcLogin.class).to(TcLoginImpl.class).in(new SingletonScope());
     }
 
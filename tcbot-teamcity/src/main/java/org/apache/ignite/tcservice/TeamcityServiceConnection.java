@@ -17,6 +17,7 @@
 
 package org.apache.ignite.tcservice;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
 import org.apache.ignite.tcbot.common.conf.IDataSourcesConfigSupplier;
@@ -30,6 +31,7 @@ import org.apache.ignite.tcservice.model.agent.Agent;
 import org.apache.ignite.tcservice.model.agent.AgentsRef;
 import org.apache.ignite.tcservice.model.changes.Change;
 import org.apache.ignite.tcservice.model.changes.ChangesList;
+import org.apache.ignite.tcservice.model.changes.ChangesListFull;
 import org.apache.ignite.tcservice.model.conf.BuildType;
 import org.apache.ignite.tcservice.model.conf.Project;
 import org.apache.ignite.tcservice.model.conf.ProjectsList;
@@ -41,9 +43,11 @@ import org.apache.ignite.tcservice.model.mute.Mutes;
 import org.apache.ignite.tcservice.model.result.Build;
 import org.apache.ignite.tcservice.model.result.problems.ProblemOccurrences;
 import org.apache.ignite.tcservice.model.result.stat.Statistics;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
 import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
 import org.apache.ignite.tcservice.model.user.User;
 import org.apache.ignite.tcservice.model.user.Users;
+import org.apache.ignite.tcservice.util.TestOccurrencesStreamParser;
 import org.apache.ignite.tcservice.util.XmlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,9 +56,12 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.concurrent.CompletableFuture.supplyAsync;
@@ -209,25 +216,59 @@ public class TeamcityServiceConnection implements ITeamcity {
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public ProblemOccurrences getProblems(int buildId) {
-        return getJaxbUsingHref("app/rest/latest/problemOccurrences" +
-                "?locator=build:(id:" + buildId + ")" +
-                "&fields=problemOccurrence(id,type,identity,href,details,build(id))", ProblemOccurrences.class);
+        return getJaxbUsingHref(problemsHref(buildId), ProblemOccurrences.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<ProblemOccurrences> getProblemsAsync(int buildId) {
+        return getJaxbUsingHrefAsync(problemsHref(buildId), ProblemOccurrences.class);
+    }
+
+    /**
+     * @param buildId Build id.
+     */
+    private static String problemsHref(int buildId) {
+        return "app/rest/latest/problemOccurrences" +
+            "?locator=build:(id:" + buildId + ")" +
+            "&fields=problemOccurrence(id,type,identity,href,details,build(id))";
     }
 
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public Statistics getStatistics(int buildId) {
-        return getJaxbUsingHref("app/rest/latest/builds/id:" + buildId + "/statistics", Statistics.class);
+        return getJaxbUsingHref(statisticsHref(buildId), Statistics.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Statistics> getStatisticsAsync(int buildId) {
+        return getJaxbUsingHrefAsync(statisticsHref(buildId), Statistics.class);
+    }
+
+    /**
+     * @param buildId Build id.
+     */
+    private static String statisticsHref(int buildId) {
+        return "app/rest/latest/builds/id:" + buildId + "/statistics";
     }
 
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public ChangesList getChangesList(int buildId) {
-        String href = "app/rest/latest/changes" +
-                "?locator=build:(id:" + + buildId +")" +
-                "&fields=change(id)";
+        return getJaxbUsingHref(changesListHref(buildId), ChangesList.class);
+    }
 
-        return getJaxbUsingHref(href, ChangesList.class);
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<ChangesList> getChangesListAsync(int buildId) {
+        return getJaxbUsingHrefAsync(changesListHref(buildId), ChangesList.class);
+    }
+
+    /**
+     * @param buildId Build id.
+     */
+    private static String changesListHref(int buildId) {
+        return "app/rest/latest/changes" +
+            "?locator=build:(id:" + buildId + ")" +
+            "&fields=change(id)";
     }
 
     /** {@inheritDoc} */
@@ -238,6 +279,26 @@ public class TeamcityServiceConnection implements ITeamcity {
         return getJaxbUsingHref(href, Change.class);
     }
 
+    /** {@inheritDoc} */
+    @AutoProfiling
+    @Override public List<Change> getChanges(Collection<Integer> changeIds) {
+        Preconditions.checkArgument(changeIds.size() <= MAX_CHANGES_PER_REQUEST,
+            "Too many changes requested: " + changeIds.size());
+
+        if (changeIds.isEmpty())
+            return Collections.emptyList();
+
+        String items = changeIds.stream()
+            .map(id -> "item:(id:" + id + ")")
+            .collect(Collectors.joining(","));
+
+        String href = "app/rest/latest/changes" +
+            "?locator=" + items +
+            "&fields=change(id,version,username,date,webUrl,href,comment,user(id,username,name,href))";
+
+        return getJaxbUsingHref(href, ChangesListFull.class).changes();
+    }
+
     /** {@inheritDoc} */
     @Override public List<Project> getProjects() {
         return sendGetXmlParseJaxb(host() + "app/rest/latest/projects", ProjectsList.class).projects();
@@ -260,7 +321,7 @@ public class TeamcityServiceConnection implements ITeamcity {
      */
     private <T> T sendGetXmlParseJaxb(String url, Class<T> rootElem) {
         try {
-            try (InputStream inputStream = teamcityHttpConn.sendGet(basicAuthTok, url)) {
+            try (InputStream inputStream = teamcityHttpConn.sendGet(config(), basicAuthTok, url)) {
                 final InputStreamReader reader = new InputStreamReader(inputStream);
 
                 return loadXml(rootElem, reader);
@@ -301,6 +362,27 @@ public class TeamcityServiceConnection implements ITeamcity {
         return sendGetXmlParseJaxb(host() + (href.startsWith("/") ? href.substring(1) : href), elem);
     }
 
+    /**
+     * @param href Href.
+     * @param elem Element class.
+     * @return Future completed when response is received and parsed, see details in {@link #sendGetXmlParseJaxb}.
+     */
+    private <T> CompletableFuture<T> getJaxbUsingHrefAsync(String href, Class<T> elem) {
+        String url = host() + (href.startsWith("/") ? href.substring(1) : href);
+
+        return teamcityHttpConn.sendGetAsync(config(), basicAuthTok, url).thenApply(is -> {
+            try (InputStream inputStream = is) {
+                return loadXml(elem, new InputStreamReader(inputStream));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (JAXBException e) {
+                throw ExceptionUtil.propagateException(e);
+            }
+        });
+    }
+
     /** {@inheritDoc} */
     @Override public String serverCode() {
         return srvCode;
@@ -342,6 +424,15 @@ public class TeamcityServiceConnection implements ITeamcity {
         return builds.getBuildsNonNull();
     }
 
+    /** {@inheritDoc} */
+    @AutoProfiling
+    @Override public List<BuildRef> getBuildRefsPageSince(int sinceBuildId, @Nullable String fullUrl,
+        AtomicReference<String> outNextPage) {
+        String relPath = "app/rest/latest/builds?locator=defaultFilter:false,sinceBuild:(id:" + sinceBuildId + ")";
+
+        return getBuildRefsPage(Strings.isNullOrEmpty(fullUrl) ? relPath : fullUrl, outNextPage);
+    }
+
     /** {@inheritDoc} */
     @Override public SortedSet<MuteInfo> getMutesPage(String buildTypeId, String fullUrl, AtomicReference<String> nextPage) {
         String relPath = "app/rest/mutes?locator=project:(id:" + buildTypeId + ')';
@@ -358,9 +449,35 @@ public class TeamcityServiceConnection implements ITeamcity {
     /** {@inheritDoc} */
     @AutoProfiling
     @Override public TestOccurrencesFull getTestsPage(int buildId, @Nullable String href, boolean testDtls) {
+        return sendGetXmlParseJaxb(testsPageUrl(buildId, href, testDtls), TestOccurrencesFull.class);
+    }
+
+    /** {@inheritDoc} */
+    @AutoProfiling
+    @Override public String streamTestsPage(int buildId, @Nullable String href, boolean testDtls,
+        Consumer<TestOccurrenceFull> consumer) {
+        String url = testsPageUrl(buildId, href, testDtls);
+
+        try (InputStream inputStream = teamcityHttpConn.sendGet(config(), basicAuthTok, url)) {
+            return TestOccurrencesStreamParser.parse(inputStream, consumer);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (XMLStreamException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+    }
+
+    /**
+     * @param buildId Build id.
+     * @param href Href. Null activates first page loaded.
+     * @param testDtls Query test details.
+     */
+    private String testsPageUrl(int buildId, @Nullable String href, boolean testDtls) {
         String relPathSelected = Strings.isNullOrEmpty(href) ? testsStartHref(buildId, testDtls) : href;
-        String url = host() + (relPathSelected.startsWith("/") ? relPathSelected.substring(1) : relPathSelected);
-        return sendGetXmlParseJaxb(url, TestOccurrencesFull.class);
+
+        return host() + (relPathSelected.startsWith("/") ? relPathSelected.substring(1) : relPathSelected);
     }
 
     /**
@@ -17,11 +17,15 @@
 
 package org.apache.ignite.tcservice.http;
 
+import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
 import org.apache.ignite.tcbot.common.exeption.ServiceConflictException;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
 
 public interface ITeamcityHttpConnection {
     /**
@@ -32,4 +36,45 @@ public interface ITeamcityHttpConnection {
      * @throws IllegalStateException if some unexpected HTTP error returned.
      */
     public InputStream sendGet(String basicAuthTok, String url) throws IOException;
+
+    /**
+     * Sends request applying connection settings of the server. Default implementation ignores config.
+     *
+     * @param cfg Config of server to apply connection settings, null if unknown.
+     * @param basicAuthTok Basic auth token.
+     * @param url Url.
+     * @throws FileNotFoundException If not found (404) was returned from service.
+     * @throws ServiceConflictException If conflict (409) was returned from service.
+     * @throws IllegalStateException if some unexpected HTTP error returned.
+     */
+    public default InputStream sendGet(@Nullable ITcServerConfig cfg, String basicAuthTok, String url)
+        throws IOException {
+        return sendGet(basicAuthTok, url);
+    }
+
+    /**
+     * Sends request asynchronously. Default implementation executes request in the caller thread.
+     *
+     * @param cfg Config of server to apply connection settings, null if unknown.
+     * @param basicAuthTok Basic auth token.
+     * @param url Url.
+     * @return Future with response body. Future is completed exceptionally with the same errors as {@link
+     * #sendGet(String, String)} throws, {@link IOException}s are wrapped into {@link UncheckedIOException}.
+     */
+    public default CompletableFuture<InputStream> sendGetAsync(@Nullable ITcServerConfig cfg, String basicAuthTok,
+        String url) {
+        CompletableFuture<InputStream> fut = new CompletableFuture<>();
+
+        try {
+            fut.complete(sendGet(basicAuthTok, url));
+        }
+        catch (IOException e) {
+            fut.completeExceptionally(new UncheckedIOException(e));
+        }
+        catch (RuntimeException e) {
+            fut.completeExceptionally(e);
+        }
+
+        return fut;
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcservice.http;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import org.apache.ignite.tcbot.common.util.LatencyHistogram;
+
+/**
+ * Latency histograms of TeamCity REST calls grouped by endpoint. Endpoint is URL path without host and query, with
+ * entity IDs replaced by <code>*</code>, e.g. <code>app/rest/latest/builds/id:*&#47;statistics</code>.
+ */
+public class TeamcityHttpLatencies {
+    /** Locator value pattern, e.g. id:12345 or id:IgniteTests24Java8_RunAll. */
+    private static final Pattern LOCATOR_VAL = Pattern.compile(":[^/]+");
+
+    /** Numeric path element. */
+    private static final Pattern NUMBER = Pattern.compile("/\\d+(?=/|$)");
+
+    /** Histograms by endpoint. */
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @param url Full URL.
+     * @param nanos Duration of request, nanoseconds.
+     */
+    public void record(String url, long nanos) {
+        histograms.computeIfAbsent(endpoint(url), k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * @return Histograms by endpoint.
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Clears all histograms.
+     */
+    public void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * @param url Full URL.
+     * @return Endpoint of URL.
+     */
+    public static String endpoint(String url) {
+        String path = url;
+
+        int qryIdx = path.indexOf('?');
+        if (qryIdx >= 0)
+            path = path.substring(0, qryIdx);
+
+        int schemeIdx = path.indexOf("://");
+        if (schemeIdx >= 0) {
+            int pathIdx = path.indexOf('/', schemeIdx + 3);
+
+            path = pathIdx >= 0 ? path.substring(pathIdx + 1) : "";
+        }
+
+        path = LOCATOR_VAL.matcher(path).replaceAll(":*");
+
+        return NUMBER.matcher(path).replaceAll("/*");
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcservice.http;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.apache.ignite.tcbot.common.conf.ITcServerConfig;
+import org.apache.ignite.tcbot.common.exeption.ExceptionUtil;
+import org.apache.ignite.tcbot.common.util.HttpUtil;
+
+/**
+ * TeamCity HTTP connection executing requests asynchronously on per-server pools. Pool size limits count of concurrent
+ * requests to one server, each server has own connect and read timeouts, see {@link ITcServerConfig}. Response body is
+ * read completely by pool thread, so underlying keep-alive connection is returned to JDK connection cache as soon as
+ * possible and may be reused by next request to the same server. Latencies are published to {@link
+ * TeamcityHttpLatencies}.
+ */
+public class TeamcityPooledConnection implements ITeamcityHttpConnection {
+    /** Recorder. */
+    @Inject private TeamcityRecorder recorder;
+
+    /** Latencies. */
+    @Inject private TeamcityHttpLatencies latencies;
+
+    /** Server pools by server address (scheme, host and port). */
+    private final ConcurrentMap<String, ServerPool> pools = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override public InputStream sendGet(String basicAuthTok, String url) throws IOException {
+        return sendGet(null, basicAuthTok, url);
+    }
+
+    /** {@inheritDoc} */
+    @Override public InputStream sendGet(@Nullable ITcServerConfig cfg, String basicAuthTok,
+        String url) throws IOException {
+        byte[] body;
+
+        try {
+            body = sendGetBody(cfg, basicAuthTok, url).get();
+        }
+        catch (InterruptedException e) {
+            throw ExceptionUtil.propagateException(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof UncheckedIOException)
+                throw ((UncheckedIOException)cause).getCause();
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            throw ExceptionUtil.propagateException(e);
+        }
+
+        // Recorder holds its lock until the stream is closed, so stream is wrapped in the thread reading it.
+        return recorder.onGet(new ByteArrayInputStream(body), url);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<InputStream> sendGetAsync(@Nullable ITcServerConfig cfg, String basicAuthTok,
+        String url) {
+        return sendGetBody(cfg, basicAuthTok, url).thenApply(body -> {
+            // Caller may read the stream in any thread, so response is recorded completely by the completing thread.
+            try (InputStream recorded = recorder.onGet(new ByteArrayInputStream(body), url)) {
+                ByteStreams.exhaust(recorded);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return new ByteArrayInputStream(body);
+        });
+    }
+
+    /**
+     * Sends request in server pool. Body is read completely by pool thread: this releases keep-alive connection
+     * right after response is received, applies server read timeout to the whole body, and makes recorded latency
+     * include body transfer. TeamCity responses are limited by paging, so keeping body in memory is affordable.
+     *
+     * @param cfg Server config, null if unknown.
+     * @param basicAuthTok Basic auth token.
+     * @param url Url.
+     * @return Future with response body.
+     */
+    private CompletableFuture<byte[]> sendGetBody(@Nullable ITcServerConfig cfg, String basicAuthTok, String url) {
+        ServerPool pool;
+
+        try {
+            pool = pool(cfg, url);
+        }
+        catch (IOException e) {
+            CompletableFuture<byte[]> fut = new CompletableFuture<>();
+
+            fut.completeExceptionally(new UncheckedIOException(e));
+
+            return fut;
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            Stopwatch started = Stopwatch.createStarted();
+
+            try (InputStream is = HttpUtil.sendGetWithBasicAuth(basicAuthTok, url, pool.connectTimeoutMs,
+                pool.readTimeoutMs)) {
+                byte[] body = ByteStreams.toByteArray(is);
+
+                latencies.record(url, started.elapsed(TimeUnit.NANOSECONDS));
+
+                return body;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool.executor);
+    }
+
+    /**
+     * @param cfg Server config, null if unknown.
+     * @param url Url.
+     * @return Pool for the server, created at first request.
+     */
+    private ServerPool pool(@Nullable ITcServerConfig cfg, String url) throws IOException {
+        URL parsed = new URL(url);
+        String addr = parsed.getProtocol() + "://" + parsed.getAuthority();
+
+        ServerPool pool = pools.computeIfAbsent(addr, ServerPool::new);
+
+        if (cfg != null)
+            pool.configure(cfg);
+
+        return pool;
+    }
+
+    /**
+     * Executor and timeouts for one server.
+     */
+    private static class ServerPool {
+        /** Executor, count of threads is count of concurrent requests. */
+        private final ThreadPoolExecutor executor;
+
+        /** Connect timeout, milliseconds. */
+        private volatile int connectTimeoutMs = HttpUtil.DFLT_TIMEOUT_MS;
+
+        /** Read timeout, milliseconds. */
+        private volatile int readTimeoutMs = HttpUtil.DFLT_TIMEOUT_MS;
+
+        /**
+         * @param addr Server address.
+         */
+        ServerPool(String addr) {
+            executor = new ThreadPoolExecutor(ITcServerConfig.DEFAULT_MAX_CONCURRENT_REQUESTS,
+                ITcServerConfig.DEFAULT_MAX_CONCURRENT_REQUESTS,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                    .setNameFormat("tc-http-" + addr.replaceAll("^.*://", "") + "-%d")
+                    .setDaemon(true)
+                    .build());
+
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        /**
+         * Applies server config, if it differs from current settings.
+         *
+         * @param cfg Server config.
+         */
+        void configure(ITcServerConfig cfg) {
+            connectTimeoutMs = positiveOrDefault(cfg.connectTimeoutMs(), HttpUtil.DFLT_TIMEOUT_MS);
+            readTimeoutMs = positiveOrDefault(cfg.readTimeoutMs(), HttpUtil.DFLT_TIMEOUT_MS);
+
+            int threads = positiveOrDefault(cfg.maxConcurrentRequests(),
+                ITcServerConfig.DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+            if (executor.getMaximumPoolSize() == threads)
+                return;
+
+            synchronized (this) {
+                // Core size can't exceed max size at any moment.
+                if (threads > executor.getMaximumPoolSize()) {
+                    executor.setMaximumPoolSize(threads);
+                    executor.setCorePoolSize(threads);
+                }
+                else {
+                    executor.setCorePoolSize(threads);
+                    executor.setMaximumPoolSize(threads);
+                }
+            }
+        }
+
+        /**
+         * @param val Value.
+         * @param dflt Default.
+         */
+        private static int positiveOrDefault(int val, int dflt) {
+            return val > 0 ? val : dflt;
+        }
+    }
+}
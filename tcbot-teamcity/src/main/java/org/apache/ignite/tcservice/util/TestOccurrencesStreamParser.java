@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.tcservice.util;
+
+import com.google.common.base.Strings;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.ignite.tcservice.model.hist.BuildRef;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrenceFull;
+import org.apache.ignite.tcservice.model.result.tests.TestOccurrencesFull;
+import org.apache.ignite.tcservice.model.result.tests.TestRef;
+
+/**
+ * Pull parser for test occurrences page, alternative to {@link XmlUtil#load} for {@link TestOccurrencesFull}. Reads
+ * <code>testOccurrence</code> elements one by one and passes each to consumer, so a page is never kept in memory as
+ * object graph, and strings are not interned: consumer is expected to convert occurrence to compacted form.
+ */
+public class TestOccurrencesStreamParser {
+    /** Test occurrences (page) element. */
+    private static final String TEST_OCCURRENCES = "testOccurrences";
+
+    /** Test occurrence element. */
+    private static final String TEST_OCCURRENCE = "testOccurrence";
+
+    /** Factory. */
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    /**
+     * @param is Input stream with page XML.
+     * @param consumer Consumer of each test occurrence in the page.
+     * @return Href of next page, or null if this page is the last one.
+     */
+    @Nullable public static String parse(InputStream is, Consumer<TestOccurrenceFull> consumer)
+        throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(is);
+
+        try {
+            String nextHref = null;
+            TestOccurrenceFull cur = null;
+            int depth = 0;
+
+            while (reader.hasNext()) {
+                int evt = reader.next();
+
+                if (evt == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+
+                    if (cur != null && depth == 1 && TEST_OCCURRENCE.equals(reader.getLocalName())) {
+                        consumer.accept(cur);
+
+                        cur = null;
+                    }
+
+                    continue;
+                }
+
+                if (evt != XMLStreamConstants.START_ELEMENT)
+                    continue;
+
+                depth++;
+
+                String elem = reader.getLocalName();
+
+                if (depth == 1 && TEST_OCCURRENCES.equals(elem))
+                    nextHref = attr(reader, "nextHref");
+                else if (depth == 2 && TEST_OCCURRENCE.equals(elem))
+                    cur = readOccurrence(reader);
+                else if (depth == 3 && cur != null) {
+                    switch (elem) {
+                        case "details":
+                            String details = reader.getElementText(); // moves reader to end of element
+
+                            cur.details = Strings.emptyToNull(details);
+
+                            depth--;
+
+                            break;
+
+                        case "test":
+                            TestRef test = new TestRef();
+
+                            test.id = attr(reader, "id");
+                            test.name = attr(reader, "name");
+
+                            cur.test = test;
+
+                            break;
+
+                        case "build":
+                            String buildId = attr(reader, "id");
+
+                            if (buildId != null) {
+                                BuildRef build = new BuildRef();
+
+                                build.setId(Integer.valueOf(buildId));
+
+                                cur.build = build;
+                            }
+
+                            break;
+
+                        default:
+                            // Ignore fields not used by the bot.
+                    }
+                }
+            }
+
+            return nextHref;
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @param reader Reader positioned at start of test occurrence element.
+     */
+    private static TestOccurrenceFull readOccurrence(XMLStreamReader reader) {
+        TestOccurrenceFull occurrence = new TestOccurrenceFull();
+
+        occurrence.setId(attr(reader, "id"));
+        occurrence.name = attr(reader, "name");
+        occurrence.status = attr(reader, "status");
+        occurrence.href = attr(reader, "href");
+
+        String duration = attr(reader, "duration");
+        occurrence.duration = duration == null ? null : Integer.valueOf(duration);
+
+        occurrence.muted = boolAttr(reader, "muted");
+        occurrence.currentlyMuted = boolAttr(reader, "currentlyMuted");
+        occurrence.currentlyInvestigated = boolAttr(reader, "currentlyInvestigated");
+        occurrence.ignored = boolAttr(reader, "ignored");
+
+        return occurrence;
+    }
+
+    /**
+     * @param reader Reader positioned at start of element.
+     * @param name Attribute name.
+     */
+    @Nullable private static String attr(XMLStreamReader reader, String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    /**
+     * @param reader Reader positioned at start of element.
+     * @param name Attribute name.
+     */
+    @Nullable private static Boolean boolAttr(XMLStreamReader reader, String name) {
+        String val = attr(reader, name);
+
+        return val == null ? null : Boolean.valueOf(val);
+    }
+
+    /**
+     * @return Factory not resolving DTDs and external entities.
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return factory;
+    }
+}